@@ -0,0 +1,86 @@
+package com.muzlik.pvpcombat.benchmark;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Minimal Bukkit stand-ins so benchmarks run without a server. Only the methods the
+ * measured code paths call are answered; everything else returns a zero value.
+ */
+final class BukkitStubs {
+
+    private BukkitStubs() {
+    }
+
+    /**
+     * Creates a player with a fixed id and name in the given world.
+     */
+    static Player player(UUID id, String name, World world) {
+        return proxy(Player.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> id;
+            case "getName", "getDisplayName" -> name;
+            case "getWorld" -> world;
+            case "getHealth" -> 20.0;
+            case "isOnline" -> true;
+            case "hashCode" -> id.hashCode();
+            case "equals" -> proxy == args[0];
+            case "toString" -> "StubPlayer{" + name + "}";
+            default -> zero(method.getReturnType());
+        });
+    }
+
+    /**
+     * Creates a player with a random id.
+     */
+    static Player player(String name, World world) {
+        return player(UUID.randomUUID(), name, world);
+    }
+
+    /**
+     * Creates a world with the given name.
+     */
+    static World world(String name) {
+        UUID id = UUID.randomUUID();
+        return proxy(World.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getUID" -> id;
+            case "getName" -> name;
+            case "hashCode" -> id.hashCode();
+            case "equals" -> proxy == args[0];
+            case "toString" -> "StubWorld{" + name + "}";
+            default -> zero(method.getReturnType());
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(BukkitStubs.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object zero(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return type == short.class ? (Object) (short) 0 : (Object) (byte) 0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.muzlik.pvpcombat.benchmark;
+
+import com.muzlik.pvpcombat.utils.CacheHandle;
+import com.muzlik.pvpcombat.utils.CacheManager;
+import com.muzlik.pvpcombat.utils.PlayerPairKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interference cache lookups as done on every damage event, with the typed pair keys
+ * used now and the concatenated string keys used before them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheManagerBenchmark {
+
+    // Kept below the cache's size bound so nothing is evicted during a run
+    @Param({"16", "512"})
+    public int pairs;
+
+    private CacheHandle<PlayerPairKey, Boolean> typed;
+    private CacheHandle<String, Object> stringKeyed;
+    private UUID[] attackers;
+    private UUID[] defenders;
+    private int next;
+
+    @Setup
+    public void setup() {
+        // The plugin is only consulted when an entry is evicted
+        CacheManager cacheManager = new CacheManager(null);
+        typed = cacheManager.interferenceData();
+        stringKeyed = cacheManager.createCache("string-keyed", 2000, 15, TimeUnit.MINUTES);
+
+        attackers = new UUID[pairs];
+        defenders = new UUID[pairs];
+        for (int i = 0; i < pairs; i++) {
+            attackers[i] = UUID.randomUUID();
+            defenders[i] = UUID.randomUUID();
+            typed.put(new PlayerPairKey(attackers[i], defenders[i]), Boolean.FALSE);
+            stringKeyed.put(attackers[i] + ":" + defenders[i], Boolean.FALSE);
+        }
+    }
+
+    private int nextPair() {
+        int pair = next;
+        next = (next + 1) % pairs;
+        return pair;
+    }
+
+    @Benchmark
+    public Boolean getPairKey() {
+        int pair = nextPair();
+        return typed.getIfPresent(new PlayerPairKey(attackers[pair], defenders[pair]));
+    }
+
+    @Benchmark
+    public void putPairKey() {
+        int pair = nextPair();
+        typed.put(new PlayerPairKey(attackers[pair], defenders[pair]), Boolean.TRUE);
+    }
+
+    @Benchmark
+    public Object getStringKey() {
+        int pair = nextPair();
+        return stringKeyed.getIfPresent(attackers[pair] + ":" + defenders[pair]);
+    }
+
+    @Benchmark
+    public void putStringKey() {
+        int pair = nextPair();
+        stringKeyed.put(attackers[pair] + ":" + defenders[pair], Boolean.TRUE);
+    }
+}
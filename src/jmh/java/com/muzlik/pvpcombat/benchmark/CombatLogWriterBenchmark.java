@@ -0,0 +1,101 @@
+package com.muzlik.pvpcombat.benchmark;
+
+import com.muzlik.pvpcombat.logging.CombatLogEntry;
+import com.muzlik.pvpcombat.logging.CombatLogWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Combat log line formatting and file appends, as done by the logger's drain task.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatLogWriterBenchmark {
+
+    // The logger drains at most this many entries per run
+    private static final int BATCH_SIZE = 100;
+
+    private Path directory;
+    private CombatLogWriter writer;
+    private CombatLogEntry entry;
+    private List<CombatLogEntry> batch;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("combat-log-bench");
+        writer = new CombatLogWriter(directory);
+
+        UUID sessionId = UUID.randomUUID();
+        UUID attacker = UUID.randomUUID();
+        UUID defender = UUID.randomUUID();
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new CombatLogEntry.Builder()
+                .sessionId(sessionId)
+                .playerId(i % 2 == 0 ? attacker : defender)
+                .targetId(i % 2 == 0 ? defender : attacker)
+                .eventType(CombatLogEntry.EventType.DAMAGE_DEALT)
+                .timestamp(LocalDateTime.now())
+                .damage(6.5)
+                .hitLanded(true)
+                .distance(2.8)
+                .weaponType("DIAMOND_SWORD")
+                .location("world,100,64,100")
+                .additionalData("critical=false")
+                .build());
+        }
+        entry = batch.get(0);
+    }
+
+    /**
+     * Starts every iteration from an empty file so appends do not grow without bound.
+     */
+    @Setup(Level.Iteration)
+    public void truncate() throws IOException {
+        Files.deleteIfExists(writer.getLogFile(entry.getTimestamp().toLocalDate()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public String format() {
+        return writer.format(entry);
+    }
+
+    @Benchmark
+    public void writeBatch() throws IOException {
+        writer.write(batch);
+    }
+}
@@ -0,0 +1,93 @@
+package com.muzlik.pvpcombat.benchmark;
+
+import com.muzlik.pvpcombat.data.CombatSession;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Damage recording and per-player lookups on a session, as done on every hit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatSessionBenchmark {
+
+    // 2 is a duel, larger values are team fight clusters
+    @Param({"2", "8"})
+    public int participants;
+
+    private CombatSession session;
+    private Player[] players;
+    private int next;
+
+    @Setup
+    public void setup() {
+        World world = BukkitStubs.world("world");
+        players = new Player[participants];
+        for (int i = 0; i < participants; i++) {
+            players[i] = BukkitStubs.player("Player" + i, world);
+        }
+        session = new CombatSession(UUID.randomUUID(), players[0], players[1], 30);
+        for (int i = 2; i < participants; i++) {
+            session.addParticipant(players[i]);
+        }
+        for (int i = 0; i < participants; i++) {
+            Player victim = players[(i + 1) % participants];
+            session.recordEngagement(players[i], victim);
+            session.recordDamage(players[i], victim, 1.0);
+        }
+    }
+
+    private Player nextPlayer() {
+        Player player = players[next];
+        next = (next + 1) % participants;
+        return player;
+    }
+
+    @Benchmark
+    public void recordDamage() {
+        Player damager = nextPlayer();
+        session.recordDamage(damager, players[next], 4.5);
+    }
+
+    @Benchmark
+    public void recordDamageToOpponent() {
+        session.recordDamage(nextPlayer(), 4.5);
+    }
+
+    @Benchmark
+    public void lookupTallies(Blackhole blackhole) {
+        Player player = nextPlayer();
+        blackhole.consume(session.getDamageDealt(player));
+        blackhole.consume(session.getDamageReceived(player));
+        blackhole.consume(session.getHitsLanded(player));
+    }
+
+    @Benchmark
+    public Player getOpponent() {
+        return session.getOpponent(nextPlayer());
+    }
+
+    @Benchmark
+    public boolean involvesPlayer() {
+        return session.involvesPlayer(nextPlayer());
+    }
+}
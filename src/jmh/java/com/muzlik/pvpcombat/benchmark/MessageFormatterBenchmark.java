@@ -0,0 +1,68 @@
+package com.muzlik.pvpcombat.benchmark;
+
+import com.muzlik.pvpcombat.visual.MessageFormatter;
+import com.muzlik.pvpcombat.visual.TemplateArgs;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Action bar style message formatting, the per-tick cost for every tagged player.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageFormatterBenchmark {
+
+    private static final String FORMAT = "&c[COMBAT] &fFighting &e{opponent} &f- &a{time_left}s &fremaining";
+    private static final String HEX_FORMAT = "&#FF5555Combat with &#FFFFFF{opponent} &#FF5555- {time_left}s";
+
+    private MessageFormatter formatter;
+    private Player player;
+    private Map<String, Object> placeholders;
+    private TemplateArgs args;
+
+    @Setup
+    public void setup() {
+        // The formatter only keeps the plugin reference, it never calls it
+        formatter = new MessageFormatter(null);
+        player = BukkitStubs.player("Attacker", BukkitStubs.world("world"));
+        placeholders = new HashMap<>();
+        placeholders.put("opponent", "Defender");
+        placeholders.put("time_left", 27);
+        args = new TemplateArgs();
+    }
+
+    @Benchmark
+    public String formatMessage() {
+        return formatter.formatMessage(FORMAT, player, placeholders);
+    }
+
+    @Benchmark
+    public String formatMessageHex() {
+        return formatter.formatMessage(HEX_FORMAT, player, placeholders);
+    }
+
+    @Benchmark
+    public String formatWithReusedArgs() {
+        args.clear()
+            .set(TemplateArgs.Key.OPPONENT, "Defender")
+            .set(TemplateArgs.Key.TIME_LEFT, 27);
+        return formatter.format(FORMAT, player, args);
+    }
+}
@@ -0,0 +1,56 @@
+package com.muzlik.pvpcombat.benchmark;
+
+import com.muzlik.pvpcombat.integration.crossserver.CombatSyncData;
+import com.muzlik.pvpcombat.integration.crossserver.SyncPacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-server sync packet encoding, done for every combat start, update and end.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncPacketBenchmark {
+
+    private SyncPacket packet;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        CombatSyncData data = new CombatSyncData(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+            "Attacker", "Defender", "survival-1", System.currentTimeMillis(), 27, true);
+        packet = new SyncPacket("combat:sync", SyncPacket.PacketType.COMBAT_UPDATE, data);
+        bytes = packet.serialize();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return packet.serialize();
+    }
+
+    @Benchmark
+    public SyncPacket deserialize() throws IOException {
+        return SyncPacket.deserialize(bytes);
+    }
+
+    @Benchmark
+    public SyncPacket roundTrip() throws IOException {
+        return SyncPacket.deserialize(packet.serialize());
+    }
+}
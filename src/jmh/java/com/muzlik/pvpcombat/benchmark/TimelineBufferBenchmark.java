@@ -0,0 +1,79 @@
+package com.muzlik.pvpcombat.benchmark;
+
+import com.muzlik.pvpcombat.data.ReplayEvent;
+import com.muzlik.pvpcombat.data.TimelineBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay timeline appends and window reads on a full buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimelineBufferBenchmark {
+
+    @Param({"256", "4096"})
+    public int capacity;
+
+    private TimelineBuffer buffer;
+    private ReplayEvent event;
+    private LocalDateTime windowStart;
+
+    @Setup
+    public void setup() {
+        buffer = new TimelineBuffer(capacity, 300);
+        UUID attacker = UUID.randomUUID();
+        UUID defender = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        // Spread the prefill over the last minute so a window read returns part of the buffer
+        for (int i = 0; i < capacity; i++) {
+            buffer.addEvent(event(attacker, defender, now.minusNanos((capacity - i) * (60_000_000_000L / capacity))));
+        }
+        event = event(attacker, defender, now);
+        windowStart = now.minusSeconds(10);
+    }
+
+    private static ReplayEvent event(UUID attacker, UUID defender, LocalDateTime timestamp) {
+        return new ReplayEvent.Builder()
+            .playerId(attacker)
+            .targetId(defender)
+            .eventType(ReplayEvent.ReplayEventType.DAMAGE_DEALT)
+            .timestamp(timestamp)
+            .damage(6.0)
+            .weaponType("DIAMOND_SWORD")
+            .location("world,100,64,100")
+            .build();
+    }
+
+    @Benchmark
+    public void addEvent() {
+        buffer.addEvent(event);
+    }
+
+    @Benchmark
+    public ReplayEvent[] getEventsInWindow() {
+        return buffer.getEventsInWindow(windowStart);
+    }
+
+    @Benchmark
+    public ReplayEvent[] getRecentEvents() {
+        return buffer.getRecentEvents(50);
+    }
+}
@@ -0,0 +1,44 @@
+package com.muzlik.pvpcombat.loadsim;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.bukkit.Location;
+
+import java.util.List;
+
+/**
+ * Produces the hits and moves the simulator applies on each tick.
+ */
+interface HitSource {
+
+    /**
+     * A melee hit; the attacker is moved to the given location first unless it is null.
+     */
+    record Hit(PlayerMock attacker, PlayerMock defender, double damage, Location attackerLocation) {
+    }
+
+    /**
+     * A player move, fired as a regular move event.
+     */
+    record Move(PlayerMock player, Location to) {
+    }
+
+    /**
+     * Adds the hits and moves due on a tick.
+     */
+    void collect(long tick, List<Hit> hits, List<Move> moves);
+
+    /**
+     * Checks if no hits remain after a tick; synthetic sources never run out.
+     */
+    boolean isExhausted(long tick);
+
+    /**
+     * Gets the number of simulated players.
+     */
+    int playerCount();
+
+    /**
+     * Gets the players, e.g. to drain their chat queues.
+     */
+    List<PlayerMock> players();
+}
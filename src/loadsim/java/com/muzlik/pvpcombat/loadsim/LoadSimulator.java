@@ -0,0 +1,286 @@
+package com.muzlik.pvpcombat.loadsim;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.WorldMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.google.gson.GsonBuilder;
+import com.muzlik.pvpcombat.combat.CombatManager;
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.data.CombatSession;
+import com.muzlik.pvpcombat.logging.CombatLogEntry;
+import com.muzlik.pvpcombat.logging.CombatLogger;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import com.muzlik.pvpcombat.utils.PlayerPairKey;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Headless load simulator. Boots the real plugin on a MockBukkit server, feeds synthetic
+ * or replayed hits through the damage event and drives the scheduler one tick at a time,
+ * so the listener, combat manager, logger and visual managers all run as they would live.
+ * Each tick every player also polls a set of placeholders, as scoreboard and tab plugins do.
+ * <p>
+ * Run with {@code mvn -P load-simulation verify}; see {@link SimulationOptions} for options.
+ */
+public final class LoadSimulator {
+
+    private static final long TICK_NANOS = 50_000_000L;
+    // How long to wait after the last tick for the logger to store queued hits
+    private static final long DRAIN_TIMEOUT_NANOS = 5_000_000_000L;
+
+    private final SimulationOptions options;
+    private final com.sun.management.ThreadMXBean threads;
+
+    private LoadSimulator(SimulationOptions options) {
+        this.options = options;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    public static void main(String[] args) throws IOException {
+        SimulationOptions options = SimulationOptions.parse(args);
+        LoadSimulator simulator = new LoadSimulator(options);
+
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        if (options.replay() != null) {
+            scenarios.add(simulator.run(0, 0));
+        } else {
+            for (int players : options.players()) {
+                for (double hitRate : options.hitRates()) {
+                    scenarios.add(simulator.run(players, hitRate));
+                }
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seed", options.seed());
+        report.put("realtime", options.realtime());
+        report.put("scenarios", scenarios);
+        if (options.output().getParent() != null) {
+            Files.createDirectories(options.output().getParent());
+        }
+        Files.writeString(options.output(), new GsonBuilder().setPrettyPrinting().create().toJson(report));
+        System.out.println("Report written to " + options.output().toAbsolutePath());
+    }
+
+    /**
+     * Runs one scenario on a fresh server and plugin instance.
+     */
+    private Map<String, Object> run(int playerCount, double hitRate) throws IOException {
+        ServerMock server = MockBukkit.mock();
+        try {
+            PvPCombatPlugin plugin = MockBukkit.load(PvPCombatPlugin.class);
+            configure(plugin);
+            CombatManager combatManager = (CombatManager) plugin.getCombatManager();
+            CombatLogger combatLogger = plugin.getPluginManager().getServices().get(CombatLogger.class);
+
+            WorldMock world = server.addSimpleWorld("arena");
+            HitSource source = options.replay() != null
+                ? new LogReplayHitSource(server, world, options.replay())
+                : new SyntheticHitSource(server, world, playerCount, hitRate, options.movesPerSecond(), options.seed());
+            long measuredTicks = source instanceof LogReplayHitSource
+                ? ((LogReplayHitSource) source).lengthInTicks() : options.ticks();
+
+            String name = options.replay() != null
+                ? "replay " + options.replay().getFileName()
+                : source.playerCount() + " players @ " + hitRate + " hits/s";
+            System.out.println("Running " + name + " for " + measuredTicks + " ticks...");
+
+            SimulationMetrics metrics = new SimulationMetrics();
+            PlaceholderLoad placeholders = options.placeholders() > 0
+                ? new PlaceholderLoad(plugin, options.placeholders()) : null;
+            Map<PlayerPairKey, ConcurrentLinkedDeque<Long>> pendingHits = new ConcurrentHashMap<>();
+            Consumer<List<CombatLogEntry>> flushListener = batch -> {
+                long now = System.nanoTime();
+                for (CombatLogEntry entry : batch) {
+                    if (entry.getEventType() != CombatLogEntry.EventType.HIT_LANDED || entry.getTargetId() == null) {
+                        continue;
+                    }
+                    ConcurrentLinkedDeque<Long> pending = pendingHits.get(
+                        new PlayerPairKey(entry.getPlayerId(), entry.getTargetId()));
+                    Long firedAt = pending != null ? pending.pollFirst() : null;
+                    if (firedAt != null) {
+                        metrics.recordLatency(now - firedAt);
+                    }
+                }
+            };
+            combatLogger.addFlushListener(flushListener);
+
+            long warmup = options.replay() != null ? 0 : options.warmupTicks();
+            long startNanos = 0;
+            long startAllocated = 0;
+            List<HitSource.Hit> hits = new ArrayList<>();
+            List<HitSource.Move> moves = new ArrayList<>();
+            for (long tick = 0; tick < warmup + measuredTicks; tick++) {
+                boolean measured = tick >= warmup;
+                if (tick == warmup) {
+                    startNanos = System.nanoTime();
+                    startAllocated = threads.getTotalThreadAllocatedBytes();
+                }
+
+                long tickStart = System.nanoTime();
+                long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+
+                hits.clear();
+                moves.clear();
+                source.collect(tick, hits, moves);
+                for (HitSource.Move move : moves) {
+                    move.player().simulatePlayerMove(move.to());
+                    if (measured) {
+                        metrics.recordMove();
+                    }
+                }
+                for (HitSource.Hit hit : hits) {
+                    boolean cancelled = fire(hit, combatManager, measured ? pendingHits : null);
+                    if (measured) {
+                        metrics.recordHit(cancelled);
+                    }
+                }
+                server.getScheduler().performOneTick();
+                if (placeholders != null) {
+                    long placeholderStart = System.nanoTime();
+                    int requests = placeholders.refresh(source.players());
+                    if (measured) {
+                        metrics.recordPlaceholders(System.nanoTime() - placeholderStart, requests);
+                    }
+                }
+
+                long tickNanos = System.nanoTime() - tickStart;
+                long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                if (measured) {
+                    metrics.recordTick(tickNanos, allocated);
+                    sampleQueues(metrics, combatLogger);
+                    metrics.recordSessions(combatManager.getActiveSessions().size());
+                }
+                if (tick % 20 == 0) {
+                    drainMessages(source.players());
+                }
+                if (options.realtime()) {
+                    LockSupport.parkNanos(TICK_NANOS - (System.nanoTime() - tickStart));
+                }
+            }
+
+            awaitLogDrain(combatLogger, pendingHits);
+            metrics.finish(System.nanoTime() - startNanos, threads.getTotalThreadAllocatedBytes() - startAllocated);
+            combatLogger.removeFlushListener(flushListener);
+
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("name", name);
+            scenario.put("players", source.playerCount());
+            scenario.put("hits-per-second-per-fight", hitRate);
+            scenario.put("placeholders-per-player", placeholders != null ? options.placeholders() : 0);
+            scenario.putAll(metrics.toReport());
+            print(scenario);
+            return scenario;
+        } finally {
+            MockBukkit.unmock();
+        }
+    }
+
+    /**
+     * Turns off the checks that would reject fresh mock players before they reach combat.
+     */
+    private static void configure(PvPCombatPlugin plugin) {
+        plugin.getConfig().set("newbie-protection.enabled", false);
+        plugin.getConfig().set("logging.console-enabled", false);
+        plugin.saveConfig();
+        plugin.getConfigManager().reloadConfig();
+    }
+
+    /**
+     * Fires a hit as a melee damage event.
+     *
+     * @param pendingHits where to note the hit's time if the listener will log it, or null
+     * @return true if the event was cancelled
+     */
+    private static boolean fire(HitSource.Hit hit, CombatManager combatManager,
+                                Map<PlayerPairKey, ConcurrentLinkedDeque<Long>> pendingHits) {
+        PlayerMock attacker = hit.attacker();
+        PlayerMock defender = hit.defender();
+        if (hit.attackerLocation() != null) {
+            attacker.teleport(hit.attackerLocation());
+        }
+
+        // The listener only logs hits inside an existing session; note them before firing
+        // because the log task may finish before callEvent returns
+        ConcurrentLinkedDeque<Long> pending = null;
+        Long firedAt = null;
+        CombatSession session = combatManager.getSession(attacker);
+        if (pendingHits != null && session != null && session.involvesPlayer(defender)) {
+            pending = pendingHits.computeIfAbsent(
+                new PlayerPairKey(attacker.getUniqueId(), defender.getUniqueId()), key -> new ConcurrentLinkedDeque<>());
+            firedAt = System.nanoTime();
+            pending.offerLast(firedAt);
+        }
+
+        EntityDamageByEntityEvent event = new EntityDamageByEntityEvent(attacker, defender,
+            EntityDamageEvent.DamageCause.ENTITY_ATTACK, hit.damage());
+        attacker.getServer().getPluginManager().callEvent(event);
+        if (event.isCancelled() && pending != null) {
+            pending.removeLastOccurrence(firedAt);
+        }
+        return event.isCancelled();
+    }
+
+    private static void sampleQueues(SimulationMetrics metrics, CombatLogger combatLogger) {
+        metrics.sampleQueue("combat-log", combatLogger.getQueueDepth());
+        AsyncUtils.getQueueDepths().forEach(metrics::sampleQueue);
+        metrics.endQueueSample();
+    }
+
+    private static void drainMessages(List<PlayerMock> players) {
+        for (PlayerMock player : players) {
+            while (player.nextMessage() != null) {
+                // Mock players keep every chat message; drop them so memory stays flat
+            }
+        }
+    }
+
+    /**
+     * Waits until the logger has stored every hit fired during the run, or gives up.
+     */
+    private static void awaitLogDrain(CombatLogger combatLogger, Map<PlayerPairKey, ConcurrentLinkedDeque<Long>> pendingHits) {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (System.nanoTime() < deadline) {
+            boolean pending = combatLogger.getQueueDepth() > 0
+                || pendingHits.values().stream().anyMatch(hits -> !hits.isEmpty());
+            if (!pending) {
+                return;
+            }
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> scenario) {
+        Map<String, Object> tick = (Map<String, Object>) scenario.get("main-thread");
+        Map<String, Object> allocation = (Map<String, Object>) scenario.get("allocation");
+        Map<String, Object> latency = (Map<String, Object>) scenario.get("hit-to-log");
+        Map<String, Object> load = (Map<String, Object>) scenario.get("load");
+        Map<String, Object> placeholders = (Map<String, Object>) scenario.get("placeholders");
+        System.out.printf("  tick mean %s ms, p99 %s ms, max %s ms, %s over budget%n",
+            tick.get("mean-ms"), tick.get("p99-ms"), tick.get("max-ms"), tick.get("over-budget"));
+        System.out.printf("  main thread %s KB/tick, process %s MB/s%n",
+            allocation.get("main-thread-kb-per-tick"), allocation.get("process-mb-per-second"));
+        System.out.printf("  hit-to-log p50 %s ms, p99 %s ms over %s hits%n",
+            latency.get("p50-ms"), latency.get("p99-ms"), latency.get("samples"));
+        System.out.printf("  placeholders %s ms/tick, p99 %s ms, %s ns per request over %s requests%n",
+            placeholders.get("mean-ms-per-tick"), placeholders.get("p99-ms-per-tick"),
+            placeholders.get("ns-per-request"), placeholders.get("requests"));
+        System.out.printf("  %s hits (%s cancelled), peak %s sessions, queues %s%n",
+            load.get("hits"), load.get("hits-cancelled"), load.get("peak-sessions"), scenario.get("queues"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.muzlik.pvpcombat.loadsim;
+
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.muzlik.pvpcombat.logging.CombatLogEntry;
+import com.muzlik.pvpcombat.logging.CombatLogWriter;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Replays the landed hits of recorded combat log files. Each logged player becomes a
+ * mock player with the same id, and every hit is fired on the tick matching its offset
+ * from the first recorded hit, so a replay is identical from run to run.
+ */
+class LogReplayHitSource implements HitSource {
+
+    private static final long MILLIS_PER_TICK = 50L;
+
+    /**
+     * A recorded hit and the tick it is replayed on.
+     */
+    private record ScheduledHit(long tick, UUID attacker, UUID defender, double damage, String location) {
+    }
+
+    private final World world;
+    private final Map<UUID, PlayerMock> players;
+    private final List<ScheduledHit> schedule;
+    private int next;
+
+    LogReplayHitSource(ServerMock server, World world, Path source) throws IOException {
+        this.world = world;
+        this.players = new LinkedHashMap<>();
+        this.schedule = new ArrayList<>();
+
+        CombatLogWriter parser = new CombatLogWriter(source);
+        List<CombatLogEntry> entries = new ArrayList<>();
+        for (Path file : logFiles(source)) {
+            for (String line : Files.readAllLines(file)) {
+                CombatLogEntry entry = parser.parse(line);
+                if (entry != null && entry.getTargetId() != null && entry.getDamage() > 0
+                        && (entry.getEventType() == CombatLogEntry.EventType.HIT_LANDED
+                            || entry.getEventType() == CombatLogEntry.EventType.DAMAGE_DEALT)) {
+                    entries.add(entry);
+                }
+            }
+        }
+        // Stable sort keeps the file order of hits logged in the same instant
+        entries.sort(Comparator.comparing(CombatLogEntry::getTimestamp));
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime first = entries.get(0).getTimestamp();
+        for (CombatLogEntry entry : entries) {
+            long tick = Duration.between(first, entry.getTimestamp()).toMillis() / MILLIS_PER_TICK;
+            schedule.add(new ScheduledHit(tick, entry.getPlayerId(), entry.getTargetId(),
+                entry.getDamage(), entry.getLocation()));
+            spawn(server, entry.getPlayerId());
+            spawn(server, entry.getTargetId());
+        }
+    }
+
+    private static List<Path> logFiles(Path source) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return List.of(source);
+        }
+        try (Stream<Path> files = Files.list(source)) {
+            return files.filter(path -> path.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private void spawn(ServerMock server, UUID id) {
+        if (!players.containsKey(id)) {
+            PlayerMock player = new PlayerMock(server, "Replay" + players.size(), id);
+            server.addPlayer(player);
+            player.teleport(new Location(world, 0, 64, 0));
+            players.put(id, player);
+        }
+    }
+
+    @Override
+    public void collect(long tick, List<Hit> hits, List<Move> moves) {
+        while (next < schedule.size() && schedule.get(next).tick() <= tick) {
+            ScheduledHit hit = schedule.get(next++);
+            hits.add(new Hit(players.get(hit.attacker()), players.get(hit.defender()), hit.damage(),
+                parseLocation(hit.location())));
+        }
+    }
+
+    /**
+     * Parses the "x,y,z" attacker position the logger records, or null if absent.
+     */
+    private Location parseLocation(String location) {
+        String[] parts = location.split(",");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Location(world, Double.parseDouble(parts[0]), Double.parseDouble(parts[1]),
+                Double.parseDouble(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isExhausted(long tick) {
+        return next >= schedule.size();
+    }
+
+    @Override
+    public int playerCount() {
+        return players.size();
+    }
+
+    @Override
+    public List<PlayerMock> players() {
+        return new ArrayList<>(players.values());
+    }
+
+    /**
+     * Gets the number of ticks the recording spans.
+     */
+    long lengthInTicks() {
+        return schedule.isEmpty() ? 0 : schedule.get(schedule.size() - 1).tick() + 1;
+    }
+}
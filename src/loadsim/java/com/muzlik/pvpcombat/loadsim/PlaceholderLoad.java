@@ -0,0 +1,54 @@
+package com.muzlik.pvpcombat.loadsim;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.integration.PvPCombatExpansion;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Polls placeholders the way scoreboard and tab plugins do: every player asks for the same
+ * set of placeholders on every tick, straight through the PlaceholderAPI expansion.
+ */
+class PlaceholderLoad {
+
+    // Status, lifetime and session values from the snapshot cache, then leaderboard lookups
+    private static final String[] IDENTIFIERS = {
+        "in_combat", "time_left", "opponent",
+        "wins", "losses", "total_combats", "kd_ratio", "win_rate",
+        "total_damage_dealt", "total_damage_received", "damage_ratio", "total_combat_time",
+        "session_damage_dealt", "session_damage_received", "session_hits_landed",
+        "rank_wins", "rank_kd", "top_wins_1_name", "top_wins_1_value", "top_damage_3_value"
+    };
+
+    /** Largest number of placeholders per player that can be simulated. */
+    static final int MAX_PLACEHOLDERS = IDENTIFIERS.length;
+
+    private final PvPCombatExpansion expansion;
+    private final String[] identifiers;
+    // Keeps the JIT from dropping lookups whose result is never used
+    private long sink;
+
+    PlaceholderLoad(PvPCombatPlugin plugin, int perPlayer) {
+        this.expansion = new PvPCombatExpansion(plugin);
+        this.identifiers = Arrays.copyOf(IDENTIFIERS, Math.min(perPlayer, MAX_PLACEHOLDERS));
+    }
+
+    /**
+     * Requests every placeholder once for every player.
+     *
+     * @return the number of requests made
+     */
+    int refresh(List<PlayerMock> players) {
+        int requests = 0;
+        for (PlayerMock player : players) {
+            for (String identifier : identifiers) {
+                String value = expansion.onPlaceholderRequest(player, identifier);
+                sink += value != null ? value.length() : 0;
+                requests++;
+            }
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,181 @@
+package com.muzlik.pvpcombat.loadsim;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Figures collected during one scenario: per-tick main thread time and allocation,
+ * sampled queue depths, hit-to-log latencies and placeholder polling time.
+ */
+class SimulationMetrics {
+
+    /**
+     * Growable array of primitive longs, so recording does not add to the allocation figures.
+     */
+    static final class LongSamples {
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private final LongSamples tickNanos = new LongSamples();
+    private final LongSamples tickAllocatedBytes = new LongSamples();
+    private final LongSamples hitToLogNanos = new LongSamples();
+    private final LongSamples placeholderNanos = new LongSamples();
+    private long placeholderRequests;
+    private final Map<String, long[]> queueDepths = new LinkedHashMap<>(); // name -> {max, sum}
+    private int queueSamples;
+
+    private long hitsFired;
+    private long hitsCancelled;
+    private long movesFired;
+    private int peakSessions;
+    private long totalAllocatedBytes;
+    private long wallNanos;
+
+    void recordTick(long nanos, long allocatedBytes) {
+        tickNanos.add(nanos);
+        tickAllocatedBytes.add(allocatedBytes);
+    }
+
+    void recordPlaceholders(long nanos, int requests) {
+        placeholderNanos.add(nanos);
+        placeholderRequests += requests;
+    }
+
+    void recordLatency(long nanos) {
+        hitToLogNanos.add(nanos);
+    }
+
+    void sampleQueue(String name, int depth) {
+        long[] figures = queueDepths.computeIfAbsent(name, n -> new long[2]);
+        figures[0] = Math.max(figures[0], depth);
+        figures[1] += depth;
+    }
+
+    void endQueueSample() {
+        queueSamples++;
+    }
+
+    void recordHit(boolean cancelled) {
+        hitsFired++;
+        if (cancelled) {
+            hitsCancelled++;
+        }
+    }
+
+    void recordMove() {
+        movesFired++;
+    }
+
+    void recordSessions(int sessions) {
+        peakSessions = Math.max(peakSessions, sessions);
+    }
+
+    void finish(long wallNanos, long totalAllocatedBytes) {
+        this.wallNanos = wallNanos;
+        this.totalAllocatedBytes = totalAllocatedBytes;
+    }
+
+    /**
+     * Builds the report section of this scenario.
+     */
+    Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        long[] ticks = tickNanos.sorted();
+        long[] allocations = tickAllocatedBytes.sorted();
+        long[] latencies = hitToLogNanos.sorted();
+        double seconds = wallNanos / 1_000_000_000.0;
+
+        Map<String, Object> tick = new LinkedHashMap<>();
+        tick.put("count", ticks.length);
+        tick.put("mean-ms", millis(mean(ticks)));
+        tick.put("p50-ms", millis(percentile(ticks, 0.50)));
+        tick.put("p95-ms", millis(percentile(ticks, 0.95)));
+        tick.put("p99-ms", millis(percentile(ticks, 0.99)));
+        tick.put("max-ms", millis(ticks.length > 0 ? ticks[ticks.length - 1] : 0));
+        tick.put("over-budget", Arrays.stream(ticks).filter(nanos -> nanos > 50_000_000L).count());
+        report.put("main-thread", tick);
+
+        Map<String, Object> allocation = new LinkedHashMap<>();
+        allocation.put("main-thread-kb-per-tick", round(mean(allocations) / 1024.0));
+        allocation.put("main-thread-p99-kb-per-tick", round(percentile(allocations, 0.99) / 1024.0));
+        allocation.put("process-mb-per-second", seconds > 0 ? round(totalAllocatedBytes / 1048576.0 / seconds) : 0.0);
+        report.put("allocation", allocation);
+
+        Map<String, Object> queues = new LinkedHashMap<>();
+        queueDepths.forEach((name, figures) -> {
+            Map<String, Object> depth = new LinkedHashMap<>();
+            depth.put("max", figures[0]);
+            depth.put("mean", queueSamples > 0 ? round((double) figures[1] / queueSamples) : 0.0);
+            queues.put(name, depth);
+        });
+        report.put("queues", queues);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("samples", latencies.length);
+        latency.put("p50-ms", millis(percentile(latencies, 0.50)));
+        latency.put("p95-ms", millis(percentile(latencies, 0.95)));
+        latency.put("p99-ms", millis(percentile(latencies, 0.99)));
+        latency.put("max-ms", millis(latencies.length > 0 ? latencies[latencies.length - 1] : 0));
+        report.put("hit-to-log", latency);
+
+        long[] placeholderTicks = placeholderNanos.sorted();
+        double placeholderTotal = mean(placeholderTicks) * placeholderTicks.length;
+        Map<String, Object> placeholders = new LinkedHashMap<>();
+        placeholders.put("requests", placeholderRequests);
+        placeholders.put("mean-ms-per-tick", millis(mean(placeholderTicks)));
+        placeholders.put("p99-ms-per-tick", millis(percentile(placeholderTicks, 0.99)));
+        placeholders.put("ns-per-request", placeholderRequests > 0 ? round(placeholderTotal / placeholderRequests) : 0.0);
+        report.put("placeholders", placeholders);
+
+        Map<String, Object> load = new LinkedHashMap<>();
+        load.put("hits", hitsFired);
+        load.put("hits-cancelled", hitsCancelled);
+        load.put("moves", movesFired);
+        load.put("peak-sessions", peakSessions);
+        load.put("wall-seconds", round(seconds));
+        report.put("load", load);
+        return report;
+    }
+
+    private static double mean(long[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double millis(double nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.muzlik.pvpcombat.loadsim;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Command line options of the load simulator, given as {@code --name=value}.
+ * Player counts and hit rates accept comma separated lists; every combination is run.
+ *
+ * @param players        players per scenario, paired into fights
+ * @param hitRates       hits per second per fight
+ * @param movesPerSecond moves per second per fighting player
+ * @param ticks          measured ticks per scenario
+ * @param warmupTicks    ticks run before measuring
+ * @param seed           seed of the synthetic hit stream
+ * @param placeholders   placeholders each player requests per tick, like a scoreboard plugin (0 = none)
+ * @param realtime       pace ticks at 50 ms like a server, instead of running flat out
+ * @param replay         combat log file or directory to replay instead of synthetic hits, or null
+ * @param output         JSON report file
+ */
+record SimulationOptions(int[] players, double[] hitRates, double movesPerSecond, int ticks, int warmupTicks,
+                         long seed, int placeholders, boolean realtime, Path replay, Path output) {
+
+    static SimulationOptions parse(String[] args) {
+        int[] players = {50, 200, 400};
+        double[] hitRates = {2.0};
+        double movesPerSecond = 4.0;
+        int ticks = 1200;
+        int warmupTicks = 200;
+        long seed = 1L;
+        int placeholders = 20;
+        boolean realtime = true;
+        Path replay = null;
+        Path output = Path.of("target", "loadsim-report.json");
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, split);
+            String value = arg.substring(split + 1);
+            switch (name) {
+                case "players" -> players = Arrays.stream(value.split(",")).map(String::trim)
+                    .mapToInt(Integer::parseInt).toArray();
+                case "hit-rate" -> hitRates = Arrays.stream(value.split(",")).map(String::trim)
+                    .mapToDouble(Double::parseDouble).toArray();
+                case "move-rate" -> movesPerSecond = Double.parseDouble(value);
+                case "ticks" -> ticks = Integer.parseInt(value);
+                case "warmup" -> warmupTicks = Integer.parseInt(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "placeholders" -> placeholders = Math.min(Integer.parseInt(value), PlaceholderLoad.MAX_PLACEHOLDERS);
+                case "realtime" -> realtime = Boolean.parseBoolean(value);
+                case "replay" -> replay = value.isEmpty() ? null : Path.of(value);
+                case "output" -> output = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return new SimulationOptions(players, hitRates, movesPerSecond, ticks, warmupTicks,
+            seed, placeholders, realtime, replay, output);
+    }
+}
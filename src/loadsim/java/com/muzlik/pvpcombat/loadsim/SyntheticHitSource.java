@@ -0,0 +1,96 @@
+package com.muzlik.pvpcombat.loadsim;
+
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pairs players into duels spread over a grid and draws hits and moves from a seeded
+ * random stream, so a given seed always produces the same run.
+ */
+class SyntheticHitSource implements HitSource {
+
+    // Far enough apart that neighbouring duels never count as interference
+    private static final int FIGHT_SPACING = 48;
+    private static final double TICKS_PER_SECOND = 20.0;
+
+    private final Random random;
+    private final List<PlayerMock> players;
+    private final double hitsPerTick;
+    private final double movesPerTick;
+
+    SyntheticHitSource(ServerMock server, World world, int playerCount, double hitsPerSecond,
+                       double movesPerSecond, long seed) {
+        this.random = new Random(seed);
+        this.players = new ArrayList<>(playerCount);
+        this.hitsPerTick = hitsPerSecond / TICKS_PER_SECOND;
+        this.movesPerTick = movesPerSecond / TICKS_PER_SECOND;
+
+        int fights = playerCount / 2;
+        int row = Math.max(1, (int) Math.ceil(Math.sqrt(fights)));
+        for (int fight = 0; fight < fights; fight++) {
+            double x = (fight % row) * FIGHT_SPACING;
+            double z = (fight / row) * FIGHT_SPACING;
+            players.add(spawn(server, "Sim" + (fight * 2), new Location(world, x, 64, z)));
+            players.add(spawn(server, "Sim" + (fight * 2 + 1), new Location(world, x + 2, 64, z)));
+        }
+    }
+
+    private static PlayerMock spawn(ServerMock server, String name, Location location) {
+        PlayerMock player = server.addPlayer(name);
+        player.teleport(location);
+        return player;
+    }
+
+    @Override
+    public void collect(long tick, List<Hit> hits, List<Move> moves) {
+        for (int i = 0; i + 1 < players.size(); i += 2) {
+            PlayerMock first = players.get(i);
+            PlayerMock second = players.get(i + 1);
+            for (int n = occurrences(hitsPerTick); n > 0; n--) {
+                boolean firstAttacks = random.nextBoolean();
+                hits.add(new Hit(firstAttacks ? first : second, firstAttacks ? second : first,
+                    1.0 + random.nextDouble() * 6.0, null));
+            }
+            addMove(first, moves);
+            addMove(second, moves);
+        }
+    }
+
+    private void addMove(PlayerMock player, List<Move> moves) {
+        if (occurrences(movesPerTick) == 0) {
+            return;
+        }
+        // Strafe around the fight's spot without drifting away from it
+        Location to = player.getLocation().add(random.nextDouble() - 0.5, 0, random.nextDouble() - 0.5);
+        moves.add(new Move(player, to));
+    }
+
+    /**
+     * Draws how many times an event with the given mean rate per tick happens this tick.
+     */
+    private int occurrences(double perTick) {
+        int count = (int) perTick;
+        return random.nextDouble() < perTick - count ? count + 1 : count;
+    }
+
+    @Override
+    public boolean isExhausted(long tick) {
+        return false;
+    }
+
+    @Override
+    public int playerCount() {
+        return players.size();
+    }
+
+    @Override
+    public List<PlayerMock> players() {
+        return players;
+    }
+}
@@ -1,10 +1,13 @@
 package com.muzlik.pvpcombat.admin;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.restrictions.CooldownType;
+import com.muzlik.pvpcombat.restrictions.RestrictionManager;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -107,10 +110,27 @@ public class DebugManager {
      * Shows cooldown states.
      */
     private void showCooldownStates(Player player) {
-        // Placeholder for cooldown information
         player.sendMessage("§7[DEBUG] Cooldown States:");
         player.sendMessage("§7[DEBUG] - Combat timer: N/A");
-        player.sendMessage("§7[DEBUG] - Restriction cooldowns: None");
+
+        // One consistent copy of the whole table, so the player's row matches the total
+        Map<UUID, Map<CooldownType, Long>> allCooldowns = Map.of();
+        if (plugin.getPluginManager() != null
+                && plugin.getPluginManager().getRestrictionManager() instanceof RestrictionManager) {
+            RestrictionManager restrictionManager = (RestrictionManager) plugin.getPluginManager().getRestrictionManager();
+            allCooldowns = restrictionManager.getCooldownTable().snapshotAll();
+        }
+        player.sendMessage("§7[DEBUG] - Players on cooldown: " + allCooldowns.size());
+
+        Map<CooldownType, Long> cooldowns = allCooldowns.getOrDefault(player.getUniqueId(), Map.of());
+        if (cooldowns.isEmpty()) {
+            player.sendMessage("§7[DEBUG] - Restriction cooldowns: None");
+        } else {
+            for (Map.Entry<CooldownType, Long> entry : cooldowns.entrySet()) {
+                player.sendMessage(String.format("§7[DEBUG] - %s: %d ticks (%.1fs)",
+                    entry.getKey().getDisplayName(), entry.getValue(), entry.getValue() / 20.0));
+            }
+        }
         player.sendMessage("§7[DEBUG] - Visual update cooldown: Ready");
     }
 
@@ -2,6 +2,8 @@ package com.muzlik.pvpcombat.admin;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 
+import java.util.function.Supplier;
+
 /**
  * Manages console logging settings for the plugin.
  * Controls what gets logged to console based on admin preferences.
@@ -9,7 +11,7 @@ import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 public class LoggingManager {
 
     private final PvPCombatPlugin plugin;
-    private boolean consoleLoggingEnabled;
+    private volatile boolean consoleLoggingEnabled;
 
     public LoggingManager(PvPCombatPlugin plugin) {
         this.plugin = plugin;
@@ -61,6 +63,15 @@ public class LoggingManager {
         }
     }
 
+    /**
+     * Logs a message built only if logging is enabled, for callers on hot paths.
+     */
+    public void log(Supplier<String> message) {
+        if (consoleLoggingEnabled) {
+            plugin.getLogger().info(message.get());
+        }
+    }
+
     /**
      * Logs a warning to console only if logging is enabled.
      */
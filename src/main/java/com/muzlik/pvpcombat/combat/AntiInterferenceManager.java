@@ -36,6 +36,11 @@ public class AntiInterferenceManager {
             return false; // This is the legitimate opponent
         }
 
+        // In team fights the hitter joins the target's cluster instead
+        if (combatManager instanceof CombatManager && ((CombatManager) combatManager).canJoinCluster(hitter, target)) {
+            return false;
+        }
+
         // Interference detected - someone else is hitting a player in combat
         return true;
     }
@@ -0,0 +1,389 @@
+package com.muzlik.pvpcombat.combat;
+
+import com.muzlik.pvpcombat.events.MovementTracker;
+import com.muzlik.pvpcombat.interfaces.ICombatGrid;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Per-world spatial hash of combat-tagged players. Cells are chunk sized and keyed by the
+ * packed chunk coordinates in an open-addressed table of primitive longs, so neither
+ * updates nor queries box keys or allocate. Players are added when the movement tracker
+ * starts tracking them, moved on block-crossing moves and teleports, and removed when
+ * they are no longer tagged. Main thread only.
+ */
+public class CombatGrid implements ICombatGrid, MovementTracker.Subscriber, Listener {
+
+    private static final int CELL_SHIFT = 4;
+
+    /**
+     * A tagged player's indexed position.
+     */
+    private static final class Entry {
+        private final Player player;
+        private WorldGrid grid;
+        private Cell cell;
+        private int index;
+        private double x;
+        private double y;
+        private double z;
+
+        private Entry(Player player) {
+            this.player = player;
+        }
+    }
+
+    /**
+     * Players in one chunk-sized cell, removed by swapping with the last slot.
+     */
+    private static final class Cell {
+        private final long key;
+        private Entry[] entries = new Entry[4];
+        private int count;
+
+        private Cell(long key) {
+            this.key = key;
+        }
+
+        private void add(Entry entry) {
+            if (count == entries.length) {
+                Entry[] grown = new Entry[count * 2];
+                System.arraycopy(entries, 0, grown, 0, count);
+                entries = grown;
+            }
+            entry.index = count;
+            entries[count++] = entry;
+        }
+
+        private void remove(Entry entry) {
+            Entry last = entries[--count];
+            entries[entry.index] = last;
+            last.index = entry.index;
+            entries[count] = null;
+        }
+    }
+
+    /**
+     * Open-addressed map from packed cell key to cell, with backward-shift deletion.
+     */
+    private static final class WorldGrid {
+        private long[] keys = new long[16];
+        private Cell[] cells = new Cell[16];
+        private int size;
+        private int players;
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private Cell get(long key) {
+            int mask = cells.length - 1;
+            for (int i = slot(key, mask); cells[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return cells[i];
+                }
+            }
+            return null;
+        }
+
+        private Cell getOrCreate(long key) {
+            Cell cell = get(key);
+            if (cell != null) {
+                return cell;
+            }
+            if ((size + 1) * 2 > cells.length) {
+                resize(cells.length * 2);
+            }
+            cell = new Cell(key);
+            insert(key, cell);
+            size++;
+            return cell;
+        }
+
+        private void insert(long key, Cell cell) {
+            int mask = cells.length - 1;
+            int i = slot(key, mask);
+            while (cells[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            cells[i] = cell;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Cell[] oldCells = cells;
+            keys = new long[capacity];
+            cells = new Cell[capacity];
+            for (int i = 0; i < oldCells.length; i++) {
+                if (oldCells[i] != null) {
+                    insert(oldKeys[i], oldCells[i]);
+                }
+            }
+        }
+
+        private void remove(long key) {
+            int mask = cells.length - 1;
+            int i = slot(key, mask);
+            while (cells[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (cells[i] == null) {
+                return;
+            }
+            // Shift later entries of the probe run back so lookups never hit a gap
+            for (int j = (i + 1) & mask; cells[j] != null; j = (j + 1) & mask) {
+                int home = slot(keys[j], mask);
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    cells[i] = cells[j];
+                    i = j;
+                }
+            }
+            cells[i] = null;
+            size--;
+        }
+    }
+
+    private final Map<UUID, WorldGrid> worlds;
+    private final Map<UUID, Entry> entries;
+
+    // Statistics
+    private long updates;
+    private long cellMoves;
+    private long queries;
+
+    public CombatGrid() {
+        this.worlds = new HashMap<>();
+        this.entries = new HashMap<>();
+    }
+
+    private static long cellKey(double x, double z) {
+        int cellX = (int) Math.floor(x) >> CELL_SHIFT;
+        int cellZ = (int) Math.floor(z) >> CELL_SHIFT;
+        return cellKey(cellX, cellZ);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX) << 32 | (cellZ & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void onTracked(Player player) {
+        update(player, player.getLocation());
+    }
+
+    @Override
+    public void onMove(PlayerMoveEvent event, Player player) {
+        // Subscribers before this one may have blocked the move
+        update(player, event.isCancelled() ? event.getFrom() : event.getTo());
+    }
+
+    @Override
+    public void onUntracked(Player player) {
+        Entry entry = entries.remove(player.getUniqueId());
+        if (entry != null) {
+            detach(entry);
+        }
+    }
+
+    /**
+     * Teleports bypass the move listener, so tagged players are re-indexed here.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        if (event.getTo() != null && entries.containsKey(event.getPlayer().getUniqueId())) {
+            update(event.getPlayer(), event.getTo());
+        }
+    }
+
+    private void update(Player player, Location location) {
+        World world = location != null ? location.getWorld() : null;
+        if (world == null) {
+            return;
+        }
+        updates++;
+        Entry entry = entries.get(player.getUniqueId());
+        if (entry == null) {
+            entry = new Entry(player);
+            entries.put(player.getUniqueId(), entry);
+        }
+
+        long key = cellKey(location.getX(), location.getZ());
+        WorldGrid grid = worlds.get(world.getUID());
+        if (grid == null) {
+            grid = new WorldGrid();
+            worlds.put(world.getUID(), grid);
+        }
+        if (entry.grid != grid || entry.cell == null || entry.cell.key != key) {
+            if (entry.cell != null) {
+                detach(entry);
+                cellMoves++;
+            }
+            Cell cell = grid.getOrCreate(key);
+            cell.add(entry);
+            entry.grid = grid;
+            entry.cell = cell;
+            grid.players++;
+        }
+        entry.x = location.getX();
+        entry.y = location.getY();
+        entry.z = location.getZ();
+    }
+
+    private void detach(Entry entry) {
+        Cell cell = entry.cell;
+        WorldGrid grid = entry.grid;
+        cell.remove(entry);
+        grid.players--;
+        if (cell.count == 0) {
+            grid.remove(cell.key);
+        }
+        entry.cell = null;
+        entry.grid = null;
+    }
+
+    @Override
+    public int forEachNear(Location center, double radius, Consumer<Player> action) {
+        World world = center.getWorld();
+        if (world == null) {
+            return 0;
+        }
+        return scan(world, center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+            center.getX() + radius, center.getY() + radius, center.getZ() + radius,
+            center.getX(), center.getY(), center.getZ(), radius * radius, null, action, false);
+    }
+
+    @Override
+    public int forEachInBox(World world, double minX, double minY, double minZ,
+                            double maxX, double maxY, double maxZ, Consumer<Player> action) {
+        return scan(world, minX, minY, minZ, maxX, maxY, maxZ, 0, 0, 0, -1, null, action, false);
+    }
+
+    @Override
+    public int countNear(Location center, double radius) {
+        return forEachNear(center, radius, null);
+    }
+
+    @Override
+    public boolean isAnyNear(Location center, double radius, Player exclude) {
+        World world = center.getWorld();
+        if (world == null) {
+            return false;
+        }
+        return scan(world, center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+            center.getX() + radius, center.getY() + radius, center.getZ() + radius,
+            center.getX(), center.getY(), center.getZ(), radius * radius, exclude, null, true) > 0;
+    }
+
+    /**
+     * Visits players in the cells overlapping a box, optionally limited to a sphere.
+     *
+     * @param radiusSquared sphere radius squared, or negative for box only
+     */
+    private int scan(World world, double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                     double centerX, double centerY, double centerZ, double radiusSquared,
+                     Player exclude, Consumer<Player> action, boolean stopAtFirst) {
+        queries++;
+        WorldGrid grid = worlds.get(world.getUID());
+        if (grid == null || grid.players == 0) {
+            return 0;
+        }
+        int minCellX = (int) Math.floor(minX) >> CELL_SHIFT;
+        int maxCellX = (int) Math.floor(maxX) >> CELL_SHIFT;
+        int minCellZ = (int) Math.floor(minZ) >> CELL_SHIFT;
+        int maxCellZ = (int) Math.floor(maxZ) >> CELL_SHIFT;
+
+        int found = 0;
+        long spanned = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+        if (spanned > grid.size) {
+            // Wide query: walking the occupied cells is cheaper than probing every covered one
+            for (Cell cell : grid.cells) {
+                if (cell != null) {
+                    found += scanCell(cell, minX, minY, minZ, maxX, maxY, maxZ,
+                        centerX, centerY, centerZ, radiusSquared, exclude, action);
+                    if (stopAtFirst && found > 0) {
+                        return found;
+                    }
+                }
+            }
+            return found;
+        }
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                Cell cell = grid.get(cellKey(cellX, cellZ));
+                if (cell != null) {
+                    found += scanCell(cell, minX, minY, minZ, maxX, maxY, maxZ,
+                        centerX, centerY, centerZ, radiusSquared, exclude, action);
+                    if (stopAtFirst && found > 0) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int scanCell(Cell cell, double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                                double centerX, double centerY, double centerZ, double radiusSquared,
+                                Player exclude, Consumer<Player> action) {
+        int found = 0;
+        for (int i = 0; i < cell.count; i++) {
+            Entry entry = cell.entries[i];
+            if (entry.player == exclude
+                    || entry.x < minX || entry.x > maxX || entry.y < minY || entry.y > maxY
+                    || entry.z < minZ || entry.z > maxZ) {
+                continue;
+            }
+            if (radiusSquared >= 0) {
+                double dx = entry.x - centerX;
+                double dy = entry.y - centerY;
+                double dz = entry.z - centerZ;
+                if (dx * dx + dy * dy + dz * dz > radiusSquared) {
+                    continue;
+                }
+            }
+            if (action != null) {
+                action.accept(entry.player);
+            }
+            found++;
+        }
+        return found;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets index and query figures for monitoring.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int cells = 0;
+        for (WorldGrid grid : worlds.values()) {
+            cells += grid.size;
+        }
+        stats.put("players", entries.size());
+        stats.put("worlds", worlds.size());
+        stats.put("cells", cells);
+        stats.put("updates", updates);
+        stats.put("cell-moves", cellMoves);
+        stats.put("queries", queries);
+        return stats;
+    }
+}
@@ -0,0 +1,590 @@
+package com.muzlik.pvpcombat.combat;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.data.CombatSession;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only journal of combat session lifecycle records, kept in a memory-mapped file so
+ * tags survive a crash or restart. An append is a fixed-size write into the mapping under a
+ * short lock; the operating system writes it back, and a background task forces the mapping
+ * to disk once a second. Records past the last complete one are ignored on recovery, so a
+ * write torn by a crash only loses that record.
+ * Ended sessions leave dead records behind; the journal is compacted into a fresh file in
+ * the background. The new file is written from a snapshot outside the lock, so appends only
+ * wait for the final swap. If the journal fills up before a compaction finishes, new records
+ * are kept in memory and written with the next compaction.
+ */
+public class CombatJournal {
+
+    /**
+     * Kind of lifecycle record. New kinds go at the end; the ordinal is stored in the file.
+     */
+    public enum RecordType {
+        START, RESET, END, JOIN, LEAVE
+    }
+
+    /**
+     * A tag recovered from the journal that waits for its players to rejoin.
+     */
+    public static final class PendingTag {
+        private final UUID sessionId;
+        private final UUID attackerId;
+        private final UUID defenderId;
+        private final Set<UUID> members;
+        private final long expiresAtMillis;
+
+        private PendingTag(UUID sessionId, UUID attackerId, UUID defenderId, Set<UUID> members, long expiresAtMillis) {
+            this.sessionId = sessionId;
+            this.attackerId = attackerId;
+            this.defenderId = defenderId;
+            this.members = members;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public UUID getSessionId() { return sessionId; }
+        public UUID getAttackerId() { return attackerId; }
+        public UUID getDefenderId() { return defenderId; }
+
+        /**
+         * Gets every player who was still in the fight, including those who joined a cluster.
+         */
+        public Set<UUID> getMembers() { return members; }
+
+        /**
+         * Gets the seconds left on the tag, rounded up, or 0 once it has expired.
+         */
+        public int getRemainingSeconds() {
+            long remaining = expiresAtMillis - System.currentTimeMillis();
+            return remaining <= 0 ? 0 : (int) ((remaining + 999) / 1000);
+        }
+    }
+
+    /**
+     * The latest state of a session that has not ended. Immutable, so compaction can write
+     * a snapshot of the live sessions without holding the lock.
+     */
+    private record Entry(UUID attackerId, UUID defenderId, long expiresAtMillis, Set<UUID> members) {
+
+        Entry withExpiry(long expiresAt) {
+            return new Entry(attackerId, defenderId, expiresAt, members);
+        }
+
+        Entry withMember(UUID playerId, long expiresAt) {
+            Set<UUID> next = new HashSet<>(members);
+            next.add(playerId);
+            return new Entry(attackerId, defenderId, expiresAt, Set.copyOf(next));
+        }
+
+        Entry withoutMember(UUID playerId) {
+            Set<UUID> next = new HashSet<>(members);
+            next.remove(playerId);
+            return new Entry(attackerId, defenderId, expiresAtMillis, Set.copyOf(next));
+        }
+    }
+
+    /**
+     * A record appended while a compaction was writing its snapshot, replayed into the new file.
+     */
+    private record Appended(RecordType type, UUID sessionId, UUID attackerId, UUID defenderId, long expiresAt) {
+    }
+
+    /**
+     * A freshly written journal file that has not been swapped in yet.
+     */
+    private record Mapping(FileChannel channel, MappedByteBuffer buffer, int capacity, int written) {
+    }
+
+    // magic(4) type(1) pad(3) session(16) attacker(16) defender(16) expiry(8)
+    // JOIN and LEAVE records keep the player in the attacker slot
+    private static final int RECORD_SIZE = 64;
+    private static final int MAGIC = 0x434A524E;
+    private static final int MIN_CAPACITY = 4096;
+    private static final RecordType[] RECORD_TYPES = RecordType.values();
+    // A hit only appends a RESET once the journaled expiry lags this far behind
+    private static final long HIT_RESET_SLACK_MILLIS = 5000L;
+
+    private final PvPCombatPlugin plugin;
+    private final Path file;
+    private final long compactIntervalMillis;
+    private final Map<UUID, PendingTag> pendingTags;
+    private final LongAdder appendCount;
+    private final LongAdder appendNanos;
+    private final LongAdder compactionCount;
+
+    // Guarded by this
+    private final Map<UUID, Entry> live;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int position;
+    private boolean dirty;
+    private long lastCompactionMillis;
+    private List<Appended> appendedDuringCompaction; // Non-null while a compaction runs
+
+    private BukkitTask maintenanceTask;
+
+    public CombatJournal(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.file = plugin.getDataFolder().toPath().resolve("combat_journal.dat");
+        this.compactIntervalMillis = TimeUnit.SECONDS.toMillis(
+            Math.max(10, plugin.getConfig().getInt("combat.journal.compact-interval", 300)));
+        this.pendingTags = new ConcurrentHashMap<>();
+        this.appendCount = new LongAdder();
+        this.appendNanos = new LongAdder();
+        this.compactionCount = new LongAdder();
+        this.live = new LinkedHashMap<>();
+    }
+
+    /**
+     * Maps the journal and recovers the tags that were still running. Only does file I/O,
+     * so startup runs it off the main thread. Appends before this are dropped.
+     *
+     * @return the number of recovered tags
+     */
+    public synchronized int open() throws IOException {
+        Files.createDirectories(file.getParent());
+        long now = System.currentTimeMillis();
+        if (Files.exists(file)) {
+            try (FileChannel existing = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer old = existing.map(FileChannel.MapMode.READ_ONLY, 0, existing.size());
+                recover(old, now);
+            }
+        }
+        lastCompactionMillis = now;
+        // Start from a compacted file holding only the recovered sessions
+        Path temp = tempFile();
+        Mapping next = writeFile(temp, live, Math.max(MIN_CAPACITY, recordCount(live) * 2));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        install(next, next.written(), false);
+        return live.size();
+    }
+
+    private void recover(MappedByteBuffer old, long now) {
+        int records = old.capacity() / RECORD_SIZE;
+        for (int i = 0; i < records; i++) {
+            int base = i * RECORD_SIZE;
+            if (old.getInt(base) != MAGIC) {
+                break; // End of the journal, or a record torn by a crash
+            }
+            int type = old.get(base + 4);
+            if (type < 0 || type >= RECORD_TYPES.length) {
+                break; // Written by a newer version
+            }
+            apply(live, RECORD_TYPES[type], readUuid(old, base + 8), readUuid(old, base + 24),
+                readUuid(old, base + 40), old.getLong(base + 56));
+        }
+
+        live.entrySet().removeIf(e -> e.getValue().expiresAtMillis() <= now || e.getValue().members().size() < 2);
+        live.forEach((sessionId, entry) -> {
+            PendingTag tag = new PendingTag(sessionId, entry.attackerId(), entry.defenderId(),
+                entry.members(), entry.expiresAtMillis());
+            for (UUID member : entry.members()) {
+                pendingTags.put(member, tag);
+            }
+        });
+    }
+
+    /**
+     * Applies one record to a set of live sessions.
+     *
+     * @return false if the record refers to a session that is not live and changes nothing
+     */
+    private static boolean apply(Map<UUID, Entry> target, RecordType type, UUID sessionId,
+                                 UUID attackerId, UUID defenderId, long expiresAt) {
+        Entry entry = target.get(sessionId);
+        switch (type) {
+            case START:
+                // A resumed session restarts under its old id and keeps the members still offline
+            case RESET:
+                target.put(sessionId, entry != null ? entry.withExpiry(expiresAt)
+                    : new Entry(attackerId, defenderId, expiresAt, Set.of(attackerId, defenderId)));
+                return true;
+            case JOIN:
+                if (entry == null) {
+                    return false;
+                }
+                target.put(sessionId, entry.withMember(attackerId, expiresAt));
+                return true;
+            case LEAVE:
+                if (entry == null) {
+                    return false;
+                }
+                target.put(sessionId, entry.withoutMember(attackerId));
+                return true;
+            case END:
+            default:
+                return target.remove(sessionId) != null;
+        }
+    }
+
+    /**
+     * Starts the background flush and compaction task.
+     */
+    public void start() {
+        if (maintenanceTask == null) {
+            maintenanceTask = AsyncUtils.runAsyncTimer(plugin, this::maintain, 20L, 20L);
+        }
+    }
+
+    /**
+     * Stops the background task and writes the journal out. Running tags are kept.
+     */
+    public synchronized void stop() {
+        AsyncUtils.cancelTask(maintenanceTask);
+        maintenanceTask = null;
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        closeChannel();
+    }
+
+    /**
+     * Records a new or resumed session.
+     */
+    public void recordStart(CombatSession session) {
+        append(RecordType.START, session);
+    }
+
+    /**
+     * Records a session whose remaining time changed other than by counting down.
+     */
+    public void recordReset(CombatSession session) {
+        append(RecordType.RESET, session);
+    }
+
+    /**
+     * Records the timer reset caused by a hit. Hits land several times a second, so a RESET
+     * is only appended once the journaled expiry has fallen a few seconds behind; a recovered
+     * tag is at most that much shorter than the live one was.
+     */
+    public void recordHit(CombatSession session) {
+        long expiresAt = expiryOf(session);
+        synchronized (this) {
+            Entry entry = live.get(session.getSessionId());
+            if (entry != null && expiresAt - entry.expiresAtMillis() < HIT_RESET_SLACK_MILLIS) {
+                return;
+            }
+        }
+        append(RecordType.RESET, session);
+    }
+
+    /**
+     * Records a player who joined a running session, e.g. a third party in a team fight.
+     */
+    public void recordJoin(CombatSession session, Player player) {
+        append(RecordType.JOIN, session.getSessionId(), player.getUniqueId(), null, expiryOf(session));
+    }
+
+    /**
+     * Records a player who left a session that goes on for the others.
+     */
+    public void recordLeave(UUID sessionId, UUID playerId) {
+        append(RecordType.LEAVE, sessionId, playerId, null, 0L);
+    }
+
+    /**
+     * Records that a session ended. Recovered tags of the session are settled with it.
+     */
+    public void recordEnd(UUID sessionId) {
+        append(RecordType.END, sessionId, null, null, 0L);
+        if (!pendingTags.isEmpty()) {
+            pendingTags.values().removeIf(tag -> tag.getSessionId().equals(sessionId));
+        }
+    }
+
+    private void append(RecordType type, CombatSession session) {
+        append(type, session.getSessionId(), session.getAttacker().getUniqueId(),
+            session.getDefender().getUniqueId(), expiryOf(session));
+    }
+
+    private static long expiryOf(CombatSession session) {
+        return System.currentTimeMillis() + session.getRemainingTime() * 1000L;
+    }
+
+    private synchronized void append(RecordType type, UUID sessionId, UUID attackerId, UUID defenderId, long expiresAt) {
+        if (buffer == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (!apply(live, type, sessionId, attackerId, defenderId, expiresAt)) {
+            return; // Never journaled, e.g. started before the journal opened
+        }
+
+        if (appendedDuringCompaction != null) {
+            appendedDuringCompaction.add(new Appended(type, sessionId, attackerId, defenderId, expiresAt));
+        }
+        if (position < capacity) {
+            write(buffer, position++, type, sessionId, attackerId, defenderId, expiresAt);
+            dirty = true;
+        }
+        // Otherwise the journal is full; the record is already in the live set (or the replay
+        // list) and reaches the file with the compaction the next maintenance pass starts
+
+        appendCount.increment();
+        appendNanos.add(System.nanoTime() - start);
+    }
+
+    private static void write(MappedByteBuffer target, int index, RecordType type, UUID sessionId,
+                              UUID attackerId, UUID defenderId, long expiresAt) {
+        int base = index * RECORD_SIZE;
+        target.put(base + 4, (byte) type.ordinal());
+        writeUuid(target, base + 8, sessionId);
+        writeUuid(target, base + 24, attackerId);
+        writeUuid(target, base + 40, defenderId);
+        target.putLong(base + 56, expiresAt);
+        // The magic goes in last and marks the record complete
+        target.putInt(base, MAGIC);
+    }
+
+    /**
+     * Flushes pending writes, or compacts the journal when it is mostly dead records or
+     * getting full.
+     */
+    private void maintain() {
+        boolean compactNow;
+        synchronized (this) {
+            if (buffer == null) {
+                return;
+            }
+            boolean due = System.currentTimeMillis() - lastCompactionMillis >= compactIntervalMillis
+                && position > live.size() * 2;
+            compactNow = appendedDuringCompaction == null && (due || position >= capacity - capacity / 4);
+        }
+        if (compactNow) {
+            compact(); // Forces the new file itself
+            return;
+        }
+
+        MappedByteBuffer toFlush;
+        synchronized (this) {
+            toFlush = dirty ? buffer : null;
+            dirty = false;
+        }
+        // Forced outside the lock so appends on the main thread never wait for the disk
+        if (toFlush != null) {
+            toFlush.force();
+        }
+    }
+
+    /**
+     * Rewrites the journal with one record per running session. The new file is created,
+     * filled from a snapshot and forced without holding the lock; the lock is only taken
+     * again to replay records appended in the meantime and swap the files.
+     */
+    private void compact() {
+        long now = System.currentTimeMillis();
+        Map<UUID, Entry> snapshot;
+        int newCapacity;
+        synchronized (this) {
+            if (buffer == null || appendedDuringCompaction != null) {
+                return;
+            }
+            // Expired sessions that never got an end record are dropped here
+            live.entrySet().removeIf(e -> e.getValue().expiresAtMillis() <= now);
+            snapshot = new LinkedHashMap<>(live);
+            newCapacity = Math.max(MIN_CAPACITY, Math.max(capacity, recordCount(live) * 4));
+            appendedDuringCompaction = new ArrayList<>();
+        }
+
+        Path temp = tempFile();
+        Mapping next = null;
+        try {
+            next = writeFile(temp, snapshot, newCapacity);
+            synchronized (this) {
+                List<Appended> appended = appendedDuringCompaction;
+                appendedDuringCompaction = null;
+                if (buffer == null || next.written() + appended.size() > next.capacity()) {
+                    // Stopped meanwhile, or too many appends to fit; the next pass retries
+                    closeQuietly(next.channel());
+                    return;
+                }
+                int written = next.written();
+                for (Appended record : appended) {
+                    write(next.buffer(), written++, record.type(), record.sessionId(), record.attackerId(),
+                        record.defenderId(), record.expiresAt());
+                }
+                // Renamed before appends go to the new file, so a crash never leaves records
+                // only in an unlinked one; a rename does not wait for data to reach the disk
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                install(next, written, !appended.isEmpty());
+                lastCompactionMillis = now;
+                compactionCount.increment();
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                appendedDuringCompaction = null;
+            }
+            if (next != null) {
+                closeQuietly(next.channel());
+            }
+            plugin.getLogger().warning("Failed to compact combat journal, keeping the current file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given sessions to a new mapped file and forces it to disk.
+     */
+    private static Mapping writeFile(Path temp, Map<UUID, Entry> sessions, int newCapacity) throws IOException {
+        Files.deleteIfExists(temp);
+        FileChannel next = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer mapped = next.map(FileChannel.MapMode.READ_WRITE, 0, (long) newCapacity * RECORD_SIZE);
+            int written = 0;
+            for (Map.Entry<UUID, Entry> e : sessions.entrySet()) {
+                UUID sessionId = e.getKey();
+                Entry entry = e.getValue();
+                write(mapped, written++, RecordType.START, sessionId, entry.attackerId(), entry.defenderId(), entry.expiresAtMillis());
+                for (UUID member : entry.members()) {
+                    if (!member.equals(entry.attackerId()) && !member.equals(entry.defenderId())) {
+                        write(mapped, written++, RecordType.JOIN, sessionId, member, null, entry.expiresAtMillis());
+                    }
+                }
+                for (UUID founder : new UUID[]{entry.attackerId(), entry.defenderId()}) {
+                    if (!entry.members().contains(founder)) {
+                        write(mapped, written++, RecordType.LEAVE, sessionId, founder, null, 0L);
+                    }
+                }
+            }
+            mapped.force();
+            return new Mapping(next, mapped, newCapacity, written);
+        } catch (IOException e) {
+            next.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Switches appends over to a written file. Callers hold the lock.
+     */
+    private void install(Mapping next, int written, boolean dirty) {
+        closeChannel();
+        this.channel = next.channel();
+        this.buffer = next.buffer();
+        this.capacity = next.capacity();
+        this.position = written;
+        this.dirty = dirty;
+    }
+
+    /**
+     * Counts the records a compacted file needs for the given sessions.
+     */
+    private static int recordCount(Map<UUID, Entry> sessions) {
+        int records = 0;
+        for (Entry entry : sessions.values()) {
+            int extraMembers = entry.members().size();
+            int foundersLeft = 0;
+            for (UUID founder : new UUID[]{entry.attackerId(), entry.defenderId()}) {
+                if (entry.members().contains(founder)) {
+                    extraMembers--;
+                } else {
+                    foundersLeft++;
+                }
+            }
+            records += 1 + extraMembers + foundersLeft;
+        }
+        return records;
+    }
+
+    private Path tempFile() {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private void closeQuietly(FileChannel target) {
+        try {
+            target.close();
+        } catch (IOException e) {
+            plugin.getLogger().fine("Failed to close combat journal: " + e.getMessage());
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            closeQuietly(channel);
+            channel = null;
+        }
+    }
+
+    /**
+     * Gets the recovered tag of a player, or null if there is none or it has expired.
+     */
+    public PendingTag getPendingTag(UUID playerId) {
+        PendingTag tag = pendingTags.get(playerId);
+        if (tag != null && tag.getRemainingSeconds() <= 0) {
+            discard(tag);
+            return null;
+        }
+        return tag;
+    }
+
+    /**
+     * Forgets a recovered tag for every player in it once it has been settled.
+     */
+    public void discard(PendingTag tag) {
+        for (UUID member : tag.getMembers()) {
+            pendingTags.remove(member, tag);
+        }
+    }
+
+    /**
+     * Forgets a recovered tag for one player who was resumed or settled; players still
+     * offline keep it and are resumed into the same session when they rejoin.
+     */
+    public void release(UUID playerId, PendingTag tag) {
+        pendingTags.remove(playerId, tag);
+    }
+
+    /**
+     * Gets the recovered tags that are still waiting, one entry per tag.
+     */
+    public List<PendingTag> getPendingTags() {
+        return new ArrayList<>(new LinkedHashSet<>(pendingTags.values()));
+    }
+
+    /**
+     * Gets journal size and append figures for monitoring.
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long appends = appendCount.sum();
+        stats.put("live-sessions", live.size());
+        stats.put("records", position);
+        stats.put("capacity", capacity);
+        stats.put("appends", appends);
+        stats.put("avg-append-micros", appends > 0 ? appendNanos.sum() / 1000.0 / appends : 0.0);
+        stats.put("compactions", compactionCount.sum());
+        stats.put("pending-tags", getPendingTags().size());
+        return stats;
+    }
+
+    private static void writeUuid(MappedByteBuffer target, int offset, UUID id) {
+        target.putLong(offset, id != null ? id.getMostSignificantBits() : 0L);
+        target.putLong(offset + 8, id != null ? id.getLeastSignificantBits() : 0L);
+    }
+
+    private static UUID readUuid(MappedByteBuffer source, int offset) {
+        return new UUID(source.getLong(offset), source.getLong(offset + 8));
+    }
+}
@@ -6,19 +6,30 @@ import com.muzlik.pvpcombat.data.CombatState;
 import com.muzlik.pvpcombat.data.TimerData;
 import com.muzlik.pvpcombat.events.CombatEndEvent;
 import com.muzlik.pvpcombat.events.CombatStartEvent;
+import com.muzlik.pvpcombat.integration.PlaceholderSnapshotCache;
 import com.muzlik.pvpcombat.integration.crossserver.NetworkSyncManager;
 import com.muzlik.pvpcombat.interfaces.ICombatManager;
 import com.muzlik.pvpcombat.interfaces.IConfigManager;
 import com.muzlik.pvpcombat.logging.CombatLogger;
 import com.muzlik.pvpcombat.performance.LagManager;
 import com.muzlik.pvpcombat.performance.PerformanceMonitor;
+import com.muzlik.pvpcombat.performance.jfr.CombatEndJfrEvent;
+import com.muzlik.pvpcombat.performance.jfr.CombatStartJfrEvent;
 import com.muzlik.pvpcombat.utils.AsyncUtils;
 import com.muzlik.pvpcombat.utils.CacheManager;
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
+import com.muzlik.pvpcombat.utils.PlayerPairKey;
+import com.muzlik.pvpcombat.visual.TemplateArgs;
 import com.muzlik.pvpcombat.visual.VisualManager;
+import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -37,9 +48,18 @@ public class CombatManager implements ICombatManager {
     private final NetworkSyncManager networkSyncManager;
     private final PerformanceMonitor performanceMonitor;
     private final CacheManager cacheManager;
-    private int defaultTimerSeconds;
+    // Read on every hit; refreshed from config on reload
+    private volatile int defaultTimerSeconds;
+    private final EngagementGraph engagementGraph;
+    private final boolean clustersEnabled;
+    private final int maxClusterSize;
 
     private final CombatTracker combatTracker;
+    private final PlaceholderSnapshotCache placeholderCache;
+    private volatile CombatJournal journal;
+
+    // Reused by session timers, which all run on the main thread
+    private final TemplateArgs bossBarTitleArgs = new TemplateArgs();
 
     public CombatManager(PvPCombatPlugin plugin, CombatLogger combatLogger, NetworkSyncManager networkSyncManager,
                         PerformanceMonitor performanceMonitor, CacheManager cacheManager, IConfigManager configManager) {
@@ -51,10 +71,15 @@ public class CombatManager implements ICombatManager {
         this.combatTracker = new CombatTracker();
         this.lagManager = new LagManager(plugin, performanceMonitor.getTpsMonitor(), performanceMonitor);
         this.combatTracker.setLagManager(this.lagManager);
+        this.placeholderCache = new PlaceholderSnapshotCache(this);
+        this.combatTracker.setPlaceholderCache(this.placeholderCache);
         this.networkSyncManager = networkSyncManager;
         this.performanceMonitor = performanceMonitor;
         this.cacheManager = cacheManager;
         this.defaultTimerSeconds = plugin.getConfig().getInt("combat.duration", 30);
+        this.engagementGraph = new EngagementGraph();
+        this.clustersEnabled = plugin.getConfig().getBoolean("combat.clusters.enabled", true);
+        this.maxClusterSize = plugin.getConfig().getInt("combat.clusters.max-size", 64);
     }
 
     @Override
@@ -63,8 +88,8 @@ public class CombatManager implements ICombatManager {
 
         try {
             // Check cache first for existing combat state
-            String cacheKey = attacker.getUniqueId() + ":" + defender.getUniqueId();
-            CombatSession cachedSession = (CombatSession) cacheManager.get("combat-states", cacheKey);
+            PlayerPairKey cacheKey = new PlayerPairKey(attacker.getUniqueId(), defender.getUniqueId());
+            CombatSession cachedSession = cacheManager.combatStates().getIfPresent(cacheKey);
 
             if (cachedSession != null && cachedSession.isActive()) {
                 return null; // Already in combat
@@ -83,141 +108,644 @@ public class CombatManager implements ICombatManager {
 
             UUID sessionId = UUID.randomUUID();
             CombatSession session = new CombatSession(sessionId, attacker, defender, defaultTimerSeconds);
+            activateSession(session, attacker, defender, cacheKey);
+            engagementGraph.recordHit(attacker.getUniqueId(), defender.getUniqueId());
+            session.recordEngagement(attacker, defender);
+
+            plugin.getLogger().info("Combat started between " + attacker.getName() + " and " + defender.getName());
+            return sessionId;
+        } finally {
+            performanceMonitor.endOperation("combat-start");
+        }
+    }
 
-            activeSessions.put(attacker.getUniqueId(), session);
-            activeSessions.put(defender.getUniqueId(), session);
+    /**
+     * Registers a new session and starts its timer, visuals, events and logging.
+     */
+    private void activateSession(CombatSession session, Player attacker, Player defender, PlayerPairKey cacheKey) {
+        CombatStartJfrEvent trace = new CombatStartJfrEvent();
+        trace.begin();
+        UUID sessionId = session.getSessionId();
+        activeSessions.put(attacker.getUniqueId(), session);
+        activeSessions.put(defender.getUniqueId(), session);
+        placeholderCache.invalidate(session);
+
+        // Cache the combat state
+        cacheManager.combatStates().put(cacheKey, session);
 
-            // Cache the combat state
-            cacheManager.put("combat-states", cacheKey, session);
+        // Persist the tag so it survives a crash or restart
+        CombatJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.recordStart(session);
+        }
 
-            // Register session with lag manager for performance monitoring
-            lagManager.registerSession(sessionId);
+        // Register session with lag manager for performance monitoring
+        lagManager.registerSession(sessionId, attacker, defender);
 
-            // Start timer task asynchronously
-            AsyncUtils.runAsync(plugin, () -> startTimerTask(session), "combat-processing");
+        // Start timer task asynchronously
+        AsyncUtils.runAsync(plugin, () -> startTimerTask(session), "combat-processing");
 
-            // Initialize visual elements (keep on main thread for thread safety)
-            AsyncUtils.runSync(plugin, () -> {
-                visualManager.displayBossBar(sessionId.toString());
-                visualManager.getActionBarManager().startActionBarUpdates(sessionId.toString(), attacker, defender);
-                visualManager.getSoundManager().playCombatStartSound(attacker);
-                visualManager.getSoundManager().playCombatStartSound(defender);
-            });
+        // Initialize visual elements (keep on main thread for thread safety)
+        AsyncUtils.runSync(plugin, () -> {
+            visualManager.displayBossBar(sessionId.toString());
+            visualManager.getActionBarManager().startActionBarUpdates(session);
+            visualManager.getSoundManager().playCombatStartSound(attacker);
+            visualManager.getSoundManager().playCombatStartSound(defender);
+        });
 
-            // Fire CombatStartEvent
-            plugin.getServer().getPluginManager().callEvent(new CombatStartEvent(session, attacker, defender));
+        // Fire CombatStartEvent
+        plugin.getServer().getPluginManager().callEvent(new CombatStartEvent(session, attacker, defender));
 
-            // Broadcast combat start across network asynchronously if sync is enabled
-            if (networkSyncManager != null && networkSyncManager.isEnabled()) {
-                AsyncUtils.runAsync(plugin, () -> {
-                    networkSyncManager.broadcastCombatStart(session).whenComplete((result, throwable) -> {
-                        if (throwable != null) {
-                            plugin.getLogger().warning("Failed to broadcast combat start: " + throwable.getMessage());
-                        }
-                    });
-                }, "combat-processing");
+        // Broadcast combat start across network asynchronously if sync is enabled
+        if (networkSyncManager != null && networkSyncManager.isEnabled()) {
+            AsyncUtils.runAsync(plugin, () -> {
+                networkSyncManager.broadcastCombatStart(session).whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        plugin.getLogger().warning("Failed to broadcast combat start: " + throwable.getMessage());
+                    }
+                });
+            }, "combat-processing");
+        }
+
+        // Log combat start asynchronously
+        AsyncUtils.runAsync(plugin, () ->
+            combatLogger.logCombatStart(sessionId, attacker, defender), "combat-processing");
+
+        if (trace.shouldCommit()) {
+            trace.sessionId = sessionId.toString();
+            trace.attacker = attacker.getName();
+            trace.defender = defender.getName();
+            trace.commit();
+        }
+    }
+
+    /**
+     * Resumes a tag recovered from the journal once another player of that fight is online too.
+     * A player who rejoins after the fight was already resumed joins the running session.
+     * Otherwise the player is told the tag is still running and it stays pending.
+     *
+     * @return true if the player is back in combat
+     */
+    public boolean resumeFromJournal(Player player) {
+        CombatJournal currentJournal = journal;
+        if (currentJournal == null) {
+            return false;
+        }
+        UUID playerId = player.getUniqueId();
+        CombatJournal.PendingTag tag = currentJournal.getPendingTag(playerId);
+        if (tag == null) {
+            return false;
+        }
+
+        int remaining = tag.getRemainingSeconds();
+        if (remaining <= 0) {
+            currentJournal.discard(tag);
+            currentJournal.recordEnd(tag.getSessionId());
+            return false;
+        }
+        if (isInCombat(player)) {
+            settlePendingTag(currentJournal, tag, playerId);
+            return false;
+        }
+
+        String message = ChatColor.RED + "Your combat tag was restored: %ds left.";
+        CombatSession running = getSessionById(tag.getSessionId().toString());
+        if (running != null) {
+            Player opponent = pickOpponent(tag, playerId, new ArrayList<>(running.getParticipants()));
+            currentJournal.release(playerId, tag);
+            joinSession(running, player, opponent);
+            engagementGraph.recordHit(playerId, opponent.getUniqueId());
+            player.sendMessage(String.format(message, running.getRemainingTime()));
+            return true;
+        }
+
+        // Everyone else from the fight who is online and waiting for the same tag
+        List<Player> others = new ArrayList<>();
+        for (UUID memberId : tag.getMembers()) {
+            Player member = plugin.getServer().getPlayer(memberId);
+            if (!memberId.equals(playerId) && member != null && member.isOnline()
+                    && currentJournal.getPendingTag(memberId) == tag && !isInCombat(member)) {
+                others.add(member);
             }
+        }
+        if (others.isEmpty()) {
+            player.sendMessage(ChatColor.RED + "You are still in combat for " + remaining
+                + "s. Logging out again counts as combat logging.");
+            return false;
+        }
 
-            // Log combat start asynchronously
-            AsyncUtils.runAsync(plugin, () ->
-                combatLogger.logCombatStart(sessionId, attacker, defender), "combat-processing");
+        Player opponent = pickOpponent(tag, playerId, others);
+        Player attacker = tag.getAttackerId().equals(playerId) ? player : opponent;
+        Player defender = attacker == player ? opponent : player;
+        CombatSession session = new CombatSession(tag.getSessionId(), attacker, defender, defaultTimerSeconds);
+        session.getTimerData().setRemainingSeconds(Math.min(remaining, defaultTimerSeconds));
+        session.setTimerSeconds(session.getTimerData().getRemainingSeconds());
+        currentJournal.release(attacker.getUniqueId(), tag);
+        currentJournal.release(defender.getUniqueId(), tag);
+        activateSession(session, attacker, defender, new PlayerPairKey(attacker.getUniqueId(), defender.getUniqueId()));
+        engagementGraph.recordHit(attacker.getUniqueId(), defender.getUniqueId());
+        for (Player other : others) {
+            if (other != opponent) {
+                currentJournal.release(other.getUniqueId(), tag);
+                joinSession(session, other, player);
+                engagementGraph.recordHit(other.getUniqueId(), playerId);
+            }
+        }
 
-            plugin.getLogger().info("Combat started between " + attacker.getName() + " and " + defender.getName());
-            return sessionId;
-        } finally {
-            performanceMonitor.endOperation("combat-start");
+        String restored = String.format(message, session.getRemainingTime());
+        for (Player participant : session.getParticipants()) {
+            participant.sendMessage(restored);
+        }
+        plugin.getLogger().info("Combat resumed between " + attacker.getName() + " and " + defender.getName()
+            + " (" + session.getParticipants().size() + " players)");
+        return true;
+    }
+
+    /**
+     * Picks who a resumed player fights against: their original opponent if present, else anyone.
+     */
+    private Player pickOpponent(CombatJournal.PendingTag tag, UUID playerId, List<Player> candidates) {
+        UUID preferred = tag.getAttackerId().equals(playerId) ? tag.getDefenderId()
+            : tag.getDefenderId().equals(playerId) ? tag.getAttackerId() : null;
+        for (Player candidate : candidates) {
+            if (candidate.getUniqueId().equals(preferred)) {
+                return candidate;
+            }
+        }
+        return candidates.get(0);
+    }
+
+    /**
+     * Settles a recovered tag whose player leaves before it could be resumed, as if they
+     * had logged out of a running fight.
+     *
+     * @return true if the player still had a pending tag
+     */
+    public boolean forfeitPendingTag(Player player) {
+        CombatJournal currentJournal = journal;
+        CombatJournal.PendingTag tag = currentJournal != null ? currentJournal.getPendingTag(player.getUniqueId()) : null;
+        if (tag == null) {
+            return false;
+        }
+        settlePendingTag(currentJournal, tag, player.getUniqueId());
+        return true;
+    }
+
+    /**
+     * Takes one player out of a recovered tag. The tag ends once fewer than two of its
+     * players are left to resume it and it is not running already.
+     */
+    private void settlePendingTag(CombatJournal currentJournal, CombatJournal.PendingTag tag, UUID playerId) {
+        currentJournal.release(playerId, tag);
+        int waiting = 0;
+        for (UUID memberId : tag.getMembers()) {
+            if (currentJournal.getPendingTag(memberId) == tag) {
+                waiting++;
+            }
+        }
+        if (waiting < 2 && getSessionById(tag.getSessionId().toString()) == null) {
+            currentJournal.discard(tag);
+            currentJournal.recordEnd(tag.getSessionId());
+        } else {
+            currentJournal.recordLeave(tag.getSessionId(), playerId);
         }
     }
 
+    /**
+     * Takes a player out of combat. In a cluster only that player leaves and the fight goes
+     * on for the others; otherwise the whole session ends.
+     */
     @Override
     public boolean endCombat(UUID playerId) {
         performanceMonitor.startOperation("combat-end");
 
         try {
-            CombatSession session = activeSessions.remove(playerId);
-            if (session != null) {
-                UUID sessionId = session.getSessionId();
-
-                // Calculate combat duration
-                long combatDuration = System.currentTimeMillis() - session.getStartTime();
-                
-                // Update combat tracker with combat time for both players
-                com.muzlik.pvpcombat.data.PlayerCombatData attackerData = combatTracker.getPlayerData(session.getAttacker().getUniqueId());
-                com.muzlik.pvpcombat.data.PlayerCombatData defenderData = combatTracker.getPlayerData(session.getDefender().getUniqueId());
-                
-                attackerData.addCombatTime(combatDuration);
-                defenderData.addCombatTime(combatDuration);
-                
-                // Update last combat timestamp
-                java.time.LocalDateTime now = java.time.LocalDateTime.now();
-                attackerData.setLastCombat(now);
-                defenderData.setLastCombat(now);
-                
-                // Log the combat data for debugging
-                plugin.getLogger().info(String.format("[COMBAT END] %s: %.1f dmg dealt, %d wins, %d losses | %s: %.1f dmg dealt, %d wins, %d losses",
-                    session.getAttacker().getName(), attackerData.getTotalDamageDealt(), attackerData.getWins(), attackerData.getLosses(),
-                    session.getDefender().getName(), defenderData.getTotalDamageDealt(), defenderData.getWins(), defenderData.getLosses()));
-
-                // Remove from cache
-                String cacheKey = session.getAttacker().getUniqueId() + ":" + session.getDefender().getUniqueId();
-                cacheManager.remove("combat-states", cacheKey);
-
-                // Remove both players from the session
-                activeSessions.remove(session.getAttacker().getUniqueId());
-                activeSessions.remove(session.getDefender().getUniqueId());
-
-                session.setActive(false);
-                session.setState(CombatState.NOT_IN_COMBAT);
-
-                // Unregister session from lag manager
-                lagManager.unregisterSession(sessionId);
-
-                // Cancel timer task
-                BukkitTask timerTask = sessionTimers.remove(sessionId);
-                if (timerTask != null) {
-                    timerTask.cancel();
-                }
+            CombatSession session = activeSessions.get(playerId);
+            if (session == null) {
+                return false;
+            }
+            if (session.isCluster()) {
+                leaveSession(session, playerId);
+                return true;
+            }
+            return finishSession(session, playerId);
+        } finally {
+            performanceMonitor.endOperation("combat-end");
+        }
+    }
+
+    /**
+     * Ends a whole session with every participant in it, e.g. when its timer runs out.
+     */
+    public boolean endSession(CombatSession session) {
+        performanceMonitor.startOperation("combat-end");
+
+        try {
+            return finishSession(session, session.getAttacker().getUniqueId());
+        } finally {
+            performanceMonitor.endOperation("combat-end");
+        }
+    }
+
+    /**
+     * Ends a session for all participants; the given player counts as the loser.
+     */
+    private boolean finishSession(CombatSession session, UUID playerId) {
+        if (!session.isActive()) {
+            return false;
+        }
+        CombatEndJfrEvent trace = new CombatEndJfrEvent();
+        trace.begin();
+        UUID sessionId = session.getSessionId();
+        java.util.List<Player> participants = new java.util.ArrayList<>(session.getParticipants());
+
+        // Calculate combat duration
+        long combatDuration = System.currentTimeMillis() - session.getStartTime();
 
-                // Clear visual elements (keep on main thread)
-                AsyncUtils.runSync(plugin, () -> {
-                    visualManager.clearVisuals(session.getAttacker());
-                    visualManager.clearVisuals(session.getDefender());
-                    visualManager.getSoundManager().playCombatEndSound(session.getAttacker());
-                    visualManager.getSoundManager().playCombatEndSound(session.getDefender());
+        // Update combat tracker with combat time and last combat timestamp for every participant
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        for (Player participant : participants) {
+            com.muzlik.pvpcombat.data.PlayerCombatData data = combatTracker.getPlayerData(participant.getUniqueId());
+            data.addCombatTime(combatDuration);
+            data.setLastCombat(now);
+        }
+
+        // Log the combat data for debugging
+        com.muzlik.pvpcombat.data.PlayerCombatData attackerData = combatTracker.getPlayerData(session.getAttacker().getUniqueId());
+        com.muzlik.pvpcombat.data.PlayerCombatData defenderData = combatTracker.getPlayerData(session.getDefender().getUniqueId());
+        plugin.getLogger().info(String.format("[COMBAT END] %s: %.1f dmg dealt, %d wins, %d losses | %s: %.1f dmg dealt, %d wins, %d losses",
+            session.getAttacker().getName(), attackerData.getTotalDamageDealt(), attackerData.getWins(), attackerData.getLosses(),
+            session.getDefender().getName(), defenderData.getTotalDamageDealt(), defenderData.getWins(), defenderData.getLosses()));
+
+        // Remove from cache
+        cacheManager.combatStates().invalidate(
+            new PlayerPairKey(session.getAttacker().getUniqueId(), session.getDefender().getUniqueId()));
+
+        // Remove every participant from the session and the engagement graph
+        for (Player participant : participants) {
+            activeSessions.remove(participant.getUniqueId(), session);
+            engagementGraph.removeCluster(participant.getUniqueId());
+        }
+
+        session.setActive(false);
+        session.setState(CombatState.NOT_IN_COMBAT);
+        placeholderCache.invalidate(session);
+
+        CombatJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.recordEnd(sessionId);
+        }
+
+        // Unregister session from lag manager
+        lagManager.unregisterSession(sessionId);
+
+        // Cancel timer task
+        BukkitTask timerTask = sessionTimers.remove(sessionId);
+        if (timerTask != null) {
+            timerTask.cancel();
+        }
+
+        // Clear visual elements (keep on main thread)
+        AsyncUtils.runSync(plugin, () -> {
+            for (Player participant : participants) {
+                visualManager.clearVisuals(participant);
+                visualManager.getSoundManager().playCombatEndSound(participant);
+            }
+        });
+
+        // Fire CombatEndEvent
+        Player loser = participants.stream().filter(p -> p.getUniqueId().equals(playerId)).findFirst()
+            .orElse(session.getAttacker());
+        Player winner = session.getOpponent(loser);
+        plugin.getServer().getPluginManager().callEvent(new CombatEndEvent(session, winner, loser, CombatEndEvent.CombatEndReason.FORCE_END));
+
+        // Broadcast combat end across network asynchronously if sync is enabled
+        if (networkSyncManager != null && networkSyncManager.isEnabled()) {
+            AsyncUtils.runAsync(plugin, () -> {
+                networkSyncManager.broadcastCombatEnd(session.getSessionId(), "Combat ended").whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        plugin.getLogger().warning("Failed to broadcast combat end: " + throwable.getMessage());
+                    }
                 });
+            }, "combat-processing");
+        }
 
-                // Fire CombatEndEvent
-                Player winner = session.getAttacker().getUniqueId().equals(playerId) ? session.getDefender() : session.getAttacker();
-                Player loser = session.getAttacker().getUniqueId().equals(playerId) ? session.getAttacker() : session.getDefender();
-                plugin.getServer().getPluginManager().callEvent(new CombatEndEvent(session, winner, loser, CombatEndEvent.CombatEndReason.FORCE_END));
-
-                // Broadcast combat end across network asynchronously if sync is enabled
-                if (networkSyncManager != null && networkSyncManager.isEnabled()) {
-                    AsyncUtils.runAsync(plugin, () -> {
-                        networkSyncManager.broadcastCombatEnd(session.getSessionId(), "Combat ended").whenComplete((result, throwable) -> {
-                            if (throwable != null) {
-                                plugin.getLogger().warning("Failed to broadcast combat end: " + throwable.getMessage());
-                            }
-                        });
-                    }, "combat-processing");
-                }
+        // Log combat end and generate summaries asynchronously
+        AsyncUtils.runAsync(plugin, () -> {
+            combatLogger.logCombatEnd(sessionId, session.getAttacker(), session.getDefender(), "Combat ended");
+            for (Player participant : participants) {
+                combatLogger.generateSummary(sessionId, participant, session);
+            }
+        }, "combat-processing");
 
-                // Log combat end and generate summaries asynchronously
-                // Pass session data before it's removed
-                final CombatSession finalSession = session;
-                AsyncUtils.runAsync(plugin, () -> {
-                    combatLogger.logCombatEnd(finalSession.getSessionId(), finalSession.getAttacker(),
-                                              finalSession.getDefender(), "Combat ended");
-                    combatLogger.generateSummary(finalSession.getSessionId(), finalSession.getAttacker(), finalSession);
-                    combatLogger.generateSummary(finalSession.getSessionId(), finalSession.getDefender(), finalSession);
-                }, "combat-processing");
-
-                plugin.getLogger().info("Combat ended for player " + playerId + " (Duration: " + (combatDuration / 1000) + "s)");
-                return true;
+        plugin.getLogger().info("Combat ended for player " + playerId + " (Duration: " + (combatDuration / 1000) + "s)");
+
+        if (trace.shouldCommit()) {
+            trace.sessionId = sessionId.toString();
+            trace.participants = participants.size();
+            trace.combatDuration = combatDuration;
+            trace.commit();
+        }
+        return true;
+    }
+
+    /**
+     * Records a hit between two players of whom at least one is already fighting and resets
+     * the shared timer. With clusters enabled, a newcomer joins the fight and a hit between
+     * two separate fights merges them into one session.
+     */
+    public void engage(Player attacker, Player defender) {
+        CombatSession attackerSession = activeSessions.get(attacker.getUniqueId());
+        CombatSession defenderSession = activeSessions.get(defender.getUniqueId());
+        CombatSession session = attackerSession != null ? attackerSession : defenderSession;
+        if (session == null) {
+            return;
+        }
+
+        if (clustersEnabled && canJoinCluster(attacker, defender)) {
+            if (attackerSession == null) {
+                joinSession(defenderSession, attacker, defender);
+            } else if (defenderSession == null) {
+                joinSession(attackerSession, defender, attacker);
+            } else if (attackerSession != defenderSession) {
+                session = mergeSessions(attackerSession, defenderSession);
             }
+            engagementGraph.recordHit(attacker.getUniqueId(), defender.getUniqueId());
+            session.recordEngagement(attacker, defender);
+        }
+
+        // Reset timer to default duration
+        session.getTimerData().setRemainingSeconds(defaultTimerSeconds);
+        placeholderCache.invalidate(session);
+        CombatJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.recordHit(session);
+        }
+    }
+
+    /**
+     * Checks if a hit between two players may pull them into one cluster without
+     * exceeding the configured size.
+     */
+    public boolean canJoinCluster(Player hitter, Player target) {
+        if (!clustersEnabled) {
             return false;
-        } finally {
-            performanceMonitor.endOperation("combat-end");
+        }
+        // Sessions follow the engagement graph, so its clusters are the sessions' players
+        UUID hitterId = hitter.getUniqueId();
+        UUID targetId = target.getUniqueId();
+        if (engagementGraph.isConnected(hitterId, targetId)) {
+            return true;
+        }
+        int size = engagementGraph.clusterSize(hitterId) + engagementGraph.clusterSize(targetId);
+        return maxClusterSize <= 0 || size <= maxClusterSize;
+    }
+
+    /**
+     * Adds a player to a running session and shares its timer, bossbar and log with them.
+     */
+    private void joinSession(CombatSession session, Player joiner, Player opponent) {
+        if (!session.addParticipant(joiner)) {
+            return;
+        }
+        activeSessions.put(joiner.getUniqueId(), session);
+        placeholderCache.invalidate(joiner.getUniqueId());
+        lagManager.addParticipant(session.getSessionId(), joiner);
+        CombatJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.recordJoin(session, joiner);
+        }
+
+        String sessionId = session.getSessionId().toString();
+        visualManager.getBossBarManager().addPlayer(sessionId, joiner);
+        visualManager.getActionBarManager().addParticipant(session, joiner);
+        visualManager.getSoundManager().playCombatStartSound(joiner);
+
+        plugin.getServer().getPluginManager().callEvent(new CombatStartEvent(session, joiner, opponent));
+        AsyncUtils.runAsync(plugin, () ->
+            combatLogger.logCombatStart(session.getSessionId(), joiner, opponent), "combat-processing");
+
+        plugin.getLogger().info(joiner.getName() + " joined the fight of " + opponent.getName()
+            + " (" + session.getParticipants().size() + " players)");
+    }
+
+    /**
+     * Merges two running sessions into the larger one. The smaller session's timer, bossbar
+     * and journal entry are retired and its players continue in the surviving session, which
+     * journals them as joiners and samples their ping.
+     */
+    private CombatSession mergeSessions(CombatSession first, CombatSession second) {
+        CombatSession kept = first.getParticipants().size() >= second.getParticipants().size() ? first : second;
+        CombatSession merged = kept == first ? second : first;
+        UUID mergedId = merged.getSessionId();
+
+        kept.absorb(merged);
+        merged.setActive(false);
+        for (Player participant : merged.getParticipants()) {
+            activeSessions.put(participant.getUniqueId(), kept);
+        }
+
+        cacheManager.combatStates().invalidate(
+            new PlayerPairKey(merged.getAttacker().getUniqueId(), merged.getDefender().getUniqueId()));
+        CombatJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.recordEnd(mergedId);
+            for (Player participant : merged.getParticipants()) {
+                currentJournal.recordJoin(kept, participant);
+            }
+        }
+        // Track the players under the kept session first so their ping sampling never stops
+        for (Player participant : merged.getParticipants()) {
+            lagManager.addParticipant(kept.getSessionId(), participant);
+        }
+        lagManager.unregisterSession(mergedId);
+        BukkitTask timerTask = sessionTimers.remove(mergedId);
+        if (timerTask != null) {
+            timerTask.cancel();
+        }
+
+        String keptId = kept.getSessionId().toString();
+        visualManager.getBossBarManager().clearBossBar(mergedId.toString());
+        for (Player participant : merged.getParticipants()) {
+            visualManager.getBossBarManager().addPlayer(keptId, participant);
+            visualManager.getActionBarManager().addParticipant(kept, participant);
+        }
+        placeholderCache.invalidate(kept);
+
+        AsyncUtils.runAsync(plugin, () -> combatLogger.logCombatEnd(mergedId, merged.getAttacker(),
+            merged.getDefender(), "Merged into " + keptId), "combat-processing");
+        plugin.getLogger().info("Merged combat " + mergedId + " into " + keptId
+            + " (" + kept.getParticipants().size() + " players)");
+        return kept;
+    }
+
+    /**
+     * Takes one player out of a cluster while the fight continues for the others. If that
+     * leaves players who no longer fought each other, the cluster splits along the
+     * engagement graph: the largest group keeps the session, other groups get sessions of
+     * their own and players left without an opponent are released.
+     */
+    private void leaveSession(CombatSession session, UUID playerId) {
+        Player player = null;
+        for (Player participant : session.getParticipants()) {
+            if (participant.getUniqueId().equals(playerId)) {
+                player = participant;
+                break;
+            }
+        }
+        if (player == null) {
+            activeSessions.remove(playerId, session);
+            return;
+        }
+
+        releaseParticipant(session, player, "Left the fight");
+        splitSession(session);
+    }
+
+    /**
+     * Splits a session whose players no longer form one cluster in the engagement graph.
+     */
+    private void splitSession(CombatSession session) {
+        Map<UUID, List<Player>> components = new LinkedHashMap<>();
+        for (Player participant : session.getParticipants()) {
+            components.computeIfAbsent(engagementGraph.find(participant.getUniqueId()), id -> new ArrayList<>())
+                .add(participant);
+        }
+        if (components.size() <= 1) {
+            return;
+        }
+
+        List<Player> largest = null;
+        for (List<Player> component : components.values()) {
+            if (largest == null || component.size() > largest.size()) {
+                largest = component;
+            }
+        }
+        if (largest.size() < 2) {
+            // Nobody left fought anybody else who is still here
+            finishSession(session, session.getAttacker().getUniqueId());
+            return;
+        }
+
+        for (List<Player> component : components.values()) {
+            if (component == largest) {
+                continue;
+            }
+            if (component.size() == 1) {
+                releaseParticipant(session, component.get(0), "No opponents left");
+            } else {
+                splitOff(session, component);
+            }
+        }
+    }
+
+    /**
+     * Removes a player from a session that goes on without them.
+     */
+    private void releaseParticipant(CombatSession session, Player player, String reason) {
+        UUID playerId = player.getUniqueId();
+        Player opponent = session.getOpponent(player);
+        session.removeParticipant(player);
+        activeSessions.remove(playerId, session);
+        // A pair that has not traded hits for a whole timer no longer holds the cluster together
+        engagementGraph.remove(playerId, System.currentTimeMillis() - defaultTimerSeconds * 1000L);
+        lagManager.removeParticipant(session.getSessionId(), playerId);
+        CombatJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.recordLeave(session.getSessionId(), playerId);
+        }
+        invalidateFounderPair(session, player);
+
+        com.muzlik.pvpcombat.data.PlayerCombatData data = combatTracker.getPlayerData(playerId);
+        data.addCombatTime(System.currentTimeMillis() - session.getStartTime());
+        data.setLastCombat(java.time.LocalDateTime.now());
+        placeholderCache.invalidate(playerId);
+        placeholderCache.invalidate(session);
+
+        AsyncUtils.runSync(plugin, () -> {
+            visualManager.clearVisuals(player);
+            visualManager.getSoundManager().playCombatEndSound(player);
+        });
+
+        // The session is still active, so listeners only release the leaving player
+        plugin.getServer().getPluginManager().callEvent(
+            new CombatEndEvent(session, opponent, player, CombatEndEvent.CombatEndReason.FORCE_END));
+
+        AsyncUtils.runAsync(plugin, () -> {
+            if (opponent != null) {
+                combatLogger.logCombatEnd(session.getSessionId(), player, opponent, reason);
+            }
+            combatLogger.generateSummary(session.getSessionId(), player, session);
+        }, "combat-processing");
+
+        plugin.getLogger().info(player.getName() + " left combat " + session.getSessionId()
+            + " (" + session.getParticipants().size() + " players remain)");
+    }
+
+    /**
+     * Moves a group of players who only fought each other out of a session into a new one
+     * that keeps the remaining time.
+     */
+    private void splitOff(CombatSession session, List<Player> members) {
+        UUID sessionId = session.getSessionId();
+        Player attacker = members.get(0);
+        Player defender = members.get(1);
+        UUID lastOpponent = engagementGraph.getLastOpponent(attacker.getUniqueId());
+        for (Player member : members) {
+            if (member.getUniqueId().equals(lastOpponent)) {
+                defender = member;
+                break;
+            }
+        }
+
+        CombatSession split = session.split(UUID.randomUUID(), attacker, defender, members);
+        UUID splitId = split.getSessionId();
+        CombatJournal currentJournal = journal;
+        for (Player member : members) {
+            activeSessions.put(member.getUniqueId(), split);
+            lagManager.removeParticipant(sessionId, member.getUniqueId());
+            if (currentJournal != null) {
+                currentJournal.recordLeave(sessionId, member.getUniqueId());
+            }
+            invalidateFounderPair(session, member);
+            placeholderCache.invalidate(member.getUniqueId());
+        }
+        placeholderCache.invalidate(session);
+        cacheManager.combatStates().put(new PlayerPairKey(attacker.getUniqueId(), defender.getUniqueId()), split);
+
+        if (currentJournal != null) {
+            currentJournal.recordStart(split);
+        }
+        lagManager.registerSession(splitId, attacker, defender);
+        for (Player member : members) {
+            if (member != attacker && member != defender) {
+                lagManager.addParticipant(splitId, member);
+                if (currentJournal != null) {
+                    currentJournal.recordJoin(split, member);
+                }
+            }
+        }
+
+        AsyncUtils.runAsync(plugin, () -> startTimerTask(split), "combat-processing");
+        AsyncUtils.runSync(plugin, () -> {
+            for (Player member : members) {
+                visualManager.clearVisuals(member);
+            }
+            visualManager.displayBossBar(splitId.toString());
+            visualManager.getActionBarManager().startActionBarUpdates(split);
+        });
+
+        plugin.getLogger().info("Split combat " + splitId + " (" + members.size() + " players) off "
+            + sessionId + " (" + session.getParticipants().size() + " players)");
+    }
+
+    /**
+     * Drops the cached pair state of a session once one of its founding players is gone from it.
+     */
+    private void invalidateFounderPair(CombatSession session, Player player) {
+        if (player.equals(session.getAttacker()) || player.equals(session.getDefender())) {
+            cacheManager.combatStates().invalidate(
+                new PlayerPairKey(session.getAttacker().getUniqueId(), session.getDefender().getUniqueId()));
         }
     }
 
@@ -232,14 +760,20 @@ public class CombatManager implements ICombatManager {
         for (CombatSession session : activeSessions.values()) {
             if (session.getSessionId().equals(sessionId)) {
                 session.resetTimer();
+                placeholderCache.invalidate(session);
+                CombatJournal currentJournal = journal;
+                if (currentJournal != null) {
+                    currentJournal.recordReset(session);
+                }
 
                 // Update bossbar progress
                 double progress = session.getTimerData().getProgress();
                 visualManager.updateBossBarProgress(sessionId.toString(), progress);
 
                 // Play timer reset sound
-                visualManager.getSoundManager().playTimerResetSound(session.getAttacker());
-                visualManager.getSoundManager().playTimerResetSound(session.getDefender());
+                for (Player participant : session.getParticipants()) {
+                    visualManager.getSoundManager().playTimerResetSound(participant);
+                }
 
                 return true;
             }
@@ -247,6 +781,13 @@ public class CombatManager implements ICombatManager {
         return false;
     }
 
+    /**
+     * Gets the active session a player is part of without copying the session map.
+     */
+    public CombatSession getSession(Player player) {
+        return activeSessions.get(player.getUniqueId());
+    }
+
     @Override
     public Player getOpponent(Player player) {
         CombatSession session = activeSessions.get(player.getUniqueId());
@@ -274,13 +815,8 @@ public class CombatManager implements ICombatManager {
                     return;
                 }
 
-                // Update player ping data for lag detection
-                lagManager.updatePlayerPing(session.getAttacker());
-                lagManager.updatePlayerPing(session.getDefender());
-
-                // Check for lag adjustments
-                int lagExtension = lagManager.checkAndApplyLagAdjustment(sessionId,
-                        session.getAttacker(), session.getDefender());
+                // Check for lag adjustments (ping is sampled in batches by the PingTracker)
+                int lagExtension = lagManager.checkAndApplyLagAdjustment(sessionId);
 
                 if (lagExtension > 0) {
                     // Apply lag extension to timer
@@ -288,6 +824,10 @@ public class CombatManager implements ICombatManager {
                     int newRemaining = timerData.getRemainingSeconds() + lagExtension;
                     timerData.setRemainingSeconds(newRemaining);
                     session.setTimerSeconds(newRemaining);
+                    CombatJournal currentJournal = journal;
+                    if (currentJournal != null) {
+                        currentJournal.recordReset(session);
+                    }
 
                     plugin.getLogger().fine(String.format("Extended combat timer for session %s by %d seconds due to lag",
                             sessionId, lagExtension));
@@ -295,10 +835,11 @@ public class CombatManager implements ICombatManager {
 
                 // Update timer and check if expired
                 boolean expired = session.updateTimer();
+                placeholderCache.invalidate(session);
 
                 if (expired) {
-                    // Combat timer expired - end combat
-                    endCombat(session.getAttacker().getUniqueId());
+                    // Combat timer expired - end combat for everyone in it
+                    endSession(session);
                 } else {
                     // Periodic sync of combat state across network
                     if (networkSyncManager != null && networkSyncManager.isEnabled()) {
@@ -318,15 +859,15 @@ public class CombatManager implements ICombatManager {
                     
                     // Update bossbar progress and title
                     visualManager.updateBossBarProgress(sessionId.toString(), progress);
-                    String title = plugin.getConfig().getString("combat.bossbar.title", "&cCombat: &f{time_left}s")
-                        .replace("{time_left}", String.valueOf(remainingTime))
-                        .replace("&", "§");
+                    String title = visualManager.getBossBarTitleTemplate()
+                        .render(bossBarTitleArgs.clear().set(TemplateArgs.Key.TIME_LEFT, remainingTime), null);
                     visualManager.updateBossBarTitle(sessionId.toString(), title);
 
                     // Play warning sound at 5 seconds
                     if (remainingTime == 5) {
-                        visualManager.getSoundManager().playTimerWarningSound(session.getAttacker());
-                        visualManager.getSoundManager().playTimerWarningSound(session.getDefender());
+                        for (Player participant : session.getParticipants()) {
+                            visualManager.getSoundManager().playTimerWarningSound(participant);
+                        }
                     }
                 }
             }
@@ -361,6 +902,17 @@ public class CombatManager implements ICombatManager {
         return visualManager;
     }
 
+    /**
+     * Gets the who-hit-whom graph that groups fights into clusters.
+     */
+    public EngagementGraph getEngagementGraph() {
+        return engagementGraph;
+    }
+
+    public boolean isClusteringEnabled() {
+        return clustersEnabled;
+    }
+
     /**
      * Gets the lag manager for performance monitoring.
      */
@@ -369,26 +921,31 @@ public class CombatManager implements ICombatManager {
     }
 
     /**
-     * Cleans up expired sessions.
+     * Gets a live, weakly consistent cursor over active sessions for incremental sweeps.
+     * Each session appears once per participant; sessions may end while the cursor is open.
      */
-    public void cleanupExpiredSessions() {
-        performanceMonitor.startOperation("cleanup-expired-sessions");
+    public Iterator<CombatSession> sessionCursor() {
+        return activeSessions.values().iterator();
+    }
 
-        try {
-            // Run cleanup asynchronously to avoid blocking main thread
-            AsyncUtils.runAsync(plugin, () -> {
-                activeSessions.entrySet().removeIf(entry -> {
-                    CombatSession session = entry.getValue();
-                    if (session.isExpired()) {
-                        // End combat synchronously as it needs to interact with main thread
-                        AsyncUtils.runSync(plugin, () -> endCombat(entry.getKey()));
-                        return true;
-                    }
-                    return false;
-                });
-            }, "cleanup-tasks");
-        } finally {
-            performanceMonitor.endOperation("cleanup-expired-sessions");
+    /**
+     * Re-reads the combat duration after a config reload. Running timers keep their time
+     * and pick up the new duration on their next hit.
+     */
+    public void reloadConfiguration() {
+        defaultTimerSeconds = plugin.getConfig().getInt("combat.duration", 30);
+    }
+
+    /**
+     * Registers cleanup of the data owned by this manager's subsystems, and the batched
+     * damage leaderboard updates. Session cleanup itself is registered by the CleanupManager.
+     */
+    public void registerCleanupJobs(IncrementalSweeper sweeper) {
+        combatTracker.registerCleanupJob(sweeper);
+        combatTracker.registerDamagePublishJob(sweeper);
+        lagManager.registerCleanupJobs(sweeper);
+        if (networkSyncManager != null) {
+            networkSyncManager.registerCleanupJobs(sweeper);
         }
     }
 
@@ -461,10 +1018,28 @@ public class CombatManager implements ICombatManager {
         return false;
     }
 
+    /**
+     * Sets the journal that persists tags across restarts, or null to keep them in memory only.
+     */
+    public void setJournal(CombatJournal journal) {
+        this.journal = journal;
+    }
+
+    public CombatJournal getJournal() {
+        return journal;
+    }
+
     /**
      * Gets the combat tracker for statistics.
      */
     public CombatTracker getCombatTracker() {
         return combatTracker;
     }
+
+    /**
+     * Gets the per-player placeholder snapshot cache.
+     */
+    public PlaceholderSnapshotCache getPlaceholderCache() {
+        return placeholderCache;
+    }
 }
\ No newline at end of file
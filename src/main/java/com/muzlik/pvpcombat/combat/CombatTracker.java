@@ -2,10 +2,17 @@ package com.muzlik.pvpcombat.combat;
 
 import com.muzlik.pvpcombat.data.CombatEvent;
 import com.muzlik.pvpcombat.data.PlayerCombatData;
+import com.muzlik.pvpcombat.data.PlayerStatsStore;
+import com.muzlik.pvpcombat.integration.PlaceholderSnapshotCache;
+import com.muzlik.pvpcombat.leaderboard.LeaderboardManager;
+import com.muzlik.pvpcombat.leaderboard.LeaderboardMetric;
 import com.muzlik.pvpcombat.performance.LagManager;
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -15,11 +22,22 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class CombatTracker {
 
+    private static final long INACTIVE_DATA_MILLIS = 24L * 60 * 60 * 1000; // 24 hours
+    private static final long CLEANUP_INTERVAL_TICKS = 5 * 60 * 20L; // 5 minutes
+    private static final long DAMAGE_PUBLISH_INTERVAL_TICKS = 5 * 20L; // 5 seconds
+
     private final Map<UUID, PlayerCombatData> playerData;
+    // Players whose damage totals changed since the last damage publish
+    private final Set<UUID> damageDirty;
     private LagManager lagManager;
+    // Attached once statistics finish loading; null until then
+    private volatile LeaderboardManager leaderboardManager;
+    private volatile PlayerStatsStore statsStore;
+    private PlaceholderSnapshotCache placeholderCache;
 
     public CombatTracker() {
         this.playerData = new ConcurrentHashMap<>();
+        this.damageDirty = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -29,12 +47,40 @@ public class CombatTracker {
         this.lagManager = lagManager;
     }
 
+    /**
+     * Attaches the loaded statistics store and the leaderboards kept in sync with it.
+     * Until then counters only live in memory; data created in the meantime gets the
+     * stored counters added here. The store is published first, so data created while
+     * this runs is merged either here or on creation, never twice. Must be called on the
+     * main thread.
+     */
+    public void attachStatistics(PlayerStatsStore statsStore, LeaderboardManager leaderboardManager) {
+        this.statsStore = statsStore;
+        playerData.forEach((id, data) -> {
+            statsStore.merge(data);
+            Player player = Bukkit.getPlayer(id);
+            String name = player != null ? player.getName() : null;
+            statsStore.update(id, name, data);
+            if (leaderboardManager != null && name != null) {
+                leaderboardManager.update(id, name, data, LeaderboardMetric.values());
+            }
+        });
+        this.leaderboardManager = leaderboardManager;
+    }
+
+    /**
+     * Sets the placeholder cache that is invalidated when statistics change.
+     */
+    public void setPlaceholderCache(PlaceholderSnapshotCache placeholderCache) {
+        this.placeholderCache = placeholderCache;
+    }
+
     /**
      * Records a combat event.
      */
     public void recordEvent(CombatEvent event) {
         PlayerCombatData data = getPlayerData(event.getPlayerId());
-        data.getEvents().add(event);
+        data.addEvent(event);
         data.updateLastActivity(System.currentTimeMillis());
         data.getStats().increment(event.getEventType());
     }
@@ -43,21 +89,31 @@ public class CombatTracker {
      * Gets or creates player combat data.
      */
     public PlayerCombatData getPlayerData(UUID playerId) {
-        return playerData.computeIfAbsent(playerId, PlayerCombatData::new);
+        return playerData.computeIfAbsent(playerId, this::createPlayerData);
+    }
+
+    private PlayerCombatData createPlayerData(UUID playerId) {
+        PlayerCombatData data = new PlayerCombatData(playerId);
+        if (statsStore != null) {
+            statsStore.merge(data);
+        }
+        return data;
     }
 
     /**
-     * Records damage dealt in combat.
+     * Records damage dealt in combat. The damage leaderboard and the store are updated
+     * in batches by the damage publish job rather than on every hit.
      */
     public void recordDamageDealt(Player attacker, double damage) {
         PlayerCombatData data = getPlayerData(attacker.getUniqueId());
         data.addDamageDealt(damage);
+        data.incrementWeaponUsage(attacker.getInventory().getItemInMainHand().getType());
         data.updateLastActivity(System.currentTimeMillis());
 
-        // Update performance data for lag detection
-        if (lagManager != null) {
-            lagManager.updatePlayerPing(attacker);
+        if (placeholderCache != null) {
+            placeholderCache.invalidate(attacker.getUniqueId());
         }
+        damageDirty.add(attacker.getUniqueId());
     }
 
     /**
@@ -68,9 +124,8 @@ public class CombatTracker {
         data.addDamageReceived(damage);
         data.updateLastActivity(System.currentTimeMillis());
 
-        // Update performance data for lag detection
-        if (lagManager != null) {
-            lagManager.updatePlayerPing(defender);
+        if (placeholderCache != null) {
+            placeholderCache.invalidate(defender.getUniqueId());
         }
     }
 
@@ -82,6 +137,8 @@ public class CombatTracker {
         data.incrementWins();
         data.incrementCombats();
         data.updateLastActivity(System.currentTimeMillis());
+
+        publishStatistics(winner, data, LeaderboardMetric.WINS, LeaderboardMetric.KD_RATIO, LeaderboardMetric.WIN_RATE);
         
         // Log for debugging
         System.out.println("[COMBAT] " + winner.getName() + " won! Total wins: " + data.getWins());
@@ -95,6 +152,8 @@ public class CombatTracker {
         data.incrementLosses();
         data.incrementCombats();
         data.updateLastActivity(System.currentTimeMillis());
+
+        publishStatistics(loser, data, LeaderboardMetric.KD_RATIO, LeaderboardMetric.WIN_RATE);
         
         // Log for debugging
         System.out.println("[COMBAT] " + loser.getName() + " lost! Total losses: " + data.getLosses());
@@ -108,10 +167,71 @@ public class CombatTracker {
     }
 
     /**
-     * Clears old/inactive player data.
+     * Pushes changed statistics to the placeholder cache, the leaderboards and the persistent store.
+     */
+    private void publishStatistics(Player player, PlayerCombatData data, LeaderboardMetric... metrics) {
+        if (placeholderCache != null) {
+            placeholderCache.invalidate(player.getUniqueId());
+        }
+        if (leaderboardManager != null) {
+            leaderboardManager.update(player.getUniqueId(), player.getName(), data, metrics);
+        }
+        if (statsStore != null) {
+            statsStore.update(player.getUniqueId(), player.getName(), data);
+        }
+    }
+
+    /**
+     * Copies all in-memory statistics into the persistent store.
+     */
+    public void flushToStore() {
+        if (statsStore == null) {
+            return;
+        }
+        playerData.forEach((id, data) -> statsStore.update(id, null, data));
+    }
+
+    /**
+     * Registers incremental cleanup of old/inactive player data.
+     */
+    public IncrementalSweeper.Job<?> registerCleanupJob(IncrementalSweeper sweeper) {
+        return sweeper.registerMap("player-data", CLEANUP_INTERVAL_TICKS, playerData, this::evictIfInactive);
+    }
+
+    /**
+     * Registers the job that re-ranks players whose damage changed since its last pass.
      */
-    public void cleanupInactiveData() {
-        long cutoff = System.currentTimeMillis() - 24L * 60 * 60 * 1000; // 24 hours
-        playerData.entrySet().removeIf(entry -> entry.getValue().getLastActivity() < cutoff);
+    public IncrementalSweeper.Job<?> registerDamagePublishJob(IncrementalSweeper sweeper) {
+        return sweeper.register("damage-leaderboard", DAMAGE_PUBLISH_INTERVAL_TICKS, damageDirty::iterator,
+            (playerId, cursor) -> {
+                cursor.remove();
+                PlayerCombatData data = playerData.get(playerId);
+                if (data == null) {
+                    return false;
+                }
+                Player player = Bukkit.getPlayer(playerId);
+                String name = player != null ? player.getName() : null;
+                if (leaderboardManager != null) {
+                    leaderboardManager.update(playerId, name, data, LeaderboardMetric.DAMAGE);
+                }
+                if (statsStore != null) {
+                    statsStore.update(playerId, name, data);
+                }
+                return true;
+            });
+    }
+
+    /**
+     * Saves and drops a player's data once it has been inactive for 24 hours.
+     */
+    private boolean evictIfInactive(UUID playerId, PlayerCombatData data) {
+        if (data.getLastActivity() >= System.currentTimeMillis() - INACTIVE_DATA_MILLIS) {
+            return false;
+        }
+        damageDirty.remove(playerId);
+        if (statsStore != null) {
+            statsStore.update(playerId, null, data);
+        }
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+package com.muzlik.pvpcombat.combat;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Who-hit-whom graph of the fights in progress. Each player keeps a sparse map of the
+ * players they exchanged hits with and when. Connected players form a combat cluster,
+ * tracked with union-find (union by size, path splitting) so a hit links two fights in
+ * near-constant time. Removing a player rebuilds only their own component from the
+ * remaining edges, dropping edges whose last hit is older than the given cutoff, which may
+ * split it. The combat manager keeps its sessions in step with
+ * these clusters and splits a session when its cluster splits.
+ * <p>
+ * Only used from the main thread.
+ */
+public class EngagementGraph {
+
+    // player -> opponent -> time of the last hit between them
+    private final Map<UUID, Map<UUID, Long>> edges;
+    private final Map<UUID, UUID> parent;
+    private final Map<UUID, Set<UUID>> components;
+
+    // Statistics
+    private long unions;
+    private long rebuilds;
+    private long expiredEdges;
+
+    public EngagementGraph() {
+        this.edges = new HashMap<>();
+        this.parent = new HashMap<>();
+        this.components = new HashMap<>();
+    }
+
+    /**
+     * Records a hit and links both players' clusters.
+     *
+     * @return true if the hit joined two previously separate clusters
+     */
+    public boolean recordHit(UUID attacker, UUID victim) {
+        long now = System.currentTimeMillis();
+        edges.computeIfAbsent(attacker, id -> new HashMap<>()).put(victim, now);
+        edges.computeIfAbsent(victim, id -> new HashMap<>()).put(attacker, now);
+        return union(attacker, victim);
+    }
+
+    /**
+     * Gets the representative of a player's cluster; a player not in the graph is their own.
+     */
+    public UUID find(UUID player) {
+        UUID current = player;
+        UUID next = parent.get(current);
+        while (next != null && !next.equals(current)) {
+            UUID grandparent = parent.get(next);
+            parent.put(current, grandparent);
+            current = next;
+            next = grandparent;
+        }
+        return current;
+    }
+
+    /**
+     * Checks if two players are in the same cluster.
+     */
+    public boolean isConnected(UUID first, UUID second) {
+        return parent.containsKey(first) && find(first).equals(find(second));
+    }
+
+    /**
+     * Gets the number of players in a player's cluster.
+     */
+    public int clusterSize(UUID player) {
+        Set<UUID> members = components.get(find(player));
+        return members != null ? members.size() : 1;
+    }
+
+    /**
+     * Gets the opponent a player most recently exchanged hits with.
+     */
+    public UUID getLastOpponent(UUID player) {
+        Map<UUID, Long> engagements = edges.get(player);
+        if (engagements == null) {
+            return null;
+        }
+        UUID last = null;
+        long lastTime = Long.MIN_VALUE;
+        for (Map.Entry<UUID, Long> entry : engagements.entrySet()) {
+            if (entry.getValue() > lastTime) {
+                last = entry.getKey();
+                lastTime = entry.getValue();
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Removes a player and their edges, then rebuilds their former cluster from what is left.
+     *
+     * @param staleBefore edges of the cluster with no hit since this time (epoch millis) are dropped too
+     */
+    public void remove(UUID player, long staleBefore) {
+        if (!parent.containsKey(player)) {
+            return;
+        }
+        Set<UUID> members = components.remove(find(player));
+        Map<UUID, Long> engagements = edges.remove(player);
+        if (engagements != null) {
+            for (UUID opponent : engagements.keySet()) {
+                Map<UUID, Long> back = edges.get(opponent);
+                if (back != null) {
+                    back.remove(player);
+                    if (back.isEmpty()) {
+                        edges.remove(opponent);
+                    }
+                }
+            }
+        }
+        parent.remove(player);
+        if (members == null) {
+            return;
+        }
+
+        // Union-find cannot delete, so relink the survivors along their remaining edges
+        members.remove(player);
+        for (UUID member : members) {
+            parent.remove(member);
+        }
+        for (UUID member : members) {
+            Map<UUID, Long> memberEdges = edges.get(member);
+            if (memberEdges == null) {
+                continue;
+            }
+            Iterator<Map.Entry<UUID, Long>> it = memberEdges.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<UUID, Long> edge = it.next();
+                if (edge.getValue() >= staleBefore) {
+                    union(member, edge.getKey());
+                    continue;
+                }
+                it.remove();
+                Map<UUID, Long> back = edges.get(edge.getKey());
+                if (back != null && back.remove(member) != null && back.isEmpty()) {
+                    edges.remove(edge.getKey());
+                }
+                expiredEdges++;
+            }
+            if (memberEdges.isEmpty()) {
+                edges.remove(member);
+            }
+        }
+        rebuilds++;
+    }
+
+    /**
+     * Removes every player of a cluster at once, e.g. when its fight ends.
+     */
+    public void removeCluster(UUID player) {
+        Set<UUID> members = components.remove(find(player));
+        if (members == null) {
+            edges.remove(player);
+            parent.remove(player);
+            return;
+        }
+        for (UUID member : members) {
+            edges.remove(member);
+            parent.remove(member);
+        }
+    }
+
+    private boolean union(UUID first, UUID second) {
+        UUID firstRoot = root(first);
+        UUID secondRoot = root(second);
+        if (firstRoot.equals(secondRoot)) {
+            return false;
+        }
+        Set<UUID> firstMembers = components.get(firstRoot);
+        Set<UUID> secondMembers = components.get(secondRoot);
+        if (firstMembers.size() < secondMembers.size()) {
+            UUID swapRoot = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = swapRoot;
+            Set<UUID> swapMembers = firstMembers;
+            firstMembers = secondMembers;
+            secondMembers = swapMembers;
+        }
+        parent.put(secondRoot, firstRoot);
+        firstMembers.addAll(secondMembers);
+        components.remove(secondRoot);
+        unions++;
+        return true;
+    }
+
+    /**
+     * Finds a player's root, adding them as a cluster of one if they are new.
+     */
+    private UUID root(UUID player) {
+        if (!parent.containsKey(player)) {
+            parent.put(player, player);
+            Set<UUID> members = new HashSet<>();
+            members.add(player);
+            components.put(player, members);
+            return player;
+        }
+        return find(player);
+    }
+
+    /**
+     * Gets graph and cluster figures for monitoring.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int edgeCount = 0;
+        for (Map<UUID, Long> engagements : edges.values()) {
+            edgeCount += engagements.size();
+        }
+        int largest = 0;
+        for (Set<UUID> members : components.values()) {
+            largest = Math.max(largest, members.size());
+        }
+        stats.put("players", parent.size());
+        stats.put("edges", edgeCount / 2);
+        stats.put("clusters", components.size());
+        stats.put("largest-cluster", largest);
+        stats.put("unions", unions);
+        stats.put("rebuilds", rebuilds);
+        stats.put("expired-edges", expiredEdges);
+        return stats;
+    }
+}
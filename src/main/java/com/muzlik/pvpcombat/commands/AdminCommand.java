@@ -1,8 +1,22 @@
 package com.muzlik.pvpcombat.commands;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.core.ServiceContainer;
 import com.muzlik.pvpcombat.admin.CombatInspector;
 import com.muzlik.pvpcombat.admin.DebugManager;
+import com.muzlik.pvpcombat.combat.CombatJournal;
+import com.muzlik.pvpcombat.combat.CombatManager;
+import com.muzlik.pvpcombat.interfaces.ICombatGrid;
+import com.muzlik.pvpcombat.performance.LoadGovernor;
+import com.muzlik.pvpcombat.performance.PingTracker;
+import com.muzlik.pvpcombat.performance.TickSampler;
+import com.muzlik.pvpcombat.performance.jfr.CombatFlightRecorder;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import com.muzlik.pvpcombat.utils.CacheInvalidation;
+import com.muzlik.pvpcombat.utils.CacheInvalidationBus;
+import com.muzlik.pvpcombat.utils.CacheManager;
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
+import com.muzlik.pvpcombat.visual.VisualStateTracker;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -10,10 +24,14 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Handles administrative combat commands with enhanced error handling and permission checking.
@@ -75,6 +93,12 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                     return handleDebugCommand(player, args);
                 case "logging":
                     return handleLoggingCommand(player, args);
+                case "stats":
+                    return handleStatsCommand(player);
+                case "nearby":
+                    return handleNearbyCommand(player, args);
+                case "jfr":
+                    return handleJfrCommand(player, args);
                 default:
                     return false; // Unknown subcommand
             }
@@ -324,6 +348,253 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    /**
+     * Lists combat-tagged players around the admin, nearest first.
+     *
+     * @param player The admin player executing the command
+     * @param args The command arguments
+     * @return true if command executed successfully
+     */
+    private boolean handleNearbyCommand(Player player, String[] args) {
+        try {
+            double radius = 64;
+            if (args.length >= 2) {
+                try {
+                    radius = Math.max(1, Math.min(512, Double.parseDouble(args[1])));
+                } catch (NumberFormatException e) {
+                    player.sendMessage("§cUsage: /combatadmin nearby [radius]");
+                    return true;
+                }
+            }
+
+            ICombatGrid grid = plugin.getCombatGrid();
+            if (grid == null) {
+                player.sendMessage("§cCombat grid is not available.");
+                return true;
+            }
+
+            List<Player> found = new ArrayList<>();
+            grid.forEachNear(player.getLocation(), radius, found::add);
+            found.sort((a, b) -> Double.compare(a.getLocation().distanceSquared(player.getLocation()),
+                b.getLocation().distanceSquared(player.getLocation())));
+
+            player.sendMessage(String.format("§6Tagged players within %.0f blocks: §f%d", radius, found.size()));
+            for (Player target : found) {
+                Player opponent = plugin.getCombatManager().getOpponent(target);
+                player.sendMessage(String.format("§e%s §7(%.0fm) §7vs §f%s", target.getName(),
+                    target.getLocation().distance(player.getLocation()), opponent != null ? opponent.getName() : "?"));
+            }
+            return true;
+
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error in nearby command: " + e.getMessage());
+            player.sendMessage("§cFailed to list nearby fights. Check console for details.");
+            return true;
+        }
+    }
+
+    /**
+     * Starts, dumps or stops a flight recording of the plugin's JFR events.
+     * File work runs on the cleanup pool; the result is reported back on the main thread.
+     *
+     * @param player The admin player executing the command
+     * @param args The command arguments
+     * @return true if command executed successfully
+     */
+    private boolean handleJfrCommand(Player player, String[] args) {
+        try {
+            CombatFlightRecorder recorder = plugin.getPluginManager().getFlightRecorder();
+            if (recorder == null || !CombatFlightRecorder.isAvailable()) {
+                player.sendMessage("§cFlight recording is not available on this JVM.");
+                return true;
+            }
+
+            String action = args.length >= 2 ? args[1].toLowerCase() : "status";
+            switch (action) {
+                case "start": {
+                    Duration duration = null;
+                    if (args.length >= 3) {
+                        try {
+                            duration = Duration.ofSeconds(Math.max(1, Math.min(3600, Long.parseLong(args[2]))));
+                        } catch (NumberFormatException e) {
+                            player.sendMessage("§cUsage: /combatadmin jfr start [seconds]");
+                            return true;
+                        }
+                    }
+                    Duration limit = duration;
+                    runRecorderAction(player, () -> recorder.start(limit)
+                        ? "§aFlight recording started" + (limit != null ? " for " + limit.toSeconds() + "s" : "") + "."
+                        : "§cA flight recording is already running.");
+                    return true;
+                }
+                case "dump":
+                    runRecorderAction(player, () -> {
+                        Path file = recorder.dump();
+                        return file != null ? "§aRecording dumped to §f" + file.getFileName() : "§cNo flight recording is running.";
+                    });
+                    return true;
+                case "stop":
+                    runRecorderAction(player, () -> {
+                        Path file = recorder.stop();
+                        return file != null ? "§aRecording stopped and written to §f" + file.getFileName() : "§cNo flight recording is running.";
+                    });
+                    return true;
+                case "status":
+                    Map<String, Object> stats = recorder.getStats();
+                    player.sendMessage("§6=== Flight Recorder ===");
+                    player.sendMessage("§eRecording: " + ((Boolean) stats.get("recording") ? "§aactive" : "§7off"));
+                    if (stats.containsKey("state")) {
+                        player.sendMessage(String.format("§eLast Recording: §f%s§7, started §f%s§7, §f%d KB",
+                            stats.get("state"), stats.get("started"), (Long) stats.get("size-bytes") / 1024));
+                    }
+                    player.sendMessage(String.format("§eDumps: §f%s §7(last: §f%s§7)", stats.get("dumps-written"), stats.get("last-dump")));
+                    return true;
+                default:
+                    player.sendMessage("§cUsage: /combatadmin jfr <start [seconds]|dump|stop|status>");
+                    return true;
+            }
+
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error in jfr command: " + e.getMessage());
+            player.sendMessage("§cFailed to control the flight recorder. Check console for details.");
+            return true;
+        }
+    }
+
+    /**
+     * Runs a recorder action off the main thread and sends its result message to the player.
+     */
+    private void runRecorderAction(Player player, Callable<String> action) {
+        AsyncUtils.runAsync(plugin, () -> {
+            String message;
+            try {
+                message = action.call();
+            } catch (Exception e) {
+                plugin.getLogger().warning("Flight recorder action failed: " + e.getMessage());
+                message = "§cFlight recorder action failed: " + e.getMessage();
+            }
+            String result = message;
+            AsyncUtils.runSync(plugin, () -> {
+                if (player.isOnline()) {
+                    player.sendMessage(result);
+                }
+            });
+        }, "cleanup-tasks");
+    }
+
+    /**
+     * Shows runtime performance statistics.
+     *
+     * @param player The admin player executing the command
+     * @return true if command executed successfully
+     */
+    private boolean handleStatsCommand(Player player) {
+        try {
+            CombatManager combatManager = (CombatManager) plugin.getCombatManager();
+            if (combatManager == null) {
+                player.sendMessage("§cCombat system is not available.");
+                return true;
+            }
+
+            player.sendMessage("§6=== Combat Performance Stats ===");
+
+            TickSampler sampler = plugin.getPluginManager().getTickSampler();
+            if (sampler != null) {
+                TickSampler.Window shortWindow = sampler.getShortWindow();
+                TickSampler.Window longWindow = sampler.getLongWindow();
+                player.sendMessage(String.format("§eTPS: §a%.2f §7(EWMA, %.1fms/tick)", sampler.getEwmaTps(), sampler.getEwmaMspt()));
+                player.sendMessage(String.format("  §75s: §fp50 %.1fms §7| §fp95 %.1fms §7| §fp99 %.1fms",
+                    shortWindow.getP50Millis(), shortWindow.getP95Millis(), shortWindow.getP99Millis()));
+                player.sendMessage(String.format("  §71m: §fp50 %.1fms §7| §fp95 %.1fms §7| §fp99 %.1fms §7| §fmax %.1fms",
+                    longWindow.getP50Millis(), longWindow.getP95Millis(), longWindow.getP99Millis(), longWindow.getMaxMillis()));
+                player.sendMessage(String.format("  §7Spikes (>%.0fms): §c%d", sampler.getSpikeThresholdMillis(), sampler.getSpikeCount()));
+            }
+
+            LoadGovernor governor = plugin.getPluginManager().getLoadGovernor();
+            if (governor != null) {
+                LoadGovernor.Level level = governor.getLevel();
+                player.sendMessage("§eLoad Level: " + (level == LoadGovernor.Level.NORMAL ? "§a" : "§c") + level
+                    + (governor.isEnabled() ? "" : " §7(governor disabled)"));
+            }
+
+            PingTracker pingTracker = combatManager.getLagManager().getPingTracker();
+            player.sendMessage(String.format("§ePing Sampling: §f%d §7tracked, §f%d §7samples, §c%d §7spikes",
+                pingTracker.getTrackedPlayerCount(), pingTracker.getSamplesTaken(), pingTracker.getSpikesDetected()));
+
+            VisualStateTracker visualState = combatManager.getVisualManager().getVisualStateTracker();
+            player.sendMessage("§eVisual Packets §7(sent / suppressed):");
+            for (VisualStateTracker.PacketType type : VisualStateTracker.PacketType.values()) {
+                player.sendMessage(String.format("  §7%s: §a%d §7/ §c%d", type.name().toLowerCase(),
+                    visualState.getSent(type), visualState.getSuppressed(type)));
+            }
+
+            CacheManager cacheManager = plugin.getPluginManager().getCacheManager();
+            if (cacheManager != null) {
+                CacheInvalidationBus bus = cacheManager.getInvalidationBus();
+                player.sendMessage(String.format("§eCache Invalidations: §f%d §7combat, §f%d §7cooldown, §f%d §7reload",
+                    bus.getPublishedCount(CacheInvalidation.Topic.COMBAT),
+                    bus.getPublishedCount(CacheInvalidation.Topic.COOLDOWN),
+                    bus.getPublishedCount(CacheInvalidation.Topic.CONFIG)));
+            }
+
+            Map<String, Object> movement = plugin.getPluginManager().getMovementTracker().getStats();
+            player.sendMessage(String.format("§eMovement: §f%s §7tagged, listener %s§7, §f%s §7dispatched (§f%.2fµs§7 each), §f%s §7same-block / §f%s §7untagged skipped",
+                movement.get("tracked"), (Boolean) movement.get("listening") ? "§aon" : "§7off", movement.get("dispatched"),
+                (Double) movement.get("avg-dispatch-micros"), movement.get("skipped-same-block"), movement.get("skipped-untagged")));
+
+            Map<String, Object> safeZone = plugin.getPluginManager().getSafeZoneDistanceField().getStats();
+            player.sendMessage(String.format("§eSafe Zone Field: §f%s §7chunks in §f%s §7worlds, §f%.1f%% §7hit rate, §f%s §7builds (§f%.1fµs§7 each), §f%s §7invalidations",
+                safeZone.get("chunks"), safeZone.get("worlds"), (Double) safeZone.get("hit-rate"), safeZone.get("builds"),
+                (Double) safeZone.get("avg-build-micros"), safeZone.get("invalidations")));
+
+            Map<String, Object> engagement = combatManager.getEngagementGraph().getStats();
+            player.sendMessage(String.format("§eEngagements: §f%s §7players in §f%s §7clusters (largest §f%s§7), §f%s §7edges (§f%s §7expired), §f%s §7unions / §f%s §7rebuilds",
+                engagement.get("players"), engagement.get("clusters"), engagement.get("largest-cluster"),
+                engagement.get("edges"), engagement.get("expired-edges"), engagement.get("unions"), engagement.get("rebuilds")));
+
+            Map<String, Object> grid = plugin.getPluginManager().getCombatGrid().getStats();
+            player.sendMessage(String.format("§eCombat Grid: §f%s §7players in §f%s §7cells, §f%s §7updates (§f%s §7cell moves), §f%s §7queries",
+                grid.get("players"), grid.get("cells"), grid.get("updates"), grid.get("cell-moves"), grid.get("queries")));
+
+            CombatJournal journal = combatManager.getJournal();
+            if (journal != null) {
+                Map<String, Object> journalStats = journal.getStats();
+                player.sendMessage(String.format("§eCombat Journal: §f%s §7live, §f%s§7/§f%s §7records, §f%.2fµs §7per append, §f%s §7awaiting rejoin",
+                    journalStats.get("live-sessions"), journalStats.get("records"), journalStats.get("capacity"),
+                    (Double) journalStats.get("avg-append-micros"), journalStats.get("pending-tags")));
+            }
+
+            IncrementalSweeper sweeper = plugin.getPluginManager().getSweeper();
+            if (sweeper != null) {
+                player.sendMessage("§eCleanup Jobs §7(visited / cleaned, last pass, lag):");
+                for (IncrementalSweeper.Job<?> job : sweeper.getJobs()) {
+                    player.sendMessage(String.format("  §7%s: §f%d §7/ §a%d§7, §f%dms§7, %s%dms", job.getName(),
+                        job.getVisited(), job.getCleaned(), job.getLastPassMillis(),
+                        job.getLagMillis() > 0 ? "§c" : "§a", job.getLagMillis()));
+                }
+            }
+
+            player.sendMessage("§eServices §7(startup, threads):");
+            for (ServiceContainer.Service<?> service : plugin.getPluginManager().getServices().getServices()) {
+                if (service.isDisabled()) {
+                    player.sendMessage("  §7" + service.getName() + ": §8disabled");
+                } else if (!service.isCreated()) {
+                    player.sendMessage("  §7" + service.getName() + ": §8not loaded");
+                } else {
+                    player.sendMessage(String.format("  §7%s: §f%.1fms§7, §f%+d §7threads%s", service.getName(),
+                        service.getStartupMillis(), service.getThreadsStarted(), service.isStarted() ? "" : " §c(not started)"));
+                }
+            }
+
+            return true;
+
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error showing performance stats: " + e.getMessage());
+            player.sendMessage("§cFailed to show performance stats. Check console for details.");
+            return true;
+        }
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         try {
@@ -340,7 +611,7 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
 
             if (args.length == 1) {
                 String input = args[0].toLowerCase();
-                List<String> commands = Arrays.asList("inspect", "summary", "reload", "debug", "logging");
+                List<String> commands = Arrays.asList("inspect", "summary", "reload", "debug", "logging", "stats", "nearby", "jfr");
                 for (String cmd : commands) {
                     if (cmd.toLowerCase().startsWith(input)) {
                         completions.add(cmd);
@@ -354,6 +625,13 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                         completions.add(opt);
                     }
                 }
+            } else if (args.length == 2 && "jfr".equals(args[0].toLowerCase())) {
+                String input = args[1].toLowerCase();
+                for (String opt : Arrays.asList("start", "dump", "stop", "status")) {
+                    if (opt.startsWith(input)) {
+                        completions.add(opt);
+                    }
+                }
             } else if (args.length == 2) {
                 String subCmd = args[0].toLowerCase();
                 if ("inspect".equals(subCmd) || "summary".equals(subCmd)) {
@@ -81,7 +81,7 @@ public class CombatCommand implements CommandExecutor, TabCompleter {
      * @return true if it's an admin command, false otherwise
      */
     private boolean isAdminCommand(String subCommand) {
-        return Arrays.asList("inspect", "summary", "reload", "debug").contains(subCommand);
+        return Arrays.asList("inspect", "summary", "reload", "debug", "stats").contains(subCommand);
     }
 
     /**
@@ -91,7 +91,7 @@ public class CombatCommand implements CommandExecutor, TabCompleter {
      * @return true if it's a player command, false otherwise
      */
     private boolean isPlayerCommand(String subCommand) {
-        return Arrays.asList("status", "summary", "toggle-style").contains(subCommand);
+        return Arrays.asList("status", "summary", "toggle-style", "top").contains(subCommand);
     }
 
     /**
@@ -105,6 +105,7 @@ public class CombatCommand implements CommandExecutor, TabCompleter {
             player.sendMessage("§e/combat status §7- Shows your combat state");
             player.sendMessage("§e/combat summary §7- Shows your latest PvP fight summary");
             player.sendMessage("§e/combat toggle-style §7- Choose message and theme styles");
+            player.sendMessage("§e/combat top [wins|kd|winrate|damage] [page] §7- View PvP leaderboards");
 
             if (player.hasPermission("pvpcombat.admin")) {
                 player.sendMessage("§c=== Admin Commands ===");
@@ -112,6 +113,7 @@ public class CombatCommand implements CommandExecutor, TabCompleter {
                 player.sendMessage("§e/combat summary <player> §7- Access last combat stats");
                 player.sendMessage("§e/combat reload §7- Reload configuration");
                 player.sendMessage("§e/combat debug §7- Toggle debug mode");
+                player.sendMessage("§e/combat stats §7- Show performance statistics");
             }
 
             player.sendMessage("§7§oUse /combat <command> for detailed help on each command.");
@@ -136,16 +138,26 @@ public class CombatCommand implements CommandExecutor, TabCompleter {
                 completions.add("status");
                 completions.add("summary");
                 completions.add("toggle-style");
+                completions.add("top");
 
                 if (player.hasPermission("pvpcombat.admin")) {
                     completions.add("inspect");
                     completions.add("reload");
                     completions.add("debug");
+                    completions.add("stats");
                 }
 
                 // Filter by current input
                 String input = args[0].toLowerCase();
                 completions.removeIf(s -> !s.toLowerCase().startsWith(input));
+            } else if (args.length == 2 && "top".equalsIgnoreCase(args[0])) {
+                String input = args[1].toLowerCase();
+                for (com.muzlik.pvpcombat.leaderboard.LeaderboardMetric metric
+                        : com.muzlik.pvpcombat.leaderboard.LeaderboardMetric.values()) {
+                    if (metric.getKey().startsWith(input)) {
+                        completions.add(metric.getKey());
+                    }
+                }
             } else if (args.length == 2 && player.hasPermission("pvpcombat.admin")) {
                 // Complete player names for admin commands that need them
                 String subCmd = args[0].toLowerCase();
@@ -1,6 +1,10 @@
 package com.muzlik.pvpcombat.commands;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.core.StartupPipeline;
+import com.muzlik.pvpcombat.leaderboard.LeaderboardManager;
+import com.muzlik.pvpcombat.leaderboard.LeaderboardMetric;
+import com.muzlik.pvpcombat.leaderboard.RankedSkipList;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.attribute.Attribute;
@@ -52,6 +56,8 @@ public class PlayerCommand {
                     return handleSummaryCommand(player);
                 case "toggle-style":
                     return handleToggleStyleCommand(player);
+                case "top":
+                    return handleTopCommand(player, args);
                 default:
                     return false; // Unknown subcommand
             }
@@ -292,4 +298,75 @@ public class PlayerCommand {
             return true;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Handles the top subcommand: /combat top [metric] [page].
+     */
+    private boolean handleTopCommand(Player player, String[] args) {
+        try {
+            if (!player.hasPermission("pvpcombat.command.top")) {
+                player.sendMessage("§cYou don't have permission to view leaderboards.");
+                return true;
+            }
+
+            LeaderboardManager leaderboardManager = plugin.getPluginManager().getLeaderboardManager();
+            if (leaderboardManager == null || !leaderboardManager.isEnabled()) {
+                player.sendMessage("§cLeaderboards are disabled on this server.");
+                return true;
+            }
+            if (!plugin.getPluginManager().getStartup().isReady(StartupPipeline.Feature.STATISTICS)) {
+                player.sendMessage("§eLeaderboards are still loading, try again in a moment.");
+                return true;
+            }
+
+            LeaderboardMetric metric = LeaderboardMetric.WINS;
+            if (args.length >= 2) {
+                metric = LeaderboardMetric.fromKey(args[1]);
+                if (metric == null) {
+                    player.sendMessage("§cUnknown leaderboard. Available: §fwins, kd, winrate, damage");
+                    return true;
+                }
+            }
+
+            int page = 1;
+            if (args.length >= 3) {
+                try {
+                    page = Math.max(1, Integer.parseInt(args[2]));
+                } catch (NumberFormatException e) {
+                    player.sendMessage("§cInvalid page number: " + args[2]);
+                    return true;
+                }
+            }
+
+            int pageSize = Math.max(1, plugin.getConfig().getInt("statistics.leaderboard.page-size", 10));
+            int total = leaderboardManager.getSize(metric);
+            int pages = Math.max(1, (total + pageSize - 1) / pageSize);
+            page = Math.min(page, pages);
+            int startRank = (page - 1) * pageSize + 1;
+
+            player.sendMessage(String.format("§6=== Top %s §7(Page %d/%d) §6===", metric.getDisplayName(), page, pages));
+
+            if (total == 0) {
+                player.sendMessage("§7No ranked players yet.");
+            } else {
+                int rank = startRank;
+                for (RankedSkipList.Entry entry : leaderboardManager.getTop(metric, startRank, pageSize)) {
+                    String color = entry.getPlayerId().equals(player.getUniqueId()) ? "§a" : "§f";
+                    player.sendMessage(String.format("§e#%d %s%s §7- §f%s", rank++,
+                        color, leaderboardManager.getPlayerName(entry.getPlayerId()), metric.format(entry.getScore())));
+                }
+            }
+
+            int ownRank = leaderboardManager.getRank(metric, player.getUniqueId());
+            player.sendMessage(ownRank > 0
+                ? "§7Your rank: §e#" + ownRank + " §7of §e" + total
+                : "§7You are not ranked on this leaderboard yet.");
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error showing leaderboard: " + e.getMessage());
+            e.printStackTrace();
+            player.sendMessage("§cFailed to show leaderboard.");
+            return true;
+        }
+    }
+}
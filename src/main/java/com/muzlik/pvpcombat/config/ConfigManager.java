@@ -99,24 +99,9 @@ public class ConfigManager implements IConfigManager {
             }
             messagesConfig = YamlConfiguration.loadConfiguration(messagesConfigFile);
 
-            // Initialize sub-configurations
+            // Initialize sub-configurations; validation is reported separately by reportValidation()
             initializeSubConfigs();
 
-            // Validate configurations
-            ConfigurationValidator.ValidationResult result = validateConfigInternal();
-            if (result.hasErrors()) {
-                logger.warning("Configuration validation errors found:");
-                for (String error : result.getErrors()) {
-                    logger.warning("ERROR: " + error);
-                }
-            }
-            if (result.hasWarnings()) {
-                logger.info("Configuration validation warnings:");
-                for (String warning : result.getWarnings()) {
-                    logger.info("WARNING: " + warning);
-                }
-            }
-
             logger.info("Configuration loaded successfully");
 
         } catch (Exception e) {
@@ -157,6 +142,26 @@ public class ConfigManager implements IConfigManager {
         }
     }
 
+    /**
+     * Validates the loaded configuration and logs any errors and warnings. Only reads
+     * config, so startup runs it off the main thread.
+     */
+    public void reportValidation() {
+        ConfigurationValidator.ValidationResult result = validateConfigInternal();
+        if (result.hasErrors()) {
+            logger.warning("Configuration validation errors found:");
+            for (String error : result.getErrors()) {
+                logger.warning("ERROR: " + error);
+            }
+        }
+        if (result.hasWarnings()) {
+            logger.info("Configuration validation warnings:");
+            for (String warning : result.getWarnings()) {
+                logger.info("WARNING: " + warning);
+            }
+        }
+    }
+
     public ConfigurationValidator.ValidationResult validateConfigInternal() {
         ConfigurationValidator.ValidationResult result = validator.validateConfiguration(mainConfig);
 
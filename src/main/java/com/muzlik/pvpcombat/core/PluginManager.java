@@ -5,20 +5,42 @@ import com.muzlik.pvpcombat.commands.CombatCommand;
 import com.muzlik.pvpcombat.commands.ReplayCommand;
 import com.muzlik.pvpcombat.config.ConfigManager;
 import com.muzlik.pvpcombat.logging.CombatLogger;
+import com.muzlik.pvpcombat.logging.CombatReplayManager;
+import com.muzlik.pvpcombat.interfaces.ICombatGrid;
 import com.muzlik.pvpcombat.interfaces.ICombatManager;
 import com.muzlik.pvpcombat.interfaces.IConfigManager;
 import com.muzlik.pvpcombat.interfaces.IRestrictionManager;
 import com.muzlik.pvpcombat.interfaces.IVisualManager;
-import com.muzlik.pvpcombat.visual.VisualManager;
+import com.muzlik.pvpcombat.combat.CombatGrid;
+import com.muzlik.pvpcombat.combat.CombatJournal;
 import com.muzlik.pvpcombat.combat.CombatTracker;
 import com.muzlik.pvpcombat.combat.CombatManager;
+import com.muzlik.pvpcombat.performance.LoadGovernor;
 import com.muzlik.pvpcombat.performance.PerformanceMonitor;
 import com.muzlik.pvpcombat.performance.TPSMonitor;
+import com.muzlik.pvpcombat.performance.TickSampler;
+import com.muzlik.pvpcombat.performance.jfr.CombatFlightRecorder;
 import com.muzlik.pvpcombat.utils.CacheManager;
+import com.muzlik.pvpcombat.protection.NewbieProtection;
 import com.muzlik.pvpcombat.restrictions.RestrictionManager;
+import com.muzlik.pvpcombat.restrictions.SafeZoneDistanceField;
 import com.muzlik.pvpcombat.combat.AntiInterferenceManager;
+import com.muzlik.pvpcombat.data.PlayerStatsStore;
+import com.muzlik.pvpcombat.leaderboard.LeaderboardManager;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import com.muzlik.pvpcombat.utils.CleanupManager;
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.scheduler.BukkitTask;
+import com.muzlik.pvpcombat.events.CacheInvalidationListener;
 import com.muzlik.pvpcombat.events.CombatEventListener;
+import com.muzlik.pvpcombat.events.MovementTracker;
+import com.muzlik.pvpcombat.utils.CacheInvalidation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * Coordinates all subsystems and manages plugin lifecycle.
@@ -26,48 +48,248 @@ import com.muzlik.pvpcombat.events.CombatEventListener;
 public class PluginManager {
 
     private final PvPCombatPlugin plugin;
+    private final ServiceContainer services;
+    private final StartupPipeline startup;
 
     private ICombatManager combatManager;
     private IVisualManager visualManager;
     private IRestrictionManager restrictionManager;
     private IConfigManager configManager;
     private CombatTracker combatTracker;
+    private PlayerStatsStore statsStore;
+    private LeaderboardManager leaderboardManager;
+    private BukkitTask statsSaveTask;
+    private TickSampler tickSampler;
+    private LoadGovernor loadGovernor;
+    private IncrementalSweeper sweeper;
+    private CleanupManager cleanupManager;
+    private CacheManager cacheManager;
+    private CombatLogger combatLogger;
+    private PerformanceMonitor performanceMonitor;
 
     public PluginManager(PvPCombatPlugin plugin) {
         this.plugin = plugin;
-        initializeManagers();
+        this.services = new ServiceContainer(plugin);
+        this.startup = new StartupPipeline(plugin);
+        startup.runMain("services", () -> {
+            registerServices();
+            initializeManagers();
+        });
+    }
+
+    /**
+     * Registers how each component is built and started. Every component exists once and
+     * is shared by whatever needs it.
+     */
+    private void registerServices() {
+        services.register(ConfigManager.class, "config", c -> new ConfigManager(plugin));
+
+        // Tick timing starts before anything reads TPS
+        services.register(TickSampler.class, "tick-sampler", c -> new TickSampler(plugin))
+            .onStart(sampler -> {
+                sampler.start();
+                AsyncUtils.setTickSampler(sampler);
+            })
+            .onStop(sampler -> {
+                sampler.stop();
+                AsyncUtils.setTickSampler(null);
+            });
+        services.register(LoadGovernor.class, "load-governor",
+                c -> new LoadGovernor(plugin, c.get(TickSampler.class)))
+            .onStart(LoadGovernor::start)
+            .onStop(LoadGovernor::stop);
+        // Flight recordings are only started on demand from /combatadmin jfr
+        services.register(CombatFlightRecorder.class, "flight-recorder", c -> new CombatFlightRecorder(plugin))
+            .onStop(CombatFlightRecorder::shutdown);
+        services.register(IncrementalSweeper.class, "sweeper", c -> new IncrementalSweeper(plugin))
+            .onStart(IncrementalSweeper::start)
+            .onStop(IncrementalSweeper::stop);
+
+        services.register(CacheManager.class, "cache", c -> {
+            CacheManager cache = new CacheManager(plugin);
+            c.get(ConfigManager.class).addReloadListener(
+                () -> cache.getInvalidationBus().publish(CacheInvalidation.configReload()));
+            return cache;
+        });
+        services.register(CombatReplayManager.class, "replay", c -> new CombatReplayManager(plugin))
+            .enabledBy("replay.enabled", false)
+            .onStop(CombatReplayManager::shutdown);
+        services.register(CombatLogger.class, "combat-logger",
+                c -> new CombatLogger(plugin, c.get(CombatReplayManager.class)))
+            .onStop(CombatLogger::shutdown);
+        services.register(TPSMonitor.class, "tps-monitor",
+            c -> new TPSMonitor(plugin, c.get(TickSampler.class)));
+        services.register(PerformanceMonitor.class, "performance-monitor",
+            c -> new PerformanceMonitor(plugin, c.get(TPSMonitor.class), c.get(CacheManager.class)));
+
+        services.register(CombatJournal.class, "combat-journal", c -> new CombatJournal(plugin))
+            .enabledBy("combat.journal.enabled", true)
+            .onStart(CombatJournal::start)
+            .onStop(CombatJournal::stop);
+        services.register(CombatManager.class, "combat", c -> {
+            CombatManager combat = new CombatManager(plugin, c.get(CombatLogger.class), null,
+                c.get(PerformanceMonitor.class), c.get(CacheManager.class), c.get(ConfigManager.class));
+            // Periodic cleanup runs incrementally on the shared sweeper
+            combat.registerCleanupJobs(c.get(IncrementalSweeper.class));
+            c.get(ConfigManager.class).addReloadListener(combat::reloadConfiguration);
+            c.get(ConfigManager.class).addReloadListener(combat.getVisualManager()::reloadTemplates);
+            return combat;
+        });
+        services.register(RestrictionManager.class, "restrictions", c -> {
+            RestrictionManager restrictions = new RestrictionManager(c.get(CombatManager.class), c.get(CacheManager.class));
+            ConfigManager config = c.get(ConfigManager.class);
+            config.addReloadListener(restrictions.getRestrictionEngine()::compile);
+            config.addReloadListener(restrictions.getCommandBlocklist()::invalidate);
+            return restrictions;
+        })
+            .onStart(restrictions -> restrictions.getCooldownTable().start())
+            .onStop(restrictions -> restrictions.getCooldownTable().stop());
+        services.register(CleanupManager.class, "cleanup", c -> new CleanupManager(plugin,
+            c.get(CombatManager.class), c.get(PerformanceMonitor.class), c.get(CacheManager.class),
+            c.get(IncrementalSweeper.class)));
+
+        services.register(MovementTracker.class, "movement", c -> new MovementTracker(plugin));
+        // Published to other plugins through Bukkit's services manager
+        services.register(CombatGrid.class, "combat-grid", c -> new CombatGrid())
+            .onStart(grid -> Bukkit.getServicesManager().register(ICombatGrid.class, grid, plugin, ServicePriority.Normal))
+            .onStop(grid -> Bukkit.getServicesManager().unregister(ICombatGrid.class, grid));
+        services.register(SafeZoneDistanceField.class, "safezone-field", c -> {
+            SafeZoneDistanceField field = new SafeZoneDistanceField(plugin);
+            c.get(ConfigManager.class).addReloadListener(field::reloadConfiguration);
+            return field;
+        })
+            .onStart(SafeZoneDistanceField::start)
+            .onStop(SafeZoneDistanceField::stop);
+
+        // Newbie status is cached per player and invalidated by its own listeners
+        services.register(NewbieProtection.class, "newbie-protection", c -> {
+            NewbieProtection protection = new NewbieProtection(plugin);
+            c.get(ConfigManager.class).addReloadListener(protection::reloadConfiguration);
+            return protection;
+        });
     }
 
     private void initializeManagers() {
-        // Initialize configuration manager first as others depend on it
-        this.configManager = new ConfigManager(plugin);
+        // Configuration first as others depend on it
+        this.configManager = services.get(ConfigManager.class);
 
-        // Initialize combat tracker
-        this.combatTracker = new CombatTracker();
+        this.tickSampler = services.get(TickSampler.class);
+        this.loadGovernor = services.get(LoadGovernor.class);
+        this.sweeper = services.get(IncrementalSweeper.class);
+        this.cacheManager = services.get(CacheManager.class);
+        this.combatLogger = services.get(CombatLogger.class);
+        this.performanceMonitor = services.get(PerformanceMonitor.class);
 
-        // Initialize shared components
-        CacheManager cacheManager = new CacheManager(plugin);
-        CombatLogger combatLogger = new CombatLogger(plugin);
-        TPSMonitor tpsMonitor = new TPSMonitor(plugin);
-        PerformanceMonitor performanceMonitor = new PerformanceMonitor(plugin, tpsMonitor, cacheManager);
+        CombatManager combat = services.get(CombatManager.class);
+        this.combatManager = combat;
+        // The combat manager owns the tracker and visuals; everything else shares them
+        this.combatTracker = combat.getCombatTracker();
+        this.visualManager = combat.getVisualManager();
+        this.restrictionManager = services.get(RestrictionManager.class);
+        this.cleanupManager = services.get(CleanupManager.class);
 
-        // Initialize other managers
-        this.combatManager = new CombatManager(plugin, combatLogger, null, performanceMonitor, cacheManager, configManager);
-        this.visualManager = new VisualManager(plugin, configManager);
-        this.restrictionManager = new RestrictionManager((CombatManager) combatManager, cacheManager);
+        services.start();
 
         plugin.getLogger().info("Plugin managers initialized successfully.");
     }
 
+    /**
+     * Starts the startup stages that only do file I/O. They run in parallel off the main
+     * thread while listeners and commands are registered. Config must be loaded first.
+     */
+    public void startBackgroundLoading() {
+        startup.runAsync("config-validation", StartupPipeline.Feature.CONFIG_VALIDATION,
+            ((ConfigManager) configManager)::reportValidation, null);
+
+        // Initialize lifetime statistics and leaderboards
+        initializeStatistics();
+
+        initializeJournal();
+
+        CombatReplayManager replayManager = services.get(CombatReplayManager.class);
+        if (replayManager != null) {
+            startup.runAsync("replay-storage", StartupPipeline.Feature.REPLAY_STORAGE, replayManager::prepareStorage, null);
+        } else {
+            startup.markReady(StartupPipeline.Feature.REPLAY_STORAGE);
+        }
+    }
+
+    private void initializeJournal() {
+        CombatJournal journal = services.get(CombatJournal.class);
+        if (journal == null) {
+            startup.markReady(StartupPipeline.Feature.COMBAT_JOURNAL);
+            return;
+        }
+
+        startup.runAsync("combat-journal", StartupPipeline.Feature.COMBAT_JOURNAL, () -> {
+            try {
+                int recovered = journal.open();
+                plugin.getLogger().info("Recovered " + recovered + " combat tags from the journal.");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open combat journal", e);
+            }
+        }, () -> {
+            CombatManager combat = (CombatManager) combatManager;
+            combat.setJournal(journal);
+            // Players who joined while the journal was loading
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                combat.resumeFromJournal(player);
+            }
+        });
+    }
+
+    private void initializeStatistics() {
+        this.statsStore = new PlayerStatsStore(plugin);
+        this.leaderboardManager = new LeaderboardManager(plugin);
+
+        if (!plugin.getConfig().getBoolean("statistics.enabled", true)) {
+            combatTracker.attachStatistics(statsStore, leaderboardManager);
+            startup.markReady(StartupPipeline.Feature.STATISTICS);
+            return;
+        }
+
+        // Until the store is attached, counters are kept in memory and nothing is saved
+        startup.runAsync("statistics", StartupPipeline.Feature.STATISTICS, () -> {
+            int loaded = statsStore.load();
+            plugin.getLogger().info("Loaded combat statistics for " + loaded + " players.");
+            if (leaderboardManager.isEnabled()) {
+                leaderboardManager.rebuild(statsStore);
+            }
+        }, () -> {
+            combatTracker.attachStatistics(statsStore, leaderboardManager);
+            long saveIntervalTicks = Math.max(1, plugin.getConfig().getInt("statistics.save-interval", 5)) * 60L * 20L;
+            this.statsSaveTask = AsyncUtils.runAsyncTimer(plugin, this::saveStatistics, saveIntervalTicks, saveIntervalTicks);
+        });
+    }
+
+    /**
+     * Marks startup as finished once listeners and commands are registered. Background
+     * stages may still be running; the timeline is logged when they are done.
+     */
+    public void ready() {
+        services.ready();
+        startup.finish();
+    }
+
+    /**
+     * Flushes in-memory statistics and writes them to disk.
+     */
+    public void saveStatistics() {
+        // A store that has not finished loading is empty and would overwrite the file
+        if (statsStore == null || !startup.isReady(StartupPipeline.Feature.STATISTICS)
+                || !plugin.getConfig().getBoolean("statistics.enabled", true)) {
+            return;
+        }
+        combatTracker.flushToStore();
+        statsStore.save();
+    }
+
     /**
      * Registers all event listeners.
      */
     public void registerEvents() {
-        // Initialize shared components for event listener
-        CacheManager cacheManager = new CacheManager(plugin);
-        CombatLogger combatLogger = new CombatLogger(plugin);
-        TPSMonitor tpsMonitor = new TPSMonitor(plugin);
-        PerformanceMonitor performanceMonitor = new PerformanceMonitor(plugin, tpsMonitor, cacheManager);
+        NewbieProtection newbieProtection = services.get(NewbieProtection.class);
+        Bukkit.getPluginManager().registerEvents(newbieProtection, plugin);
 
         // Register CombatEventListener
         CombatEventListener combatListener = new CombatEventListener(
@@ -78,14 +300,31 @@ public class PluginManager {
             (RestrictionManager) restrictionManager,
             combatLogger,
             performanceMonitor,
-            cacheManager
+            cacheManager,
+            newbieProtection
         );
         Bukkit.getPluginManager().registerEvents(combatListener, plugin);
+
+        // Move handlers only see tagged players crossing blocks
+        MovementTracker movementTracker = services.get(MovementTracker.class);
+        Bukkit.getPluginManager().registerEvents(movementTracker, plugin);
+        movementTracker.subscribe(MovementTracker.Granularity.BLOCK, combatListener::onTaggedMove);
+
+        // Evict combat-derived cache entries on combat start and end
+        Bukkit.getPluginManager().registerEvents(new CacheInvalidationListener(cacheManager.getInvalidationBus()), plugin);
         
         // Register SafeZoneManager
         com.muzlik.pvpcombat.restrictions.SafeZoneManager safeZoneManager = 
-            new com.muzlik.pvpcombat.restrictions.SafeZoneManager(plugin, combatManager);
+            new com.muzlik.pvpcombat.restrictions.SafeZoneManager(plugin, combatManager,
+                services.get(SafeZoneDistanceField.class));
+        services.get(ConfigManager.class).addReloadListener(safeZoneManager::loadConfiguration);
         Bukkit.getPluginManager().registerEvents(safeZoneManager, plugin);
+        movementTracker.subscribe(MovementTracker.Granularity.BLOCK, safeZoneManager);
+
+        // Index tagged players' positions after move handlers had their say
+        CombatGrid combatGrid = services.get(CombatGrid.class);
+        Bukkit.getPluginManager().registerEvents(combatGrid, plugin);
+        movementTracker.subscribe(MovementTracker.Granularity.BLOCK, combatGrid);
         
         plugin.getLogger().info("Event listeners registered.");
     }
@@ -114,7 +353,6 @@ public class PluginManager {
 
         // Register replay command with dedicated ReplayCommand executor
         if (plugin.getCommand("replay") != null) {
-            CombatLogger combatLogger = new CombatLogger(plugin);
             ReplayCommand replayCommand = new ReplayCommand(plugin, combatLogger);
             plugin.getCommand("replay").setExecutor(replayCommand);
             plugin.getCommand("replay").setTabCompleter(replayCommand);
@@ -129,6 +367,11 @@ public class PluginManager {
      * Shuts down all subsystems.
      */
     public void shutdown() {
+        startup.shutdown();
+        AsyncUtils.cancelTask(statsSaveTask);
+        saveStatistics();
+        services.stop();
+
         plugin.getLogger().info("Plugin subsystems shut down.");
     }
 
@@ -152,4 +395,56 @@ public class PluginManager {
     public IConfigManager getConfigManager() {
         return configManager;
     }
+
+    public TickSampler getTickSampler() {
+        return tickSampler;
+    }
+
+    public LoadGovernor getLoadGovernor() {
+        return loadGovernor;
+    }
+
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    public IncrementalSweeper getSweeper() {
+        return sweeper;
+    }
+
+    public CleanupManager getCleanupManager() {
+        return cleanupManager;
+    }
+
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+
+    public PlayerStatsStore getStatsStore() {
+        return statsStore;
+    }
+
+    public MovementTracker getMovementTracker() {
+        return services.get(MovementTracker.class);
+    }
+
+    public CombatGrid getCombatGrid() {
+        return services.get(CombatGrid.class);
+    }
+
+    public SafeZoneDistanceField getSafeZoneDistanceField() {
+        return services.get(SafeZoneDistanceField.class);
+    }
+
+    public CombatFlightRecorder getFlightRecorder() {
+        return services.get(CombatFlightRecorder.class);
+    }
+
+    public ServiceContainer getServices() {
+        return services;
+    }
+
+    public StartupPipeline getStartup() {
+        return startup;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.muzlik.pvpcombat.core;
 
 import com.muzlik.pvpcombat.admin.LoggingManager;
+import com.muzlik.pvpcombat.interfaces.ICombatGrid;
 import com.muzlik.pvpcombat.interfaces.ICombatManager;
 import com.muzlik.pvpcombat.interfaces.IConfigManager;
 import com.muzlik.pvpcombat.interfaces.IRestrictionManager;
@@ -27,29 +28,36 @@ public class PvPCombatPlugin extends JavaPlugin {
 
         // Initialize plugin manager
         pluginManager = new PluginManager(this);
+        StartupPipeline startup = pluginManager.getStartup();
 
         // Load configurations
         configManager = pluginManager.getConfigManager();
-        configManager.loadConfig();
+        startup.runMain("config", configManager::loadConfig);
 
         // Initialize logging manager
         loggingManager = new LoggingManager(this);
 
+        // File I/O continues on the startup pool while the rest registers on the main thread
+        pluginManager.startBackgroundLoading();
+
         // Initialize subsystems
         combatManager = pluginManager.getCombatManager();
         visualManager = pluginManager.getVisualManager();
         restrictionManager = pluginManager.getRestrictionManager();
 
         // Register events and commands
-        pluginManager.registerEvents();
-        pluginManager.registerCommands();
-        
+        startup.runMain("listeners", pluginManager::registerEvents);
+        startup.runMain("commands", pluginManager::registerCommands);
+
         // Register PlaceholderAPI expansion if available
         if (getServer().getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            new com.muzlik.pvpcombat.integration.PvPCombatExpansion(this).register();
+            startup.runMain("placeholders", () -> new com.muzlik.pvpcombat.integration.PvPCombatExpansion(this).register());
             getLogger().info("PlaceholderAPI expansion registered!");
         }
 
+        // Main-thread startup is complete; log per-component startup cost
+        pluginManager.ready();
+
         getLogger().info("PvPCombat plugin has been enabled!");
     }
 
@@ -84,6 +92,10 @@ public class PvPCombatPlugin extends JavaPlugin {
         return configManager;
     }
 
+    public ICombatGrid getCombatGrid() {
+        return pluginManager != null ? pluginManager.getCombatGrid() : null;
+    }
+
     public PluginManager getPluginManager() {
         return pluginManager;
     }
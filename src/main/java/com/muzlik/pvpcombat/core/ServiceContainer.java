@@ -0,0 +1,278 @@
+package com.muzlik.pvpcombat.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds exactly one instance of each plugin component and drives them through
+ * construct, start, ready and stop. Components are registered as factories and only
+ * built the first time something asks for them, so dependencies resolve in order and
+ * components nobody uses (or whose config section is disabled) are never created.
+ * Stop hooks run in reverse start order.
+ */
+public class ServiceContainer {
+
+    /**
+     * Lifecycle phase of the container.
+     */
+    public enum Phase {
+        /** Components are built on request but not started yet. */
+        CONSTRUCT,
+        /** Components are started as soon as they are built. */
+        START,
+        /** Startup finished; late components are started and readied immediately. */
+        READY,
+        /** Shut down; no more components are built. */
+        STOP
+    }
+
+    /**
+     * A registered component with its hooks and startup figures.
+     */
+    public static final class Service<T> {
+        private final String name;
+        private final Function<ServiceContainer, T> factory;
+        private String enabledPath;
+        private boolean enabledByDefault;
+        private Consumer<T> startHook;
+        private Consumer<T> readyHook;
+        private Consumer<T> stopHook;
+
+        private T instance;
+        private boolean disabled;
+        private boolean started;
+        private long startupNanos;
+        private int threadsStarted;
+        // Time and threads of components built while this one was being built
+        private long childNanos;
+        private int childThreads;
+
+        private Service(String name, Function<ServiceContainer, T> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        /**
+         * Only builds the component if the config boolean at the path is true.
+         */
+        public Service<T> enabledBy(String path, boolean defaultValue) {
+            this.enabledPath = path;
+            this.enabledByDefault = defaultValue;
+            return this;
+        }
+
+        public Service<T> onStart(Consumer<T> hook) {
+            this.startHook = hook;
+            return this;
+        }
+
+        public Service<T> onReady(Consumer<T> hook) {
+            this.readyHook = hook;
+            return this;
+        }
+
+        public Service<T> onStop(Consumer<T> hook) {
+            this.stopHook = hook;
+            return this;
+        }
+
+        public String getName() { return name; }
+        public boolean isCreated() { return instance != null; }
+        public boolean isDisabled() { return disabled; }
+        public boolean isStarted() { return started; }
+        public double getStartupMillis() { return startupNanos / 1_000_000.0; }
+        public int getThreadsStarted() { return threadsStarted; }
+    }
+
+    private final PvPCombatPlugin plugin;
+    private final Map<Class<?>, Service<?>> services;
+    private final List<Service<?>> startOrder;
+    private final Deque<Service<?>> building;
+    private final ThreadMXBean threads;
+    private volatile Phase phase;
+
+    public ServiceContainer(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.services = new LinkedHashMap<>();
+        this.startOrder = new ArrayList<>();
+        this.building = new ArrayDeque<>();
+        this.threads = ManagementFactory.getThreadMXBean();
+        this.phase = Phase.CONSTRUCT;
+    }
+
+    /**
+     * Registers the factory for a component type.
+     */
+    public synchronized <T> Service<T> register(Class<T> type, String name, Function<ServiceContainer, T> factory) {
+        if (services.containsKey(type)) {
+            throw new IllegalStateException("Service already registered: " + type.getSimpleName());
+        }
+        Service<T> service = new Service<>(name, factory);
+        services.put(type, service);
+        return service;
+    }
+
+    /**
+     * Gets the single instance of a component, building and starting it on first use.
+     *
+     * @return the component, or null if its config section is disabled
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(Class<T> type) {
+        Service<T> service = (Service<T>) services.get(type);
+        if (service == null) {
+            throw new IllegalArgumentException("No service registered for " + type.getSimpleName());
+        }
+        if (service.instance != null || service.disabled) {
+            return service.instance;
+        }
+        if (phase == Phase.STOP) {
+            return null;
+        }
+        if (building.contains(service)) {
+            throw new IllegalStateException("Circular service dependency at " + service.name);
+        }
+        if (service.enabledPath != null
+                && !plugin.getConfig().getBoolean(service.enabledPath, service.enabledByDefault)) {
+            service.disabled = true;
+            plugin.getLogger().info("Service '" + service.name + "' is disabled by " + service.enabledPath);
+            return null;
+        }
+
+        long startNanos = System.nanoTime();
+        int startThreads = threads.getThreadCount();
+        building.push(service);
+        try {
+            service.instance = service.factory.apply(this);
+            startOrder.add(service);
+            if (phase != Phase.CONSTRUCT) {
+                startService(service);
+            }
+            if (phase == Phase.READY) {
+                readyService(service);
+            }
+        } finally {
+            building.pop();
+            long totalNanos = System.nanoTime() - startNanos;
+            int totalThreads = threads.getThreadCount() - startThreads;
+            service.startupNanos += totalNanos - service.childNanos;
+            service.threadsStarted += totalThreads - service.childThreads;
+            Service<?> parent = building.peek();
+            if (parent != null) {
+                parent.childNanos += totalNanos;
+                parent.childThreads += totalThreads;
+            }
+        }
+        return service.instance;
+    }
+
+    /**
+     * Enters the start phase and starts every component built so far.
+     */
+    public synchronized void start() {
+        if (phase != Phase.CONSTRUCT) {
+            return;
+        }
+        phase = Phase.START;
+        for (Service<?> service : new ArrayList<>(startOrder)) {
+            long startNanos = System.nanoTime();
+            int startThreads = threads.getThreadCount();
+            startService(service);
+            service.startupNanos += System.nanoTime() - startNanos;
+            service.threadsStarted += threads.getThreadCount() - startThreads;
+        }
+    }
+
+    /**
+     * Enters the ready phase once the plugin has finished enabling.
+     */
+    public synchronized void ready() {
+        if (phase != Phase.START) {
+            return;
+        }
+        phase = Phase.READY;
+        for (Service<?> service : new ArrayList<>(startOrder)) {
+            readyService(service);
+        }
+
+        double totalMillis = 0;
+        int totalThreads = 0;
+        for (Service<?> service : startOrder) {
+            totalMillis += service.getStartupMillis();
+            totalThreads += service.threadsStarted;
+            plugin.getLogger().fine(String.format("Service %s started in %.2fms (%+d threads)",
+                service.name, service.getStartupMillis(), service.threadsStarted));
+        }
+        plugin.getLogger().info(String.format("Started %d services in %.1fms (%+d threads)",
+            startOrder.size(), totalMillis, totalThreads));
+    }
+
+    /**
+     * Stops every started component in reverse start order.
+     */
+    public synchronized void stop() {
+        if (phase == Phase.STOP) {
+            return;
+        }
+        phase = Phase.STOP;
+        for (int i = startOrder.size() - 1; i >= 0; i--) {
+            stopService(startOrder.get(i));
+        }
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Gets every registered component in registration order, for reporting.
+     */
+    public synchronized List<Service<?>> getServices() {
+        return new ArrayList<>(services.values());
+    }
+
+    private <T> void startService(Service<T> service) {
+        if (service.started) {
+            return;
+        }
+        service.started = true;
+        if (service.startHook != null) {
+            service.startHook.accept(service.instance);
+        }
+    }
+
+    private <T> void readyService(Service<T> service) {
+        if (service.readyHook != null) {
+            try {
+                service.readyHook.accept(service.instance);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Service '" + service.name + "' failed to become ready: " + e.getMessage());
+            }
+        }
+    }
+
+    private <T> void stopService(Service<T> service) {
+        if (!service.started || service.stopHook == null) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            service.stopHook.accept(service.instance);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Service '" + service.name + "' failed to stop: " + e.getMessage());
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (millis > 100) {
+            plugin.getLogger().info("Service '" + service.name + "' took " + millis + "ms to stop");
+        }
+    }
+}
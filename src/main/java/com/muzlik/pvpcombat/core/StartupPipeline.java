@@ -0,0 +1,172 @@
+package com.muzlik.pvpcombat.core;
+
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs plugin startup in stages. Work that only touches files or plugin-owned data runs in
+ * parallel on a small startup pool; anything that calls the Bukkit API runs on the main thread.
+ * Each background stage may hand a result back to the main thread and then marks its
+ * {@link Feature} ready. Until then the feature runs degraded, so events that arrive early
+ * are handled safely. Every stage is recorded and the timeline is logged once all have finished.
+ */
+public class StartupPipeline {
+
+    /**
+     * Parts of the plugin that finish loading after the server has started ticking.
+     */
+    public enum Feature {
+        /** Config validation report. Nothing depends on it. */
+        CONFIG_VALIDATION,
+        /** Persisted statistics and leaderboards. Until ready, counters are kept in memory only. */
+        STATISTICS,
+        /** Replay directory. Until ready, replays are not written. */
+        REPLAY_STORAGE,
+        /** Combat tag journal. Until ready, tags are neither persisted nor restored. */
+        COMBAT_JOURNAL
+    }
+
+    /**
+     * A finished stage on the startup timeline.
+     */
+    private record Stage(String name, String thread, long startNanos, long endNanos, boolean failed) {
+    }
+
+    private final PvPCombatPlugin plugin;
+    private final long originNanos;
+    private final ExecutorService executor;
+    private final List<CompletableFuture<Void>> pending;
+    private final List<Stage> timeline;
+    private final Set<Feature> ready;
+
+    public StartupPipeline(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.originNanos = System.nanoTime();
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "PvPCombat-Startup-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.pending = new ArrayList<>();
+        this.timeline = Collections.synchronizedList(new ArrayList<>());
+        this.ready = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Runs a stage on the calling (main) thread and records it.
+     */
+    public void runMain(String name, Runnable stage) {
+        record(name, stage);
+    }
+
+    /**
+     * Runs a stage on the startup pool. Once it finishes, the completion runs on the main
+     * thread and the feature is marked ready. If either part fails the feature stays degraded.
+     *
+     * @param completion main-thread follow-up, or null
+     */
+    public void runAsync(String name, Feature feature, Runnable work, Runnable completion) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> record(name, work), executor)
+            .thenCompose(ignored -> onMainThread(name + " (main)", () -> {
+                if (completion != null) {
+                    completion.run();
+                }
+                ready.add(feature);
+            }))
+            .exceptionally(e -> {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                plugin.getLogger().severe("Startup stage '" + name + "' failed, " + feature
+                    + " stays degraded: " + cause.getMessage());
+                return null;
+            });
+        pending.add(future);
+    }
+
+    /**
+     * Marks a feature ready without running a stage, e.g. when it is disabled in config.
+     */
+    public void markReady(Feature feature) {
+        ready.add(feature);
+    }
+
+    /**
+     * Checks if a feature has finished loading.
+     */
+    public boolean isReady(Feature feature) {
+        return ready.contains(feature);
+    }
+
+    /**
+     * Logs the timeline and releases the startup pool once every stage has finished.
+     */
+    public void finish() {
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+            .whenComplete((ignored, e) -> {
+                executor.shutdown();
+                logTimeline();
+            });
+    }
+
+    /**
+     * Abandons stages that are still running, e.g. when the plugin is disabled during startup.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Void> onMainThread(String name, Runnable task) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AsyncUtils.runSync(plugin, () -> {
+            try {
+                record(name, task);
+                done.complete(null);
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        });
+        return done;
+    }
+
+    private void record(String name, Runnable stage) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            stage.run();
+            failed = false;
+        } finally {
+            timeline.add(new Stage(name, Thread.currentThread().getName(), start, System.nanoTime(), failed));
+        }
+    }
+
+    private void logTimeline() {
+        List<Stage> stages;
+        synchronized (timeline) {
+            stages = new ArrayList<>(timeline);
+        }
+        stages.sort((a, b) -> Long.compare(a.startNanos(), b.startNanos()));
+
+        long endNanos = originNanos;
+        StringBuilder builder = new StringBuilder("Startup timeline:");
+        for (Stage stage : stages) {
+            endNanos = Math.max(endNanos, stage.endNanos());
+            builder.append(String.format("%n  +%6.1fms %-28s %7.1fms  [%s]%s",
+                (stage.startNanos() - originNanos) / 1_000_000.0, stage.name(),
+                (stage.endNanos() - stage.startNanos()) / 1_000_000.0, stage.thread(),
+                stage.failed() ? " FAILED" : ""));
+        }
+        plugin.getLogger().info(builder.toString());
+        plugin.getLogger().info(String.format("Startup completed in %.1fms, ready: %s",
+            (endNanos - originNanos) / 1_000_000.0, ready));
+    }
+}
@@ -2,12 +2,19 @@ package com.muzlik.pvpcombat.data;
 
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Represents an active combat session between two players.
+ * Represents an active combat session. It starts between an attacker and a defender;
+ * in team fights other players join it, and it then holds the whole cluster of players
+ * who fought each other, sharing one timer and one bossbar.
  */
 public class CombatSession {
     private final UUID sessionId;
@@ -23,20 +30,27 @@ public class CombatSession {
     private String currentTheme;
     private boolean visualsEnabled;
     private InterferenceData interferenceData;
-    
-    // Session-specific damage tracking
-    private double attackerDamageDealt;
-    private double defenderDamageDealt;
-    
-    // Session-specific hit tracking
-    private int attackerHitsLanded;
-    private int defenderHitsLanded;
+    private final Set<Player> participants;
+    private final Map<UUID, Player> lastOpponents;
+
+    // Session-specific damage and hit tracking per participant
+    private final Map<UUID, DamageTally> tallies;
+
+    private static final class DamageTally {
+        private double dealt;
+        private double received;
+        private int hitsLanded;
+    }
 
     public CombatSession(UUID sessionId, Player attacker, Player defender, int initialTimer) {
+        this(sessionId, attacker, defender, initialTimer, System.currentTimeMillis());
+    }
+
+    private CombatSession(UUID sessionId, Player attacker, Player defender, int initialTimer, long startTime) {
         this.sessionId = sessionId;
         this.attacker = attacker;
         this.defender = defender;
-        this.startTime = System.currentTimeMillis();
+        this.startTime = startTime;
         this.lastActivityTime = new AtomicLong(startTime);
         this.timerSeconds = initialTimer;
         this.active = new AtomicBoolean(true);
@@ -45,10 +59,11 @@ public class CombatSession {
         this.currentTheme = "default";
         this.visualsEnabled = true;
         this.interferenceData = new InterferenceData();
-        this.attackerDamageDealt = 0.0;
-        this.defenderDamageDealt = 0.0;
-        this.attackerHitsLanded = 0;
-        this.defenderHitsLanded = 0;
+        this.participants = new CopyOnWriteArraySet<>();
+        this.participants.add(attacker);
+        this.participants.add(defender);
+        this.lastOpponents = new ConcurrentHashMap<>();
+        this.tallies = new ConcurrentHashMap<>();
     }
 
     // Getters and setters
@@ -85,11 +100,17 @@ public class CombatSession {
     public void setInterferenceData(InterferenceData interferenceData) { this.interferenceData = interferenceData; }
 
     /**
-     * Gets the opponent of a given player in this session.
+     * Gets the opponent of a given player in this session: the participant they last
+     * exchanged hits with, falling back to the other founding player, then anyone else.
      */
     public Player getOpponent(Player player) {
+        Player last = lastOpponents.get(player.getUniqueId());
+        if (last != null && participants.contains(last)) return last;
         if (player.equals(attacker)) return defender;
         if (player.equals(defender)) return attacker;
+        for (Player participant : participants) {
+            if (!participant.equals(player)) return participant;
+        }
         return null;
     }
 
@@ -97,7 +118,80 @@ public class CombatSession {
      * Checks if a player is part of this session.
      */
     public boolean involvesPlayer(Player player) {
-        return player.equals(attacker) || player.equals(defender);
+        return participants.contains(player);
+    }
+
+    /**
+     * Gets every player currently in this session, founders first.
+     */
+    public Set<Player> getParticipants() {
+        return participants;
+    }
+
+    /**
+     * Adds a player who joined the fight.
+     */
+    public boolean addParticipant(Player player) {
+        return participants.add(player);
+    }
+
+    /**
+     * Removes a player who left the fight; their tallies are kept for the summary.
+     */
+    public boolean removeParticipant(Player player) {
+        lastOpponents.remove(player.getUniqueId());
+        return participants.remove(player);
+    }
+
+    /**
+     * Checks if this session has grown beyond its founding pair.
+     */
+    public boolean isCluster() {
+        return participants.size() > 2;
+    }
+
+    /**
+     * Remembers who last fought whom, for {@link #getOpponent(Player)}.
+     */
+    public void recordEngagement(Player attacker, Player victim) {
+        lastOpponents.put(attacker.getUniqueId(), victim);
+        lastOpponents.put(victim.getUniqueId(), attacker);
+    }
+
+    /**
+     * Takes over the participants and tallies of a session merged into this one.
+     */
+    public void absorb(CombatSession other) {
+        participants.addAll(other.participants);
+        lastOpponents.putAll(other.lastOpponents);
+        for (Map.Entry<UUID, DamageTally> entry : other.tallies.entrySet()) {
+            DamageTally from = entry.getValue();
+            DamageTally into = tally(entry.getKey());
+            into.dealt += from.dealt;
+            into.received += from.received;
+            into.hitsLanded += from.hitsLanded;
+        }
+    }
+
+    /**
+     * Moves some participants into a new session that keeps this session's start time,
+     * remaining time and their tallies, e.g. when a cluster falls apart into separate fights.
+     */
+    public CombatSession split(UUID newSessionId, Player newAttacker, Player newDefender, Collection<Player> members) {
+        CombatSession split = new CombatSession(newSessionId, newAttacker, newDefender, timerSeconds, startTime);
+        split.timerData.setRemainingSeconds(getRemainingTime());
+        split.currentTheme = currentTheme;
+        split.visualsEnabled = visualsEnabled;
+        for (Player member : members) {
+            UUID memberId = member.getUniqueId();
+            participants.remove(member);
+            split.participants.add(member);
+            Player last = lastOpponents.remove(memberId);
+            if (last != null) split.lastOpponents.put(memberId, last);
+            DamageTally tally = tallies.remove(memberId);
+            if (tally != null) split.tallies.put(memberId, tally);
+        }
+        return split;
     }
 
     /**
@@ -150,11 +244,8 @@ public class CombatSession {
 
     /**
      * Updates timer elapsed time and returns if expired.
-     * Also updates last activity time for cleanup tracking.
      */
     public boolean updateTimer() {
-        lastActivityTime.set(System.currentTimeMillis()); // Update activity time
-
         if (timerData != null) {
             boolean expired = timerData.updateElapsedTime();
             timerSeconds = timerData.getRemainingSeconds();
@@ -164,7 +255,8 @@ public class CombatSession {
     }
 
     /**
-     * Records activity in this session (for cleanup tracking).
+     * Records player activity in this session (for cleanup tracking).
+     * Called for real combat actions only, never by the timer.
      */
     public void recordActivity() {
         lastActivityTime.set(System.currentTimeMillis());
@@ -185,52 +277,49 @@ public class CombatSession {
     }
     
     /**
-     * Records damage dealt by a player in this session.
+     * Records damage dealt by a player to their current opponent in this session.
      */
     public void recordDamage(Player damager, double damage) {
-        // Update damage and hit stats
-        if (damager.equals(attacker)) {
-            attackerDamageDealt += damage;
-            attackerHitsLanded++;
-        } else if (damager.equals(defender)) {
-            defenderDamageDealt += damage;
-            defenderHitsLanded++;
+        recordDamage(damager, getOpponent(damager), damage);
+    }
+
+    /**
+     * Records damage dealt by one participant to another.
+     */
+    public void recordDamage(Player damager, Player victim, double damage) {
+        DamageTally damagerTally = tally(damager.getUniqueId());
+        damagerTally.dealt += damage;
+        damagerTally.hitsLanded++;
+        if (victim != null) {
+            tally(victim.getUniqueId()).received += damage;
         }
     }
-    
+
     /**
      * Gets hits landed by a specific player in this session.
      */
     public int getHitsLanded(Player player) {
-        if (player.equals(attacker)) {
-            return attackerHitsLanded;
-        } else if (player.equals(defender)) {
-            return defenderHitsLanded;
-        }
-        return 0;
+        DamageTally tally = player != null ? tallies.get(player.getUniqueId()) : null;
+        return tally != null ? tally.hitsLanded : 0;
     }
-    
+
     /**
      * Gets damage dealt by a specific player in this session.
      */
     public double getDamageDealt(Player player) {
-        if (player.equals(attacker)) {
-            return attackerDamageDealt;
-        } else if (player.equals(defender)) {
-            return defenderDamageDealt;
-        }
-        return 0.0;
+        DamageTally tally = tallies.get(player.getUniqueId());
+        return tally != null ? tally.dealt : 0.0;
     }
-    
+
     /**
      * Gets damage received by a specific player in this session.
      */
     public double getDamageReceived(Player player) {
-        if (player.equals(attacker)) {
-            return defenderDamageDealt; // Attacker received damage from defender
-        } else if (player.equals(defender)) {
-            return attackerDamageDealt; // Defender received damage from attacker
-        }
-        return 0.0;
+        DamageTally tally = tallies.get(player.getUniqueId());
+        return tally != null ? tally.received : 0.0;
+    }
+
+    private DamageTally tally(UUID playerId) {
+        return tallies.computeIfAbsent(playerId, id -> new DamageTally());
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.muzlik.pvpcombat.data;
 
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
+
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -90,20 +92,23 @@ public class EventTimeline {
     }
 
     /**
-     * Cleans up old sessions based on last activity.
+     * Registers incremental cleanup of sessions without events in the last {@code maxInactiveSeconds}.
      */
-    public void cleanupOldSessions(long maxInactiveSeconds) {
-        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(maxInactiveSeconds);
-
-        sessionBuffers.entrySet().removeIf(entry -> {
-            ReplayEvent[] recent = entry.getValue().getRecentEvents(1);
-            if (recent.length == 0) {
-                return true; // Empty buffer
-            }
+    public IncrementalSweeper.Job<?> registerCleanupJob(IncrementalSweeper sweeper, long intervalTicks,
+                                                        long maxInactiveSeconds) {
+        return sweeper.registerMap("replay-timelines", intervalTicks, sessionBuffers,
+            (sessionId, buffer) -> isInactive(buffer, maxInactiveSeconds));
+    }
 
-            // Remove if last event is older than cutoff
-            return recent[0].getTimestamp().isBefore(cutoff);
-        });
+    /**
+     * Checks if a buffer is empty or its last event is older than the cutoff.
+     */
+    private boolean isInactive(TimelineBuffer buffer, long maxInactiveSeconds) {
+        ReplayEvent[] recent = buffer.getRecentEvents(1);
+        if (recent.length == 0) {
+            return true; // Empty buffer
+        }
+        return recent[0].getTimestamp().isBefore(LocalDateTime.now().minusSeconds(maxInactiveSeconds));
     }
 
     /**
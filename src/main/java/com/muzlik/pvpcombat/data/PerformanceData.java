@@ -4,7 +4,9 @@ import java.util.UUID;
 
 /**
  * Data class for tracking server performance metrics and player ping levels.
- * Thread-safe for concurrent access during combat operations.
+ * Ping samples are written by a single sampler task into a fixed primitive ring; the
+ * derived EWMA, jitter and lag severity are published through volatile fields so
+ * readers never recompute them.
  */
 public class PerformanceData {
 
@@ -12,11 +14,23 @@ public class PerformanceData {
     private volatile double currentTps;
     private volatile double averageTps;
 
+    /** Number of most recent ping samples kept per player. */
+    public static final int SAMPLE_CAPACITY = 32;
+
     // Ping tracking per player
     private final UUID playerId;
     private volatile int currentPing;
     private volatile int averagePing;
 
+    // Sample ring and derived statistics, written only by the sampler
+    private final int[] samples = new int[SAMPLE_CAPACITY];
+    private volatile long sampleCount;
+    private volatile double ewmaPing;
+    private volatile double jitter;
+    private volatile double lagSeverity;
+    private volatile long lastSampleTime;
+    private volatile long spikeCount;
+
     // Lag detection thresholds
     private volatile long lastLagSpikeTime;
     private volatile boolean experiencingLag;
@@ -55,18 +69,92 @@ public class PerformanceData {
         return currentPing;
     }
 
-    public void setCurrentPing(int ping) {
+    public int getAveragePing() {
+        return averagePing;
+    }
+
+    /**
+     * Records a ping sample and updates EWMA, jitter, spike count and lag severity.
+     * Jitter is the smoothed absolute difference between consecutive samples.
+     *
+     * @param alpha EWMA smoothing factor
+     * @param pingThreshold ping above which the connection counts as lagging
+     * @param jitterThreshold jitter above which the connection counts as unstable
+     * @param spikeMinDelta minimum jump over the EWMA for a sample to count as a spike
+     * @return true if the sample was a spike
+     */
+    public boolean recordPing(int ping, long now, double alpha, int pingThreshold, int jitterThreshold, int spikeMinDelta) {
+        long count = sampleCount;
+        int previous = count > 0 ? samples[(int) ((count - 1) % SAMPLE_CAPACITY)] : ping;
+        samples[(int) (count % SAMPLE_CAPACITY)] = ping;
+        sampleCount = count + 1;
+
+        double ewma = count > 0 ? ewmaPing : ping;
+        double smoothedJitter = jitter;
+        boolean spike = count > 0 && ping - ewma > Math.max(spikeMinDelta, 3.0 * smoothedJitter);
+
+        ewma += alpha * (ping - ewma);
+        smoothedJitter += alpha * (Math.abs(ping - previous) - smoothedJitter);
+
+        double pingSeverity = clamp((ewma - pingThreshold) / pingThreshold);
+        double jitterSeverity = clamp((smoothedJitter - jitterThreshold) / jitterThreshold);
+
         this.currentPing = ping;
-        updatePingAverage(ping);
+        this.averagePing = (int) Math.round(ewma);
+        this.ewmaPing = ewma;
+        this.jitter = smoothedJitter;
+        this.lagSeverity = Math.min(1.0, (pingSeverity + jitterSeverity) / 2.0);
+        this.lastSampleTime = now;
+        setExperiencingLag(ewma > pingThreshold || smoothedJitter > jitterThreshold);
+
+        if (spike) {
+            spikeCount++;
+        }
+        return spike;
     }
 
-    public int getAveragePing() {
-        return averagePing;
+    /**
+     * Gets the retained ping samples, oldest first.
+     */
+    public int[] getRecentPings() {
+        long count = sampleCount;
+        int size = (int) Math.min(count, SAMPLE_CAPACITY);
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = samples[(int) ((count - size + i) % SAMPLE_CAPACITY)];
+        }
+        return result;
     }
 
-    private void updatePingAverage(int newPing) {
-        // Simple moving average calculation
-        this.averagePing = (int) ((averagePing * 0.8) + (newPing * 0.2));
+    public double getEwmaPing() {
+        return ewmaPing;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public long getSpikeCount() {
+        return spikeCount;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public long getLastSampleTime() {
+        return lastSampleTime;
+    }
+
+    /**
+     * Gets the lag severity computed from the latest sample (0.0 = no lag, 1.0 = severe lag).
+     */
+    public double getLagSeverity() {
+        return lagSeverity;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0.0, Math.min(1.0, value));
     }
 
     // Lag detection methods
@@ -111,7 +199,7 @@ public class PerformanceData {
 
     @Override
     public String toString() {
-        return String.format("PerformanceData{player=%s, tps=%.2f/%.2f, ping=%d/%d, lagging=%s}",
-                playerId, currentTps, averageTps, currentPing, averagePing, experiencingLag);
+        return String.format("PerformanceData{player=%s, tps=%.2f/%.2f, ping=%d/%.1f, jitter=%.1f, spikes=%d, lagging=%s}",
+                playerId, currentTps, averageTps, currentPing, ewmaPing, jitter, spikeCount, experiencingLag);
     }
 }
\ No newline at end of file
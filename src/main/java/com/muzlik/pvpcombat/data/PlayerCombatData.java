@@ -1,69 +1,126 @@
 package com.muzlik.pvpcombat.data;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.List;
-import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
 import com.muzlik.pvpcombat.data.CombatEvent;
 import com.muzlik.pvpcombat.data.CombatStatistics;
+import org.bukkit.Material;
 
 /**
  * Model class for storing player-specific combat data and statistics.
+ * Counters are striped adders so updates from the main thread and async pools are
+ * never lost, and memory per player is bounded by a fixed-size event ring and a
+ * weapon counter array indexed by {@link Material} ordinal.
  */
 public class PlayerCombatData {
+
+    /** Number of most recent combat events kept per player. */
+    public static final int EVENT_CAPACITY = 64;
+
+    private static final Material[] MATERIALS = Material.values();
+
     private final UUID playerId;
-    private int totalCombats;
-    private int wins;
-    private int losses;
-    private long totalCombatTime;
-    private double totalDamageDealt;
-    private double totalDamageReceived;
-    private final Map<String, Integer> weaponUsage;
-    private LocalDateTime lastCombat;
-    private RestrictionData restrictionData;
-    private List<CombatEvent> events = new ArrayList<>();
-    private CombatStatistics stats = new CombatStatistics(null);
-    private long lastActivity = System.currentTimeMillis();
+    private final LongAdder totalCombats = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LongAdder totalCombatTime = new LongAdder();
+    private final DoubleAdder totalDamageDealt = new DoubleAdder();
+    private final DoubleAdder totalDamageReceived = new DoubleAdder();
+
+    // Allocated on first weapon use; most players only ever touch a handful of materials
+    private volatile AtomicIntegerArray weaponUsage;
+
+    private final AtomicReferenceArray<CombatEvent> events = new AtomicReferenceArray<>(EVENT_CAPACITY);
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    private volatile LocalDateTime lastCombat;
+    // Set by the restriction manager; cooldowns need its shared cooldown table
+    private volatile RestrictionData restrictionData;
+    private final CombatStatistics stats = new CombatStatistics(null);
+    private volatile long lastActivity = System.currentTimeMillis();
+    private final AtomicBoolean seeded = new AtomicBoolean();
 
     public PlayerCombatData(UUID playerId) {
         this.playerId = playerId;
-        this.weaponUsage = new HashMap<>();
         this.lastCombat = LocalDateTime.now();
-        this.restrictionData = new RestrictionData(playerId);
     }
 
     // Getters and setters
+    // Setters add the difference to the current value rather than resetting the counter,
+    // so increments racing with them are kept; stored counters are added with the add methods.
     public UUID getPlayerId() { return playerId; }
 
-    public int getTotalCombats() { return totalCombats; }
-    public void setTotalCombats(int totalCombats) { this.totalCombats = totalCombats; }
-    public void incrementCombats() { this.totalCombats++; }
+    public int getTotalCombats() { return totalCombats.intValue(); }
+    public void setTotalCombats(int totalCombats) { set(this.totalCombats, totalCombats); }
+    public void incrementCombats() { this.totalCombats.increment(); }
+    public void addCombats(int combats) { this.totalCombats.add(combats); }
 
-    public int getWins() { return wins; }
-    public void setWins(int wins) { this.wins = wins; }
-    public void incrementWins() { this.wins++; }
+    public int getWins() { return wins.intValue(); }
+    public void setWins(int wins) { set(this.wins, wins); }
+    public void incrementWins() { this.wins.increment(); }
+    public void addWins(int wins) { this.wins.add(wins); }
 
-    public int getLosses() { return losses; }
-    public void setLosses(int losses) { this.losses = losses; }
-    public void incrementLosses() { this.losses++; }
+    public int getLosses() { return losses.intValue(); }
+    public void setLosses(int losses) { set(this.losses, losses); }
+    public void incrementLosses() { this.losses.increment(); }
+    public void addLosses(int losses) { this.losses.add(losses); }
 
-    public long getTotalCombatTime() { return totalCombatTime; }
-    public void setTotalCombatTime(long totalCombatTime) { this.totalCombatTime = totalCombatTime; }
-    public void addCombatTime(long time) { this.totalCombatTime += time; }
+    public long getTotalCombatTime() { return totalCombatTime.sum(); }
+    public void setTotalCombatTime(long totalCombatTime) { set(this.totalCombatTime, totalCombatTime); }
+    public void addCombatTime(long time) { this.totalCombatTime.add(time); }
 
-    public double getTotalDamageDealt() { return totalDamageDealt; }
-    public void setTotalDamageDealt(double totalDamageDealt) { this.totalDamageDealt = totalDamageDealt; }
-    public void addDamageDealt(double damage) { this.totalDamageDealt += damage; }
+    public double getTotalDamageDealt() { return totalDamageDealt.sum(); }
+    public void setTotalDamageDealt(double totalDamageDealt) { set(this.totalDamageDealt, totalDamageDealt); }
+    public void addDamageDealt(double damage) { this.totalDamageDealt.add(damage); }
 
-    public double getTotalDamageReceived() { return totalDamageReceived; }
-    public void setTotalDamageReceived(double totalDamageReceived) { this.totalDamageReceived = totalDamageReceived; }
-    public void addDamageReceived(double damage) { this.totalDamageReceived += damage; }
+    public double getTotalDamageReceived() { return totalDamageReceived.sum(); }
+    public void setTotalDamageReceived(double totalDamageReceived) { set(this.totalDamageReceived, totalDamageReceived); }
+    public void addDamageReceived(double damage) { this.totalDamageReceived.add(damage); }
 
-    public Map<String, Integer> getWeaponUsage() { return weaponUsage; }
-    public void incrementWeaponUsage(String weaponType) {
-        weaponUsage.put(weaponType, weaponUsage.getOrDefault(weaponType, 0) + 1);
+    /**
+     * Gets a snapshot of weapon usage counts for every material used at least once.
+     */
+    public Map<Material, Integer> getWeaponUsage() {
+        Map<Material, Integer> usage = new EnumMap<>(Material.class);
+        AtomicIntegerArray counts = weaponUsage;
+        if (counts != null) {
+            for (int i = 0; i < counts.length(); i++) {
+                int count = counts.get(i);
+                if (count > 0) {
+                    usage.put(MATERIALS[i], count);
+                }
+            }
+        }
+        return usage;
+    }
+
+    public int getWeaponUsage(Material weapon) {
+        AtomicIntegerArray counts = weaponUsage;
+        return counts != null ? counts.get(weapon.ordinal()) : 0;
+    }
+
+    public void incrementWeaponUsage(Material weapon) {
+        AtomicIntegerArray counts = weaponUsage;
+        if (counts == null) {
+            synchronized (this) {
+                counts = weaponUsage;
+                if (counts == null) {
+                    counts = new AtomicIntegerArray(MATERIALS.length);
+                    weaponUsage = counts;
+                }
+            }
+        }
+        counts.incrementAndGet(weapon.ordinal());
     }
 
     public LocalDateTime getLastCombat() { return lastCombat; }
@@ -72,7 +129,43 @@ public class PlayerCombatData {
     public RestrictionData getRestrictionData() { return restrictionData; }
     public void setRestrictionData(RestrictionData restrictionData) { this.restrictionData = restrictionData; }
 
-    public List<CombatEvent> getEvents() { return events; }
+    /**
+     * Appends an event to the ring, overwriting the oldest once {@link #EVENT_CAPACITY} is reached.
+     */
+    public void addEvent(CombatEvent event) {
+        long sequence = eventSequence.getAndIncrement();
+        events.set((int) (sequence % EVENT_CAPACITY), event);
+    }
+
+    /**
+     * Gets the retained events, oldest first.
+     */
+    public List<CombatEvent> getEvents() {
+        long end = eventSequence.get();
+        long start = Math.max(0, end - EVENT_CAPACITY);
+        List<CombatEvent> result = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            CombatEvent event = events.get((int) (seq % EVENT_CAPACITY));
+            if (event != null) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the total number of events ever recorded, including overwritten ones.
+     */
+    public long getTotalEventCount() { return eventSequence.get(); }
+
+    /**
+     * Marks this data as merged with the statistics store.
+     *
+     * @return true the first time, false if the stored counters were already added
+     */
+    public boolean markSeeded() { return seeded.compareAndSet(false, true); }
+
+    public boolean isSeeded() { return seeded.get(); }
 
     public CombatStatistics getStats() { return stats; }
 
@@ -81,38 +174,52 @@ public class PlayerCombatData {
     public void updateLastActivity(long time) { this.lastActivity = time; }
 
     public void clearRestrictions() {
-        if (restrictionData != null) {
-            restrictionData.clearAllRestrictions();
+        RestrictionData data = restrictionData;
+        if (data != null) {
+            data.clearAllRestrictions();
         }
     }
-    
+
     /**
      * Calculates and returns the K/D ratio.
      */
     public double getKDRatio() {
-        if (losses == 0) {
-            return wins;
+        long w = wins.sum();
+        long l = losses.sum();
+        if (l == 0) {
+            return w;
         }
-        return (double) wins / losses;
+        return (double) w / l;
     }
-    
+
     /**
      * Calculates and returns the win rate percentage.
      */
     public double getWinRate() {
-        if (totalCombats == 0) {
+        long combats = totalCombats.sum();
+        if (combats == 0) {
             return 0.0;
         }
-        return ((double) wins / totalCombats) * 100.0;
+        return ((double) wins.sum() / combats) * 100.0;
     }
-    
+
     /**
      * Calculates and returns the damage ratio (dealt/received).
      */
     public double getDamageRatio() {
-        if (totalDamageReceived == 0) {
-            return totalDamageDealt > 0 ? totalDamageDealt : 0.0;
+        double dealt = totalDamageDealt.sum();
+        double received = totalDamageReceived.sum();
+        if (received == 0) {
+            return dealt > 0 ? dealt : 0.0;
         }
-        return totalDamageDealt / totalDamageReceived;
+        return dealt / received;
+    }
+
+    private static void set(LongAdder adder, long value) {
+        adder.add(value - adder.sum());
+    }
+
+    private static void set(DoubleAdder adder, double value) {
+        adder.add(value - adder.sum());
     }
-}
\ No newline at end of file
+}
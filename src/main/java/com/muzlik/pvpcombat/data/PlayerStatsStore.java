@@ -0,0 +1,170 @@
+package com.muzlik.pvpcombat.data;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persists lifetime combat statistics so they survive restarts and in-memory cleanup.
+ * Stored as a single JSON file keyed by player UUID.
+ */
+public class PlayerStatsStore {
+
+    private static final Type RECORDS_TYPE = new TypeToken<Map<String, Record>>() {}.getType();
+
+    private final Plugin plugin;
+    private final Path statsFile;
+    private final Gson gson;
+    private final Map<UUID, Record> records;
+
+    /**
+     * Persisted lifetime counters for a single player.
+     */
+    public static final class Record {
+        private String name;
+        private int wins;
+        private int losses;
+        private int totalCombats;
+        private long totalCombatTime;
+        private double totalDamageDealt;
+        private double totalDamageReceived;
+
+        public String getName() { return name; }
+        public int getWins() { return wins; }
+        public int getLosses() { return losses; }
+        public int getTotalCombats() { return totalCombats; }
+        public long getTotalCombatTime() { return totalCombatTime; }
+        public double getTotalDamageDealt() { return totalDamageDealt; }
+        public double getTotalDamageReceived() { return totalDamageReceived; }
+    }
+
+    public PlayerStatsStore(Plugin plugin) {
+        this.plugin = plugin;
+        this.statsFile = plugin.getDataFolder().toPath().resolve("player_stats.json");
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.records = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads all records from disk, replacing any held in memory.
+     *
+     * @return the number of records loaded
+     */
+    public int load() {
+        records.clear();
+        if (!Files.exists(statsFile)) {
+            return 0;
+        }
+
+        try (Reader reader = Files.newBufferedReader(statsFile, StandardCharsets.UTF_8)) {
+            Map<String, Record> loaded = gson.fromJson(reader, RECORDS_TYPE);
+            if (loaded != null) {
+                loaded.forEach((id, record) -> {
+                    try {
+                        records.put(UUID.fromString(id), record);
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Skipping invalid player id in stats file: " + id);
+                    }
+                });
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to load player statistics: " + e.getMessage());
+        }
+        return records.size();
+    }
+
+    /**
+     * Writes all records to disk. The file is replaced atomically so a crash
+     * mid-write never leaves a truncated stats file behind.
+     */
+    public synchronized void save() {
+        Map<String, Record> snapshot = new HashMap<>(records.size());
+        records.forEach((id, record) -> snapshot.put(id.toString(), record));
+
+        Path tempFile = statsFile.resolveSibling(statsFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(statsFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                gson.toJson(snapshot, RECORDS_TYPE, writer);
+            }
+            Files.move(tempFile, statsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save player statistics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copies a player's current counters into the store. Data that has not been merged
+     * with the store yet is skipped, so its partial counters never replace the stored ones.
+     *
+     * @param name the player's name, or null to keep the last known name
+     */
+    public void update(UUID playerId, String name, PlayerCombatData data) {
+        if (!data.isSeeded()) {
+            return;
+        }
+        Record record = records.computeIfAbsent(playerId, id -> new Record());
+        synchronized (record) {
+            if (name != null) {
+                record.name = name;
+            }
+            record.wins = data.getWins();
+            record.losses = data.getLosses();
+            record.totalCombats = data.getTotalCombats();
+            record.totalCombatTime = data.getTotalCombatTime();
+            record.totalDamageDealt = data.getTotalDamageDealt();
+            record.totalDamageReceived = data.getTotalDamageReceived();
+        }
+    }
+
+    /**
+     * Adds a player's stored counters to their combat data, once per data object. The data
+     * may already be counting hits, e.g. when it was created before the store finished
+     * loading, so the counters are only ever added to and increments racing with the merge
+     * are kept.
+     *
+     * @return true if stored counters were added
+     */
+    public boolean merge(PlayerCombatData data) {
+        Record record = records.get(data.getPlayerId());
+        if (record == null) {
+            data.markSeeded();
+            return false;
+        }
+        // Locked so an update cannot copy the data back between marking and adding
+        synchronized (record) {
+            if (!data.markSeeded()) {
+                return false;
+            }
+            data.addWins(record.wins);
+            data.addLosses(record.losses);
+            data.addCombats(record.totalCombats);
+            data.addCombatTime(record.totalCombatTime);
+            data.addDamageDealt(record.totalDamageDealt);
+            data.addDamageReceived(record.totalDamageReceived);
+        }
+        return true;
+    }
+
+    /**
+     * Gets a read-only view of all stored records.
+     */
+    public Map<UUID, Record> getRecords() {
+        return Collections.unmodifiableMap(records);
+    }
+}
@@ -1,16 +1,19 @@
 package com.muzlik.pvpcombat.data;
 
+import com.muzlik.pvpcombat.restrictions.CooldownTable;
+import com.muzlik.pvpcombat.restrictions.CooldownType;
+
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
 /**
  * Model class for storing player-specific restriction data during combat.
+ * Cooldowns live in the shared {@link CooldownTable}; this is a view of the player's row.
  */
 public class RestrictionData {
     private final UUID playerId;
-    private final Map<String, LocalDateTime> activeCooldowns;
+    private final CooldownTable cooldowns;
     private boolean elytraGlideBlocked;
     private LocalDateTime lastEnderPearlUse;
     private LocalDateTime lastElytraBoost;
@@ -19,9 +22,9 @@ public class RestrictionData {
     private LocalDateTime lastEnchantedGoldenAppleUse;
     private double altitudeAtGlideStart;
 
-    public RestrictionData(UUID playerId) {
+    public RestrictionData(UUID playerId, CooldownTable cooldowns) {
         this.playerId = playerId;
-        this.activeCooldowns = new HashMap<>();
+        this.cooldowns = cooldowns;
         this.elytraGlideBlocked = false;
         this.altitudeAtGlideStart = 0.0;
     }
@@ -29,19 +32,25 @@ public class RestrictionData {
     // Getters and setters
     public UUID getPlayerId() { return playerId; }
 
-    public Map<String, LocalDateTime> getActiveCooldowns() { return activeCooldowns; }
+    /**
+     * Gets the running cooldowns as remaining ticks.
+     */
+    public Map<CooldownType, Long> getActiveCooldowns() { return cooldowns.snapshot(playerId); }
+
+    public boolean isOnCooldown(CooldownType type) {
+        return cooldowns.isOnCooldown(playerId, type);
+    }
 
-    public boolean isOnCooldown(String actionType) {
-        LocalDateTime expiry = activeCooldowns.get(actionType);
-        return expiry != null && LocalDateTime.now().isBefore(expiry);
+    public int getRemainingCooldownSeconds(CooldownType type) {
+        return cooldowns.getRemainingSeconds(playerId, type);
     }
 
-    public void setCooldown(String actionType, int seconds) {
-        activeCooldowns.put(actionType, LocalDateTime.now().plusSeconds(seconds));
+    public void setCooldown(CooldownType type, int seconds) {
+        cooldowns.set(playerId, type, seconds * 20L);
     }
 
-    public void removeCooldown(String actionType) {
-        activeCooldowns.remove(actionType);
+    public void removeCooldown(CooldownType type) {
+        cooldowns.clear(playerId, type);
     }
 
     public boolean isElytraGlideBlocked() { return elytraGlideBlocked; }
@@ -66,7 +75,7 @@ public class RestrictionData {
     public void setLastEnchantedGoldenAppleUse(LocalDateTime lastUse) { this.lastEnchantedGoldenAppleUse = lastUse; }
 
     public void clearAllRestrictions() {
-        activeCooldowns.clear();
+        cooldowns.clearAll(playerId);
         elytraGlideBlocked = false;
         lastEnderPearlUse = null;
         lastElytraBoost = null;
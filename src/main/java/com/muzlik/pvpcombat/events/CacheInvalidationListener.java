@@ -0,0 +1,40 @@
+package com.muzlik.pvpcombat.events;
+
+import com.muzlik.pvpcombat.data.CombatSession;
+import com.muzlik.pvpcombat.utils.CacheInvalidation;
+import com.muzlik.pvpcombat.utils.CacheInvalidationBus;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Publishes cache invalidations for both participants whenever combat starts or ends.
+ */
+public class CacheInvalidationListener implements Listener {
+
+    private final CacheInvalidationBus invalidationBus;
+
+    public CacheInvalidationListener(CacheInvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCombatStart(CombatStartEvent event) {
+        invalidationBus.publish(CacheInvalidation.combat(event.getAttacker().getUniqueId()));
+        invalidationBus.publish(CacheInvalidation.combat(event.getDefender().getUniqueId()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCombatEnd(CombatEndEvent event) {
+        CombatSession session = event.getSession();
+        if (session.isActive()) {
+            // A player left a cluster that keeps fighting
+            invalidationBus.publish(CacheInvalidation.combat(event.getLoser().getUniqueId()));
+            return;
+        }
+        for (Player participant : session.getParticipants()) {
+            invalidationBus.publish(CacheInvalidation.combat(participant.getUniqueId()));
+        }
+    }
+}
@@ -5,30 +5,38 @@ import com.muzlik.pvpcombat.combat.CombatManager;
 import com.muzlik.pvpcombat.combat.CombatTracker;
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.CombatSession;
-import com.muzlik.pvpcombat.data.RestrictionData;
 import com.muzlik.pvpcombat.performance.PerformanceMonitor;
+import com.muzlik.pvpcombat.performance.jfr.DamageJfrEvent;
+import com.muzlik.pvpcombat.performance.jfr.SafeZoneQueryJfrEvent;
 import com.muzlik.pvpcombat.logging.CombatLogger;
+import com.muzlik.pvpcombat.restrictions.CommandBlocklist;
+import com.muzlik.pvpcombat.restrictions.RestrictionEngine;
 import com.muzlik.pvpcombat.restrictions.RestrictionManager;
 import com.muzlik.pvpcombat.utils.AsyncUtils;
 import com.muzlik.pvpcombat.utils.CacheManager;
+import com.muzlik.pvpcombat.utils.PlayerPairKey;
 import org.bukkit.Material;
 import org.bukkit.entity.Entity;
+import org.bukkit.block.Block;
+import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Projectile;
+import org.bukkit.event.Cancellable;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.entity.ProjectileLaunchEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
 import org.bukkit.ChatColor;
-import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Main event listener handling all combat-related events.
@@ -40,6 +48,7 @@ public class CombatEventListener implements Listener {
     private final CombatTracker combatTracker;
     private final AntiInterferenceManager antiInterferenceManager;
     private final RestrictionManager restrictionManager;
+    private final RestrictionEngine restrictionEngine;
     private final CombatLogger combatLogger;
     private final PerformanceMonitor performanceMonitor;
     private final CacheManager cacheManager;
@@ -48,21 +57,25 @@ public class CombatEventListener implements Listener {
     public CombatEventListener(PvPCombatPlugin plugin, CombatManager combatManager,
                                 CombatTracker combatTracker, AntiInterferenceManager antiInterferenceManager,
                                 RestrictionManager restrictionManager, CombatLogger combatLogger,
-                                PerformanceMonitor performanceMonitor, CacheManager cacheManager) {
+                                PerformanceMonitor performanceMonitor, CacheManager cacheManager,
+                                com.muzlik.pvpcombat.protection.NewbieProtection newbieProtection) {
         this.plugin = plugin;
         this.combatManager = combatManager;
         this.combatTracker = combatTracker;
         this.antiInterferenceManager = antiInterferenceManager;
         this.restrictionManager = restrictionManager;
+        this.restrictionEngine = restrictionManager.getRestrictionEngine();
         this.combatLogger = combatLogger;
         this.performanceMonitor = performanceMonitor;
         this.cacheManager = cacheManager;
-        this.newbieProtection = new com.muzlik.pvpcombat.protection.NewbieProtection(plugin);
+        this.newbieProtection = newbieProtection;
     }
 
     @EventHandler(priority = EventPriority.LOWEST)
     public void onEntityDamage(EntityDamageByEntityEvent event) {
         performanceMonitor.startOperation("entity-damage-event");
+        DamageJfrEvent trace = new DamageJfrEvent();
+        trace.begin();
 
         try {
             // Only handle player vs player damage
@@ -124,15 +137,15 @@ public class CombatEventListener implements Listener {
             }
 
             // Check cache for interference data first
-            String interferenceKey = attacker.getUniqueId() + ":" + defender.getUniqueId();
-            Boolean cachedInterference = (Boolean) cacheManager.get("restriction-data", interferenceKey);
+            PlayerPairKey interferenceKey = new PlayerPairKey(attacker.getUniqueId(), defender.getUniqueId());
+            Boolean cachedInterference = cacheManager.interferenceData().getIfPresent(interferenceKey);
 
             boolean hasInterference = cachedInterference != null ? cachedInterference :
                 antiInterferenceManager.checkInterference(attacker, defender);
 
             // Cache the result
             if (cachedInterference == null) {
-                cacheManager.put("restriction-data", interferenceKey, hasInterference);
+                cacheManager.interferenceData().put(interferenceKey, hasInterference);
             }
 
             // Check for interference first
@@ -150,16 +163,17 @@ public class CombatEventListener implements Listener {
             // Record damage synchronously to ensure it's tracked
             // Use the CombatManager's tracker, not the local one!
             double damage = event.getFinalDamage();
-            combatManager.getCombatTracker().recordDamageDealt(attacker, damage);
-            combatManager.getCombatTracker().recordDamageReceived(defender, damage);
-            
-            // Also record damage in the session for per-combat tracking
-            CombatSession damageSession = combatManager.getActiveSessions().values().stream()
-                .filter(s -> s.involvesPlayer(attacker))
-                .findFirst().orElse(null);
+
+            // Record damage in the session first so the tracker's placeholder
+            // invalidation below already sees the updated session totals
+            CombatSession damageSession = combatManager.getSession(attacker);
             if (damageSession != null) {
-                damageSession.recordDamage(attacker, damage);
+                damageSession.recordDamage(attacker, defender, damage);
+                damageSession.recordActivity();
             }
+
+            combatManager.getCombatTracker().recordDamageDealt(attacker, damage);
+            combatManager.getCombatTracker().recordDamageReceived(defender, damage);
             
             // Debug logging - only if console logging is enabled
             if (plugin.getConfig().getBoolean("logging.console-enabled", false)) {
@@ -168,22 +182,15 @@ public class CombatEventListener implements Listener {
                     combatManager.getCombatTracker().getPlayerData(attacker.getUniqueId()).getTotalDamageDealt()));
             }
 
-            // Log damage event asynchronously
-            if (combatManager.isInCombat(attacker)) {
-                Player opponent = combatManager.getOpponent(attacker);
-                if (opponent != null && opponent.equals(defender)) {
-                    AsyncUtils.runAsync(plugin, () -> {
-                        CombatSession logSession = combatManager.getActiveSessions().values().stream()
-                            .filter(s -> s.getAttacker().equals(attacker) || s.getDefender().equals(attacker))
-                            .findFirst().orElse(null);
-                        if (logSession != null) {
-                            String weaponType = attacker.getInventory().getItemInMainHand().getType().toString();
-                            double distance = attacker.getLocation().distance(defender.getLocation());
-                            combatLogger.logDamageDealt(logSession.getSessionId(), attacker, defender, event.getFinalDamage(),
-                                                       true, distance, weaponType);
-                        }
-                    }, "combat-processing");
-                }
+            // Log damage event asynchronously into the shared session's log
+            if (damageSession != null && damageSession.involvesPlayer(defender)) {
+                UUID logSessionId = damageSession.getSessionId();
+                AsyncUtils.runAsync(plugin, () -> {
+                    String weaponType = attacker.getInventory().getItemInMainHand().getType().toString();
+                    double distance = attacker.getLocation().distance(defender.getLocation());
+                    combatLogger.logDamageDealt(logSessionId, attacker, defender, event.getFinalDamage(),
+                                               true, distance, weaponType);
+                }, "combat-processing");
             }
 
             // Start or reset combat asynchronously
@@ -201,20 +208,21 @@ public class CombatEventListener implements Listener {
                 // Start new combat - run on main thread for thread safety
                 AsyncUtils.runSync(plugin, () -> combatManager.startCombat(attacker, defender));
             } else {
-                // Reset timer for existing combat - run on main thread
-                AsyncUtils.runSync(plugin, () -> {
-                    CombatSession timerSession = combatManager.getActiveSessions().values().stream()
-                        .filter(s -> s.getAttacker().equals(attacker) || s.getDefender().equals(attacker))
-                        .findFirst().orElse(null);
-                    if (timerSession != null) {
-                        // Reset timer to default duration
-                        int defaultDuration = plugin.getConfig().getInt("combat.duration", 30);
-                        timerSession.getTimerData().setRemainingSeconds(defaultDuration);
-                    }
-                });
+                // Reset the shared timer, joining or merging fights in team battles - run on main thread
+                AsyncUtils.runSync(plugin, () -> combatManager.engage(attacker, defender));
             }
         } finally {
             performanceMonitor.endOperation("entity-damage-event");
+            if (trace.shouldCommit() && event.getDamager() instanceof Player && event.getEntity() instanceof Player) {
+                Player attacker = (Player) event.getDamager();
+                CombatSession session = combatManager.getSession(attacker);
+                trace.sessionId = session != null ? session.getSessionId().toString() : null;
+                trace.attacker = attacker.getName();
+                trace.defender = event.getEntity().getName();
+                trace.damage = event.getFinalDamage();
+                trace.cancelled = event.isCancelled();
+                trace.commit();
+            }
         }
     }
 
@@ -244,6 +252,12 @@ public class CombatEventListener implements Listener {
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        // Resume a tag that was running when the server went down
+        combatManager.resumeFromJournal(event.getPlayer());
+    }
+
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerQuit(PlayerQuitEvent event) {
         performanceMonitor.startOperation("player-quit-event");
@@ -276,7 +290,19 @@ public class CombatEventListener implements Listener {
                 
                 // End combat due to logout - keep on main thread for thread safety
                 AsyncUtils.runSync(plugin, () -> combatManager.endCombat(player.getUniqueId()));
+            } else if (combatManager.forfeitPendingTag(player)) {
+                // Tag restored from the journal whose opponent never came back online
+                plugin.getServer().broadcastMessage(ChatColor.RED + player.getName() + ChatColor.YELLOW
+                    + " forfeited by logging out during combat and died!");
+                player.setHealth(0.0);
+                plugin.getLoggingManager().log(player.getName() + " was killed for logging out with a restored combat tag.");
             }
+
+            // Drop the cached placeholder snapshot for the leaving player
+            combatManager.getPlaceholderCache().remove(player.getUniqueId());
+
+            // Restriction data is keyed by player id; release it so it does not outlive the session
+            restrictionManager.releasePlayer(player.getUniqueId());
         } finally {
             performanceMonitor.endOperation("player-quit-event");
         }
@@ -286,8 +312,13 @@ public class CombatEventListener implements Listener {
     public void onProjectileLaunch(ProjectileLaunchEvent event) {
         Projectile projectile = event.getEntity();
 
-        // Check if projectile is an ender pearl
-        if (!(projectile instanceof org.bukkit.entity.EnderPearl)) {
+        // One table lookup decides whether this projectile is restricted at all
+        Material thrown = RestrictionEngine.projectileMaterial(projectile);
+        if (thrown == null) {
+            return;
+        }
+        RestrictionEngine.Rule rule = restrictionEngine.lookup(RestrictionEngine.Trigger.LAUNCH, thrown);
+        if (rule.isAllowed()) {
             return;
         }
 
@@ -296,32 +327,82 @@ public class CombatEventListener implements Listener {
             return;
         }
 
-        Player player = (Player) projectile.getShooter();
+        enforceRestriction(event, (Player) projectile.getShooter(), rule, thrown);
+    }
 
-        // Check if player is in combat
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        // Look up both the item in hand and the clicked block before touching combat state
+        org.bukkit.inventory.ItemStack item = event.getItem();
+        Block block = event.getClickedBlock();
+        RestrictionEngine.Rule itemRule = item != null
+            ? restrictionEngine.lookup(RestrictionEngine.Trigger.USE_ITEM, item.getType())
+            : RestrictionEngine.Rule.ALLOW;
+        RestrictionEngine.Rule blockRule = block != null
+            ? restrictionEngine.lookup(RestrictionEngine.Trigger.USE_BLOCK, block.getType())
+            : RestrictionEngine.Rule.ALLOW;
+        if (itemRule.isAllowed() && blockRule.isAllowed()) {
+            return;
+        }
+
+        Player player = event.getPlayer();
         if (!combatManager.isInCombat(player)) {
             return;
         }
 
-        // Check if player can use ender pearl
-        if (!restrictionManager.canUseEnderPearl(player)) {
-            event.setCancelled(true);
-            player.sendMessage(ChatColor.RED + "You cannot use Ender Pearls during combat!");
-            plugin.getLoggingManager().log("[ENDERPEARL] Blocked " + player.getName() + " from using ender pearl in combat");
+        if (!blockRule.isAllowed()) {
+            denyRestrictedAction(event, player, blockRule);
             return;
         }
 
-        // Apply ender pearl restrictions
-        RestrictionData restrictionData = restrictionManager.getOrCreateRestrictionData(player);
-        
-        // Schedule cooldown application for next tick to override Minecraft's default cooldown
-        org.bukkit.scheduler.BukkitRunnable task = new org.bukkit.scheduler.BukkitRunnable() {
-            @Override
-            public void run() {
-                restrictionManager.getEnderPearlRestriction().onEnderPearlUsed(player, restrictionData);
+        if (itemRule.isBlockTargetOnly() && event.getAction() != org.bukkit.event.block.Action.RIGHT_CLICK_BLOCK) {
+            return;
+        }
+        if (itemRule.isRiptideOnly() && !item.containsEnchantment(Enchantment.RIPTIDE)) {
+            return;
+        }
+        denyRestrictedAction(event, player, itemRule);
+    }
+
+    /**
+     * Enforces a compiled DENY or COOLDOWN rule on an action performed with an item.
+     * Denials and combat cooldowns only apply to players in combat; a cooldown configured
+     * to run outside combat applies to everyone.
+     */
+    private void enforceRestriction(Cancellable event, Player player, RestrictionEngine.Rule rule, Material item) {
+        boolean inCombat = combatManager.isInCombat(player);
+        if (rule.getVerdict() == RestrictionEngine.Verdict.DENY) {
+            if (inCombat) {
+                denyRestrictedAction(event, player, rule);
             }
-        };
-        task.runTaskLater(plugin, 1L);
+            return;
+        }
+        if (!inCombat && rule.getCooldownSeconds(false) <= 0) {
+            return;
+        }
+
+        int remaining = restrictionManager.getRemainingCooldown(player, rule);
+        if (remaining > 0) {
+            denyRestrictedAction(event, player, rule, rule.getCooldownMessage(remaining));
+            return;
+        }
+        restrictionManager.startCooldown(player, rule, item);
+    }
+
+    /**
+     * Cancels an action denied by a compiled restriction rule.
+     */
+    private void denyRestrictedAction(Cancellable event, Player player, RestrictionEngine.Rule rule) {
+        denyRestrictedAction(event, player, rule, rule.getMessage());
+    }
+
+    private void denyRestrictedAction(Cancellable event, Player player, RestrictionEngine.Rule rule, String message) {
+        event.setCancelled(true);
+        player.sendMessage(message);
+        if (rule.getLogTag() != null) {
+            plugin.getLoggingManager().log("[" + rule.getLogTag() + "] Blocked " + player.getName()
+                + " from using " + rule.getLogName() + " in combat");
+        }
     }
     
     @EventHandler(priority = EventPriority.HIGHEST)
@@ -361,36 +442,35 @@ public class CombatEventListener implements Listener {
         }
         
         // Check if player is in combat and elytra is restricted
-        if (combatManager.isInCombat(player)) {
-            boolean elytraEnabled = plugin.getConfig().getBoolean("restrictions.elytra.enabled", true);
-            boolean blockGlide = plugin.getConfig().getBoolean("restrictions.elytra.block-glide", true);
-            
-            if (elytraEnabled && blockGlide) {
-                event.setCancelled(true);
-                player.sendMessage(ChatColor.RED + "You cannot use Elytra during combat!");
-                return;
-            }
+        if (restrictionEngine.isElytraGlideBlocked() && combatManager.isInCombat(player)) {
+            event.setCancelled(true);
+            player.sendMessage(ChatColor.RED + "You cannot use Elytra during combat!");
         }
     }
 
-    @EventHandler(priority = EventPriority.NORMAL)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        Player player = event.getPlayer();
-
+    /**
+     * Handles block-crossing moves of tagged players, dispatched by the movement tracker.
+     */
+    public void onTaggedMove(PlayerMoveEvent event, Player player) {
         // Additional check - if somehow they're gliding during combat, stop them
-        if (player.isGliding() && combatManager.isInCombat(player)) {
-            boolean elytraEnabled = plugin.getConfig().getBoolean("restrictions.elytra.enabled", true);
-            boolean blockGlide = plugin.getConfig().getBoolean("restrictions.elytra.block-glide", true);
-            
-            if (elytraEnabled && blockGlide) {
-                player.setGliding(false);
-                player.sendMessage(ChatColor.RED + "Elytra gliding is restricted during combat!");
-            }
+        if (restrictionEngine.isElytraGlideBlocked() && player.isGliding()) {
+            player.setGliding(false);
+            player.sendMessage(ChatColor.RED + "Elytra gliding is restricted during combat!");
         }
     }
 
-    @EventHandler(priority = EventPriority.NORMAL)
-    public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onRestrictedEntityDamage(EntityDamageByEntityEvent event) {
+        // Check for end crystal breaking
+        if (event.getEntity() instanceof org.bukkit.entity.EnderCrystal) {
+            if (event.getDamager() instanceof Player
+                    && !restrictionManager.getCrystalRestriction().canBreakCrystal((Player) event.getDamager())) {
+                event.setCancelled(true);
+                event.getDamager().sendMessage(ChatColor.RED + "You cannot break End Crystals during combat!");
+            }
+            return;
+        }
+
         // Check for elytra boost (firework damage to self)
         if (event.getEntity() instanceof Player && event.getDamager() instanceof org.bukkit.entity.Firework) {
             Player player = (Player) event.getEntity();
@@ -398,8 +478,6 @@ public class CombatEventListener implements Listener {
 
             // Check if firework was launched by the player (elytra boost)
             if (firework.getShooter() instanceof Player && firework.getShooter().equals(player)) {
-                RestrictionData restrictionData = restrictionManager.getOrCreateRestrictionData(player);
-
                 if (!restrictionManager.canUseElytra(player)) {
                     event.setCancelled(true);
                     player.sendMessage(ChatColor.RED + "Elytra boosts are restricted during combat!");
@@ -407,85 +485,23 @@ public class CombatEventListener implements Listener {
                 }
 
                 // Track boost usage
-                restrictionManager.getElytraRestriction().onElytraBoost(player, restrictionData);
+                restrictionManager.getElytraRestriction().onElytraBoost(player,
+                    restrictionManager.getOrCreateRestrictionData(player));
             }
         }
 
         // Existing damage handling continues...
     }
 
-    @EventHandler(priority = EventPriority.NORMAL)
-    public void onPlayerJoin(PlayerJoinEvent event) {
-        Player player = event.getPlayer();
-        // Resume combat state from cache if exists
-        Object combatState = cacheManager.get("combat-state", player.getUniqueId().toString());
-        if (combatState != null) {
-            player.sendMessage(ChatColor.GREEN + "Combat session resumed from previous session!");
-        }
-    }
-
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerConsume(org.bukkit.event.player.PlayerItemConsumeEvent event) {
-        Player player = event.getPlayer();
         Material item = event.getItem().getType();
-
-        // Get restriction data once
-        RestrictionData restrictionData = restrictionManager.getOrCreateRestrictionData(player);
-
-        // Check for golden apple consumption
-        if (item == Material.GOLDEN_APPLE) {
-            // Check if player is on cooldown
-            if (restrictionData.isOnCooldown("golden_apple")) {
-                event.setCancelled(true);
-                
-                // Get remaining cooldown
-                int remainingSeconds = 0;
-                java.time.LocalDateTime expiry = restrictionData.getActiveCooldowns().get("golden_apple");
-                if (expiry != null) {
-                    remainingSeconds = (int) java.time.Duration.between(java.time.LocalDateTime.now(), expiry).getSeconds();
-                }
-                
-                player.sendMessage(ChatColor.RED + "You cannot use Golden Apples yet! Cooldown: " + remainingSeconds + "s");
-                return;
-            }
-
-            // Check if usage is blocked during combat
-            if (!restrictionManager.canUseGoldenApple(player)) {
-                event.setCancelled(true);
-                player.sendMessage(ChatColor.RED + "You cannot use Golden Apples during combat!");
-                return;
-            }
-
-            // Apply golden apple cooldown immediately (not on next tick)
-            restrictionManager.getGoldenAppleRestriction().onGoldenAppleUsed(player, restrictionData);
+        RestrictionEngine.Rule rule = restrictionEngine.lookup(RestrictionEngine.Trigger.CONSUME, item);
+        if (rule.isAllowed()) {
+            return;
         }
-        // Check for enchanted golden apple consumption
-        else if (item == Material.ENCHANTED_GOLDEN_APPLE) {
-            // Check if player is on cooldown
-            if (restrictionData.isOnCooldown("enchanted_golden_apple")) {
-                event.setCancelled(true);
-                
-                // Get remaining cooldown
-                int remainingSeconds = 0;
-                java.time.LocalDateTime expiry = restrictionData.getActiveCooldowns().get("enchanted_golden_apple");
-                if (expiry != null) {
-                    remainingSeconds = (int) java.time.Duration.between(java.time.LocalDateTime.now(), expiry).getSeconds();
-                }
-                
-                player.sendMessage(ChatColor.RED + "You cannot use Enchanted Golden Apples yet! Cooldown: " + remainingSeconds + "s");
-                return;
-            }
 
-            // Check if usage is blocked during combat
-            if (!restrictionManager.canUseEnchantedGoldenApple(player)) {
-                event.setCancelled(true);
-                player.sendMessage(ChatColor.RED + "You cannot use Enchanted Golden Apples during combat!");
-                return;
-            }
-
-            // Apply enchanted golden apple cooldown immediately (not on next tick)
-            restrictionManager.getGoldenAppleRestriction().onEnchantedGoldenAppleUsed(player, restrictionData);
-        }
+        enforceRestriction(event, event.getPlayer(), rule, item);
     }
 
     /**
@@ -557,39 +573,19 @@ public class CombatEventListener implements Listener {
             return;
         }
 
-        // Check if teleport blocking is enabled
-        boolean teleportBlocking = plugin.getConfig().getBoolean("restrictions.teleport.enabled", true);
-        if (!teleportBlocking) {
+        // One hash lookup on the command label against every blocked group
+        CommandBlocklist.CommandGroup group = restrictionManager.getCommandBlocklist().match(event.getMessage());
+        if (group == null) {
             return;
         }
 
-        // Get the command (without the leading slash)
-        String command = event.getMessage().toLowerCase().substring(1);
-        String[] args = command.split(" ");
-        String baseCommand = args[0];
-
-        // Get blocked commands from config
-        List<String> blockedCommands = plugin.getConfig().getStringList("restrictions.teleport.blocked-commands");
-        
-        // Default blocked commands if not in config
-        if (blockedCommands.isEmpty()) {
-            blockedCommands = Arrays.asList("tp", "teleport", "home", "spawn", "warp", "warps", "tpa", "tpaccept", "back", "wild", "rtp");
-        }
+        event.setCancelled(true);
+        player.sendMessage(group.getMessage());
 
-        // Check if command is blocked
-        for (String blockedCmd : blockedCommands) {
-            if (baseCommand.equalsIgnoreCase(blockedCmd) || baseCommand.startsWith(blockedCmd + ":")) {
-                event.setCancelled(true);
-                String message = plugin.getConfig().getString("restrictions.teleport.blocked-message", 
-                    "&cYou cannot use teleport commands during combat!");
-                player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
-                
-                // Only log if console logging is enabled
-                if (plugin.getConfig().getBoolean("logging.console-enabled", false)) {
-                    plugin.getLoggingManager().log("[COMMAND BLOCK] Blocked " + player.getName() + " from using /" + baseCommand + " in combat");
-                }
-                return;
-            }
+        // Only log if console logging is enabled
+        if (plugin.getConfig().getBoolean("logging.console-enabled", false)) {
+            plugin.getLoggingManager().log("[COMMAND BLOCK] Blocked " + player.getName() + " from using /"
+                + CommandBlocklist.label(event.getMessage()) + " in combat (" + group.getName() + ")");
         }
     }
     
@@ -604,6 +600,22 @@ public class CombatEventListener implements Listener {
      * Checks if a location is in a safe zone.
      */
     private boolean isInSafeZone(org.bukkit.Location location) {
+        SafeZoneQueryJfrEvent trace = new SafeZoneQueryJfrEvent();
+        trace.begin();
+        boolean inSafeZone = checkWorldGuardRegions(location);
+        if (trace.shouldCommit()) {
+            trace.world = location.getWorld() != null ? location.getWorld().getName() : null;
+            trace.inSafeZone = inSafeZone;
+            trace.fieldHit = false;
+            trace.commit();
+        }
+        return inSafeZone;
+    }
+
+    /**
+     * Looks the location up in the configured WorldGuard regions.
+     */
+    private boolean checkWorldGuardRegions(org.bukkit.Location location) {
         // Check if safezone protection is enabled
         if (!plugin.getConfig().getBoolean("restrictions.safezone.enabled", true)) {
             return false;
@@ -659,162 +671,4 @@ public class CombatEventListener implements Listener {
         
         return false;
     }
-    
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onTridentThrow(ProjectileLaunchEvent event) {
-        // Check if projectile is a trident
-        if (!(event.getEntity() instanceof org.bukkit.entity.Trident)) {
-            return;
-        }
-
-        // Get the shooter (player)
-        if (!(event.getEntity().getShooter() instanceof Player)) {
-            return;
-        }
-
-        Player player = (Player) event.getEntity().getShooter();
-
-        // Only check if player is in combat
-        if (!combatManager.isInCombat(player)) {
-            return;
-        }
-
-        // Check if trident restrictions are enabled
-        boolean tridentEnabled = plugin.getConfig().getBoolean("restrictions.trident.enabled", true);
-        if (!tridentEnabled) {
-            return;
-        }
-
-        // ALWAYS block tridents in combat (both throwing and riptide)
-        event.setCancelled(true);
-        player.sendMessage(ChatColor.RED + "You cannot use tridents during combat!");
-        plugin.getLoggingManager().log("[TRIDENT] Blocked " + player.getName() + " from using trident in combat");
-    }
-    
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onCrystalPlace(org.bukkit.event.player.PlayerInteractEvent event) {
-        Player player = event.getPlayer();
-        
-        // Check if player is placing an end crystal
-        if (event.getItem() == null || event.getItem().getType() != Material.END_CRYSTAL) {
-            return;
-        }
-        
-        if (event.getAction() != org.bukkit.event.block.Action.RIGHT_CLICK_BLOCK) {
-            return;
-        }
-
-        // Check if player can place crystal
-        if (!restrictionManager.getCrystalRestriction().canPlaceCrystal(player)) {
-            event.setCancelled(true);
-            player.sendMessage(ChatColor.RED + "You cannot place End Crystals during combat!");
-        }
-    }
-    
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onCrystalBreak(org.bukkit.event.entity.EntityDamageByEntityEvent event) {
-        // Check if entity is an end crystal
-        if (!(event.getEntity() instanceof org.bukkit.entity.EnderCrystal)) {
-            return;
-        }
-        
-        // Check if damager is a player
-        if (!(event.getDamager() instanceof Player)) {
-            return;
-        }
-        
-        Player player = (Player) event.getDamager();
-
-        // Check if player can break crystal
-        if (!restrictionManager.getCrystalRestriction().canBreakCrystal(player)) {
-            event.setCancelled(true);
-            player.sendMessage(ChatColor.RED + "You cannot break End Crystals during combat!");
-        }
-    }
-    
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onTridentLaunch(ProjectileLaunchEvent event) {
-        // Check if projectile is a trident
-        if (!(event.getEntity() instanceof org.bukkit.entity.Trident)) {
-            return;
-        }
-
-        // Get the shooter (player)
-        if (!(event.getEntity().getShooter() instanceof Player)) {
-            return;
-        }
-
-        Player player = (Player) event.getEntity().getShooter();
-
-        // Only check if player is in combat
-        if (!combatManager.isInCombat(player)) {
-            return;
-        }
-
-        // Check if trident restrictions are enabled
-        boolean tridentEnabled = plugin.getConfig().getBoolean("restrictions.trident.enabled", true);
-        if (!tridentEnabled) {
-            return;
-        }
-
-        // ALWAYS block tridents in combat (both throwing and riptide)
-        event.setCancelled(true);
-        player.sendMessage(ChatColor.RED + "You cannot use tridents during combat!");
-        plugin.getLoggingManager().log("[TRIDENT] Blocked " + player.getName() + " from using trident in combat");
-    }
-    
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onRespawnAnchorUse(org.bukkit.event.player.PlayerInteractEvent event) {
-        Player player = event.getPlayer();
-        
-        // Check if player clicked on a respawn anchor
-        if (event.getClickedBlock() == null || event.getClickedBlock().getType() != Material.RESPAWN_ANCHOR) {
-            return;
-        }
-        
-        // Check if player is in combat
-        if (!combatManager.isInCombat(player)) {
-            return;
-        }
-        
-        // Check if respawn anchor restrictions are enabled
-        boolean anchorEnabled = plugin.getConfig().getBoolean("restrictions.respawn-anchor.enabled", true);
-        if (!anchorEnabled) {
-            return;
-        }
-        
-        // Block respawn anchor usage in combat
-        event.setCancelled(true);
-        player.sendMessage(ChatColor.RED + "You cannot use Respawn Anchors during combat!");
-        plugin.getLoggingManager().log("[RESPAWN ANCHOR] Blocked " + player.getName() + " from using respawn anchor in combat");
-    }
-    
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerInteractTrident(org.bukkit.event.player.PlayerInteractEvent event) {
-        Player player = event.getPlayer();
-        
-        // Check if player is using a trident
-        if (event.getItem() == null || event.getItem().getType() != Material.TRIDENT) {
-            return;
-        }
-        
-        // Check if player is in combat
-        if (!combatManager.isInCombat(player)) {
-            return;
-        }
-        
-        // Check if trident restrictions are enabled
-        boolean tridentEnabled = plugin.getConfig().getBoolean("restrictions.trident.enabled", true);
-        if (!tridentEnabled) {
-            return;
-        }
-        
-        // Check if trident has riptide enchantment
-        if (event.getItem().getEnchantments().containsKey(org.bukkit.enchantments.Enchantment.RIPTIDE)) {
-            // Block riptide usage in combat
-            event.setCancelled(true);
-            player.sendMessage(ChatColor.RED + "You cannot use Riptide during combat!");
-            plugin.getLoggingManager().log("[TRIDENT RIPTIDE] Blocked " + player.getName() + " from using riptide in combat");
-        }
-    }
 }
@@ -0,0 +1,232 @@
+package com.muzlik.pvpcombat.events;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.data.CombatSession;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes movement of combat-tagged players to the handlers that need it. The move listener
+ * is only registered while at least one player is tagged, so untagged servers pay nothing
+ * per move. A move is dispatched only when it crosses a block, or a chunk for chunk-level
+ * subscribers, compared as packed long positions; head rotation and sub-block steps are
+ * skipped before any handler runs.
+ */
+public class MovementTracker implements Listener {
+
+    /**
+     * How far a player must move before a subscriber is called.
+     */
+    public enum Granularity {
+        BLOCK,
+        CHUNK
+    }
+
+    /**
+     * Receives moves of tagged players.
+     */
+    public interface Subscriber {
+        void onMove(PlayerMoveEvent event, Player player);
+
+        /**
+         * Called when a player starts being tracked, e.g. to index their position.
+         */
+        default void onTracked(Player player) {
+        }
+
+        /**
+         * Called when a player stops being tracked, e.g. to clear per-player visuals.
+         */
+        default void onUntracked(Player player) {
+        }
+    }
+
+    private final PvPCombatPlugin plugin;
+    private final Set<UUID> tracked;
+    private final List<Subscriber> blockSubscribers;
+    private final List<Subscriber> chunkSubscribers;
+    private final Listener moveListener;
+    private boolean moveListenerRegistered;
+
+    // Statistics
+    private final LongAdder dispatchedEvents;
+    private final LongAdder skippedUntagged;
+    private final LongAdder skippedSameBlock;
+    private final LongAdder dispatchNanos;
+    private final LongAdder registrations;
+
+    public MovementTracker(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.tracked = ConcurrentHashMap.newKeySet();
+        this.blockSubscribers = new CopyOnWriteArrayList<>();
+        this.chunkSubscribers = new CopyOnWriteArrayList<>();
+        this.moveListener = new Listener() { };
+        this.dispatchedEvents = new LongAdder();
+        this.skippedUntagged = new LongAdder();
+        this.skippedSameBlock = new LongAdder();
+        this.dispatchNanos = new LongAdder();
+        this.registrations = new LongAdder();
+    }
+
+    /**
+     * Adds a handler for moves of tagged players.
+     */
+    public void subscribe(Granularity granularity, Subscriber subscriber) {
+        (granularity == Granularity.CHUNK ? chunkSubscribers : blockSubscribers).add(subscriber);
+    }
+
+    /**
+     * Packs a block position into a long: 26 bits x, 26 bits z, 12 bits y.
+     */
+    public static long packBlock(Location location) {
+        return ((long) location.getBlockX() & 0x3FFFFFFL) << 38
+            | ((long) location.getBlockZ() & 0x3FFFFFFL) << 12
+            | ((long) location.getBlockY() & 0xFFFL);
+    }
+
+    /**
+     * Packs a chunk position into a long: chunk x in the high half, chunk z in the low half.
+     */
+    public static long packChunk(Location location) {
+        return ((long) (location.getBlockX() >> 4)) << 32 | ((location.getBlockZ() >> 4) & 0xFFFFFFFFL);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCombatStart(CombatStartEvent event) {
+        track(event.getAttacker());
+        track(event.getDefender());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCombatEnd(CombatEndEvent event) {
+        CombatSession session = event.getSession();
+        if (session.isActive()) {
+            // A player left a cluster that keeps fighting
+            untrack(event.getLoser());
+            return;
+        }
+        for (Player participant : session.getParticipants()) {
+            untrack(participant);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        untrack(event.getPlayer());
+    }
+
+    private void track(Player player) {
+        if (!tracked.add(player.getUniqueId())) {
+            return;
+        }
+        for (Subscriber subscriber : blockSubscribers) {
+            subscriber.onTracked(player);
+        }
+        for (Subscriber subscriber : chunkSubscribers) {
+            subscriber.onTracked(player);
+        }
+        updateRegistration();
+    }
+
+    private void untrack(Player player) {
+        if (!tracked.remove(player.getUniqueId())) {
+            return;
+        }
+        for (Subscriber subscriber : blockSubscribers) {
+            subscriber.onUntracked(player);
+        }
+        for (Subscriber subscriber : chunkSubscribers) {
+            subscriber.onUntracked(player);
+        }
+        updateRegistration();
+    }
+
+    /**
+     * Registers the move listener while anyone is tagged and unregisters it once nobody is.
+     */
+    private synchronized void updateRegistration() {
+        boolean needed = !tracked.isEmpty();
+        if (needed == moveListenerRegistered) {
+            return;
+        }
+        if (needed) {
+            plugin.getServer().getPluginManager().registerEvent(PlayerMoveEvent.class, moveListener,
+                EventPriority.HIGH, (listener, event) -> onPlayerMove((PlayerMoveEvent) event), plugin, true);
+            registrations.increment();
+        } else {
+            PlayerMoveEvent.getHandlerList().unregister(moveListener);
+        }
+        moveListenerRegistered = needed;
+    }
+
+    private void onPlayerMove(PlayerMoveEvent event) {
+        Player player = event.getPlayer();
+        if (!tracked.contains(player.getUniqueId())) {
+            skippedUntagged.increment();
+            return;
+        }
+
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null || packBlock(from) == packBlock(to)) {
+            skippedSameBlock.increment();
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (Subscriber subscriber : blockSubscribers) {
+            subscriber.onMove(event, player);
+        }
+        if (!chunkSubscribers.isEmpty() && packChunk(from) != packChunk(to)) {
+            for (Subscriber subscriber : chunkSubscribers) {
+                subscriber.onMove(event, player);
+            }
+        }
+        dispatchNanos.add(System.nanoTime() - start);
+        dispatchedEvents.increment();
+    }
+
+    /**
+     * Checks if a player's movement is currently tracked.
+     */
+    public boolean isTracked(UUID playerId) {
+        return tracked.contains(playerId);
+    }
+
+    /**
+     * Checks if the move listener is currently registered.
+     */
+    public synchronized boolean isListening() {
+        return moveListenerRegistered;
+    }
+
+    /**
+     * Gets dispatch and skip figures for monitoring.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long dispatched = dispatchedEvents.sum();
+        stats.put("tracked", tracked.size());
+        stats.put("listening", isListening());
+        stats.put("registrations", registrations.sum());
+        stats.put("dispatched", dispatched);
+        stats.put("skipped-untagged", skippedUntagged.sum());
+        stats.put("skipped-same-block", skippedSameBlock.sum());
+        stats.put("avg-dispatch-micros", dispatched > 0 ? dispatchNanos.sum() / 1000.0 / dispatched : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,49 @@
+package com.muzlik.pvpcombat.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired on the main thread when a single server tick takes longer than the configured spike threshold.
+ */
+public class TickSpikeEvent extends Event {
+
+    private static final HandlerList handlers = new HandlerList();
+
+    private final double tickMillis;
+    private final double thresholdMillis;
+    private final long tickNumber;
+
+    public TickSpikeEvent(double tickMillis, double thresholdMillis, long tickNumber) {
+        this.tickMillis = tickMillis;
+        this.thresholdMillis = thresholdMillis;
+        this.tickNumber = tickNumber;
+    }
+
+    /**
+     * Gets the duration of the slow tick in milliseconds.
+     */
+    public double getTickMillis() {
+        return tickMillis;
+    }
+
+    public double getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    /**
+     * Gets the sampler's tick counter at the time of the spike.
+     */
+    public long getTickNumber() {
+        return tickNumber;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+}
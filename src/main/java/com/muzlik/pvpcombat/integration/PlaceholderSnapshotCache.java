@@ -0,0 +1,148 @@
+package com.muzlik.pvpcombat.integration;
+
+import com.muzlik.pvpcombat.combat.CombatManager;
+import com.muzlik.pvpcombat.data.CombatSession;
+import com.muzlik.pvpcombat.data.PlayerCombatData;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches rendered placeholder values per player. A snapshot is only rebuilt after
+ * its player's session or statistics changed, so scoreboard and tab plugins that poll
+ * every tick get a plain map lookup instead of session scans and String.format calls.
+ */
+public class PlaceholderSnapshotCache {
+
+    private static final String[] KEYS = {
+        "in_combat", "time_left", "opponent",
+        "wins", "losses", "total_combats", "kd_ratio", "win_rate",
+        "total_damage_dealt", "total_damage_received", "damage_ratio", "total_combat_time",
+        "session_damage_dealt", "session_damage_received", "session_hits_landed"
+    };
+
+    private static final Map<String, Integer> KEY_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEY_INDEX.put(KEYS[i], i);
+        }
+    }
+
+    private final CombatManager combatManager;
+    private final Map<UUID, Snapshot> snapshots;
+
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Rendered values for a single player.
+     */
+    private static final class Snapshot {
+        private volatile boolean dirty = true;
+        private volatile String[] values;
+    }
+
+    public PlaceholderSnapshotCache(CombatManager combatManager) {
+        this.combatManager = combatManager;
+        this.snapshots = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets a cached placeholder value, rebuilding the player's snapshot if it was invalidated.
+     *
+     * @return the rendered value, or null if the identifier is not cached
+     */
+    public String get(Player player, String identifier) {
+        Integer index = KEY_INDEX.get(identifier);
+        if (index == null) {
+            return null;
+        }
+
+        Snapshot snapshot = snapshots.computeIfAbsent(player.getUniqueId(), id -> new Snapshot());
+        String[] values = snapshot.values;
+        if (snapshot.dirty || values == null) {
+            synchronized (snapshot) {
+                if (snapshot.dirty || snapshot.values == null) {
+                    // Clear the flag before reading state so a concurrent change re-marks it
+                    snapshot.dirty = false;
+                    snapshot.values = render(player);
+                    rebuilds.incrementAndGet();
+                }
+                values = snapshot.values;
+            }
+        } else {
+            hits.incrementAndGet();
+        }
+        return values[index];
+    }
+
+    /**
+     * Marks a player's snapshot as stale.
+     */
+    public void invalidate(UUID playerId) {
+        Snapshot snapshot = snapshots.get(playerId);
+        if (snapshot != null) {
+            snapshot.dirty = true;
+        }
+    }
+
+    /**
+     * Marks every participant of a session as stale.
+     */
+    public void invalidate(CombatSession session) {
+        for (Player participant : session.getParticipants()) {
+            invalidate(participant.getUniqueId());
+        }
+    }
+
+    /**
+     * Drops a player's snapshot entirely (e.g. on quit).
+     */
+    public void remove(UUID playerId) {
+        snapshots.remove(playerId);
+    }
+
+    /**
+     * Gets cache statistics for monitoring.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("snapshots", snapshots.size());
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("hits", hits.get());
+        return stats;
+    }
+
+    private String[] render(Player player) {
+        String[] values = new String[KEYS.length];
+        CombatSession session = combatManager.getSession(player);
+        PlayerCombatData data = combatManager.getCombatTracker().getPlayerData(player.getUniqueId());
+
+        boolean inCombat = session != null;
+        Player opponent = inCombat ? session.getOpponent(player) : null;
+
+        values[0] = String.valueOf(inCombat);
+        values[1] = inCombat ? String.valueOf(session.getRemainingTime()) : "0";
+        values[2] = opponent != null ? opponent.getName() : "None";
+
+        values[3] = String.valueOf(data.getWins());
+        values[4] = String.valueOf(data.getLosses());
+        values[5] = String.valueOf(data.getTotalCombats());
+        values[6] = String.format("%.2f", data.getKDRatio());
+        values[7] = String.format("%.1f", data.getWinRate());
+        values[8] = String.format("%.1f", data.getTotalDamageDealt());
+        values[9] = String.format("%.1f", data.getTotalDamageReceived());
+        values[10] = String.format("%.2f", data.getDamageRatio());
+        values[11] = String.valueOf(data.getTotalCombatTime());
+
+        values[12] = inCombat ? String.format("%.1f", session.getDamageDealt(player)) : "0.0";
+        values[13] = inCombat ? String.format("%.1f", session.getDamageReceived(player)) : "0.0";
+        values[14] = inCombat ? String.valueOf(session.getHitsLanded(player)) : "0";
+        return values;
+    }
+}
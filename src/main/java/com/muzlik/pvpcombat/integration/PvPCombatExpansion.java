@@ -1,10 +1,10 @@
 package com.muzlik.pvpcombat.integration;
 
 import com.muzlik.pvpcombat.combat.CombatManager;
-import com.muzlik.pvpcombat.combat.CombatTracker;
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
-import com.muzlik.pvpcombat.data.CombatSession;
-import com.muzlik.pvpcombat.data.PlayerCombatData;
+import com.muzlik.pvpcombat.leaderboard.LeaderboardManager;
+import com.muzlik.pvpcombat.leaderboard.LeaderboardMetric;
+import com.muzlik.pvpcombat.leaderboard.RankedSkipList;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -46,85 +46,59 @@ public class PvPCombatExpansion extends PlaceholderExpansion {
 
     @Override
     public String onPlaceholderRequest(Player player, @NotNull String identifier) {
+        // Leaderboard positions do not depend on the requesting player
+        if (identifier.startsWith("top_")) {
+            return handleTopPlaceholder(identifier);
+        }
+
         if (player == null) {
             return "";
         }
 
-        CombatManager combatManager = (CombatManager) plugin.getCombatManager();
-        CombatTracker combatTracker = combatManager.getCombatTracker();
-
-        // Combat status placeholders
-        if (identifier.equals("in_combat")) {
-            return String.valueOf(combatManager.isInCombat(player));
+        if (identifier.startsWith("rank_")) {
+            LeaderboardManager leaderboardManager = plugin.getPluginManager().getLeaderboardManager();
+            LeaderboardMetric metric = LeaderboardMetric.fromKey(identifier.substring(5));
+            if (leaderboardManager == null || metric == null) {
+                return null;
+            }
+            int rank = leaderboardManager.getRank(metric, player.getUniqueId());
+            return rank > 0 ? String.valueOf(rank) : "-";
         }
 
-        if (identifier.equals("time_left")) {
-            if (!combatManager.isInCombat(player)) {
-                return "0";
-            }
-            CombatSession session = combatManager.getActiveSessions().values().stream()
-                .filter(s -> s.involvesPlayer(player))
-                .findFirst()
-                .orElse(null);
-            return session != null ? String.valueOf(session.getRemainingTime()) : "0";
+        // Status, lifetime and session placeholders are served from the per-player snapshot,
+        // which is only rebuilt after the player's session or statistics change
+        CombatManager combatManager = (CombatManager) plugin.getCombatManager();
+        return combatManager.getPlaceholderCache().get(player, identifier);
+    }
+
+    /**
+     * Handles %pvpcombat_top_<metric>_<position>_<name|value>% placeholders.
+     */
+    private String handleTopPlaceholder(String identifier) {
+        String[] parts = identifier.split("_");
+        if (parts.length != 4) {
+            return null;
         }
 
-        if (identifier.equals("opponent")) {
-            Player opponent = combatManager.getOpponent(player);
-            return opponent != null ? opponent.getName() : "None";
+        LeaderboardManager leaderboardManager = plugin.getPluginManager().getLeaderboardManager();
+        LeaderboardMetric metric = LeaderboardMetric.fromKey(parts[1]);
+        if (leaderboardManager == null || metric == null) {
+            return null;
         }
 
-        // Lifetime statistics placeholders
-        PlayerCombatData data = combatTracker.getPlayerData(player.getUniqueId());
-        if (data == null) {
-            return "0";
+        int position;
+        try {
+            position = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
         }
 
-        switch (identifier) {
-            case "wins":
-                return String.valueOf(data.getWins());
-            case "losses":
-                return String.valueOf(data.getLosses());
-            case "total_combats":
-                return String.valueOf(data.getTotalCombats());
-            case "kd_ratio":
-                return String.format("%.2f", data.getKDRatio());
-            case "win_rate":
-                return String.format("%.1f", data.getWinRate());
-            case "total_damage_dealt":
-                return String.format("%.1f", data.getTotalDamageDealt());
-            case "total_damage_received":
-                return String.format("%.1f", data.getTotalDamageReceived());
-            case "damage_ratio":
-                return String.format("%.2f", data.getDamageRatio());
-            case "total_combat_time":
-                return String.valueOf(data.getTotalCombatTime());
-            
-            // Session-specific placeholders
-            case "session_damage_dealt":
-                if (!combatManager.isInCombat(player)) return "0.0";
-                CombatSession session = combatManager.getActiveSessions().values().stream()
-                    .filter(s -> s.involvesPlayer(player))
-                    .findFirst()
-                    .orElse(null);
-                return session != null ? String.format("%.1f", session.getDamageDealt(player)) : "0.0";
-                
-            case "session_damage_received":
-                if (!combatManager.isInCombat(player)) return "0.0";
-                session = combatManager.getActiveSessions().values().stream()
-                    .filter(s -> s.involvesPlayer(player))
-                    .findFirst()
-                    .orElse(null);
-                return session != null ? String.format("%.1f", session.getDamageReceived(player)) : "0.0";
-                
-            case "session_hits_landed":
-                if (!combatManager.isInCombat(player)) return "0";
-                session = combatManager.getActiveSessions().values().stream()
-                    .filter(s -> s.involvesPlayer(player))
-                    .findFirst()
-                    .orElse(null);
-                return session != null ? String.valueOf(session.getHitsLanded(player)) : "0";
-                
+        RankedSkipList.Entry entry = leaderboardManager.getEntry(metric, position);
+        switch (parts[3]) {
+            case "name":
+                return entry != null ? leaderboardManager.getPlayerName(entry.getPlayerId()) : "---";
+            case "value":
+                return entry != null ? metric.format(entry.getScore()) : "0";
             default:
                 return null;
         }
@@ -62,6 +62,7 @@ public class BungeeSyncHandler extends NetworkSyncManager {
     @Override
     public CompletableFuture<Void> broadcastCombatEnd(UUID sessionId, String reason) {
         if (!enabled) return CompletableFuture.completedFuture(null);
+        forgetSession(sessionId);
 
         return CompletableFuture.runAsync(() -> {
             try {
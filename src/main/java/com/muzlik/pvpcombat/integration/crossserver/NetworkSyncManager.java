@@ -2,10 +2,14 @@ package com.muzlik.pvpcombat.integration.crossserver;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.CombatSession;
+import com.muzlik.pvpcombat.performance.LoadGovernor;
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
 import org.bukkit.entity.Player;
 
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract base class for managing cross-server combat synchronization.
@@ -18,6 +22,8 @@ public abstract class NetworkSyncManager {
     protected final String syncChannel;
     protected boolean enabled;
     protected boolean broadcastEnabled;
+    protected long updateIntervalMillis;
+    private final Map<UUID, Long> lastUpdateSent = new ConcurrentHashMap<>();
 
     public NetworkSyncManager(PvPCombatPlugin plugin, String syncChannel) {
         this.plugin = plugin;
@@ -25,6 +31,7 @@ public abstract class NetworkSyncManager {
         this.serverCombatState = new ServerCombatState(plugin.getServer().getName());
         this.enabled = plugin.getConfig().getBoolean("cross-server-sync.enabled", false);
         this.broadcastEnabled = plugin.getConfig().getBoolean("cross-server-sync.broadcast.enabled", false);
+        this.updateIntervalMillis = Math.max(0, plugin.getConfig().getLong("integration.cross-server-sync.sync-interval", 30)) * 1000L;
     }
 
     /**
@@ -69,6 +76,29 @@ public abstract class NetworkSyncManager {
         return "&cCannot switch servers while in combat!";
     }
 
+    /**
+     * Checks whether a periodic combat update for a session is due and records it if so.
+     * Updates are spaced further apart while the load governor is shedding work;
+     * start and end notifications are never paced.
+     */
+    protected boolean shouldSendUpdate(UUID sessionId) {
+        long interval = updateIntervalMillis * LoadGovernor.levelOf(plugin).getSyncIntervalMultiplier();
+        long now = System.currentTimeMillis();
+        Long last = lastUpdateSent.get(sessionId);
+        if (last != null && now - last < interval) {
+            return false;
+        }
+        lastUpdateSent.put(sessionId, now);
+        return true;
+    }
+
+    /**
+     * Forgets update pacing state for a finished session.
+     */
+    protected void forgetSession(UUID sessionId) {
+        lastUpdateSent.remove(sessionId);
+    }
+
     /**
      * Processes incoming sync packets.
      */
@@ -158,9 +188,9 @@ public abstract class NetworkSyncManager {
     }
 
     /**
-     * Cleans up expired states periodically.
+     * Registers periodic cleanup of expired network states (every minute).
      */
-    public void cleanupStates() {
-        serverCombatState.cleanupExpiredStates();
+    public void registerCleanupJobs(IncrementalSweeper sweeper) {
+        serverCombatState.registerCleanupJob(sweeper, 1200L);
     }
 }
\ No newline at end of file
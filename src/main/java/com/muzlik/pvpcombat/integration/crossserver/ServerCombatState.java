@@ -1,5 +1,7 @@
 package com.muzlik.pvpcombat.integration.crossserver;
 
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
+
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -72,17 +74,18 @@ public class ServerCombatState {
     }
 
     /**
-     * Cleans up expired combat states.
-     * Should be called periodically to remove stale data.
+     * Registers the incremental cleanup of expired combat states.
+     */
+    public IncrementalSweeper.Job<?> registerCleanupJob(IncrementalSweeper sweeper, long intervalTicks) {
+        return sweeper.registerMap("cross-server-states", intervalTicks, globalCombatStates, this::isExpired);
+    }
+
+    /**
+     * Checks if a state is inactive or should have expired (with a 5 minute buffer).
      */
-    public void cleanupExpiredStates() {
-        long currentTime = System.currentTimeMillis();
-        globalCombatStates.entrySet().removeIf(entry -> {
-            CombatSyncData data = entry.getValue();
-            // Remove if inactive or if session should have expired (with buffer)
-            return !data.isActive() ||
-                   (currentTime - data.getStartTime()) > (data.getRemainingSeconds() + 300) * 1000L; // 5 min buffer
-        });
+    private boolean isExpired(UUID playerId, CombatSyncData data) {
+        return !data.isActive() ||
+               (System.currentTimeMillis() - data.getStartTime()) > (data.getRemainingSeconds() + 300) * 1000L;
     }
 
     /**
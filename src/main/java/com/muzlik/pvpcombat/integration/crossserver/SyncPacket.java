@@ -1,5 +1,7 @@
 package com.muzlik.pvpcombat.integration.crossserver;
 
+import com.muzlik.pvpcombat.performance.jfr.SyncPacketJfrEvent;
+
 import java.io.*;
 import java.util.UUID;
 
@@ -33,6 +35,8 @@ public class SyncPacket {
      * Serializes the packet to a byte array for network transmission.
      */
     public byte[] serialize() throws IOException {
+        SyncPacketJfrEvent trace = new SyncPacketJfrEvent();
+        trace.begin();
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
              DataOutputStream dos = new DataOutputStream(baos)) {
 
@@ -53,7 +57,15 @@ public class SyncPacket {
             dos.writeInt(data.getRemainingSeconds());
             dos.writeBoolean(data.isActive());
 
-            return baos.toByteArray();
+            byte[] bytes = baos.toByteArray();
+            if (trace.shouldCommit()) {
+                trace.direction = "send";
+                trace.packetType = type.name();
+                trace.sessionId = data.getSessionId().toString();
+                trace.bytes = bytes.length;
+                trace.commit();
+            }
+            return bytes;
         }
     }
 
@@ -61,6 +73,8 @@ public class SyncPacket {
      * Deserializes a packet from a byte array.
      */
     public static SyncPacket deserialize(byte[] data) throws IOException {
+        SyncPacketJfrEvent trace = new SyncPacketJfrEvent();
+        trace.begin();
         try (ByteArrayInputStream bais = new ByteArrayInputStream(data);
              DataInputStream dis = new DataInputStream(bais)) {
 
@@ -85,6 +99,13 @@ public class SyncPacket {
                                                         attackerName, defenderName, serverName,
                                                         startTime, remainingSeconds, active);
 
+            if (trace.shouldCommit()) {
+                trace.direction = "receive";
+                trace.packetType = type.name();
+                trace.sessionId = sessionId.toString();
+                trace.bytes = data.length;
+                trace.commit();
+            }
             return new SyncPacket(channel, type, syncData);
         }
     }
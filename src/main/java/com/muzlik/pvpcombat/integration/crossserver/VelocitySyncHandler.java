@@ -71,6 +71,7 @@ public class VelocitySyncHandler extends NetworkSyncManager {
     @Override
     public CompletableFuture<Void> broadcastCombatEnd(UUID sessionId, String reason) {
         if (!enabled) return CompletableFuture.completedFuture(null);
+        forgetSession(sessionId);
 
         return CompletableFuture.runAsync(() -> {
             try {
@@ -0,0 +1,70 @@
+package com.muzlik.pvpcombat.interfaces;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.function.Consumer;
+
+/**
+ * Spatial index of combat-tagged players for "who is fighting near here" queries.
+ * Positions are refreshed whenever a tagged player crosses a block, so results are
+ * accurate to the block. Queries do not allocate; call them from the main thread.
+ * <p>
+ * Other plugins can obtain it through Bukkit's services manager:
+ * {@code Bukkit.getServicesManager().load(ICombatGrid.class)}.
+ */
+public interface ICombatGrid {
+
+    /**
+     * Visits every tagged player within a radius of a location.
+     *
+     * @param center The center of the search sphere
+     * @param radius The radius in blocks
+     * @param action Called once per player found
+     * @return The number of players visited
+     */
+    int forEachNear(Location center, double radius, Consumer<Player> action);
+
+    /**
+     * Visits every tagged player inside an axis-aligned box.
+     *
+     * @param world The world to search
+     * @param minX The lowest x coordinate, inclusive
+     * @param minY The lowest y coordinate, inclusive
+     * @param minZ The lowest z coordinate, inclusive
+     * @param maxX The highest x coordinate, inclusive
+     * @param maxY The highest y coordinate, inclusive
+     * @param maxZ The highest z coordinate, inclusive
+     * @param action Called once per player found
+     * @return The number of players visited
+     */
+    int forEachInBox(World world, double minX, double minY, double minZ,
+                     double maxX, double maxY, double maxZ, Consumer<Player> action);
+
+    /**
+     * Counts the tagged players within a radius of a location.
+     *
+     * @param center The center of the search sphere
+     * @param radius The radius in blocks
+     * @return The number of players found
+     */
+    int countNear(Location center, double radius);
+
+    /**
+     * Checks if any tagged player other than the given one is within a radius of a location.
+     *
+     * @param center The center of the search sphere
+     * @param radius The radius in blocks
+     * @param exclude A player to ignore, or null
+     * @return true if someone was found
+     */
+    boolean isAnyNear(Location center, double radius, Player exclude);
+
+    /**
+     * Gets the number of tagged players in the index.
+     *
+     * @return The indexed player count
+     */
+    int size();
+}
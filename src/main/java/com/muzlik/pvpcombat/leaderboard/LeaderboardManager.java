@@ -0,0 +1,228 @@
+package com.muzlik.pvpcombat.leaderboard;
+
+import com.muzlik.pvpcombat.data.PlayerCombatData;
+import com.muzlik.pvpcombat.data.PlayerStatsStore;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains PvP leaderboards incrementally. Each metric keeps its own ranked skip list
+ * that is updated in O(log n) whenever a player's statistics change, so top-N and
+ * rank queries never have to scan all player data.
+ */
+public class LeaderboardManager {
+
+    private final Plugin plugin;
+    private final Map<LeaderboardMetric, Board> boards;
+    private final Map<UUID, String> playerNames;
+
+    private volatile boolean enabled;
+    private volatile int minCombats;
+
+    /**
+     * Ranked entries for a single metric, guarded by its own lock.
+     */
+    private static final class Board {
+        private final RankedSkipList list = new RankedSkipList();
+        private final Map<UUID, Double> scores = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+
+    public LeaderboardManager(Plugin plugin) {
+        this.plugin = plugin;
+        this.boards = new EnumMap<>(LeaderboardMetric.class);
+        this.playerNames = new ConcurrentHashMap<>();
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            boards.put(metric, new Board());
+        }
+        reloadConfiguration();
+    }
+
+    /**
+     * Reloads leaderboard settings from config.
+     */
+    public void reloadConfiguration() {
+        this.enabled = plugin.getConfig().getBoolean("statistics.leaderboard.enabled", true);
+        this.minCombats = Math.max(0, plugin.getConfig().getInt("statistics.leaderboard.min-combats", 10));
+    }
+
+    /**
+     * Re-ranks a player on the given metrics after their statistics changed.
+     */
+    public void update(UUID playerId, String name, PlayerCombatData data, LeaderboardMetric... metrics) {
+        if (!enabled) {
+            return;
+        }
+        if (name != null) {
+            playerNames.put(playerId, name);
+        }
+
+        for (LeaderboardMetric metric : metrics) {
+            if (isEligible(metric, data.getTotalCombats())) {
+                setScore(boards.get(metric), playerId, metric.valueOf(data));
+            } else {
+                removeScore(boards.get(metric), playerId);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds every leaderboard from the persistent store. Scores are computed and
+     * sorted in parallel, then each board is bulk-linked in a single pass.
+     */
+    public void rebuild(PlayerStatsStore store) {
+        long start = System.currentTimeMillis();
+        Map<UUID, PlayerStatsStore.Record> records = store.getRecords();
+
+        records.forEach((id, record) -> {
+            if (record.getName() != null) {
+                playerNames.put(id, record.getName());
+            }
+        });
+
+        Arrays.stream(LeaderboardMetric.values()).parallel().forEach(metric -> {
+            Map<UUID, Double> scores = new ConcurrentHashMap<>();
+            records.entrySet().parallelStream()
+                .filter(e -> isEligible(metric, e.getValue().getTotalCombats()))
+                .forEach(e -> {
+                    PlayerStatsStore.Record r = e.getValue();
+                    scores.put(e.getKey(), metric.compute(r.getWins(), r.getLosses(),
+                        r.getTotalCombats(), r.getTotalDamageDealt()));
+                });
+
+            Board board = boards.get(metric);
+            board.lock.writeLock().lock();
+            try {
+                board.list.bulkLoad(scores);
+                board.scores.clear();
+                board.scores.putAll(scores);
+            } finally {
+                board.lock.writeLock().unlock();
+            }
+        });
+
+        plugin.getLogger().info("Rebuilt leaderboards for " + records.size() + " players in "
+            + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Gets a player's 1-based rank on a metric.
+     *
+     * @return the rank, or 0 if the player is not ranked
+     */
+    public int getRank(LeaderboardMetric metric, UUID playerId) {
+        Board board = boards.get(metric);
+        board.lock.readLock().lock();
+        try {
+            Double score = board.scores.get(playerId);
+            return score != null ? board.list.rankOf(playerId, score) : 0;
+        } finally {
+            board.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the entry at a 1-based position on a metric.
+     *
+     * @return the entry, or null if no player holds that position
+     */
+    public RankedSkipList.Entry getEntry(LeaderboardMetric metric, int position) {
+        Board board = boards.get(metric);
+        board.lock.readLock().lock();
+        try {
+            return board.list.getByRank(position);
+        } finally {
+            board.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets up to {@code count} entries starting at a 1-based position.
+     */
+    public List<RankedSkipList.Entry> getTop(LeaderboardMetric metric, int startPosition, int count) {
+        Board board = boards.get(metric);
+        board.lock.readLock().lock();
+        try {
+            return board.list.range(startPosition, count);
+        } finally {
+            board.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of ranked players on a metric.
+     */
+    public int getSize(LeaderboardMetric metric) {
+        Board board = boards.get(metric);
+        board.lock.readLock().lock();
+        try {
+            return board.list.size();
+        } finally {
+            board.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the last known name of a ranked player.
+     */
+    public String getPlayerName(UUID playerId) {
+        return playerNames.getOrDefault(playerId, playerId.toString().substring(0, 8));
+    }
+
+    /**
+     * Gets ranked player counts per metric.
+     */
+    public Map<LeaderboardMetric, Integer> getStats() {
+        Map<LeaderboardMetric, Integer> stats = new EnumMap<>(LeaderboardMetric.class);
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            stats.put(metric, getSize(metric));
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private boolean isEligible(LeaderboardMetric metric, int totalCombats) {
+        return !metric.isRatio() || totalCombats >= minCombats;
+    }
+
+    private void setScore(Board board, UUID playerId, double score) {
+        board.lock.writeLock().lock();
+        try {
+            Double previous = board.scores.put(playerId, score);
+            if (previous != null) {
+                if (Double.compare(previous, score) == 0) {
+                    return;
+                }
+                board.list.remove(playerId, previous);
+            }
+            board.list.insert(playerId, score);
+        } finally {
+            board.lock.writeLock().unlock();
+        }
+    }
+
+    private void removeScore(Board board, UUID playerId) {
+        board.lock.writeLock().lock();
+        try {
+            Double previous = board.scores.remove(playerId);
+            if (previous != null) {
+                board.list.remove(playerId, previous);
+            }
+        } finally {
+            board.lock.writeLock().unlock();
+        }
+    }
+}
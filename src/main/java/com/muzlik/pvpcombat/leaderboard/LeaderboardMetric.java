@@ -0,0 +1,106 @@
+package com.muzlik.pvpcombat.leaderboard;
+
+import com.muzlik.pvpcombat.data.PlayerCombatData;
+
+/**
+ * Statistics that players can be ranked by.
+ */
+public enum LeaderboardMetric {
+
+    WINS("wins", "Wins", false) {
+        @Override
+        public double compute(int wins, int losses, int totalCombats, double damageDealt) {
+            return wins;
+        }
+
+        @Override
+        public String format(double value) {
+            return String.valueOf((long) value);
+        }
+    },
+
+    KD_RATIO("kd", "K/D Ratio", true) {
+        @Override
+        public double compute(int wins, int losses, int totalCombats, double damageDealt) {
+            return losses == 0 ? wins : (double) wins / losses;
+        }
+
+        @Override
+        public String format(double value) {
+            return String.format("%.2f", value);
+        }
+    },
+
+    WIN_RATE("winrate", "Win Rate", true) {
+        @Override
+        public double compute(int wins, int losses, int totalCombats, double damageDealt) {
+            return totalCombats == 0 ? 0.0 : ((double) wins / totalCombats) * 100.0;
+        }
+
+        @Override
+        public String format(double value) {
+            return String.format("%.1f%%", value);
+        }
+    },
+
+    DAMAGE("damage", "Damage Dealt", false) {
+        @Override
+        public double compute(int wins, int losses, int totalCombats, double damageDealt) {
+            return damageDealt;
+        }
+
+        @Override
+        public String format(double value) {
+            return String.format("%.1f", value);
+        }
+    };
+
+    private final String key;
+    private final String displayName;
+    private final boolean ratio;
+
+    LeaderboardMetric(String key, String displayName, boolean ratio) {
+        this.key = key;
+        this.displayName = displayName;
+        this.ratio = ratio;
+    }
+
+    /**
+     * Computes the metric value from raw counters.
+     */
+    public abstract double compute(int wins, int losses, int totalCombats, double damageDealt);
+
+    /**
+     * Formats a metric value for display.
+     */
+    public abstract String format(double value);
+
+    /**
+     * Computes the metric value for a player's combat data.
+     */
+    public double valueOf(PlayerCombatData data) {
+        return compute(data.getWins(), data.getLosses(), data.getTotalCombats(), data.getTotalDamageDealt());
+    }
+
+    public String getKey() { return key; }
+    public String getDisplayName() { return displayName; }
+
+    /**
+     * Ratio metrics are only ranked once a player has fought enough combats.
+     */
+    public boolean isRatio() { return ratio; }
+
+    /**
+     * Resolves a metric from its placeholder/command key.
+     *
+     * @return the metric, or null if the key is unknown
+     */
+    public static LeaderboardMetric fromKey(String key) {
+        for (LeaderboardMetric metric : values()) {
+            if (metric.key.equalsIgnoreCase(key)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,257 @@
+package com.muzlik.pvpcombat.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexable skip list ordering players by score (highest first, ties broken by UUID).
+ * Every forward pointer carries the number of entries it skips, so insertion, removal,
+ * rank lookup and positional access all run in expected O(log n).
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class RankedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private static final Comparator<Entry> ORDER = (a, b) -> compare(a.score, a.playerId, b.score, b.playerId);
+
+    /**
+     * A single ranked entry. Exposed read-only to callers.
+     */
+    public static final class Entry {
+        private final UUID playerId;
+        private final double score;
+        private final Entry[] next;
+        private final int[] span;
+
+        private Entry(UUID playerId, double score, int level) {
+            this.playerId = playerId;
+            this.score = score;
+            this.next = new Entry[level];
+            this.span = new int[level];
+        }
+
+        public UUID getPlayerId() { return playerId; }
+        public double getScore() { return score; }
+    }
+
+    private final Entry head = new Entry(null, 0, MAX_LEVEL);
+    private int level = 1;
+    private int size = 0;
+
+    /**
+     * Inserts a player with the given score. The caller must ensure the player is not already present.
+     */
+    public void insert(UUID playerId, double score) {
+        Entry[] update = new Entry[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Entry x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], score, playerId) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        x = new Entry(playerId, score, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            x.next[i] = update[i].next[i];
+            update[i].next[i] = x;
+            x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        // Levels above the new node now skip one more entry
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        size++;
+    }
+
+    /**
+     * Removes a player previously inserted with the given score.
+     *
+     * @return true if the entry was found and removed
+     */
+    public boolean remove(UUID playerId, double score) {
+        Entry[] update = new Entry[MAX_LEVEL];
+
+        Entry x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, playerId) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        x = x.next[0];
+        if (x == null || !x.playerId.equals(playerId) || Double.compare(x.score, score) != 0) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the 1-based rank of a player with the given score.
+     *
+     * @return the rank, or 0 if the entry is not present
+     */
+    public int rankOf(UUID playerId, double score) {
+        int rank = 0;
+        Entry x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, playerId) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x.playerId != null && x.playerId.equals(playerId)) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the entry at a 1-based rank.
+     *
+     * @return the entry, or null if the rank is out of range
+     */
+    public Entry getByRank(int rank) {
+        if (rank < 1 || rank > size) {
+            return null;
+        }
+
+        int traversed = 0;
+        Entry x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets up to {@code count} entries starting at a 1-based rank.
+     */
+    public List<Entry> range(int startRank, int count) {
+        Entry x = getByRank(startRank);
+        if (x == null || count <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> result = new ArrayList<>(Math.min(count, size - startRank + 1));
+        while (x != null && result.size() < count) {
+            result.add(x);
+            x = x.next[0];
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the contents with the given scores. Sorting happens in parallel and
+     * the list is then linked bottom-up in a single pass.
+     */
+    public void bulkLoad(Map<UUID, Double> scores) {
+        Entry[] entries = scores.entrySet().parallelStream()
+            .map(e -> new Entry(e.getKey(), e.getValue(), randomLevel()))
+            .toArray(Entry[]::new);
+        Arrays.parallelSort(entries, ORDER);
+
+        clear();
+
+        Entry[] last = new Entry[MAX_LEVEL];
+        int[] lastRank = new int[MAX_LEVEL];
+        Arrays.fill(last, head);
+
+        for (int r = 0; r < entries.length; r++) {
+            Entry entry = entries[r];
+            int entryLevel = entry.next.length;
+            for (int i = 0; i < entryLevel; i++) {
+                last[i].next[i] = entry;
+                last[i].span[i] = (r + 1) - lastRank[i];
+                last[i] = entry;
+                lastRank[i] = r + 1;
+            }
+            if (entryLevel > level) {
+                level = entryLevel;
+            }
+        }
+
+        size = entries.length;
+        for (int i = 0; i < level; i++) {
+            last[i].span[i] = size - lastRank[i];
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(head.next, null);
+        Arrays.fill(head.span, 0);
+        level = 1;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int randomLevel() {
+        int lvl = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (lvl < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            lvl++;
+        }
+        return lvl;
+    }
+
+    private static int compare(Entry entry, double score, UUID playerId) {
+        return compare(entry.score, entry.playerId, score, playerId);
+    }
+
+    private static int compare(double scoreA, UUID idA, double scoreB, UUID idB) {
+        int result = Double.compare(scoreB, scoreA);
+        return result != 0 ? result : idA.compareTo(idB);
+    }
+}
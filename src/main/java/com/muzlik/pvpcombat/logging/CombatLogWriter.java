@@ -0,0 +1,143 @@
+package com.muzlik.pvpcombat.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Formats combat log entries and appends them to one log file per day.
+ * Has no Bukkit dependencies, so it can be driven outside the server.
+ */
+public class CombatLogWriter {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // Labels of the fields after the bracketed session id, in line order
+    private static final String[] FIELDS = {
+        "Player:", " Target:", " Type:", " Damage:", " Hit:", " Distance:", " Weapon:", " Location:", " Data:"
+    };
+
+    private final Path logDirectory;
+
+    public CombatLogWriter(Path logDirectory) {
+        this.logDirectory = logDirectory;
+    }
+
+    /**
+     * Formats a log entry as a single file line. The session id is the bracketed field.
+     */
+    public String format(CombatLogEntry entry) {
+        return String.format(Locale.ROOT, "%s [%s] Player:%s Target:%s Type:%s Damage:%.2f Hit:%s Distance:%.2f Weapon:%s Location:%s Data:%s",
+            entry.getTimestamp(),
+            entry.getSessionId(),
+            entry.getPlayerId(),
+            entry.getTargetId() != null ? entry.getTargetId() : "N/A",
+            entry.getEventType(),
+            entry.getDamage(),
+            entry.isHitLanded(),
+            entry.getDistance(),
+            entry.getWeaponType(),
+            entry.getLocation(),
+            entry.getAdditionalData()
+        );
+    }
+
+    /**
+     * Parses a line written by {@link #format(CombatLogEntry)}.
+     *
+     * @return the entry, or null if the line is not a combat log line
+     */
+    public CombatLogEntry parse(String line) {
+        int open = line.indexOf(" [");
+        int close = open >= 0 ? line.indexOf("] ", open) : -1;
+        if (close < 0) {
+            return null;
+        }
+
+        String[] values = new String[FIELDS.length];
+        int position = close + 2;
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (!line.startsWith(FIELDS[i], position)) {
+                return null;
+            }
+            int start = position + FIELDS[i].length();
+            int end = i + 1 < FIELDS.length ? line.indexOf(FIELDS[i + 1], start) : line.length();
+            if (end < 0) {
+                return null;
+            }
+            values[i] = line.substring(start, end);
+            position = end;
+        }
+
+        try {
+            return new CombatLogEntry.Builder()
+                .timestamp(LocalDateTime.parse(line.substring(0, open)))
+                .sessionId(UUID.fromString(line.substring(open + 2, close)))
+                .playerId(UUID.fromString(values[0]))
+                .targetId("N/A".equals(values[1]) ? null : UUID.fromString(values[1]))
+                .eventType(CombatLogEntry.EventType.valueOf(values[2]))
+                .damage(Double.parseDouble(values[3]))
+                .hitLanded(Boolean.parseBoolean(values[4]))
+                .distance(Double.parseDouble(values[5]))
+                .weaponType(values[6])
+                .location(values[7])
+                .additionalData(values[8])
+                .build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Appends a batch of entries, opening each day's file once per batch.
+     */
+    public void write(List<CombatLogEntry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(logDirectory);
+
+        BufferedWriter writer = null;
+        LocalDate openDate = null;
+        try {
+            for (CombatLogEntry entry : entries) {
+                LocalDate date = entry.getTimestamp().toLocalDate();
+                if (!date.equals(openDate)) {
+                    if (writer != null) {
+                        writer.close();
+                    }
+                    writer = Files.newBufferedWriter(getLogFile(date), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    openDate = date;
+                }
+                writer.write(format(entry));
+                writer.newLine();
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the file that holds a day's entries.
+     */
+    public Path getLogFile(LocalDate date) {
+        return logDirectory.resolve("combat_" + FILE_DATE.format(date) + ".log");
+    }
+
+    public Path getLogDirectory() {
+        return logDirectory;
+    }
+}
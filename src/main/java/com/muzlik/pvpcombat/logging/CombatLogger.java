@@ -3,6 +3,8 @@ package com.muzlik.pvpcombat.logging;
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.ReplayEvent;
 import com.muzlik.pvpcombat.logging.CombatLogEntry.EventType;
+import com.muzlik.pvpcombat.performance.LoadGovernor;
+import com.muzlik.pvpcombat.performance.jfr.LogFlushJfrEvent;
 import com.muzlik.pvpcombat.utils.AsyncUtils;
 import org.bukkit.entity.Player;
 
@@ -10,10 +12,10 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
@@ -49,7 +51,8 @@ public class CombatLogger {
     private final BlockingQueue<CombatLogEntry> logQueue;
     private final ScheduledExecutorService executor;
     private final Path logDirectory;
-    private final SimpleDateFormat dateFormat;
+    private final CombatLogWriter logWriter;
+    private final List<Consumer<List<CombatLogEntry>>> flushListeners;
 
     // Replay integration
     private CombatReplayManager replayManager;
@@ -61,22 +64,24 @@ public class CombatLogger {
     private int logRetentionDays;
     private int maxMemoryEntries;
 
-    public CombatLogger(PvPCombatPlugin plugin) {
+    /**
+     * @param replayManager the shared replay manager, or null if replays are disabled
+     */
+    public CombatLogger(PvPCombatPlugin plugin, CombatReplayManager replayManager) {
         this.plugin = plugin;
+        this.replayManager = replayManager;
         this.logger = plugin.getLogger();
         this.memoryLogs = new ConcurrentHashMap<>();
         this.logQueue = new LinkedBlockingQueue<>();
         this.executor = Executors.newScheduledThreadPool(2);
 
         this.logDirectory = Paths.get(plugin.getDataFolder().getAbsolutePath(), "combat_logs");
-        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        this.logWriter = new CombatLogWriter(logDirectory);
+        this.flushListeners = new CopyOnWriteArrayList<>();
 
         // Load configuration
         loadConfiguration();
 
-        // Initialize replay manager
-        initializeReplayManager();
-
         // Start async processing
         startAsyncProcessing();
 
@@ -101,19 +106,6 @@ public class CombatLogger {
         this.maxMemoryEntries = plugin.getConfig().getInt("logging.memory.max_entries", 10000);
     }
 
-    /**
-     * Initializes the replay manager if replay system is enabled.
-     */
-    private void initializeReplayManager() {
-        boolean replayEnabled = plugin.getConfig().getBoolean("replay.enabled", false);
-        if (replayEnabled) {
-            this.replayManager = new CombatReplayManager(plugin);
-            logger.info("Replay system initialized");
-        } else {
-            logger.info("Replay system is disabled");
-        }
-    }
-
     /**
      * Records a replay event if replay system is active.
      */
@@ -127,8 +119,8 @@ public class CombatLogger {
      * Logs a combat event asynchronously.
      */
     public void logEvent(CombatLogEntry entry) {
-        if (!enableDetailedLogging && entry.getEventType() != EventType.COMBAT_START &&
-            entry.getEventType() != EventType.COMBAT_END) {
+        if (entry.getEventType() != EventType.COMBAT_START && entry.getEventType() != EventType.COMBAT_END &&
+            (!enableDetailedLogging || LoadGovernor.levelOf(plugin).logsSummaryOnly())) {
             return;
         }
 
@@ -145,6 +137,11 @@ public class CombatLogger {
      */
     public void logDamageDealt(UUID sessionId, Player attacker, Player defender, double damage,
                                 boolean hitLanded, double distance, String weaponType) {
+        // Nothing would be kept: detailed entries are dropped and replay capture is off
+        if ((!enableDetailedLogging || LoadGovernor.levelOf(plugin).logsSummaryOnly()) && replayManager == null) {
+            return;
+        }
+
         CombatLogEntry entry = new CombatLogEntry.Builder()
             .sessionId(sessionId)
             .playerId(attacker.getUniqueId())
@@ -154,7 +151,7 @@ public class CombatLogger {
             .hitLanded(hitLanded)
             .distance(distance)
             .weaponType(weaponType)
-            .location(String.format("%.1f,%.1f,%.1f", attacker.getLocation().getX(),
+            .location(String.format(Locale.ROOT, "%.1f,%.1f,%.1f", attacker.getLocation().getX(),
                                   attacker.getLocation().getY(), attacker.getLocation().getZ()))
             .additionalData(String.format("Target: %s, Weapon: %s", defender.getName(), weaponType))
             .build();
@@ -268,8 +265,8 @@ public class CombatLogger {
             }
         }
 
-        // Get from files if needed
-        if (storageType == StorageType.FILE || storageType == StorageType.BOTH) {
+        // Get from files if needed; with both storages, files only matter once memory dropped the session
+        if (storageType == StorageType.FILE || (storageType == StorageType.BOTH && sessionLogs.isEmpty())) {
             sessionLogs.addAll(loadSessionLogsFromFile(sessionId));
         }
 
@@ -288,20 +285,25 @@ public class CombatLogger {
             List<CombatLogEntry> batch = new ArrayList<>();
             logQueue.drainTo(batch, 100); // Process in batches
 
-            for (CombatLogEntry entry : batch) {
-                processLogEntry(entry);
+            if (!batch.isEmpty()) {
+                processBatch(batch);
             }
         }, 0, 100, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Processes a single log entry.
+     * Stores a batch of log entries.
      */
-    private void processLogEntry(CombatLogEntry entry) {
+    private void processBatch(List<CombatLogEntry> batch) {
+        LogFlushJfrEvent trace = new LogFlushJfrEvent();
+        trace.begin();
+
         // Store in memory
         if (storageType == StorageType.MEMORY || storageType == StorageType.BOTH) {
-            memoryLogs.computeIfAbsent(entry.getSessionId(), k -> new CopyOnWriteArrayList<>())
-                     .add(entry);
+            for (CombatLogEntry entry : batch) {
+                memoryLogs.computeIfAbsent(entry.getSessionId(), k -> new CopyOnWriteArrayList<>())
+                         .add(entry);
+            }
 
             // Cleanup old memory entries
             cleanupMemoryLogs();
@@ -309,44 +311,41 @@ public class CombatLogger {
 
         // Store in file
         if (storageType == StorageType.FILE || storageType == StorageType.BOTH) {
-            writeToFile(entry);
+            try {
+                logWriter.write(batch);
+            } catch (IOException e) {
+                logger.warning("Failed to write combat log entries to file: " + e.getMessage());
+            }
+        }
+
+        if (trace.shouldCommit()) {
+            trace.batchSize = batch.size();
+            trace.queueDepth = logQueue.size();
+            trace.storage = storageType.name();
+            trace.commit();
+        }
+
+        for (Consumer<List<CombatLogEntry>> listener : flushListeners) {
+            listener.accept(batch);
         }
     }
 
     /**
-     * Writes log entry to file.
+     * Adds a listener called on the logging thread after each batch has been stored.
      */
-    private void writeToFile(CombatLogEntry entry) {
-        try {
-            Files.createDirectories(logDirectory);
-            String dateStr = dateFormat.format(java.sql.Date.valueOf(entry.getTimestamp().toLocalDate()));
-            Path logFile = logDirectory.resolve("combat_" + dateStr + ".log");
+    public void addFlushListener(Consumer<List<CombatLogEntry>> listener) {
+        flushListeners.add(listener);
+    }
 
-            try (PrintWriter writer = new PrintWriter(new FileWriter(logFile.toFile(), true))) {
-                writer.println(formatLogEntry(entry));
-            }
-        } catch (IOException e) {
-            logger.warning("Failed to write combat log entry to file: " + e.getMessage());
-        }
+    public void removeFlushListener(Consumer<List<CombatLogEntry>> listener) {
+        flushListeners.remove(listener);
     }
 
     /**
-     * Formats log entry for file storage.
+     * Gets the number of entries waiting to be stored.
      */
-    private String formatLogEntry(CombatLogEntry entry) {
-        return String.format("%s [%s] Session:%s Player:%s Target:%s Type:%s Damage:%.2f Hit:%s Distance:%.2f Weapon:%s Location:%s Data:%s",
-            entry.getTimestamp(),
-            entry.getSessionId(),
-            entry.getPlayerId(),
-            entry.getTargetId() != null ? entry.getTargetId() : "N/A",
-            entry.getEventType(),
-            entry.getDamage(),
-            entry.isHitLanded(),
-            entry.getDistance(),
-            entry.getWeaponType(),
-            entry.getLocation(),
-            entry.getAdditionalData()
-        );
+    public int getQueueDepth() {
+        return logQueue.size();
     }
 
     /**
@@ -354,7 +353,11 @@ public class CombatLogger {
      */
     private List<CombatLogEntry> loadSessionLogsFromFile(UUID sessionId) {
         List<CombatLogEntry> entries = new ArrayList<>();
+        if (!Files.exists(logDirectory)) {
+            return entries;
+        }
 
+        String marker = "[" + sessionId + "]";
         try {
             Files.walk(logDirectory)
                 .filter(Files::isRegularFile)
@@ -363,9 +366,11 @@ public class CombatLogger {
                     try {
                         List<String> lines = Files.readAllLines(file);
                         for (String line : lines) {
-                            if (line.contains("[" + sessionId + "]")) {
-                                // Parse and add entry (simplified for now)
-                                // In production, implement proper parsing
+                            if (line.contains(marker)) {
+                                CombatLogEntry entry = logWriter.parse(line);
+                                if (entry != null) {
+                                    entries.add(entry);
+                                }
                             }
                         }
                     } catch (IOException e) {
@@ -466,11 +471,6 @@ public class CombatLogger {
             executor.shutdownNow();
             Thread.currentThread().interrupt();
         }
-
-        // Shutdown replay manager
-        if (replayManager != null) {
-            replayManager.shutdown();
-        }
     }
 
     /**
@@ -1,7 +1,12 @@
 package com.muzlik.pvpcombat.logging;
 
+import com.muzlik.pvpcombat.core.PluginManager;
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.*;
+import com.muzlik.pvpcombat.performance.LoadGovernor;
+import com.muzlik.pvpcombat.performance.jfr.ReplaySaveJfrEvent;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
 import org.bukkit.entity.Player;
 
 import java.io.*;
@@ -11,6 +16,7 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -31,6 +37,7 @@ public class CombatReplayManager {
     private final Logger logger;
     private final EventTimeline timeline;
     private final Map<UUID, ReplayData> replayCache;
+    private final LongAdder shedEvents = new LongAdder();
 
     // Configuration
     private StorageFormat storageFormat;
@@ -38,10 +45,13 @@ public class CombatReplayManager {
     private long timelineMaxAgeSeconds;
     private long cacheMaxAgeMinutes;
     private Path replayDirectory;
+    private volatile boolean storageReady;
     private boolean adminOnlyAccess;
     private Set<String> allowedAdmins;
 
     private final ScheduledExecutorService cleanupExecutor;
+    private IncrementalSweeper sweeper;
+    private IncrementalSweeper.Job<?> timelineCleanupJob;
 
     public CombatReplayManager(PvPCombatPlugin plugin) {
         this.plugin = plugin;
@@ -56,7 +66,7 @@ public class CombatReplayManager {
         this.cleanupExecutor = Executors.newScheduledThreadPool(1);
 
         loadConfiguration();
-        initializeStorage();
+        this.replayDirectory = Paths.get(plugin.getDataFolder().getAbsolutePath(), "replays");
 
         startCleanupTasks();
         logger.info("CombatReplayManager initialized with format: " + storageFormat);
@@ -81,14 +91,15 @@ public class CombatReplayManager {
     }
 
     /**
-     * Initializes storage directory.
+     * Creates the storage directory. Called from a startup stage off the main thread;
+     * replays are kept in memory only until it has run.
      */
-    private void initializeStorage() {
-        this.replayDirectory = Paths.get(plugin.getDataFolder().getAbsolutePath(), "replays");
+    public void prepareStorage() {
         try {
             Files.createDirectories(replayDirectory);
+            storageReady = true;
         } catch (IOException e) {
-            logger.warning("Failed to create replay directory: " + e.getMessage());
+            throw new UncheckedIOException("Failed to create replay directory", e);
         }
     }
 
@@ -96,6 +107,12 @@ public class CombatReplayManager {
      * Records a combat event for replay.
      */
     public void recordEvent(UUID sessionId, ReplayEvent event) {
+        // Under heavy load keep only the events a replay cannot be understood without
+        if (!isKeyEvent(event) && LoadGovernor.levelOf(plugin).capturesKeyReplayEventsOnly()) {
+            shedEvents.increment();
+            return;
+        }
+
         timeline.addEvent(sessionId, event);
 
         // Auto-save important events if using file storage
@@ -107,6 +124,28 @@ public class CombatReplayManager {
         }
     }
 
+    /**
+     * Checks whether an event is kept even while replay capture is reduced.
+     */
+    private boolean isKeyEvent(ReplayEvent event) {
+        switch (event.getEventType()) {
+            case HIT_LANDED:
+            case DAMAGE_DEALT:
+            case ABILITY_USED:
+            case COMBAT_END:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the number of events skipped because capture was reduced under load.
+     */
+    public long getShedEventCount() {
+        return shedEvents.sum();
+    }
+
     /**
      * Gets replay data for a session.
      */
@@ -185,7 +224,7 @@ public class CombatReplayManager {
      * Saves replay data to compressed file asynchronously.
      */
     private void saveReplayAsync(UUID sessionId) {
-        if (storageFormat == StorageFormat.MEMORY) {
+        if (storageFormat == StorageFormat.MEMORY || !storageReady) {
             return;
         }
 
@@ -207,6 +246,8 @@ public class CombatReplayManager {
             plugin.getLogger().warning("No replay data found for session " + sessionId);
             return;
         }
+        ReplaySaveJfrEvent trace = new ReplaySaveJfrEvent();
+        trace.begin();
 
         // Get player names from the session
         String player1Name = "Unknown";
@@ -270,6 +311,13 @@ public class CombatReplayManager {
             plugin.getLogger().severe("Failed to save replay file: " + e.getMessage());
             throw new IOException("Failed to save replay", e);
         }
+
+        if (trace.shouldCommit()) {
+            trace.sessionId = sessionId.toString();
+            trace.events = data.getEvents().length;
+            trace.bytes = Files.size(filePath);
+            trace.commit();
+        }
     }
 
     /**
@@ -303,14 +351,8 @@ public class CombatReplayManager {
      * Starts periodic cleanup tasks.
      */
     private void startCleanupTasks() {
-        // Cleanup old timeline data
-        cleanupExecutor.scheduleAtFixedRate(() -> {
-            try {
-                timeline.cleanupOldSessions(timelineMaxAgeSeconds * 2);
-            } catch (Exception e) {
-                logger.warning("Failed to cleanup timeline: " + e.getMessage());
-            }
-        }, 5, 5, TimeUnit.MINUTES);
+        // Cleanup old timeline data on the shared sweeper, once the plugin manager is available
+        AsyncUtils.runSync(plugin, this::registerTimelineCleanup);
 
         // Cleanup old cache entries
         cleanupExecutor.scheduleAtFixedRate(() -> {
@@ -331,6 +373,20 @@ public class CombatReplayManager {
         }, 30, 30, TimeUnit.MINUTES);
     }
 
+    /**
+     * Registers incremental timeline cleanup (every 5 minutes) with the plugin's sweeper.
+     */
+    private void registerTimelineCleanup() {
+        PluginManager manager = plugin.getPluginManager();
+        IncrementalSweeper pluginSweeper = manager != null ? manager.getSweeper() : null;
+        if (pluginSweeper == null) {
+            logger.warning("Cleanup sweeper unavailable, replay timelines will not be cleaned up");
+            return;
+        }
+        this.sweeper = pluginSweeper;
+        this.timelineCleanupJob = timeline.registerCleanupJob(pluginSweeper, 5 * 60 * 20L, timelineMaxAgeSeconds * 2);
+    }
+
     /**
      * Cleans up old cache entries.
      */
@@ -394,6 +450,9 @@ public class CombatReplayManager {
      * Shuts down the replay manager.
      */
     public void shutdown() {
+        if (sweeper != null && timelineCleanupJob != null) {
+            sweeper.unregister(timelineCleanupJob);
+        }
         cleanupExecutor.shutdown();
         try {
             if (!cleanupExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -2,12 +2,12 @@ package com.muzlik.pvpcombat.performance;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.LagAdjustment;
-import com.muzlik.pvpcombat.data.PerformanceData;
 import com.muzlik.pvpcombat.utils.AsyncUtils;
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -24,9 +24,11 @@ public class LagManager {
 
     // Lag adjustments per session
     private final Map<UUID, LagAdjustment> sessionAdjustments;
+    private final Map<UUID, Set<UUID>> sessionParticipants;
 
     // Configuration values loaded from config
     private double tpsThreshold;
+    private double msptThreshold;
     private int pingThreshold;
     private int baseExtensionSeconds;
     private double extensionMultiplier;
@@ -42,6 +44,7 @@ public class LagManager {
         this.tpsMonitor = tpsMonitor;
         this.performanceMonitor = performanceMonitor;
         this.sessionAdjustments = new ConcurrentHashMap<>();
+        this.sessionParticipants = new ConcurrentHashMap<>();
 
         loadConfiguration();
         startMonitoringTasks();
@@ -52,6 +55,7 @@ public class LagManager {
      */
     private void loadConfiguration() {
         this.tpsThreshold = plugin.getConfig().getDouble("lag.tps-threshold", 18.0);
+        this.msptThreshold = plugin.getConfig().getDouble("lag.mspt-p95-threshold", 60.0);
         this.pingThreshold = plugin.getConfig().getInt("lag.ping-threshold", 200);
         this.baseExtensionSeconds = plugin.getConfig().getInt("lag.base-extension-seconds", 5);
         this.extensionMultiplier = plugin.getConfig().getDouble("lag.extension-multiplier", 1.5);
@@ -70,52 +74,80 @@ public class LagManager {
             });
         }, 20L, 20L);
 
-        // Cleanup task (runs every cleanup interval)
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                cleanupExpiredAdjustments();
-            }
-        }.runTaskTimer(plugin, cleanupIntervalTicks, cleanupIntervalTicks);
+        // Batched ping sampling for combat-tagged players
+        pingTracker.start();
+    }
+
+    /**
+     * Registers incremental cleanup of expired adjustments and stale ping data (every cleanup interval).
+     */
+    public void registerCleanupJobs(IncrementalSweeper sweeper) {
+        sweeper.registerMap("lag-adjustments", cleanupIntervalTicks, sessionAdjustments, this::isExpiredAdjustment);
+        pingTracker.registerCleanupJob(sweeper, cleanupIntervalTicks);
     }
 
     /**
-     * Registers a combat session for lag monitoring.
+     * Registers a combat session for lag monitoring and starts sampling both players' ping.
      */
-    public void registerSession(UUID sessionId) {
+    public void registerSession(UUID sessionId, Player attacker, Player defender) {
         sessionAdjustments.put(sessionId, new LagAdjustment(sessionId));
+        Set<UUID> participants = ConcurrentHashMap.newKeySet();
+        sessionParticipants.put(sessionId, participants);
+        addParticipant(sessionId, attacker);
+        addParticipant(sessionId, defender);
     }
 
     /**
-     * Unregisters a combat session and cleans up its adjustments.
+     * Adds a player who joined a registered session and starts sampling their ping.
      */
-    public void unregisterSession(UUID sessionId) {
-        LagAdjustment adjustment = sessionAdjustments.remove(sessionId);
-        if (adjustment != null) {
-            plugin.getLogger().info("Lag adjustments cleaned up for session " + sessionId + ": " + adjustment.getAdjustmentSummary());
+    public void addParticipant(UUID sessionId, Player player) {
+        Set<UUID> participants = sessionParticipants.get(sessionId);
+        if (participants != null && participants.add(player.getUniqueId())) {
+            pingTracker.track(player);
         }
     }
 
     /**
-     * Updates ping for a player and checks for lag adjustments.
+     * Removes a player who left a registered session and stops sampling their ping.
      */
-    public void updatePlayerPing(Player player) {
-        pingTracker.updatePlayerPing(player);
+    public void removeParticipant(UUID sessionId, UUID playerId) {
+        Set<UUID> participants = sessionParticipants.get(sessionId);
+        if (participants != null && participants.remove(playerId)) {
+            pingTracker.untrack(playerId);
+        }
     }
 
     /**
-     * Checks if lag adjustments should be applied for a combat session.
+     * Unregisters a combat session and cleans up its adjustments.
      */
-    public int checkAndApplyLagAdjustment(UUID sessionId, Player player1, Player player2) {
-        LagAdjustment adjustment = sessionAdjustments.get(sessionId);
-        if (adjustment == null) return 0;
+    public void unregisterSession(UUID sessionId) {
+        Set<UUID> participants = sessionParticipants.remove(sessionId);
+        if (participants != null) {
+            for (UUID playerId : participants) {
+                pingTracker.untrack(playerId);
+            }
+        }
 
-        PerformanceData perf1 = pingTracker.getPerformanceData(player1.getUniqueId());
-        PerformanceData perf2 = pingTracker.getPerformanceData(player2.getUniqueId());
+        LagAdjustment adjustment = sessionAdjustments.remove(sessionId);
+        if (adjustment != null) {
+            plugin.getLogger().info("Lag adjustments cleaned up for session " + sessionId + ": " + adjustment.getAdjustmentSummary());
+        }
+    }
 
-        if (perf1 == null || perf2 == null) return 0;
+    /**
+     * Checks if lag adjustments should be applied for a combat session, looking at every
+     * registered participant. Uses the severities precomputed by the ping sampler.
+     */
+    public int checkAndApplyLagAdjustment(UUID sessionId) {
+        LagAdjustment adjustment = sessionAdjustments.get(sessionId);
+        Set<UUID> participants = sessionParticipants.get(sessionId);
+        if (adjustment == null || participants == null) return 0;
 
-        double lagSeverity = calculateCombinedLagSeverity(perf1, perf2);
+        double highestSeverity = 0.0;
+        for (UUID playerId : participants) {
+            highestSeverity = Math.max(highestSeverity, pingTracker.getLagSeverity(playerId));
+        }
+        double lagSeverity = calculateCombinedLagSeverity(highestSeverity);
 
         if (lagSeverity > 0) {
             adjustment.setActive(true);
@@ -130,40 +162,38 @@ public class LagManager {
     }
 
     /**
-     * Calculates combined lag severity for both players in combat.
+     * Calculates combined lag severity from the highest severity among the players in combat.
      */
-    private double calculateCombinedLagSeverity(PerformanceData perf1, PerformanceData perf2) {
-        double severity1 = perf1.getLagSeverity(tpsThreshold, pingThreshold);
-        double severity2 = perf2.getLagSeverity(tpsThreshold, pingThreshold);
-
+    private double calculateCombinedLagSeverity(double highestSeverity) {
         // If server-wide lag is detected, increase severity
         double serverLagMultiplier = serverWideLagDetected ? 1.5 : 1.0;
 
-        // Return the higher severity between the two players
-        return Math.max(severity1, severity2) * serverLagMultiplier;
+        return highestSeverity * serverLagMultiplier;
     }
 
     /**
-     * Checks for server-wide lag conditions.
+     * Checks for server-wide lag conditions using the tick sampler's EWMA TPS
+     * and the 95th percentile tick time over the last 5 seconds.
      */
     private void checkServerWideLag() {
         double currentTps = tpsMonitor.getCurrentTPS();
+        double p95 = tpsMonitor.getTickSampler().getShortWindow().getP95Millis();
 
-        if (currentTps < tpsThreshold) {
+        if (currentTps < tpsThreshold || p95 > msptThreshold) {
             if (!serverWideLagDetected) {
                 serverWideLagDetected = true;
                 lastServerLagTime = System.currentTimeMillis();
-                plugin.getLogger().warning(String.format("Server-wide lag detected: TPS %.2f (threshold: %.2f)",
-                        currentTps, tpsThreshold));
+                plugin.getLogger().warning(String.format("Server-wide lag detected: TPS %.2f (threshold: %.2f), p95 tick %.1fms (threshold: %.1fms)",
+                        currentTps, tpsThreshold, p95, msptThreshold));
 
                 // DEBUG LOGGING: Log active sessions during lag spike
                 plugin.getLogger().fine(String.format("[DEBUG] Server lag spike: Active lag adjustments=%d, TPS=%.2f",
                     sessionAdjustments.size(), currentTps));
             }
-        } else if (serverWideLagDetected && currentTps >= tpsThreshold + 1.0) {
+        } else if (serverWideLagDetected && currentTps >= tpsThreshold + 1.0 && p95 <= msptThreshold * 0.8) {
             // Add some hysteresis to prevent flapping
             serverWideLagDetected = false;
-            plugin.getLogger().info("Server-wide lag condition cleared: TPS " + currentTps);
+            plugin.getLogger().info(String.format("Server-wide lag condition cleared: TPS %.2f, p95 tick %.1fms", currentTps, p95));
         }
     }
 
@@ -193,29 +223,35 @@ public class LagManager {
      */
     public void reloadConfiguration() {
         loadConfiguration();
+        pingTracker.reloadConfiguration();
         plugin.getLogger().info("LagManager configuration reloaded");
     }
 
     /**
-     * Cleans up expired lag adjustments.
+     * Checks if a lag adjustment has been inactive for longer than the cleanup interval.
      */
-    private void cleanupExpiredAdjustments() {
+    private boolean isExpiredAdjustment(UUID sessionId, LagAdjustment adjustment) {
         long maxInactiveTime = cleanupIntervalTicks * 50; // Convert ticks to milliseconds
-        sessionAdjustments.entrySet().removeIf(entry -> {
-            LagAdjustment adjustment = entry.getValue();
-            if (adjustment.shouldCleanup(maxInactiveTime)) {
-                plugin.getLogger().fine("Cleaned up expired lag adjustment for session " + entry.getKey());
-                return true;
-            }
-            return false;
-        });
+        if (adjustment.shouldCleanup(maxInactiveTime)) {
+            plugin.getLogger().fine("Cleaned up expired lag adjustment for session " + sessionId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the ping tracker.
+     */
+    public PingTracker getPingTracker() {
+        return pingTracker;
     }
 
     /**
      * Gets performance statistics for monitoring/debugging.
      */
     public String getPerformanceStats() {
-        return String.format("LagManager{serverLag=%s, activeAdjustments=%d, tps=%.2f, pingThreshold=%d}",
-                serverWideLagDetected, sessionAdjustments.size(), tpsMonitor.getCurrentTPS(), pingThreshold);
+        return String.format("LagManager{serverLag=%s, activeAdjustments=%d, tps=%.2f, pingThreshold=%d}, %s",
+                serverWideLagDetected, sessionAdjustments.size(), tpsMonitor.getCurrentTPS(), pingThreshold,
+                pingTracker.getPingStats());
     }
 }
\ No newline at end of file
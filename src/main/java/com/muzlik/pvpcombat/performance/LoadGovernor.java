@@ -0,0 +1,242 @@
+package com.muzlik.pvpcombat.performance;
+
+import com.muzlik.pvpcombat.core.PluginManager;
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sheds optional work while the server tick is over budget.
+ * Tick health from the {@link TickSampler} is mapped to a discrete {@link Level}; subsystems
+ * ask for the current level and scale down their own fidelity. Levels rise as soon as
+ * a threshold is crossed but only fall one step at a time, after the readings have stayed
+ * clearly below the level's entry threshold for a minimum dwell time.
+ */
+public class LoadGovernor {
+
+    /**
+     * Degradation levels, each including the reductions of the levels below it.
+     */
+    public enum Level {
+        /** Full fidelity. */
+        NORMAL(0L, 1),
+        /** Slower action bar and bossbar refreshes, slower cross-server sync. */
+        ELEVATED(750L, 2),
+        /** Additionally pauses barrier resends and captures only key replay events. */
+        HIGH(1750L, 4),
+        /** Additionally switches the combat logger to start/end summaries only. */
+        CRITICAL(2500L, 8);
+
+        private final long visualIntervalMillis;
+        private final int syncIntervalMultiplier;
+
+        Level(long visualIntervalMillis, int syncIntervalMultiplier) {
+            this.visualIntervalMillis = visualIntervalMillis;
+            this.syncIntervalMultiplier = syncIntervalMultiplier;
+        }
+
+        public boolean isAtLeast(Level other) {
+            return ordinal() >= other.ordinal();
+        }
+
+        public boolean pausesBarrierResends() {
+            return isAtLeast(HIGH);
+        }
+
+        public boolean capturesKeyReplayEventsOnly() {
+            return isAtLeast(HIGH);
+        }
+
+        public boolean logsSummaryOnly() {
+            return isAtLeast(CRITICAL);
+        }
+
+        /**
+         * Gets the minimum time between action bar or bossbar updates to one target.
+         * Stays under the ~3 second action bar fade so the text never disappears, and a
+         * quarter second under a multiple of the 1 second timer period, so an update that
+         * arrives a little early is not suppressed and held back a whole period.
+         */
+        public long getVisualIntervalMillis() {
+            return visualIntervalMillis;
+        }
+
+        public int getSyncIntervalMultiplier() {
+            return syncIntervalMultiplier;
+        }
+    }
+
+    private static final Level[] LEVELS = Level.values();
+    private static final double TICK_BUDGET_MILLIS = 50.0;
+
+    private final PvPCombatPlugin plugin;
+    private final TickSampler tickSampler;
+    private final AtomicLongArray timeAtLevel;
+
+    private volatile Level level = Level.NORMAL;
+    private volatile long levelSince;
+    private volatile long lastLevelChange;
+    private volatile long transitions;
+    private BukkitTask task;
+
+    // Configuration; thresholds are indexed by level ordinal
+    private volatile boolean enabled;
+    private final double[] enterMspt = new double[LEVELS.length];
+    private final double[] enterTps = new double[LEVELS.length];
+    private volatile double recoveryMargin;
+    private volatile long minDwellMillis;
+
+    public LoadGovernor(PvPCombatPlugin plugin, TickSampler tickSampler) {
+        this.plugin = plugin;
+        this.tickSampler = tickSampler;
+        this.timeAtLevel = new AtomicLongArray(LEVELS.length);
+        this.levelSince = System.currentTimeMillis();
+        reloadConfiguration();
+    }
+
+    /**
+     * Gets the current level for a plugin, or NORMAL while the governor is not available yet.
+     */
+    public static Level levelOf(PvPCombatPlugin plugin) {
+        PluginManager manager = plugin.getPluginManager();
+        LoadGovernor governor = manager != null ? manager.getLoadGovernor() : null;
+        return governor != null ? governor.getLevel() : Level.NORMAL;
+    }
+
+    /**
+     * Reloads thresholds from config.
+     */
+    public void reloadConfiguration() {
+        String path = "performance.load-governor.";
+        this.enabled = plugin.getConfig().getBoolean(path + "enabled", true);
+        this.recoveryMargin = Math.max(0.0, plugin.getConfig().getDouble(path + "recovery-margin", 0.1));
+        this.minDwellMillis = Math.max(0, plugin.getConfig().getLong(path + "min-dwell-ms", 10000));
+
+        // Tick intervals sit at ~50ms on a healthy server, so MSPT thresholds only mean something above it
+        double[] defaultMspt = {0.0, 55.0, 65.0, 100.0};
+        double[] defaultTps = {0.0, 19.5, 18.0, 15.0};
+        for (Level l : LEVELS) {
+            int i = l.ordinal();
+            ConfigurationSection section = plugin.getConfig().getConfigurationSection(path + "levels." + l.name().toLowerCase());
+            enterMspt[i] = section != null ? section.getDouble("mspt-p95", defaultMspt[i]) : defaultMspt[i];
+            enterTps[i] = section != null ? section.getDouble("tps", defaultTps[i]) : defaultTps[i];
+        }
+
+        if (!enabled && level != Level.NORMAL) {
+            changeLevel(Level.NORMAL, "governor disabled");
+        }
+    }
+
+    /**
+     * Starts evaluating tick health once per second.
+     */
+    public void start() {
+        if (task == null) {
+            task = AsyncUtils.runSyncTimer(plugin, this::evaluate, 20L, 20L);
+        }
+    }
+
+    /**
+     * Stops evaluation and returns to full fidelity.
+     */
+    public void stop() {
+        AsyncUtils.cancelTask(task);
+        task = null;
+        level = Level.NORMAL;
+    }
+
+    /**
+     * Re-evaluates the level from the sampler's current readings.
+     */
+    public void evaluate() {
+        if (!enabled) {
+            return;
+        }
+
+        double tps = tickSampler.getEwmaTps();
+        double p95 = tickSampler.getShortWindow().getP95Millis();
+
+        Level target = Level.NORMAL;
+        for (int i = LEVELS.length - 1; i > 0; i--) {
+            if (p95 >= enterMspt[i] || tps < enterTps[i]) {
+                target = LEVELS[i];
+                break;
+            }
+        }
+
+        Level current = level;
+        if (target.ordinal() > current.ordinal()) {
+            changeLevel(target, String.format("TPS %.2f, p95 tick %.1fms", tps, p95));
+            return;
+        }
+
+        if (current == Level.NORMAL || System.currentTimeMillis() - lastLevelChange < minDwellMillis) {
+            return;
+        }
+
+        // Step down only when comfortably clear of the current level's entry thresholds
+        int i = current.ordinal();
+        boolean msptClear = p95 < TICK_BUDGET_MILLIS + (enterMspt[i] - TICK_BUDGET_MILLIS) * (1.0 - recoveryMargin);
+        boolean tpsClear = tps >= enterTps[i] + (20.0 - enterTps[i]) * recoveryMargin;
+        if (msptClear && tpsClear) {
+            changeLevel(LEVELS[i - 1], String.format("TPS %.2f, p95 tick %.1fms", tps, p95));
+        }
+    }
+
+    private synchronized void changeLevel(Level next, String reason) {
+        Level previous = level;
+        if (previous == next) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        timeAtLevel.addAndGet(previous.ordinal(), now - levelSince);
+        levelSince = now;
+        lastLevelChange = now;
+        transitions++;
+        level = next;
+
+        String message = String.format("Load level %s -> %s (%s)", previous, next, reason);
+        if (next.ordinal() > previous.ordinal()) {
+            plugin.getLogger().warning(message);
+        } else {
+            plugin.getLogger().info(message);
+        }
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public TickSampler getTickSampler() {
+        return tickSampler;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the current level, transition count and time spent at each level.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Level current = level;
+        stats.put("level", current.name());
+        stats.put("transitions", transitions);
+        long now = System.currentTimeMillis();
+        for (Level l : LEVELS) {
+            long millis = timeAtLevel.get(l.ordinal());
+            if (l == current) {
+                millis += now - levelSince;
+            }
+            stats.put("time." + l.name().toLowerCase() + "-ms", millis);
+        }
+        return stats;
+    }
+}
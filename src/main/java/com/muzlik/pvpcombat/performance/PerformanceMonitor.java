@@ -98,10 +98,14 @@ public class PerformanceMonitor {
         metrics.append("=== PvP Combat Performance Metrics ===\n");
 
         // TPS metrics
+        TickSampler sampler = tpsMonitor.getTickSampler();
         metrics.append(String.format("TPS: Current=%.2f, Average=%.2f, Severity=%.2f\n",
-                tpsMonitor.getCurrentTPS(),
+                sampler.getEwmaTps(),
                 tpsMonitor.getAverageTPS(),
                 tpsMonitor.getTPSSeverity(18.0)));
+        metrics.append("MSPT (5s): ").append(sampler.getShortWindow()).append("\n");
+        metrics.append("MSPT (1m): ").append(sampler.getLongWindow()).append("\n");
+        metrics.append("Tick spikes: ").append(sampler.getSpikeCount()).append("\n");
 
         // Memory metrics
         Runtime runtime = Runtime.getRuntime();
@@ -176,9 +180,13 @@ public class PerformanceMonitor {
     public String getPerformanceStats() {
         StringBuilder stats = new StringBuilder();
 
+        TickSampler sampler = tpsMonitor.getTickSampler();
         stats.append(String.format("TPS: %.2f/%.2f (severity: %.2f)\n",
-                tpsMonitor.getCurrentTPS(), tpsMonitor.getAverageTPS(),
+                sampler.getEwmaTps(), tpsMonitor.getAverageTPS(),
                 tpsMonitor.getTPSSeverity(18.0)));
+        TickSampler.Window window = sampler.getShortWindow();
+        stats.append(String.format("MSPT: p50=%.1fms p95=%.1fms p99=%.1fms (spikes: %d)\n",
+                window.getP50Millis(), window.getP95Millis(), window.getP99Millis(), sampler.getSpikeCount()));
 
         Runtime runtime = Runtime.getRuntime();
         long usedMemory = runtime.totalMemory() - runtime.freeMemory();
@@ -199,7 +207,9 @@ public class PerformanceMonitor {
      * Checks if the system is under performance stress.
      */
     public boolean isUnderStress() {
-        return tpsMonitor.getCurrentTPS() < 18.0 ||
+        TickSampler sampler = tpsMonitor.getTickSampler();
+        return sampler.getEwmaTps() < 18.0 ||
+               sampler.getShortWindow().getP95Millis() > 60.0 ||
                (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) /
                (double) Runtime.getRuntime().maxMemory() > 0.9;
     }
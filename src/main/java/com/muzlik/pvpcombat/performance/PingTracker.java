@@ -2,118 +2,147 @@ package com.muzlik.pvpcombat.performance;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.PerformanceData;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import com.muzlik.pvpcombat.utils.IncrementalSweeper;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Tracks individual player ping levels and maintains performance data.
- * Updates ping asynchronously to avoid blocking main thread.
+ * Only combat-tagged players are sampled, all in one batch per interval, so the
+ * combat hot path never touches ping state. Each sample updates the player's
+ * EWMA, jitter and lag severity once; readers use the precomputed values.
  */
 public class PingTracker {
 
     private final PvPCombatPlugin plugin;
     private final Map<UUID, PerformanceData> playerPerformanceData;
-    private final Map<UUID, Long> lastUpdateTimes;
+    private final Map<UUID, TrackedPlayer> trackedPlayers;
+    private final LongAdder samplesTaken;
+    private final LongAdder spikesDetected;
+    private BukkitTask samplerTask;
 
     // Configuration
-    private long updateIntervalMs;
-    private long cleanupThresholdMs;
+    private volatile long updateIntervalMs;
+    private volatile long cleanupThresholdMs;
+    private volatile int pingThreshold;
+    private volatile int jitterThreshold;
+    private volatile int spikeMinDelta;
+    private volatile double ewmaAlpha;
 
-    // Failure tracking for adaptive performance
-    private volatile int consecutiveFailures;
-    private volatile long lastSuccessfulUpdate;
+    // Last batch for health reporting
+    private volatile long lastSampleTime;
+    private volatile long lastBatchNanos;
+
+    /**
+     * A combat-tagged player and the number of sessions they are part of.
+     */
+    private static final class TrackedPlayer {
+        private final Player player;
+        private int sessions;
+
+        private TrackedPlayer(Player player) {
+            this.player = player;
+        }
+    }
 
     public PingTracker(PvPCombatPlugin plugin) {
         this.plugin = plugin;
         this.playerPerformanceData = new ConcurrentHashMap<>();
-        this.lastUpdateTimes = new ConcurrentHashMap<>();
+        this.trackedPlayers = new ConcurrentHashMap<>();
+        this.samplesTaken = new LongAdder();
+        this.spikesDetected = new LongAdder();
+        this.lastSampleTime = System.currentTimeMillis();
 
         loadConfiguration();
-        initializeFailureTracking();
     }
 
     /**
      * Loads ping tracking configuration.
      */
     private void loadConfiguration() {
-        this.updateIntervalMs = plugin.getConfig().getLong("lag.ping-update-interval-ms", 1000L); // 1 second
+        this.updateIntervalMs = Math.max(50L, plugin.getConfig().getLong("lag.ping-update-interval-ms", 1000L)); // 1 second
         this.cleanupThresholdMs = plugin.getConfig().getLong("lag.ping-cleanup-threshold-ms", 300000L); // 5 minutes
+        this.pingThreshold = Math.max(1, plugin.getConfig().getInt("lag.ping-threshold", 200));
+        this.jitterThreshold = Math.max(1, plugin.getConfig().getInt("lag.jitter-threshold", 50));
+        this.spikeMinDelta = Math.max(1, plugin.getConfig().getInt("lag.ping-spike-min-delta", 100));
+        this.ewmaAlpha = Math.max(0.01, Math.min(1.0, plugin.getConfig().getDouble("lag.ping-ewma-alpha", 0.3)));
+    }
+
+    /**
+     * Starts the batched sampler on the main thread.
+     */
+    public void start() {
+        if (samplerTask != null) {
+            return;
+        }
+        long periodTicks = Math.max(1L, updateIntervalMs / 50L);
+        samplerTask = AsyncUtils.runSyncTimer(plugin, this::sampleTrackedPlayers, periodTicks, periodTicks);
     }
 
     /**
-     * Initializes failure tracking for adaptive performance monitoring.
+     * Stops the sampler.
      */
-    private void initializeFailureTracking() {
-        this.consecutiveFailures = 0;
-        this.lastSuccessfulUpdate = System.currentTimeMillis();
+    public void stop() {
+        AsyncUtils.cancelTask(samplerTask);
+        samplerTask = null;
     }
 
     /**
-     * Updates ping for a specific player.
-     * Should be called regularly during combat to maintain accurate data.
+     * Starts sampling a player for the duration of a combat session.
      */
-    public void updatePlayerPing(Player player) {
+    public void track(Player player) {
         if (player == null) return;
+        trackedPlayers.compute(player.getUniqueId(), (id, tracked) -> {
+            TrackedPlayer entry = tracked != null ? tracked : new TrackedPlayer(player);
+            entry.sessions++;
+            return entry;
+        });
+    }
 
-        UUID playerId = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
+    /**
+     * Stops sampling a player once none of their sessions remain.
+     */
+    public void untrack(UUID playerId) {
+        trackedPlayers.computeIfPresent(playerId, (id, tracked) -> --tracked.sessions > 0 ? tracked : null);
+    }
 
-        // Rate limit updates to prevent excessive processing
-        Long lastUpdate = lastUpdateTimes.get(playerId);
-        if (lastUpdate != null && (currentTime - lastUpdate) < updateIntervalMs) {
+    /**
+     * Reads {@link Player#getPing()} once for every tracked player.
+     */
+    public void sampleTrackedPlayers() {
+        if (trackedPlayers.isEmpty()) {
             return;
         }
 
-        lastUpdateTimes.put(playerId, currentTime);
-
-        // Update performance data
-        PerformanceData data = playerPerformanceData.computeIfAbsent(playerId,
-                id -> new PerformanceData(id));
-
-        try {
-            // Get ping using reflection or protocol lib if available
-            // For now, use a placeholder - in real implementation, this would use
-            // the actual ping from the player's connection
-            int ping = getPlayerPing(player);
-            data.setCurrentPing(ping);
-
-            // Update lag status based on thresholds
-            double tpsThreshold = plugin.getConfig().getDouble("lag.tps-threshold", 18.0);
-            int pingThreshold = plugin.getConfig().getInt("lag.ping-threshold", 200);
-            boolean isLagging = data.isLagging(tpsThreshold, pingThreshold);
-            data.setExperiencingLag(isLagging);
-
-            // DEBUG LOGGING: Log high ping detection for block breaking investigation
-            if (ping > pingThreshold) {
-                plugin.getLogger().fine(String.format("[DEBUG] High ping detected: Player=%s, Ping=%dms, Threshold=%dms, TPS=%.2f",
-                    player.getName(), ping, pingThreshold, tpsThreshold));
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        for (TrackedPlayer tracked : trackedPlayers.values()) {
+            Player player = tracked.player;
+            if (!player.isOnline()) {
+                continue;
             }
 
-            // Reset failure counter on successful update
-            consecutiveFailures = 0;
-            // Restore normal update interval if it was increased due to failures
-            if (updateIntervalMs > plugin.getConfig().getLong("lag.ping-update-interval-ms", 1000L)) {
-                updateIntervalMs = plugin.getConfig().getLong("lag.ping-update-interval-ms", 1000L);
-                plugin.getLogger().info("Ping detection recovered, restored normal update interval");
+            int ping = player.getPing();
+            if (ping < 0) {
+                continue;
             }
 
-        } catch (Exception e) {
-            plugin.getLogger().warning("Failed to update ping for player " + player.getName() + ": " + e.getMessage());
-            consecutiveFailures++;
-            // If we've had too many failures, reduce update frequency temporarily
-            if (consecutiveFailures > 5) {
-                plugin.getLogger().info("Ping detection failing consistently, increasing update interval to reduce server load");
-                updateIntervalMs = Math.min(updateIntervalMs * 2, 10000L); // Max 10 seconds
-            }
-        } finally {
-            // Track successful updates
-            if (consecutiveFailures == 0) {
-                lastSuccessfulUpdate = System.currentTimeMillis();
+            PerformanceData data = playerPerformanceData.computeIfAbsent(player.getUniqueId(), PerformanceData::new);
+            if (data.recordPing(ping, now, ewmaAlpha, pingThreshold, jitterThreshold, spikeMinDelta)) {
+                spikesDetected.increment();
+                plugin.getLogger().fine(String.format("[DEBUG] Ping spike: Player=%s, Ping=%dms, EWMA=%.1fms, Jitter=%.1fms",
+                    player.getName(), ping, data.getEwmaPing(), data.getJitter()));
             }
+            samplesTaken.increment();
         }
+        lastSampleTime = now;
+        lastBatchNanos = System.nanoTime() - start;
     }
 
     /**
@@ -127,108 +156,79 @@ public class PingTracker {
      * Gets or creates performance data for a player.
      */
     public PerformanceData getOrCreatePerformanceData(UUID playerId) {
-        return playerPerformanceData.computeIfAbsent(playerId,
-                id -> new PerformanceData(id));
+        return playerPerformanceData.computeIfAbsent(playerId, PerformanceData::new);
     }
 
     /**
-     * Gets the current ping for a player.
-     * This is a placeholder implementation - in a real plugin, this would use
-     * reflection to access the player's ping from CraftPlayer or use ProtocolLib.
+     * Gets the precomputed lag severity for a player, or 0 if they have not been sampled.
      */
-    private int getPlayerPing(Player player) {
-        try {
-            // Try to get ping using CraftBukkit internals
-            Object craftPlayer = player.getClass().getMethod("getHandle").invoke(player);
-            Object playerConnection = craftPlayer.getClass().getField("playerConnection").get(craftPlayer);
-            int ping = (Integer) playerConnection.getClass().getField("ping").get(playerConnection);
-
-            // Validate ping value - negative values indicate issues
-            if (ping < 0) {
-                plugin.getLogger().fine("Invalid ping value for " + player.getName() + ": " + ping + ", using fallback");
-                return calculateFallbackPing(player);
-            }
-
-            return ping;
-        } catch (Exception e) {
-            // Fallback: return a reasonable default or use alternative methods
-            plugin.getLogger().fine("Using fallback ping detection for " + player.getName() + ": " + e.getMessage());
-            return calculateFallbackPing(player);
-        }
+    public double getLagSeverity(UUID playerId) {
+        PerformanceData data = playerPerformanceData.get(playerId);
+        return data != null ? data.getLagSeverity() : 0.0;
     }
 
     /**
-     * Fallback ping calculation when direct access fails.
+     * Registers incremental cleanup of performance data for players no longer sampled.
      */
-    private int calculateFallbackPing(Player player) {
-        // This could use various heuristics like:
-        // - Distance from spawn
-        // - World/environment factors
-        // - Recent activity patterns
-        // For now, return a conservative estimate
-        return 50; // Assume decent connection
+    public IncrementalSweeper.Job<?> registerCleanupJob(IncrementalSweeper sweeper, long intervalTicks) {
+        return sweeper.registerMap("ping-data", intervalTicks, playerPerformanceData, this::isInactive);
     }
 
     /**
-     * Updates ping for all online players.
-     * Should be called periodically by the LagManager.
+     * Checks if an untracked player's data has not been sampled within the cleanup threshold.
      */
-    public void updateAllPlayersPing() {
-        for (Player player : plugin.getServer().getOnlinePlayers()) {
-            updatePlayerPing(player);
+    private boolean isInactive(UUID playerId, PerformanceData data) {
+        if (trackedPlayers.containsKey(playerId)) {
+            return false;
         }
-    }
 
-    /**
-     * Cleans up old performance data for inactive players.
-     */
-    public void cleanupInactiveData() {
-        long currentTime = System.currentTimeMillis();
-
-        playerPerformanceData.entrySet().removeIf(entry -> {
-            UUID playerId = entry.getKey();
-            Long lastUpdate = lastUpdateTimes.get(playerId);
-
-            if (lastUpdate == null || (currentTime - lastUpdate) > cleanupThresholdMs) {
-                plugin.getLogger().fine("Cleaned up performance data for inactive player " + playerId);
-                lastUpdateTimes.remove(playerId);
-                return true;
-            }
-            return false;
-        });
+        if ((System.currentTimeMillis() - data.getLastSampleTime()) > cleanupThresholdMs) {
+            plugin.getLogger().fine("Cleaned up performance data for inactive player " + playerId);
+            return true;
+        }
+        return false;
     }
 
     /**
      * Gets statistics about ping tracking.
      */
     public String getPingStats() {
-        int totalPlayers = playerPerformanceData.size();
-        long activeUpdates = lastUpdateTimes.size();
-
-        return String.format("PingTracker{totalPlayers=%d, activeUpdates=%d, updateInterval=%dms}",
-                totalPlayers, activeUpdates, updateIntervalMs);
+        return String.format("PingTracker{trackedPlayers=%d, totalPlayers=%d, samples=%d, spikes=%d, updateInterval=%dms, lastBatch=%.3fms}",
+                trackedPlayers.size(), playerPerformanceData.size(), samplesTaken.sum(), spikesDetected.sum(),
+                updateIntervalMs, lastBatchNanos / 1_000_000.0);
     }
 
     /**
      * Forces a configuration reload.
      */
     public void reloadConfiguration() {
+        long previousInterval = updateIntervalMs;
         loadConfiguration();
+        if (samplerTask != null && previousInterval != updateIntervalMs) {
+            stop();
+            start();
+        }
         plugin.getLogger().info("PingTracker configuration reloaded");
     }
 
-    /**
-     * Gets the number of consecutive ping detection failures.
-     */
-    public int getConsecutiveFailures() {
-        return consecutiveFailures;
+    public int getTrackedPlayerCount() {
+        return trackedPlayers.size();
+    }
+
+    public long getSamplesTaken() {
+        return samplesTaken.sum();
+    }
+
+    public long getSpikesDetected() {
+        return spikesDetected.sum();
     }
 
     /**
      * Checks if the ping tracker is currently experiencing issues.
      */
     public boolean isExperiencingIssues() {
-        return consecutiveFailures > 3 || updateIntervalMs > plugin.getConfig().getLong("lag.ping-update-interval-ms", 1000L);
+        return samplerTask != null && !trackedPlayers.isEmpty()
+            && System.currentTimeMillis() - lastSampleTime > updateIntervalMs * 5;
     }
 
     /**
@@ -257,8 +257,8 @@ public class PingTracker {
      * Gets the health status of the ping tracker for monitoring.
      */
     public String getHealthStatus() {
-        long timeSinceLastSuccess = System.currentTimeMillis() - lastSuccessfulUpdate;
-        return String.format("PingTrackerHealth{failures=%d, lastSuccess=%dms ago, currentInterval=%dms}",
-                consecutiveFailures, timeSinceLastSuccess, updateIntervalMs);
+        long timeSinceLastSample = System.currentTimeMillis() - lastSampleTime;
+        return String.format("PingTrackerHealth{tracked=%d, lastSample=%dms ago, interval=%dms, issues=%s}",
+                trackedPlayers.size(), timeSinceLastSample, updateIntervalMs, isExperiencingIssues());
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,15 @@
 package com.muzlik.pvpcombat.performance;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
-import org.bukkit.Bukkit;
 
 /**
  * Monitors server TPS (Ticks Per Second) and provides performance metrics.
- * Uses Minecraft's internal TPS tracking for accurate measurements.
+ * Readings come from a {@link TickSampler} that times every server tick.
  */
 public class TPSMonitor {
 
     private final PvPCombatPlugin plugin;
+    private final TickSampler tickSampler;
 
     // TPS tracking variables
     private volatile double currentTPS;
@@ -24,8 +24,9 @@ public class TPSMonitor {
     // Configuration
     private int historyLength; // How many samples to keep for averaging
 
-    public TPSMonitor(PvPCombatPlugin plugin) {
+    public TPSMonitor(PvPCombatPlugin plugin, TickSampler tickSampler) {
         this.plugin = plugin;
+        this.tickSampler = tickSampler;
         this.currentTPS = 20.0; // Assume perfect TPS initially
         this.averageTPS = 20.0;
         this.lastUpdateTime = System.currentTimeMillis();
@@ -42,69 +43,18 @@ public class TPSMonitor {
     }
 
     /**
-     * Updates the current TPS reading.
+     * Updates the current TPS reading from the tick sampler.
      * Should be called regularly (e.g., every second) by the LagManager.
      */
     public void updateTPS() {
-        try {
-            // Get TPS using Minecraft's internal method
-            double[] tpsArray = getServerTPS();
-            if (tpsArray != null && tpsArray.length > 0) {
-                // TPS array typically contains [1m, 5m, 15m] averages
-                // We use the 1-minute average as current TPS
-                this.currentTPS = Math.min(20.0, Math.max(0.0, tpsArray[0]));
-
-                // Update history and average
-                updateTPSHistory(currentTPS);
-                calculateAverageTPS();
-
-                lastUpdateTime = System.currentTimeMillis();
-            }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Failed to update TPS: " + e.getMessage());
-            // Keep previous values on error
-        }
-    }
+        // The sampler's EWMA follows real tick intervals, so a 2-second stall shows up
+        // within a few ticks instead of being diluted into a 1-minute average
+        this.currentTPS = Math.min(20.0, Math.max(0.0, tickSampler.getEwmaTps()));
 
-    /**
-     * Gets the server's TPS using Minecraft internals.
-     * This method uses reflection to access the TPS tracking in the Minecraft server.
-     */
-    private double[] getServerTPS() {
-        try {
-            // Access the MinecraftServer class
-            Object minecraftServer = Bukkit.getServer().getClass()
-                    .getMethod("getServer").invoke(Bukkit.getServer());
-
-            // Get the recent TPS values
-            double[] tps = (double[]) minecraftServer.getClass()
-                    .getField("recentTps").get(minecraftServer);
-
-            return tps;
-        } catch (Exception e) {
-            plugin.getLogger().fine("Could not access TPS via reflection, using fallback method");
-            return getFallbackTPS();
-        }
-    }
+        updateTPSHistory(currentTPS);
+        calculateAverageTPS();
 
-    /**
-     * Fallback TPS calculation when direct access fails.
-     * Uses system time and tick counting as a backup.
-     */
-    private double[] getFallbackTPS() {
-        // This is a simplified fallback - in a real implementation,
-        // you might track tick events or use other performance indicators
-        long currentTime = System.currentTimeMillis();
-        long timeDiff = currentTime - lastUpdateTime;
-
-        if (timeDiff > 0) {
-            // Estimate TPS based on time between updates
-            // This is not accurate but provides a reasonable fallback
-            double estimatedTPS = Math.min(20.0, 1000.0 / Math.max(50.0, timeDiff));
-            return new double[]{estimatedTPS, estimatedTPS, estimatedTPS};
-        }
-
-        return new double[]{20.0, 20.0, 20.0}; // Default to perfect TPS
+        lastUpdateTime = System.currentTimeMillis();
     }
 
     /**
@@ -160,6 +110,13 @@ public class TPSMonitor {
         return history;
     }
 
+    /**
+     * Gets the tick sampler backing this monitor.
+     */
+    public TickSampler getTickSampler() {
+        return tickSampler;
+    }
+
     /**
      * Checks if TPS indicates lag based on a threshold.
      */
@@ -179,6 +136,7 @@ public class TPSMonitor {
      */
     public void reloadConfiguration() {
         this.historyLength = plugin.getConfig().getInt("lag.tps-history-length", 60);
+        tickSampler.reloadConfiguration();
         plugin.getLogger().info("TPSMonitor configuration reloaded");
     }
 
@@ -186,8 +144,9 @@ public class TPSMonitor {
      * Gets performance statistics for monitoring.
      */
     public String getPerformanceStats() {
-        return String.format("TPSMonitor{current=%.2f, average=%.2f, historySize=%d/%d, lastUpdate=%dms ago}",
-                currentTPS, averageTPS, historySize, historyLength, getTimeSinceLastUpdate());
+        return String.format("TPSMonitor{current=%.2f, average=%.2f, historySize=%d/%d, lastUpdate=%dms ago}, %s",
+                currentTPS, averageTPS, historySize, historyLength, getTimeSinceLastUpdate(),
+                tickSampler.getPerformanceStats());
     }
 
     /**
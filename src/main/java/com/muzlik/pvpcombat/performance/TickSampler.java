@@ -0,0 +1,281 @@
+package com.muzlik.pvpcombat.performance;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.events.TickSpikeEvent;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures real tick timing with a 1-tick main thread task.
+ * Each run records the nanosecond interval since the previous tick into a fixed ring,
+ * giving an EWMA TPS that reacts within a few ticks and tick time percentiles over
+ * short and long windows. The main thread is the only writer; readers on any thread
+ * copy the ring without locking.
+ */
+public class TickSampler implements Runnable {
+
+    /** Ring size: one minute of ticks at 20 TPS. */
+    public static final int CAPACITY = 1200;
+    /** Ticks in the short (5 second) window. */
+    public static final int SHORT_WINDOW = 100;
+    /** Ticks in the long (1 minute) window. */
+    public static final int LONG_WINDOW = CAPACITY;
+
+    private static final double TARGET_TICK_MILLIS = 50.0;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final PvPCombatPlugin plugin;
+    private final AtomicLongArray intervals;
+    private final LongAdder spikes;
+
+    // Written only by the main thread; volatile so readers see completed slots
+    private volatile long recorded;
+    private volatile double ewmaMillis;
+    private volatile long lastSpikeTime;
+    private long lastTickNanos;
+    private long lastSpikeLogTime;
+
+    private BukkitTask task;
+
+    // Configuration
+    private volatile double alpha;
+    private volatile double spikeThresholdMillis;
+    private volatile long spikeLogCooldownMillis;
+
+    /**
+     * Percentile summary of one window of tick intervals.
+     */
+    public static final class Window {
+        private final int samples;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        private Window(int samples, double meanMillis, double p50Millis, double p95Millis,
+                       double p99Millis, double maxMillis) {
+            this.samples = samples;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public int getSamples() { return samples; }
+        public double getMeanMillis() { return meanMillis; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP95Millis() { return p95Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+
+        /**
+         * Gets the average TPS over the window, capped at 20.
+         */
+        public double getTps() {
+            return toTps(meanMillis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f TPS, p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms (%d ticks)",
+                    getTps(), p50Millis, p95Millis, p99Millis, maxMillis, samples);
+        }
+    }
+
+    public TickSampler(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.intervals = new AtomicLongArray(CAPACITY);
+        this.spikes = new LongAdder();
+        this.ewmaMillis = TARGET_TICK_MILLIS;
+        reloadConfiguration();
+    }
+
+    /**
+     * Reloads sampler settings from config.
+     */
+    public void reloadConfiguration() {
+        this.alpha = clamp(plugin.getConfig().getDouble("performance.tick-sampler.ewma-alpha", 0.1), 0.001, 1.0);
+        this.spikeThresholdMillis = Math.max(TARGET_TICK_MILLIS,
+                plugin.getConfig().getDouble("performance.tick-sampler.spike-threshold-ms", 250.0));
+        this.spikeLogCooldownMillis = Math.max(0, plugin.getConfig().getLong("performance.tick-sampler.spike-log-cooldown-ms", 10000));
+    }
+
+    /**
+     * Starts sampling every tick.
+     */
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        lastTickNanos = 0;
+        task = AsyncUtils.runSyncTimer(plugin, this, 1L, 1L);
+    }
+
+    /**
+     * Stops sampling.
+     */
+    public void stop() {
+        AsyncUtils.cancelTask(task);
+        task = null;
+    }
+
+    public boolean isRunning() {
+        return task != null;
+    }
+
+    /**
+     * Records one tick. Runs on the main thread.
+     */
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        long previous = lastTickNanos;
+        lastTickNanos = now;
+        if (previous == 0) {
+            return;
+        }
+
+        long interval = now - previous;
+        long sequence = recorded;
+        intervals.lazySet((int) (sequence % CAPACITY), interval);
+        recorded = sequence + 1;
+
+        double millis = interval / NANOS_PER_MILLI;
+        double ewma = ewmaMillis;
+        ewmaMillis = ewma + alpha * (millis - ewma);
+
+        if (millis >= spikeThresholdMillis) {
+            onSpike(millis, sequence + 1);
+        }
+    }
+
+    private void onSpike(double millis, long tickNumber) {
+        spikes.increment();
+        long now = System.currentTimeMillis();
+        lastSpikeTime = now;
+
+        if (now - lastSpikeLogTime >= spikeLogCooldownMillis) {
+            lastSpikeLogTime = now;
+            plugin.getLogger().warning(String.format("Tick spike: %.1fms (threshold %.1fms)", millis, spikeThresholdMillis));
+        }
+
+        if (TickSpikeEvent.getHandlerList().getRegisteredListeners().length > 0) {
+            plugin.getServer().getPluginManager().callEvent(new TickSpikeEvent(millis, spikeThresholdMillis, tickNumber));
+        }
+    }
+
+    /**
+     * Gets the exponentially weighted TPS, capped at 20.
+     */
+    public double getEwmaTps() {
+        return toTps(ewmaMillis);
+    }
+
+    /**
+     * Gets the exponentially weighted tick interval in milliseconds.
+     */
+    public double getEwmaMspt() {
+        return ewmaMillis;
+    }
+
+    /**
+     * Gets the most recently recorded tick interval in milliseconds.
+     */
+    public double getLastTickMillis() {
+        long count = recorded;
+        if (count == 0) {
+            return TARGET_TICK_MILLIS;
+        }
+        return intervals.get((int) ((count - 1) % CAPACITY)) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Gets percentiles over the last 5 seconds of ticks.
+     */
+    public Window getShortWindow() {
+        return getWindow(SHORT_WINDOW);
+    }
+
+    /**
+     * Gets percentiles over the last minute of ticks.
+     */
+    public Window getLongWindow() {
+        return getWindow(LONG_WINDOW);
+    }
+
+    /**
+     * Gets percentiles over the last {@code ticks} recorded intervals.
+     * A slot may be overwritten by the main thread while it is copied; the window
+     * then contains one newer sample in place of the oldest, which is harmless for statistics.
+     */
+    public Window getWindow(int ticks) {
+        long count = recorded;
+        int size = (int) Math.min(Math.min(ticks, CAPACITY), count);
+        if (size <= 0) {
+            return new Window(0, TARGET_TICK_MILLIS, TARGET_TICK_MILLIS, TARGET_TICK_MILLIS,
+                    TARGET_TICK_MILLIS, TARGET_TICK_MILLIS);
+        }
+
+        long[] copy = new long[size];
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            long value = intervals.get((int) ((count - 1 - i) % CAPACITY));
+            copy[i] = value;
+            sum += value;
+        }
+        Arrays.sort(copy);
+
+        return new Window(size,
+                sum / (double) size / NANOS_PER_MILLI,
+                percentile(copy, 0.50),
+                percentile(copy, 0.95),
+                percentile(copy, 0.99),
+                copy[size - 1] / NANOS_PER_MILLI);
+    }
+
+    public long getSpikeCount() {
+        return spikes.sum();
+    }
+
+    public long getLastSpikeTime() {
+        return lastSpikeTime;
+    }
+
+    public long getTicksRecorded() {
+        return recorded;
+    }
+
+    public double getSpikeThresholdMillis() {
+        return spikeThresholdMillis;
+    }
+
+    /**
+     * Gets sampler statistics as a formatted string.
+     */
+    public String getPerformanceStats() {
+        return String.format("TickSampler{ewma=%.2f TPS/%.1fms, 5s=[%s], 1m=[%s], spikes=%d}",
+                getEwmaTps(), getEwmaMspt(), getShortWindow(), getLongWindow(), getSpikeCount());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / NANOS_PER_MILLI;
+    }
+
+    private static double toTps(double millisPerTick) {
+        if (millisPerTick <= TARGET_TICK_MILLIS) {
+            return 20.0;
+        }
+        return 1000.0 / millisPerTick;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,29 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A lookup that found nothing in one of the plugin's caches.
+ * Fires on hot lookups, so it is off unless a recording enables it explicitly.
+ */
+@Name("truecombat.CacheMiss")
+@Label("Cache Miss")
+@Category({"TrueCombatManager", "Cache"})
+@Description("A cache lookup that had to fall back to computing the value")
+@StackTrace(false)
+@Enabled(false)
+public class CacheMissJfrEvent extends Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Loaded")
+    @Description("True if a loader computed and stored the value, false for a plain lookup")
+    public boolean loaded;
+}
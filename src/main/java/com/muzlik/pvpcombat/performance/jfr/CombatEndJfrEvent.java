@@ -0,0 +1,30 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A combat session ended; the event's own duration covers the end handling on the main thread.
+ */
+@Name("truecombat.CombatEnd")
+@Label("Combat End")
+@Category({"TrueCombatManager", "Combat"})
+@Description("A combat session ended for all of its participants")
+@StackTrace(false)
+public class CombatEndJfrEvent extends Event {
+
+    @Label("Session ID")
+    public String sessionId;
+
+    @Label("Participants")
+    public int participants;
+
+    @Label("Combat Duration")
+    @Timespan(Timespan.MILLISECONDS)
+    public long combatDuration;
+}
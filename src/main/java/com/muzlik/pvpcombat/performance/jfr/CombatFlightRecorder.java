@@ -0,0 +1,170 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts and dumps Java Flight Recorder recordings from inside the server.
+ * The plugin's own events (see this package) are always compiled in; while no recording
+ * is running the JVM reports them disabled and each instrumented site costs a single
+ * {@code shouldCommit()} check. The per-hit events are also disabled by default, so other
+ * recordings on the server (e.g. a continuous profile) do not pick them up. A recording
+ * started here uses the JDK's "default" settings with all of the plugin's events enabled
+ * on top, so it can be left running on a live server.
+ */
+public class CombatFlightRecorder {
+
+    private static final String RECORDING_NAME = "TrueCombatManager";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+        CombatStartJfrEvent.class, CombatEndJfrEvent.class, DamageJfrEvent.class, SafeZoneQueryJfrEvent.class,
+        LogFlushJfrEvent.class, ReplaySaveJfrEvent.class, SyncPacketJfrEvent.class, CacheMissJfrEvent.class);
+
+    private final PvPCombatPlugin plugin;
+    private final Path directory;
+    private Recording recording;
+
+    // Statistics
+    private int recordingsStarted;
+    private int dumpsWritten;
+    private Path lastDump;
+
+    public CombatFlightRecorder(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.directory = plugin.getDataFolder().toPath().resolve("recordings");
+    }
+
+    /**
+     * Checks whether this JVM supports flight recording at all.
+     */
+    public static boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    /**
+     * Starts a recording.
+     *
+     * @param duration how long to record before stopping on its own, or null to record until stopped;
+     *                 a timed recording is written to the recordings folder when it ends
+     * @return false if a recording is already running
+     */
+    public synchronized boolean start(Duration duration) throws IOException, ParseException {
+        if (isRecording()) {
+            return false;
+        }
+        Recording started = new Recording(Configuration.getConfiguration("default"));
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        for (Class<? extends Event> event : EVENTS) {
+            started.enable(event).withoutStackTrace();
+        }
+        if (duration != null) {
+            started.setDuration(duration);
+            started.setDestination(nextFile());
+        }
+        started.start();
+        if (recording != null) {
+            recording.close();
+        }
+        recording = started;
+        recordingsStarted++;
+        plugin.getLogger().info("Flight recording started" + (duration != null ? " for " + duration.toSeconds() + "s" : "") + ".");
+        return true;
+    }
+
+    /**
+     * Writes everything recorded so far to a new file in the recordings folder,
+     * leaving the recording running. Does file I/O, so call it off the main thread.
+     *
+     * @return the written file, or null if nothing is being recorded
+     */
+    public synchronized Path dump() throws IOException {
+        if (!isRecording()) {
+            return null;
+        }
+        Path file = nextFile();
+        recording.dump(file);
+        dumpsWritten++;
+        lastDump = file;
+        return file;
+    }
+
+    /**
+     * Stops the recording, writing it out first.
+     *
+     * @return the written file, or null if nothing was being recorded
+     */
+    public synchronized Path stop() throws IOException {
+        if (!isRecording()) {
+            return null;
+        }
+        Path file = dump();
+        recording.close();
+        recording = null;
+        plugin.getLogger().info("Flight recording stopped, written to " + file + ".");
+        return file;
+    }
+
+    public synchronized boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Picks a file name that is not taken yet; names carry milliseconds and get a counter
+     * if two dumps still land on the same one.
+     */
+    private Path nextFile() throws IOException {
+        Files.createDirectories(directory);
+        String base = "combat-" + LocalDateTime.now().format(FILE_TIME);
+        Path file = directory.resolve(base + ".jfr");
+        for (int n = 1; Files.exists(file); n++) {
+            file = directory.resolve(base + "-" + n + ".jfr");
+        }
+        return file;
+    }
+
+    /**
+     * Gets recorder statistics.
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("available", isAvailable());
+        stats.put("recording", isRecording());
+        if (recording != null) {
+            stats.put("state", recording.getState().name().toLowerCase());
+            stats.put("started", recording.getStartTime());
+            stats.put("duration-limit-seconds", recording.getDuration() != null ? recording.getDuration().toSeconds() : -1L);
+            stats.put("size-bytes", recording.getSize());
+        }
+        stats.put("recordings-started", recordingsStarted);
+        stats.put("dumps-written", dumpsWritten);
+        stats.put("last-dump", lastDump != null ? lastDump.getFileName().toString() : "none");
+        return stats;
+    }
+
+    /**
+     * Closes any recording without writing it; a running recording is lost on shutdown
+     * unless it was dumped or started with a duration.
+     */
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
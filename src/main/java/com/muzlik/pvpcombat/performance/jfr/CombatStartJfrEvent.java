@@ -0,0 +1,28 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A combat session was started.
+ */
+@Name("truecombat.CombatStart")
+@Label("Combat Start")
+@Category({"TrueCombatManager", "Combat"})
+@Description("A new combat session was started")
+@StackTrace(false)
+public class CombatStartJfrEvent extends Event {
+
+    @Label("Session ID")
+    public String sessionId;
+
+    @Label("Attacker")
+    public String attacker;
+
+    @Label("Defender")
+    public String defender;
+}
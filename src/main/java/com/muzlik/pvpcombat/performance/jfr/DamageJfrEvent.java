@@ -0,0 +1,37 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Processing of one player-versus-player damage event by the combat listener.
+ * Fires on every hit, so it is off unless a recording enables it explicitly.
+ */
+@Name("truecombat.Damage")
+@Label("Damage Processing")
+@Category({"TrueCombatManager", "Combat"})
+@Description("Time spent handling a player damage event")
+@StackTrace(false)
+@Enabled(false)
+public class DamageJfrEvent extends Event {
+
+    @Label("Session ID")
+    public String sessionId;
+
+    @Label("Attacker")
+    public String attacker;
+
+    @Label("Defender")
+    public String defender;
+
+    @Label("Damage")
+    public double damage;
+
+    @Label("Cancelled")
+    public boolean cancelled;
+}
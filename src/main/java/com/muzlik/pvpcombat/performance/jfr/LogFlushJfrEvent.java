@@ -0,0 +1,29 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A batch of combat log entries stored by the logging thread.
+ */
+@Name("truecombat.LogFlush")
+@Label("Combat Log Flush")
+@Category({"TrueCombatManager", "Logging"})
+@Description("A batch of combat log entries written to memory and file storage")
+@StackTrace(false)
+public class LogFlushJfrEvent extends Event {
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Queued After")
+    @Description("Entries still waiting once this batch was stored")
+    public int queueDepth;
+
+    @Label("Storage")
+    public String storage;
+}
@@ -0,0 +1,30 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A combat replay written to disk.
+ */
+@Name("truecombat.ReplaySave")
+@Label("Replay Save")
+@Category({"TrueCombatManager", "Logging"})
+@Description("A finished combat replay compressed and written to its file")
+@StackTrace(false)
+public class ReplaySaveJfrEvent extends Event {
+
+    @Label("Session ID")
+    public String sessionId;
+
+    @Label("Replay Events")
+    public int events;
+
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+}
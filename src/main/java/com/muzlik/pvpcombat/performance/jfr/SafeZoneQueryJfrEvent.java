@@ -0,0 +1,32 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A check whether a location lies in a safe zone.
+ * Fires on every hit and move check, so it is off unless a recording enables it explicitly.
+ */
+@Name("truecombat.SafeZoneQuery")
+@Label("Safe Zone Query")
+@Category({"TrueCombatManager", "Restrictions"})
+@Description("A safe zone lookup and whether it was answered by the precomputed distance field")
+@StackTrace(false)
+@Enabled(false)
+public class SafeZoneQueryJfrEvent extends Event {
+
+    @Label("World")
+    public String world;
+
+    @Label("In Safe Zone")
+    public boolean inSafeZone;
+
+    @Label("Distance Field Hit")
+    @Description("False if the chunk's field was not built yet and regions were queried directly")
+    public boolean fieldHit;
+}
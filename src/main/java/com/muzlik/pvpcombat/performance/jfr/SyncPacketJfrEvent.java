@@ -0,0 +1,33 @@
+package com.muzlik.pvpcombat.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A cross-server sync packet encoded for sending or decoded on receipt.
+ */
+@Name("truecombat.SyncPacket")
+@Label("Sync Packet")
+@Category({"TrueCombatManager", "Network"})
+@Description("Encoding of an outgoing or decoding of an incoming cross-server sync packet")
+@StackTrace(false)
+public class SyncPacketJfrEvent extends Event {
+
+    @Label("Direction")
+    public String direction;
+
+    @Label("Packet Type")
+    public String packetType;
+
+    @Label("Session ID")
+    public String sessionId;
+
+    @Label("Size")
+    @DataAmount
+    public int bytes;
+}
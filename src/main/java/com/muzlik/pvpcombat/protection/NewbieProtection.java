@@ -1,85 +1,182 @@
 package com.muzlik.pvpcombat.protection;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import org.bukkit.Statistic;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockDispenseArmorEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLevelChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Handles newbie protection system.
  * Protects players without armor from PvP combat.
+ * A player's status is computed once and cached until their level, armor, or online state
+ * changes. Entries also carry an expiry, which is the earliest moment a time-based criterion
+ * can flip or the configured cache lifetime, whichever comes first. The lifetime catches
+ * changes that fire no event, such as permission updates or armor set by other plugins.
  */
-public class NewbieProtection {
+public class NewbieProtection implements Listener {
+
+    /**
+     * A cached newbie status and the time it stops being valid.
+     */
+    private record Status(boolean newbie, long validUntilMillis) {
+    }
 
     private final PvPCombatPlugin plugin;
+    private final Map<UUID, Status> statusCache;
+
+    // Compiled from config
+    private volatile boolean enabled;
+    private volatile boolean preventDamageDealing;
+    private volatile boolean preventDamageReceiving;
+    private volatile int xpLevelThreshold;
+    private volatile boolean requireAnyArmor;
+    private volatile String bypassPermission;
+    private volatile long firstJoinProtectionMillis;
+    private volatile long maxPlaytimeMillis;
+    private volatile long cacheLifetimeMillis;
+    private volatile String newbieAttackMessage;
+    private volatile String attackingNewbieMessage;
 
     public NewbieProtection(PvPCombatPlugin plugin) {
         this.plugin = plugin;
+        this.statusCache = new ConcurrentHashMap<>();
+        reloadConfiguration();
+    }
+
+    /**
+     * Reloads settings and drops every cached status.
+     */
+    public void reloadConfiguration() {
+        this.enabled = plugin.getConfig().getBoolean("newbie-protection.enabled", true);
+        this.preventDamageDealing = plugin.getConfig().getBoolean("newbie-protection.prevent-damage-dealing", true);
+        this.preventDamageReceiving = plugin.getConfig().getBoolean("newbie-protection.prevent-damage-receiving", true);
+        this.xpLevelThreshold = plugin.getConfig().getInt("newbie-protection.xp-level-threshold", 3);
+        this.requireAnyArmor = plugin.getConfig().getBoolean("newbie-protection.require-any-armor", true);
+        this.bypassPermission = plugin.getConfig().getString("newbie-protection.bypass-permission", "pvpcombat.bypass.newbie");
+        this.firstJoinProtectionMillis = TimeUnit.MINUTES.toMillis(
+            Math.max(0, plugin.getConfig().getLong("newbie-protection.first-join-protection-minutes", 0)));
+        this.maxPlaytimeMillis = TimeUnit.MINUTES.toMillis(
+            Math.max(0, plugin.getConfig().getLong("newbie-protection.max-playtime-minutes", 0)));
+        this.cacheLifetimeMillis = TimeUnit.SECONDS.toMillis(
+            Math.max(1, plugin.getConfig().getLong("newbie-protection.cache-seconds", 30)));
+        this.newbieAttackMessage = plugin.getConfig().getString("newbie-protection.newbie-attack-message",
+            "&cYou need armor to attack other players!")
+            .replace("&", "§");
+        this.attackingNewbieMessage = plugin.getConfig().getString("newbie-protection.attacking-newbie-message",
+            "&cYou cannot attack players without armor!")
+            .replace("&", "§");
+        statusCache.clear();
     }
 
     /**
      * Checks if newbie protection is enabled.
      */
     public boolean isEnabled() {
-        return plugin.getConfig().getBoolean("newbie-protection.enabled", true);
+        return enabled;
     }
 
     /**
-     * Checks if a player is considered a newbie (no armor and low XP).
+     * Checks if a player is considered a newbie, using the cached status when it is still valid.
      */
     public boolean isNewbie(Player player) {
+        long now = System.currentTimeMillis();
+        Status status = statusCache.get(player.getUniqueId());
+        if (status == null || now >= status.validUntilMillis()) {
+            status = evaluate(player, now);
+            statusCache.put(player.getUniqueId(), status);
+        }
+        return status.newbie();
+    }
+
+    /**
+     * Drops a player's cached status so the next check recomputes it.
+     */
+    public void invalidate(UUID playerId) {
+        statusCache.remove(playerId);
+    }
+
+    /**
+     * Computes a player's status from permissions, join time, playtime, level and armor.
+     */
+    private Status evaluate(Player player, long now) {
+        long validUntil = now + cacheLifetimeMillis;
+
         // Check if player has bypass permission
-        if (player.hasPermission("pvpcombat.bypass.newbie")) {
-            plugin.getLoggingManager().log("[NEWBIE CHECK] " + player.getName() + " has bypass permission");
-            return false;
+        if (player.hasPermission(bypassPermission)) {
+            plugin.getLoggingManager().log(() -> "[NEWBIE CHECK] " + player.getName() + " has bypass permission");
+            return new Status(false, validUntil);
+        }
+
+        // Recently joined players are protected regardless of gear
+        if (firstJoinProtectionMillis > 0) {
+            long protectedUntil = player.getFirstPlayed() + firstJoinProtectionMillis;
+            if (now < protectedUntil) {
+                plugin.getLoggingManager().log(() -> "[NEWBIE CHECK] " + player.getName() + " is within first-join protection");
+                return new Status(true, Math.min(validUntil, protectedUntil));
+            }
+        }
+
+        // Players past the playtime limit are never newbies
+        if (maxPlaytimeMillis > 0) {
+            // PLAY_ONE_MINUTE is counted in ticks
+            long playedMillis = player.getStatistic(Statistic.PLAY_ONE_MINUTE) * 50L;
+            if (playedMillis >= maxPlaytimeMillis) {
+                plugin.getLoggingManager().log(() -> "[NEWBIE CHECK] " + player.getName() + " has played too long, not a newbie");
+                return new Status(false, validUntil);
+            }
+            validUntil = Math.min(validUntil, now + (maxPlaytimeMillis - playedMillis));
         }
 
         // Check XP level threshold
-        int xpThreshold = plugin.getConfig().getInt("newbie-protection.xp-level-threshold", 3);
         int playerLevel = player.getLevel();
-        
-        plugin.getLoggingManager().log("[NEWBIE CHECK] " + player.getName() + " - Level: " + playerLevel + ", Threshold: " + xpThreshold);
-        
-        if (playerLevel > xpThreshold) {
-            plugin.getLoggingManager().log("[NEWBIE CHECK] " + player.getName() + " has too much XP, not a newbie");
-            return false; // Player has enough XP, not a newbie
+        plugin.getLoggingManager().log(() -> "[NEWBIE CHECK] " + player.getName() + " - Level: " + playerLevel + ", Threshold: " + xpLevelThreshold);
+        if (playerLevel > xpLevelThreshold) {
+            return new Status(false, validUntil); // Player has enough XP, not a newbie
         }
 
         // Check if player has armor
-        boolean hasArmorEquipped = hasArmor(player);
-        plugin.getLoggingManager().log("[NEWBIE CHECK] " + player.getName() + " has armor: " + hasArmorEquipped);
-        
-        boolean isNewbie = !hasArmorEquipped;
-        plugin.getLoggingManager().log("[NEWBIE CHECK] " + player.getName() + " IS NEWBIE: " + isNewbie);
-        
-        return isNewbie;
+        boolean isNewbie = !hasArmor(player);
+        plugin.getLoggingManager().log(() -> "[NEWBIE CHECK] " + player.getName() + " IS NEWBIE: " + isNewbie);
+        return new Status(isNewbie, validUntil);
     }
 
     /**
      * Checks if a player has armor equipped.
      */
     private boolean hasArmor(Player player) {
-        boolean requireAnyArmor = plugin.getConfig().getBoolean("newbie-protection.require-any-armor", true);
-
-        ItemStack helmet = player.getInventory().getHelmet();
-        ItemStack chestplate = player.getInventory().getChestplate();
-        ItemStack leggings = player.getInventory().getLeggings();
-        ItemStack boots = player.getInventory().getBoots();
-        
-        // Check if armor pieces are not null AND not AIR
-        boolean hasHelmet = helmet != null && helmet.getType() != org.bukkit.Material.AIR;
-        boolean hasChestplate = chestplate != null && chestplate.getType() != org.bukkit.Material.AIR;
-        boolean hasLeggings = leggings != null && leggings.getType() != org.bukkit.Material.AIR;
-        boolean hasBoots = boots != null && boots.getType() != org.bukkit.Material.AIR;
-        
-        plugin.getLoggingManager().log("[ARMOR CHECK] " + player.getName() + " - Helmet:" + hasHelmet + " Chest:" + hasChestplate + " Legs:" + hasLeggings + " Boots:" + hasBoots);
-
-        if (requireAnyArmor) {
-            // Player needs at least ONE armor piece
-            return hasHelmet || hasChestplate || hasLeggings || hasBoots;
-        } else {
-            // Player needs FULL armor set
-            return hasHelmet && hasChestplate && hasLeggings && hasBoots;
+        ItemStack[] armor = player.getInventory().getArmorContents();
+        int equipped = 0;
+        for (ItemStack piece : armor) {
+            // Check if armor pieces are not null AND not AIR
+            if (piece != null && piece.getType() != org.bukkit.Material.AIR) {
+                equipped++;
+            }
         }
+
+        int pieces = equipped;
+        plugin.getLoggingManager().log(() -> "[ARMOR CHECK] " + player.getName() + " - Pieces: " + pieces + "/" + armor.length);
+
+        // Either at least ONE armor piece or the FULL armor set
+        return requireAnyArmor ? equipped > 0 : equipped == armor.length;
     }
 
     /**
@@ -87,24 +184,17 @@ public class NewbieProtection {
      * Returns FALSE if newbie should be blocked from dealing damage.
      */
     public boolean canNewbieDealDamage(Player newbie) {
-        if (!isEnabled()) {
-            plugin.getLoggingManager().log("[NEWBIE DAMAGE] Protection disabled, allowing damage");
+        if (!enabled) {
             return true; // Protection disabled, allow damage
         }
 
         if (!isNewbie(newbie)) {
-            plugin.getLoggingManager().log("[NEWBIE DAMAGE] " + newbie.getName() + " is not a newbie, allowing damage");
             return true; // Not a newbie, allow damage
         }
 
         // If prevent-damage-dealing is TRUE, newbie CANNOT deal damage (return FALSE)
-        // If prevent-damage-dealing is FALSE, newbie CAN deal damage (return TRUE)
-        boolean preventDealing = plugin.getConfig().getBoolean("newbie-protection.prevent-damage-dealing", true);
-        boolean canDealDamage = !preventDealing;
-        
-        plugin.getLoggingManager().log("[NEWBIE DAMAGE] " + newbie.getName() + " prevent-dealing=" + preventDealing + ", can deal damage=" + canDealDamage);
-        
-        return canDealDamage; // Invert: if prevent=true, return false (block damage)
+        plugin.getLoggingManager().log(() -> "[NEWBIE DAMAGE] " + newbie.getName() + " prevent-dealing=" + preventDamageDealing);
+        return !preventDamageDealing;
     }
 
     /**
@@ -112,7 +202,7 @@ public class NewbieProtection {
      * Returns FALSE if newbie should be protected from receiving damage.
      */
     public boolean canNewbieReceiveDamage(Player newbie) {
-        if (!isEnabled()) {
+        if (!enabled) {
             return true; // Protection disabled, allow damage
         }
 
@@ -121,26 +211,81 @@ public class NewbieProtection {
         }
 
         // If prevent-damage-receiving is TRUE, newbie CANNOT receive damage (return FALSE)
-        // If prevent-damage-receiving is FALSE, newbie CAN receive damage (return TRUE)
-        boolean preventReceiving = plugin.getConfig().getBoolean("newbie-protection.prevent-damage-receiving", true);
-        return !preventReceiving; // Invert: if prevent=true, return false (block damage)
+        return !preventDamageReceiving;
     }
 
     /**
      * Gets the message to send to a newbie trying to attack.
      */
     public String getNewbieAttackMessage() {
-        return plugin.getConfig().getString("newbie-protection.newbie-attack-message",
-            "&cYou need armor to attack other players!")
-            .replace("&", "§");
+        return newbieAttackMessage;
     }
 
     /**
      * Gets the message to send when attacking a newbie.
      */
     public String getAttackingNewbieMessage() {
-        return plugin.getConfig().getString("newbie-protection.attacking-newbie-message",
-            "&cYou cannot attack players without armor!")
-            .replace("&", "§");
+        return attackingNewbieMessage;
+    }
+
+    // Events that can change a player's status
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLevelChange(PlayerLevelChangeEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        // Armor can be moved by clicks, shift-clicks and hotbar swaps from any view
+        invalidate(event.getWhoClicked().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        invalidate(event.getWhoClicked().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onArmorEquipFromHand(PlayerInteractEvent event) {
+        // Right-clicking armor equips it directly
+        if (event.getItem() != null && isArmorSlot(event.getItem().getType().getEquipmentSlot())) {
+            invalidate(event.getPlayer().getUniqueId());
+        }
+    }
+
+    private static boolean isArmorSlot(EquipmentSlot slot) {
+        return slot == EquipmentSlot.HEAD || slot == EquipmentSlot.CHEST
+            || slot == EquipmentSlot.LEGS || slot == EquipmentSlot.FEET;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onArmorDispensed(BlockDispenseArmorEvent event) {
+        invalidate(event.getTargetEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        invalidate(event.getEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
     }
 }
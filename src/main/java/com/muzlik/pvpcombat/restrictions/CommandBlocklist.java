@@ -0,0 +1,193 @@
+package com.muzlik.pvpcombat.restrictions;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches commands against the groups blocked during combat. Each configured label is resolved
+ * through the server's command map to every alias and {@code plugin:label} form registered for
+ * the same command, and all of them go into one hash index. A lookup lowercases only the label
+ * of the typed command, up to the first space, and does a single map lookup.
+ * The index is built on first use after startup or a reload so commands registered by plugins
+ * that enable after this one are included.
+ */
+public class CommandBlocklist {
+
+    private static final List<String> DEFAULT_TELEPORT_COMMANDS = Arrays.asList(
+        "tp", "teleport", "home", "spawn", "warp", "warps", "tpa", "tpaccept", "back", "wild", "rtp");
+
+    /**
+     * A named set of commands sharing a blocked message.
+     */
+    public static final class CommandGroup {
+        private final String name;
+        private final String message;
+
+        private CommandGroup(String name, String message) {
+            this.name = name;
+            this.message = message;
+        }
+
+        public String getName() { return name; }
+        public String getMessage() { return message; }
+    }
+
+    private final PvPCombatPlugin plugin;
+    private volatile Map<String, CommandGroup> index;
+
+    public CommandBlocklist(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Drops the index so the next lookup rebuilds it from config and the command map.
+     */
+    public void invalidate() {
+        index = null;
+    }
+
+    /**
+     * Gets the group blocking a command message such as {@code "/tp Steve"}, or null if it is allowed.
+     */
+    public CommandGroup match(String message) {
+        String label = label(message);
+        if (label.isEmpty()) {
+            return null;
+        }
+
+        Map<String, CommandGroup> current = index;
+        if (current == null) {
+            current = build();
+            index = current;
+        }
+
+        CommandGroup group = current.get(label);
+        if (group == null) {
+            // Namespaced form of a command that was not in the command map when the index was built
+            int colon = label.indexOf(':');
+            if (colon >= 0 && colon < label.length() - 1) {
+                group = current.get(label.substring(colon + 1));
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Gets the lowercased command label of a message, without the leading slash or arguments.
+     */
+    public static String label(String message) {
+        int start = message.startsWith("/") ? 1 : 0;
+        int end = message.indexOf(' ', start);
+        return message.substring(start, end < 0 ? message.length() : end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the number of labels currently indexed, or 0 before the first lookup.
+     */
+    public int getIndexedLabelCount() {
+        Map<String, CommandGroup> current = index;
+        return current != null ? current.size() : 0;
+    }
+
+    private Map<String, CommandGroup> build() {
+        FileConfiguration config = plugin.getConfig();
+        Map<String, CommandGroup> built = new HashMap<>();
+        CommandMap commandMap = findCommandMap();
+        Map<String, Command> knownCommands = commandMap instanceof SimpleCommandMap
+            ? ((SimpleCommandMap) commandMap).getKnownCommands() : Map.of();
+
+        // The teleport group predates configurable groups and keeps its own section
+        if (config.getBoolean("restrictions.teleport.enabled", true)) {
+            List<String> commands = config.getStringList("restrictions.teleport.blocked-commands");
+            if (commands.isEmpty()) {
+                commands = DEFAULT_TELEPORT_COMMANDS;
+            }
+            CommandGroup group = new CommandGroup("teleport", color(config.getString(
+                "restrictions.teleport.blocked-message", "&cYou cannot use teleport commands during combat!")));
+            addGroup(built, group, commands, commandMap, knownCommands);
+        }
+
+        ConfigurationSection groups = config.getConfigurationSection("restrictions.command-groups");
+        if (groups != null) {
+            for (String name : groups.getKeys(false)) {
+                ConfigurationSection section = groups.getConfigurationSection(name);
+                if (section == null || !section.getBoolean("enabled", true)) {
+                    continue;
+                }
+                CommandGroup group = new CommandGroup(name, color(section.getString(
+                    "blocked-message", "&cYou cannot use that command during combat!")));
+                addGroup(built, group, section.getStringList("commands"), commandMap, knownCommands);
+            }
+        }
+
+        plugin.getLogger().fine("Command blocklist built with " + built.size() + " labels");
+        return built;
+    }
+
+    private void addGroup(Map<String, CommandGroup> built, CommandGroup group, List<String> labels,
+                          CommandMap commandMap, Map<String, Command> knownCommands) {
+        for (String configured : labels) {
+            String label = label(configured.trim());
+            if (label.isEmpty()) {
+                continue;
+            }
+            for (String resolved : resolve(label, commandMap, knownCommands)) {
+                // The first group to claim a label keeps it
+                built.putIfAbsent(resolved, group);
+            }
+        }
+    }
+
+    /**
+     * Expands a label to every label that runs the same command.
+     */
+    private Set<String> resolve(String label, CommandMap commandMap, Map<String, Command> knownCommands) {
+        Set<String> labels = new HashSet<>();
+        labels.add(label);
+        Command command = commandMap != null ? commandMap.getCommand(label) : null;
+        if (command == null) {
+            return labels;
+        }
+
+        labels.add(command.getName().toLowerCase(Locale.ROOT));
+        for (String alias : command.getAliases()) {
+            labels.add(alias.toLowerCase(Locale.ROOT));
+        }
+        for (Map.Entry<String, Command> entry : knownCommands.entrySet()) {
+            if (entry.getValue() == command) {
+                labels.add(entry.getKey().toLowerCase(Locale.ROOT));
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Gets the server's command map. It is not part of the Bukkit API, so it is looked up reflectively.
+     */
+    private CommandMap findCommandMap() {
+        try {
+            Object commandMap = plugin.getServer().getClass().getMethod("getCommandMap").invoke(plugin.getServer());
+            return commandMap instanceof CommandMap ? (CommandMap) commandMap : null;
+        } catch (Exception e) {
+            plugin.getLogger().fine("Could not access command map, aliases will not be resolved: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String color(String message) {
+        return ChatColor.translateAlternateColorCodes('&', message);
+    }
+}
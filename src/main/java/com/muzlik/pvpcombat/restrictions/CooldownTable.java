@@ -0,0 +1,323 @@
+package com.muzlik.pvpcombat.restrictions;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stores restriction cooldowns as expiry ticks in flat arrays, one row of
+ * {@link CooldownType} slots per player. Time is counted in server ticks by the table's own
+ * 1-tick task, matching the item cooldowns Minecraft shows. Every cooldown that is set also
+ * goes into an expiry queue; the task drains it and notifies the listener exactly once per
+ * cooldown that actually ran out, skipping entries that were overwritten or cleared.
+ */
+public class CooldownTable implements Runnable {
+
+    /**
+     * Receives cooldowns that ran out, on the main thread.
+     */
+    @FunctionalInterface
+    public interface ExpiryListener {
+        void onCooldownExpired(UUID playerId, CooldownType type);
+    }
+
+    private static final CooldownType[] TYPES = CooldownType.values();
+    private static final int WIDTH = TYPES.length;
+    private static final int INITIAL_ROWS = 64;
+    // Expiry tick 0 marks an empty slot; the clock starts at 1
+    private static final long NONE = 0L;
+
+    /**
+     * A queued expiry. Stale once the slot holds a different tick or the row was reused.
+     */
+    private record Expiry(long tick, int row, int generation, int type) implements Comparable<Expiry> {
+        @Override
+        public int compareTo(Expiry other) {
+            return Long.compare(tick, other.tick);
+        }
+    }
+
+    private final PvPCombatPlugin plugin;
+    private final Map<UUID, Integer> rows;
+    private final PriorityQueue<Expiry> expiryQueue;
+    private final LongAdder expiredCount;
+
+    // Guarded by this
+    private long[] expiries;
+    private UUID[] owners;
+    private int[] generations;
+    private boolean[] released;
+    private int[] freeRows;
+    private int freeCount;
+    private int nextRow;
+    private long currentTick = 1L;
+
+    private volatile ExpiryListener listener;
+    private BukkitTask task;
+
+    public CooldownTable(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.rows = new HashMap<>();
+        this.expiryQueue = new PriorityQueue<>();
+        this.expiredCount = new LongAdder();
+        this.expiries = new long[INITIAL_ROWS * WIDTH];
+        this.owners = new UUID[INITIAL_ROWS];
+        this.generations = new int[INITIAL_ROWS];
+        this.released = new boolean[INITIAL_ROWS];
+        this.freeRows = new int[INITIAL_ROWS];
+    }
+
+    /**
+     * Sets the listener notified when a cooldown runs out.
+     */
+    public void setExpiryListener(ExpiryListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the tick clock and expiry processing.
+     */
+    public void start() {
+        if (task == null) {
+            task = AsyncUtils.runSyncTimer(plugin, this, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops the tick clock. Remaining cooldowns are frozen until restarted.
+     */
+    public void stop() {
+        AsyncUtils.cancelTask(task);
+        task = null;
+    }
+
+    /**
+     * Starts or restarts a cooldown. A non-positive duration clears it.
+     */
+    public synchronized void set(UUID playerId, CooldownType type, long durationTicks) {
+        if (durationTicks <= 0) {
+            clear(playerId, type);
+            return;
+        }
+        int row = rowFor(playerId);
+        long expiry = currentTick + durationTicks;
+        expiries[row * WIDTH + type.ordinal()] = expiry;
+        expiryQueue.add(new Expiry(expiry, row, generations[row], type.ordinal()));
+    }
+
+    /**
+     * Checks if a cooldown is still running.
+     */
+    public synchronized boolean isOnCooldown(UUID playerId, CooldownType type) {
+        return getRemainingTicks(playerId, type) > 0;
+    }
+
+    /**
+     * Gets the ticks left on a cooldown, or 0 if it is not running.
+     */
+    public synchronized long getRemainingTicks(UUID playerId, CooldownType type) {
+        Integer row = rows.get(playerId);
+        if (row == null) {
+            return 0L;
+        }
+        long expiry = expiries[row * WIDTH + type.ordinal()];
+        return expiry == NONE ? 0L : Math.max(0L, expiry - currentTick);
+    }
+
+    /**
+     * Gets the seconds left on a cooldown, rounded up.
+     */
+    public int getRemainingSeconds(UUID playerId, CooldownType type) {
+        return (int) ((getRemainingTicks(playerId, type) + 19) / 20);
+    }
+
+    /**
+     * Clears a cooldown without notifying the listener.
+     */
+    public synchronized void clear(UUID playerId, CooldownType type) {
+        Integer row = rows.get(playerId);
+        if (row != null) {
+            expiries[row * WIDTH + type.ordinal()] = NONE;
+        }
+    }
+
+    /**
+     * Clears all of a player's cooldowns without notifying the listener.
+     */
+    public synchronized void clearAll(UUID playerId) {
+        Integer row = rows.get(playerId);
+        if (row != null) {
+            Arrays.fill(expiries, row * WIDTH, (row + 1) * WIDTH, NONE);
+        }
+    }
+
+    /**
+     * Gives up a player's row once they go offline. Running cooldowns are kept until they
+     * expire so relogging does not reset them; the row is reclaimed after the last one.
+     */
+    public synchronized void release(UUID playerId) {
+        Integer row = rows.get(playerId);
+        if (row == null) {
+            return;
+        }
+        if (hasActive(row)) {
+            released[row] = true;
+        } else {
+            freeRow(row);
+        }
+    }
+
+    @Override
+    public void run() {
+        List<UUID> expiredPlayers;
+        List<CooldownType> expiredTypes;
+        synchronized (this) {
+            currentTick++;
+            Expiry head = expiryQueue.peek();
+            if (head == null || head.tick() > currentTick) {
+                return;
+            }
+
+            expiredPlayers = new ArrayList<>();
+            expiredTypes = new ArrayList<>();
+            while (head != null && head.tick() <= currentTick) {
+                expiryQueue.poll();
+                int index = head.row() * WIDTH + head.type();
+                if (generations[head.row()] == head.generation() && expiries[index] == head.tick()) {
+                    expiries[index] = NONE;
+                    expiredPlayers.add(owners[head.row()]);
+                    expiredTypes.add(TYPES[head.type()]);
+                    if (released[head.row()] && !hasActive(head.row())) {
+                        freeRow(head.row());
+                    }
+                }
+                head = expiryQueue.peek();
+            }
+        }
+
+        // Notify outside the lock so listeners can query the table
+        ExpiryListener current = listener;
+        for (int i = 0; i < expiredPlayers.size(); i++) {
+            expiredCount.increment();
+            if (current == null) {
+                continue;
+            }
+            try {
+                current.onCooldownExpired(expiredPlayers.get(i), expiredTypes.get(i));
+            } catch (Exception e) {
+                plugin.getLogger().warning("Cooldown expiry handler failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the running cooldowns of one player as remaining ticks.
+     */
+    public synchronized Map<CooldownType, Long> snapshot(UUID playerId) {
+        Map<CooldownType, Long> snapshot = new EnumMap<>(CooldownType.class);
+        Integer row = rows.get(playerId);
+        if (row != null) {
+            copyRow(row, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the running cooldowns of every player as remaining ticks, copied in one pass.
+     */
+    public synchronized Map<UUID, Map<CooldownType, Long>> snapshotAll() {
+        Map<UUID, Map<CooldownType, Long>> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Integer> entry : rows.entrySet()) {
+            Map<CooldownType, Long> row = new EnumMap<>(CooldownType.class);
+            copyRow(entry.getValue(), row);
+            if (!row.isEmpty()) {
+                snapshot.put(entry.getKey(), row);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets table size and expiry figures for monitoring.
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("players", rows.size());
+        stats.put("capacity", owners.length);
+        stats.put("queued-expiries", expiryQueue.size());
+        stats.put("expired", expiredCount.sum());
+        return stats;
+    }
+
+    private void copyRow(int row, Map<CooldownType, Long> target) {
+        int base = row * WIDTH;
+        for (int type = 0; type < WIDTH; type++) {
+            long expiry = expiries[base + type];
+            if (expiry != NONE && expiry > currentTick) {
+                target.put(TYPES[type], expiry - currentTick);
+            }
+        }
+    }
+
+    private boolean hasActive(int row) {
+        int base = row * WIDTH;
+        for (int type = 0; type < WIDTH; type++) {
+            if (expiries[base + type] > currentTick) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int rowFor(UUID playerId) {
+        Integer existing = rows.get(playerId);
+        if (existing != null) {
+            released[existing] = false;
+            return existing;
+        }
+
+        int row;
+        if (freeCount > 0) {
+            row = freeRows[--freeCount];
+        } else {
+            if (nextRow == owners.length) {
+                grow();
+            }
+            row = nextRow++;
+        }
+        owners[row] = playerId;
+        released[row] = false;
+        rows.put(playerId, row);
+        return row;
+    }
+
+    private void freeRow(int row) {
+        rows.remove(owners[row]);
+        owners[row] = null;
+        released[row] = false;
+        // Invalidates queued expiries that still point at this row
+        generations[row]++;
+        Arrays.fill(expiries, row * WIDTH, (row + 1) * WIDTH, NONE);
+        freeRows[freeCount++] = row;
+    }
+
+    private void grow() {
+        int capacity = owners.length * 2;
+        expiries = Arrays.copyOf(expiries, capacity * WIDTH);
+        owners = Arrays.copyOf(owners, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        released = Arrays.copyOf(released, capacity);
+        freeRows = Arrays.copyOf(freeRows, capacity);
+    }
+}
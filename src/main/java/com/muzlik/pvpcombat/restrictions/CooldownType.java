@@ -0,0 +1,44 @@
+package com.muzlik.pvpcombat.restrictions;
+
+/**
+ * Cooldowns tracked per player by the {@link CooldownTable}. Each type owns one slot in a player's row.
+ */
+public enum CooldownType {
+    ENDER_PEARL("ender_pearl", "Ender Pearl"),
+    ELYTRA("elytra", "Elytra"),
+    ELYTRA_BOOST("elytra_boost", "Elytra Boost"),
+    GOLDEN_APPLE("golden_apple", "Golden Apple"),
+    ENCHANTED_GOLDEN_APPLE("enchanted_golden_apple", "Enchanted Golden Apple"),
+    TRIDENT("trident", "Trident");
+
+    private final String id;
+    private final String displayName;
+
+    CooldownType(String id, String displayName) {
+        this.id = id;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Gets the action type name used by {@code applyCooldown} callers.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Gets the cooldown type for an action type name, or null if none matches.
+     */
+    public static CooldownType fromId(String id) {
+        for (CooldownType type : values()) {
+            if (type.id.equals(id)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
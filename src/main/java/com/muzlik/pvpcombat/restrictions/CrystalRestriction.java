@@ -1,5 +1,6 @@
 package com.muzlik.pvpcombat.restrictions;
 
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
 /**
@@ -17,41 +18,16 @@ public class CrystalRestriction {
      * Checks if a player can place an end crystal.
      */
     public boolean canPlaceCrystal(Player player) {
-        // Check if player is in combat
-        if (!restrictionManager.getCombatManager().isInCombat(player)) {
-            return true;
-        }
-
-        // Check if crystal restrictions are enabled
-        boolean enabled = com.muzlik.pvpcombat.core.PvPCombatPlugin.getInstance()
-            .getConfig().getBoolean("restrictions.crystal.enabled", true);
-        if (!enabled) {
-            return true;
-        }
-
-        // Check if placement is blocked
-        return !com.muzlik.pvpcombat.core.PvPCombatPlugin.getInstance()
-            .getConfig().getBoolean("restrictions.crystal.block-placement", true);
+        RestrictionEngine.Rule rule = restrictionManager.getRestrictionEngine()
+            .lookup(RestrictionEngine.Trigger.USE_ITEM, Material.END_CRYSTAL);
+        return rule.isAllowed() || !restrictionManager.getCombatManager().isInCombat(player);
     }
 
     /**
      * Checks if a player can break an end crystal.
      */
     public boolean canBreakCrystal(Player player) {
-        // Check if player is in combat
-        if (!restrictionManager.getCombatManager().isInCombat(player)) {
-            return true;
-        }
-
-        // Check if crystal restrictions are enabled
-        boolean enabled = com.muzlik.pvpcombat.core.PvPCombatPlugin.getInstance()
-            .getConfig().getBoolean("restrictions.crystal.enabled", true);
-        if (!enabled) {
-            return true;
-        }
-
-        // Check if breaking is blocked
-        return !com.muzlik.pvpcombat.core.PvPCombatPlugin.getInstance()
-            .getConfig().getBoolean("restrictions.crystal.block-breaking", false);
+        return !restrictionManager.getRestrictionEngine().isCrystalBreakBlocked()
+            || !restrictionManager.getCombatManager().isInCombat(player);
     }
 }
@@ -2,12 +2,11 @@ package com.muzlik.pvpcombat.restrictions;
 
 import com.muzlik.pvpcombat.data.RestrictionData;
 import org.bukkit.entity.Player;
-import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
 
 /**
- * Handles elytra restrictions during combat.
+ * Handles elytra restrictions during combat. Settings come precompiled from the
+ * {@link RestrictionEngine}, so none of the checks read config.
  */
 public class ElytraRestriction {
 
@@ -18,30 +17,33 @@ public class ElytraRestriction {
     }
 
     /**
-     * Checks if a player can use elytra (glide or boost).
+     * Checks if a player can use elytra (glide or boost). The player's restriction data is
+     * only looked up once the compiled altitude and time checks have passed.
      */
-    public boolean canUse(Player player, RestrictionData restrictionData) {
-        // Check if glide is blocked
-        if (restrictionData.isElytraGlideBlocked()) {
-            return false;
+    public boolean canUse(Player player) {
+        RestrictionEngine.ElytraSettings settings = settings();
+        if (!settings.enabled()) {
+            return true;
         }
 
-        // Check for active elytra cooldown
-        if (restrictionData.isOnCooldown("elytra")) {
+        // Check altitude-based restrictions
+        if (isAltitudeRestricted(player, settings)) {
             return false;
         }
 
-        // Check altitude-based restrictions
-        if (isAltitudeRestricted(player)) {
+        // Check time-based restrictions
+        if (isTimeRestricted(player, settings)) {
             return false;
         }
 
-        // Check time-based restrictions
-        if (isTimeRestricted(player)) {
+        // Check if glide is blocked
+        RestrictionData restrictionData = restrictionManager.getOrCreateRestrictionData(player);
+        if (restrictionData.isElytraGlideBlocked()) {
             return false;
         }
 
-        return true;
+        // Check for active elytra cooldown
+        return !restrictionData.isOnCooldown(CooldownType.ELYTRA);
     }
 
     /**
@@ -68,7 +70,7 @@ public class ElytraRestriction {
         // Apply cooldown for boosting
         int boostCooldown = calculateBoostCooldown(player);
         if (boostCooldown > 0) {
-            restrictionData.setCooldown("elytra_boost", boostCooldown);
+            restrictionData.setCooldown(CooldownType.ELYTRA_BOOST, boostCooldown);
         }
 
         restrictionData.setLastElytraBoost(java.time.LocalDateTime.now());
@@ -93,9 +95,7 @@ public class ElytraRestriction {
      * Checks if glide should be blocked based on altitude.
      */
     private boolean shouldBlockGlide(Player player, double altitude) {
-        // Config min safe height (config.getDouble("elytra.min-height", 100)).
-        double minHeight = PvPCombatPlugin.getInstance().getConfig().getDouble("restrictions.elytra.min-safe-height", 10.0);
-        return altitude < minHeight;
+        return altitude < settings().minSafeHeight();
     }
 
     /**
@@ -103,8 +103,7 @@ public class ElytraRestriction {
      */
     private boolean canTakeoff(Player player) {
         // Takeoff restrictions (e.g., fireworks boost check, cancel if config).
-        boolean blockTakeoff = PvPCombatPlugin.getInstance().getConfig().getBoolean("restrictions.elytra.block-takeoff", true);
-        if (blockTakeoff) {
+        if (settings().takeoffBlocked()) {
             return false;
         }
         // Fireworks boost check
@@ -117,31 +116,23 @@ public class ElytraRestriction {
     /**
      * Checks if altitude-based restrictions apply.
      */
-    private boolean isAltitudeRestricted(Player player) {
-        String worldName = player.getWorld().getName();
-        // World-specific altitude (config.getConfigurationSection("elytra.worlds." + world)).
-        ConfigurationSection worldSection = PvPCombatPlugin.getInstance().getConfig().getConfigurationSection("restrictions.elytra.worlds." + worldName);
-        if (worldSection != null) {
-            double minHeight = worldSection.getDouble("min-safe-height", -1);
-            if (minHeight > 0 && player.getLocation().getY() < minHeight) {
-                return true;
-            }
+    private boolean isAltitudeRestricted(Player player, RestrictionEngine.ElytraSettings settings) {
+        if (settings.worldMinSafeHeights().isEmpty()) {
+            return false;
         }
-        return false;
+        double minHeight = settings.getWorldMinSafeHeight(player.getWorld().getName());
+        return minHeight > 0 && player.getLocation().getY() < minHeight;
     }
 
     /**
      * Checks if time-based restrictions apply.
      */
-    private boolean isTimeRestricted(Player player) {
-        long time = player.getWorld().getTime();
-        // Day/night restrictions (config.getBoolean("elytra.restrict-night") && time > night).
-        boolean blockNight = PvPCombatPlugin.getInstance().getConfig().getBoolean("restrictions.elytra.time-restrictions.block-at-night", false);
-        boolean isNight = time >= 13000 || time <= 1000;
-        if (blockNight && isNight) {
-            return true;
+    private boolean isTimeRestricted(Player player, RestrictionEngine.ElytraSettings settings) {
+        if (!settings.blockAtNight()) {
+            return false;
         }
-        return false;
+        long time = player.getWorld().getTime();
+        return time >= 13000 || time <= 1000;
     }
 
     /**
@@ -151,24 +142,17 @@ public class ElytraRestriction {
         if (!restrictionManager.getCombatManager().isInCombat(player)) {
             return 0;
         }
-        // Config boost cooldown.
-        return PvPCombatPlugin.getInstance().getConfig().getInt("restrictions.elytra.boost-cooldown", 30);
+        return settings().boostCooldownSeconds();
+    }
+
+    private RestrictionEngine.ElytraSettings settings() {
+        return restrictionManager.getRestrictionEngine().getElytraSettings();
     }
 
     /**
      * Gets remaining cooldown for elytra actions.
      */
-    public int getRemainingCooldown(Player player, RestrictionData restrictionData, String actionType) {
-        if (!restrictionData.isOnCooldown(actionType)) {
-            return 0;
-        }
-
-        java.time.LocalDateTime expiry = restrictionData.getActiveCooldowns().get(actionType);
-        if (expiry != null) {
-            long secondsLeft = java.time.Duration.between(java.time.LocalDateTime.now(), expiry).getSeconds();
-            return Math.max(0, (int) secondsLeft);
-        }
-
-        return 0;
+    public int getRemainingCooldown(Player player, RestrictionData restrictionData, CooldownType type) {
+        return restrictionData.getRemainingCooldownSeconds(type);
     }
 }
\ No newline at end of file
@@ -1,8 +1,8 @@
 package com.muzlik.pvpcombat.restrictions;
 
 import com.muzlik.pvpcombat.data.RestrictionData;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 
 /**
  * Handles ender pearl restrictions during combat.
@@ -20,7 +20,7 @@ public class EnderPearlRestriction {
      */
     public boolean canUse(Player player, RestrictionData restrictionData) {
         // Check for active ender pearl cooldown
-        if (restrictionData.isOnCooldown("ender_pearl")) {
+        if (restrictionData.isOnCooldown(CooldownType.ENDER_PEARL)) {
             return false;
         }
 
@@ -32,77 +32,25 @@ public class EnderPearlRestriction {
         return true;
     }
 
-    /**
-     * Applies ender pearl usage restrictions.
-     */
-    public void onEnderPearlUsed(Player player, RestrictionData restrictionData) {
-        // Calculate cooldown based on combat status and configuration
-        int cooldownSeconds = calculateCooldown(player);
-
-        if (cooldownSeconds > 0) {
-            restrictionData.setCooldown("ender_pearl", cooldownSeconds);
-            restrictionManager.applyCooldown(player, "ender_pearl", cooldownSeconds);
-            
-            // Apply actual Minecraft cooldown to the player
-            // Convert seconds to ticks (20 ticks = 1 second)
-            int cooldownTicks = cooldownSeconds * 20;
-            player.setCooldown(org.bukkit.Material.ENDER_PEARL, cooldownTicks);
-            
-            // Send message to player
-            player.sendMessage(org.bukkit.ChatColor.YELLOW + "Ender Pearl cooldown: " + cooldownSeconds + " seconds");
-        }
-
-        restrictionData.setLastEnderPearlUse(java.time.LocalDateTime.now());
-    }
-
     /**
      * Checks if ender pearl usage is blocked entirely during combat.
      */
     private boolean isPearlUsageBlocked(Player player) {
-        // Config-based block-usage check.
-        return PvPCombatPlugin.getInstance().getConfig().getBoolean("restrictions.enderpearl.block-usage", false);
+        return pearlRule().getVerdict() == RestrictionEngine.Verdict.DENY;
     }
 
-    /**
-     * Calculates the cooldown for ender pearl usage.
-     */
-    private int calculateCooldown(Player player) {
-        int baseCooldown = PvPCombatPlugin.getInstance().getConfig().getInt("restrictions.enderpearl.cooldown", 10);
-        boolean inCombat = restrictionManager.getCombatManager().isInCombat(player);
-        
-        if (!inCombat) {
-            // Check if cooldown should apply outside combat
-            boolean cooldownOutsideCombat = PvPCombatPlugin.getInstance().getConfig()
-                .getBoolean("restrictions.enderpearl.cooldown-outside-combat", false);
-            
-            if (!cooldownOutsideCombat) {
-                return 0; // No cooldown outside combat
-            }
-            
-            return baseCooldown; // Base cooldown outside combat
-        }
-        
-        // In combat: apply multiplier
-        double multiplier = PvPCombatPlugin.getInstance().getConfig()
-            .getDouble("restrictions.enderpearl.combat-cooldown-multiplier", 2.0);
-        return (int) (baseCooldown * multiplier);
+    private RestrictionEngine.Rule pearlRule() {
+        return restrictionManager.getRestrictionEngine().lookup(RestrictionEngine.Trigger.LAUNCH, Material.ENDER_PEARL);
     }
 
     /**
      * Gets the remaining cooldown time for ender pearls.
      */
     public int getRemainingCooldown(Player player, RestrictionData restrictionData) {
-        if (!restrictionData.isOnCooldown("ender_pearl")) {
+        if (!restrictionData.isOnCooldown(CooldownType.ENDER_PEARL)) {
             return 0;
         }
 
-        // Calculate remaining seconds
-        java.time.LocalDateTime expiry = restrictionData.getActiveCooldowns().get("ender_pearl");
-        if (expiry != null) {
-            long secondsLeft = java.time.Duration.between(java.time.LocalDateTime.now(), expiry).getSeconds();
-            return Math.max(0, (int) secondsLeft);
-        }
-
-        return 0;
+        return restrictionData.getRemainingCooldownSeconds(CooldownType.ENDER_PEARL);
     }
 }
\ No newline at end of file
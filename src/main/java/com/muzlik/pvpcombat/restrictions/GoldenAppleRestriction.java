@@ -1,7 +1,7 @@
 package com.muzlik.pvpcombat.restrictions;
 
-import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.RestrictionData;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
 /**
@@ -18,135 +18,36 @@ public class GoldenAppleRestriction {
      * Checks if player can use golden apple.
      */
     public boolean canUseGoldenApple(Player player) {
-        if (!PvPCombatPlugin.getInstance().getConfig().getBoolean("restrictions.golden-apple.enabled", true)) {
-            return true;
-        }
-
-        if (!restrictionManager.getCombatManager().isInCombat(player)) {
-            return true;
-        }
-
-        // Check if usage is completely blocked during combat
-        if (PvPCombatPlugin.getInstance().getConfig().getBoolean("restrictions.golden-apple.block-usage", false)) {
-            return false;
-        }
-
-        // Check cooldown
-        RestrictionData restrictionData = restrictionManager.getOrCreateRestrictionData(player);
-        return !restrictionData.isOnCooldown("golden_apple");
+        return canConsume(player, Material.GOLDEN_APPLE);
     }
 
     /**
      * Checks if player can use enchanted golden apple.
      */
     public boolean canUseEnchantedGoldenApple(Player player) {
-        if (!PvPCombatPlugin.getInstance().getConfig().getBoolean("restrictions.enchanted-golden-apple.enabled", true)) {
-            return true;
-        }
+        return canConsume(player, Material.ENCHANTED_GOLDEN_APPLE);
+    }
 
-        if (!restrictionManager.getCombatManager().isInCombat(player)) {
+    /**
+     * Checks the compiled consume rule for an apple against the player's combat state and cooldown.
+     */
+    private boolean canConsume(Player player, Material material) {
+        RestrictionEngine.Rule rule = consumeRule(material);
+        if (rule.isAllowed() || !restrictionManager.getCombatManager().isInCombat(player)) {
             return true;
         }
 
         // Check if usage is completely blocked during combat
-        if (PvPCombatPlugin.getInstance().getConfig().getBoolean("restrictions.enchanted-golden-apple.block-usage", false)) {
+        if (rule.getVerdict() == RestrictionEngine.Verdict.DENY) {
             return false;
         }
 
         // Check cooldown
         RestrictionData restrictionData = restrictionManager.getOrCreateRestrictionData(player);
-        return !restrictionData.isOnCooldown("enchanted_golden_apple");
+        return !restrictionData.isOnCooldown(rule.getAction().getCooldownType());
     }
 
-    /**
-     * Calculates golden apple cooldown based on combat status.
-     */
-    private int calculateGoldenAppleCooldown(Player player) {
-        int baseCooldown = PvPCombatPlugin.getInstance().getConfig().getInt("restrictions.golden-apple.cooldown", 3);
-        boolean inCombat = restrictionManager.getCombatManager().isInCombat(player);
-        
-        if (!inCombat) {
-            // Check if cooldown should apply outside combat
-            boolean cooldownOutsideCombat = PvPCombatPlugin.getInstance().getConfig()
-                .getBoolean("restrictions.golden-apple.cooldown-outside-combat", false);
-            
-            if (!cooldownOutsideCombat) {
-                return 0; // No cooldown outside combat
-            }
-            
-            return baseCooldown; // Base cooldown outside combat
-        }
-        
-        // In combat: apply multiplier
-        double multiplier = PvPCombatPlugin.getInstance().getConfig()
-            .getDouble("restrictions.golden-apple.combat-cooldown-multiplier", 1.5);
-        return (int) (baseCooldown * multiplier);
-    }
-
-    /**
-     * Calculates enchanted golden apple cooldown based on combat status.
-     */
-    private int calculateEnchantedGoldenAppleCooldown(Player player) {
-        int baseCooldown = PvPCombatPlugin.getInstance().getConfig().getInt("restrictions.enchanted-golden-apple.cooldown", 8);
-        boolean inCombat = restrictionManager.getCombatManager().isInCombat(player);
-        
-        if (!inCombat) {
-            // Check if cooldown should apply outside combat
-            boolean cooldownOutsideCombat = PvPCombatPlugin.getInstance().getConfig()
-                .getBoolean("restrictions.enchanted-golden-apple.cooldown-outside-combat", false);
-            
-            if (!cooldownOutsideCombat) {
-                return 0; // No cooldown outside combat
-            }
-            
-            return baseCooldown; // Base cooldown outside combat
-        }
-        
-        // In combat: apply multiplier
-        double multiplier = PvPCombatPlugin.getInstance().getConfig()
-            .getDouble("restrictions.enchanted-golden-apple.combat-cooldown-multiplier", 2.0);
-        return (int) (baseCooldown * multiplier);
-    }
-
-    /**
-     * Applies golden apple usage restrictions.
-     */
-    public void onGoldenAppleUsed(Player player, RestrictionData restrictionData) {
-        int cooldownSeconds = calculateGoldenAppleCooldown(player);
-
-        if (cooldownSeconds > 0) {
-            restrictionData.setCooldown("golden_apple", cooldownSeconds);
-            restrictionManager.applyCooldown(player, "golden_apple", cooldownSeconds);
-            
-            // Apply actual Minecraft cooldown to the player
-            int cooldownTicks = cooldownSeconds * 20;
-            player.setCooldown(org.bukkit.Material.GOLDEN_APPLE, cooldownTicks);
-            
-            // Send message to player
-            player.sendMessage(org.bukkit.ChatColor.YELLOW + "Golden Apple cooldown: " + cooldownSeconds + " seconds");
-        }
-
-        restrictionData.setLastGoldenAppleUse(java.time.LocalDateTime.now());
-    }
-
-    /**
-     * Applies enchanted golden apple usage restrictions.
-     */
-    public void onEnchantedGoldenAppleUsed(Player player, RestrictionData restrictionData) {
-        int cooldownSeconds = calculateEnchantedGoldenAppleCooldown(player);
-
-        if (cooldownSeconds > 0) {
-            restrictionData.setCooldown("enchanted_golden_apple", cooldownSeconds);
-            restrictionManager.applyCooldown(player, "enchanted_golden_apple", cooldownSeconds);
-            
-            // Apply actual Minecraft cooldown to the player
-            int cooldownTicks = cooldownSeconds * 20;
-            player.setCooldown(org.bukkit.Material.ENCHANTED_GOLDEN_APPLE, cooldownTicks);
-            
-            // Send message to player
-            player.sendMessage(org.bukkit.ChatColor.GOLD + "Enchanted Golden Apple cooldown: " + cooldownSeconds + " seconds");
-        }
-
-        restrictionData.setLastEnchantedGoldenAppleUse(java.time.LocalDateTime.now());
+    private RestrictionEngine.Rule consumeRule(Material material) {
+        return restrictionManager.getRestrictionEngine().lookup(RestrictionEngine.Trigger.CONSUME, material);
     }
 }
@@ -0,0 +1,36 @@
+package com.muzlik.pvpcombat.restrictions;
+
+/**
+ * Actions whose availability during combat is checked by the restriction manager.
+ */
+public enum RestrictedAction {
+    ENDER_PEARL(CooldownType.ENDER_PEARL),
+    ELYTRA(CooldownType.ELYTRA),
+    GOLDEN_APPLE(CooldownType.GOLDEN_APPLE),
+    ENCHANTED_GOLDEN_APPLE(CooldownType.ENCHANTED_GOLDEN_APPLE);
+
+    private final CooldownType cooldownType;
+
+    RestrictedAction(CooldownType cooldownType) {
+        this.cooldownType = cooldownType;
+    }
+
+    /**
+     * Gets the cooldown that gates this action.
+     */
+    public CooldownType getCooldownType() {
+        return cooldownType;
+    }
+
+    /**
+     * Gets the action gated by a cooldown, or null if none is.
+     */
+    public static RestrictedAction fromCooldownType(CooldownType cooldownType) {
+        for (RestrictedAction action : values()) {
+            if (action.cooldownType == cooldownType) {
+                return action;
+            }
+        }
+        return null;
+    }
+}
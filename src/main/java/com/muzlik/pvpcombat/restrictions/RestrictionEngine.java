@@ -0,0 +1,302 @@
+package com.muzlik.pvpcombat.restrictions;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EnderPearl;
+import org.bukkit.entity.Projectile;
+import org.bukkit.entity.Trident;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiles the {@code restrictions:} config into per-trigger lookup tables indexed by
+ * {@link Material} ordinal. An event handler looks up the rule for its trigger and material
+ * once and gets allow, deny or cooldown without reading config or combat state; only
+ * non-allow rules go on to check whether the player is in combat.
+ * Tables are rebuilt as a whole on {@link #compile()} and swapped in atomically.
+ */
+public class RestrictionEngine {
+
+    /**
+     * The kind of player action an event represents.
+     */
+    public enum Trigger {
+        /** A projectile launched by the player, keyed by the thrown item. */
+        LAUNCH,
+        /** Right or left click with an item in hand, keyed by the item. */
+        USE_ITEM,
+        /** Interaction with a block, keyed by the clicked block. */
+        USE_BLOCK,
+        /** Eating or drinking an item. */
+        CONSUME
+    }
+
+    /**
+     * What happens when a player in combat performs the action.
+     */
+    public enum Verdict {
+        ALLOW,
+        DENY,
+        /** Allowed unless the player's cooldown for the action is still running. */
+        COOLDOWN
+    }
+
+    /**
+     * A compiled decision for one trigger and material.
+     */
+    public static final class Rule {
+
+        /** Shared rule for everything the config does not restrict. */
+        public static final Rule ALLOW = new Rule(Verdict.ALLOW, null, null, null, null, false, false, 0, false, 1.0);
+
+        private final Verdict verdict;
+        private final RestrictedAction action;
+        private final String message;
+        private final String logTag;
+        private final String logName;
+        private final boolean blockTargetOnly;
+        private final boolean riptideOnly;
+        private final int baseCooldownSeconds;
+        private final boolean cooldownOutsideCombat;
+        private final double combatCooldownMultiplier;
+
+        private Rule(Verdict verdict, RestrictedAction action, String message, String logTag, String logName,
+                     boolean blockTargetOnly, boolean riptideOnly, int baseCooldownSeconds,
+                     boolean cooldownOutsideCombat, double combatCooldownMultiplier) {
+            this.verdict = verdict;
+            this.action = action;
+            this.message = message;
+            this.logTag = logTag;
+            this.logName = logName;
+            this.blockTargetOnly = blockTargetOnly;
+            this.riptideOnly = riptideOnly;
+            this.baseCooldownSeconds = baseCooldownSeconds;
+            this.cooldownOutsideCombat = cooldownOutsideCombat;
+            this.combatCooldownMultiplier = combatCooldownMultiplier;
+        }
+
+        private static Rule deny(String message, String logTag, String logName) {
+            return new Rule(Verdict.DENY, null, message, logTag, logName, false, false, 0, false, 1.0);
+        }
+
+        public Verdict getVerdict() { return verdict; }
+        public boolean isAllowed() { return verdict == Verdict.ALLOW; }
+        public RestrictedAction getAction() { return action; }
+        public String getMessage() { return message; }
+
+        /**
+         * Gets the message for a player whose cooldown for this action is still running.
+         */
+        public String getCooldownMessage(int remainingSeconds) { return message + remainingSeconds + "s"; }
+
+        /**
+         * Gets the console log tag, or null if denials are not logged.
+         */
+        public String getLogTag() { return logTag; }
+        public String getLogName() { return logName; }
+
+        /**
+         * Checks if the rule only applies when the item is used on a block.
+         */
+        public boolean isBlockTargetOnly() { return blockTargetOnly; }
+
+        /**
+         * Checks if the rule only applies to items enchanted with riptide.
+         */
+        public boolean isRiptideOnly() { return riptideOnly; }
+
+        /**
+         * Gets the cooldown to apply after the action, in seconds.
+         */
+        public int getCooldownSeconds(boolean inCombat) {
+            if (verdict != Verdict.COOLDOWN) {
+                return 0;
+            }
+            if (!inCombat) {
+                return cooldownOutsideCombat ? baseCooldownSeconds : 0;
+            }
+            return (int) (baseCooldownSeconds * combatCooldownMultiplier);
+        }
+    }
+
+    /**
+     * Elytra settings, read once per compile so boost and takeoff checks need no config lookups.
+     *
+     * @param worldMinSafeHeights per-world heights below which elytra use is blocked
+     */
+    public record ElytraSettings(boolean enabled, boolean takeoffBlocked, double minSafeHeight,
+                                 Map<String, Double> worldMinSafeHeights, boolean blockAtNight,
+                                 int boostCooldownSeconds) {
+
+        /**
+         * Gets the world's minimum safe height, or a non-positive value if it has none.
+         */
+        public double getWorldMinSafeHeight(String worldName) {
+            return worldMinSafeHeights.getOrDefault(worldName, -1.0);
+        }
+    }
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final Trigger[] TRIGGERS = Trigger.values();
+
+    private final PvPCombatPlugin plugin;
+
+    // Rebuilt together by compile(); tables[trigger][material]
+    private volatile Rule[][] tables;
+    private volatile boolean elytraGlideBlocked;
+    private volatile ElytraSettings elytraSettings;
+    private volatile boolean crystalBreakBlocked;
+
+    public RestrictionEngine(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        compile();
+    }
+
+    /**
+     * Rebuilds the lookup tables from the current config.
+     */
+    public void compile() {
+        FileConfiguration config = plugin.getConfig();
+        Rule[][] next = new Rule[TRIGGERS.length][];
+        for (Trigger trigger : TRIGGERS) {
+            Rule[] table = new Rule[MATERIALS.length];
+            Arrays.fill(table, Rule.ALLOW);
+            next[trigger.ordinal()] = table;
+        }
+
+        // Ender pearls
+        if (config.getBoolean("restrictions.enderpearl.enabled", true)) {
+            set(next, Trigger.LAUNCH, Material.ENDER_PEARL,
+                config.getBoolean("restrictions.enderpearl.block-usage", false)
+                    ? Rule.deny(ChatColor.RED + "You cannot use Ender Pearls during combat!", "ENDERPEARL", "ender pearl")
+                    : cooldown(config, "enderpearl", RestrictedAction.ENDER_PEARL, 10, 2.0,
+                        "Ender Pearls", "ENDERPEARL", "ender pearl"));
+        }
+
+        // Golden apples
+        if (config.getBoolean("restrictions.golden-apple.enabled", true)) {
+            set(next, Trigger.CONSUME, Material.GOLDEN_APPLE,
+                config.getBoolean("restrictions.golden-apple.block-usage", false)
+                    ? Rule.deny(ChatColor.RED + "You cannot use Golden Apples during combat!", null, null)
+                    : cooldown(config, "golden-apple", RestrictedAction.GOLDEN_APPLE, 3, 1.5,
+                        "Golden Apples", null, null));
+        }
+        if (config.getBoolean("restrictions.enchanted-golden-apple.enabled", true)) {
+            set(next, Trigger.CONSUME, Material.ENCHANTED_GOLDEN_APPLE,
+                config.getBoolean("restrictions.enchanted-golden-apple.block-usage", false)
+                    ? Rule.deny(ChatColor.RED + "You cannot use Enchanted Golden Apples during combat!", null, null)
+                    : cooldown(config, "enchanted-golden-apple", RestrictedAction.ENCHANTED_GOLDEN_APPLE, 8, 2.0,
+                        "Enchanted Golden Apples", null, null));
+        }
+
+        // Tridents: throwing is always blocked in combat, riptide when configured
+        if (config.getBoolean("restrictions.trident.enabled", true)) {
+            set(next, Trigger.LAUNCH, Material.TRIDENT,
+                Rule.deny(ChatColor.RED + "You cannot use tridents during combat!", "TRIDENT", "trident"));
+            if (config.getBoolean("restrictions.trident.block-riptide", true)) {
+                set(next, Trigger.USE_ITEM, Material.TRIDENT, new Rule(Verdict.DENY, null,
+                    ChatColor.RED + "You cannot use Riptide during combat!", "TRIDENT RIPTIDE", "riptide", false, true, 0, false, 1.0));
+            }
+        }
+
+        // End crystals
+        boolean crystalEnabled = config.getBoolean("restrictions.crystal.enabled", true);
+        if (crystalEnabled && config.getBoolean("restrictions.crystal.block-placement", true)) {
+            set(next, Trigger.USE_ITEM, Material.END_CRYSTAL, new Rule(Verdict.DENY, null,
+                ChatColor.RED + "You cannot place End Crystals during combat!", null, null, true, false, 0, false, 1.0));
+        }
+
+        // Respawn anchors
+        if (config.getBoolean("restrictions.respawn-anchor.enabled", true)) {
+            set(next, Trigger.USE_BLOCK, Material.RESPAWN_ANCHOR, Rule.deny(
+                ChatColor.translateAlternateColorCodes('&', config.getString("restrictions.respawn-anchor.blocked-message",
+                    "&cYou cannot use Respawn Anchors during combat!")), "RESPAWN ANCHOR", "respawn anchor"));
+        }
+
+        boolean elytraEnabled = config.getBoolean("restrictions.elytra.enabled", true);
+        this.elytraGlideBlocked = elytraEnabled && config.getBoolean("restrictions.elytra.block-glide", true);
+        this.elytraSettings = elytra(config, elytraEnabled);
+        this.crystalBreakBlocked = crystalEnabled && config.getBoolean("restrictions.crystal.block-breaking", false);
+        this.tables = next;
+    }
+
+    private static Rule cooldown(FileConfiguration config, String section, RestrictedAction action,
+                                 int defaultCooldown, double defaultMultiplier,
+                                 String itemName, String logTag, String logName) {
+        String path = "restrictions." + section + ".";
+        return new Rule(Verdict.COOLDOWN, action, ChatColor.RED + "You cannot use " + itemName + " yet! Cooldown: ",
+            logTag, logName, false, false,
+            Math.max(0, config.getInt(path + "cooldown", defaultCooldown)),
+            config.getBoolean(path + "cooldown-outside-combat", false),
+            config.getDouble(path + "combat-cooldown-multiplier", defaultMultiplier));
+    }
+
+    private static ElytraSettings elytra(FileConfiguration config, boolean enabled) {
+        Map<String, Double> worldHeights = new HashMap<>();
+        ConfigurationSection worlds = config.getConfigurationSection("restrictions.elytra.worlds");
+        if (worlds != null) {
+            for (String world : worlds.getKeys(false)) {
+                double minHeight = worlds.getDouble(world + ".min-safe-height", -1);
+                if (minHeight > 0) {
+                    worldHeights.put(world, minHeight);
+                }
+            }
+        }
+        return new ElytraSettings(enabled,
+            config.getBoolean("restrictions.elytra.block-takeoff", true),
+            config.getDouble("restrictions.elytra.min-safe-height", 10.0),
+            Map.copyOf(worldHeights),
+            config.getBoolean("restrictions.elytra.time-restrictions.block-at-night", false),
+            config.getInt("restrictions.elytra.boost-cooldown", 30));
+    }
+
+    private static void set(Rule[][] tables, Trigger trigger, Material material, Rule rule) {
+        tables[trigger.ordinal()][material.ordinal()] = rule;
+    }
+
+    /**
+     * Gets the rule for an action on a material.
+     */
+    public Rule lookup(Trigger trigger, Material material) {
+        return tables[trigger.ordinal()][material.ordinal()];
+    }
+
+    /**
+     * Gets the item a launched projectile was thrown as, or null for projectiles that are never restricted.
+     */
+    public static Material projectileMaterial(Projectile projectile) {
+        if (projectile instanceof EnderPearl) {
+            return Material.ENDER_PEARL;
+        }
+        if (projectile instanceof Trident) {
+            return Material.TRIDENT;
+        }
+        return null;
+    }
+
+    /**
+     * Checks if gliding is blocked for players in combat.
+     */
+    public boolean isElytraGlideBlocked() {
+        return elytraGlideBlocked;
+    }
+
+    /**
+     * Gets the compiled elytra settings.
+     */
+    public ElytraSettings getElytraSettings() {
+        return elytraSettings;
+    }
+
+    /**
+     * Checks if breaking end crystals is blocked for players in combat.
+     */
+    public boolean isCrystalBreakBlocked() {
+        return crystalBreakBlocked;
+    }
+}
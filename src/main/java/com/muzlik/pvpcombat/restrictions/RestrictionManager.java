@@ -4,10 +4,17 @@ import com.muzlik.pvpcombat.combat.CombatManager;
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.RestrictionData;
 import com.muzlik.pvpcombat.interfaces.IRestrictionManager;
+import com.muzlik.pvpcombat.utils.CacheInvalidation;
 import com.muzlik.pvpcombat.utils.CacheManager;
+import com.muzlik.pvpcombat.utils.PlayerKey;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Main restriction manager implementing IRestrictionManager interface.
@@ -21,12 +28,19 @@ public class RestrictionManager implements IRestrictionManager {
     private final GoldenAppleRestriction goldenAppleRestriction;
     private final TridentRestriction tridentRestriction;
     private final CrystalRestriction crystalRestriction;
-    private final Map<Player, RestrictionData> playerRestrictions;
+    private final RestrictionEngine restrictionEngine;
+    private final CooldownTable cooldownTable;
+    private final CommandBlocklist commandBlocklist;
+    private final Map<UUID, RestrictionData> playerRestrictions;
     private final CacheManager cacheManager;
 
     public RestrictionManager(CombatManager combatManager, CacheManager cacheManager) {
         this.combatManager = combatManager;
         this.cacheManager = cacheManager;
+        this.restrictionEngine = new RestrictionEngine(PvPCombatPlugin.getInstance());
+        this.cooldownTable = new CooldownTable(PvPCombatPlugin.getInstance());
+        this.cooldownTable.setExpiryListener(this::onCooldownExpired);
+        this.commandBlocklist = new CommandBlocklist(PvPCombatPlugin.getInstance());
         this.enderPearlRestriction = new EnderPearlRestriction(this);
         this.elytraRestriction = new ElytraRestriction(this);
         this.goldenAppleRestriction = new GoldenAppleRestriction(this);
@@ -42,8 +56,8 @@ public class RestrictionManager implements IRestrictionManager {
         }
 
         // Check cache first
-        String cacheKey = player.getUniqueId() + ":enderpearl";
-        Boolean cached = (Boolean) cacheManager.get("restriction-data", cacheKey);
+        PlayerKey<RestrictedAction> cacheKey = new PlayerKey<>(player.getUniqueId(), RestrictedAction.ENDER_PEARL);
+        Boolean cached = cacheManager.restrictionData().getIfPresent(cacheKey);
         if (cached != null) {
             return cached;
         }
@@ -52,7 +66,7 @@ public class RestrictionManager implements IRestrictionManager {
         boolean canUse = enderPearlRestriction.canUse(player, restrictionData);
 
         // Cache the result for short time
-        cacheManager.put("restriction-data", cacheKey, canUse);
+        cacheManager.restrictionData().put(cacheKey, canUse);
         return canUse;
     }
 
@@ -63,17 +77,16 @@ public class RestrictionManager implements IRestrictionManager {
         }
 
         // Check cache first
-        String cacheKey = player.getUniqueId() + ":elytra";
-        Boolean cached = (Boolean) cacheManager.get("restriction-data", cacheKey);
+        PlayerKey<RestrictedAction> cacheKey = new PlayerKey<>(player.getUniqueId(), RestrictedAction.ELYTRA);
+        Boolean cached = cacheManager.restrictionData().getIfPresent(cacheKey);
         if (cached != null) {
             return cached;
         }
 
-        RestrictionData restrictionData = getOrCreateRestrictionData(player);
-        boolean canUse = elytraRestriction.canUse(player, restrictionData);
+        boolean canUse = elytraRestriction.canUse(player);
 
         // Cache the result for short time
-        cacheManager.put("restriction-data", cacheKey, canUse);
+        cacheManager.restrictionData().put(cacheKey, canUse);
         return canUse;
     }
 
@@ -114,22 +127,89 @@ public class RestrictionManager implements IRestrictionManager {
 
     @Override
     public void applyCooldown(Player player, String actionType, int cooldownSeconds) {
-        RestrictionData restrictionData = getOrCreateRestrictionData(player);
-        restrictionData.setCooldown(actionType, cooldownSeconds);
+        CooldownType type = CooldownType.fromId(actionType);
+        if (type == null) {
+            return;
+        }
+        cooldownTable.set(player.getUniqueId(), type, cooldownSeconds * 20L);
+
+        // The cached check is stale now; the expiry listener covers the end of the cooldown
+        RestrictedAction action = RestrictedAction.fromCooldownType(type);
+        if (action != null) {
+            cacheManager.getInvalidationBus().publish(CacheInvalidation.cooldown(player.getUniqueId(), action));
+        }
+    }
+
+    /**
+     * Gets the seconds left on a player's cooldown for the action of a compiled COOLDOWN rule,
+     * or 0 if the action may go ahead.
+     */
+    public int getRemainingCooldown(Player player, RestrictionEngine.Rule rule) {
+        RestrictedAction action = rule.getAction();
+        if (action == null) {
+            return 0;
+        }
+        return cooldownTable.getRemainingSeconds(player.getUniqueId(), action.getCooldownType());
+    }
+
+    /**
+     * Starts the cooldown of a compiled COOLDOWN rule after the player performed its action
+     * with the given item. The item cooldown shown in the hotbar is set a tick later so it
+     * replaces the one vanilla applies itself, e.g. to ender pearls.
+     */
+    public void startCooldown(Player player, RestrictionEngine.Rule rule, Material item) {
+        int cooldownSeconds = rule.getCooldownSeconds(combatManager.isInCombat(player));
+        if (cooldownSeconds <= 0 || rule.getAction() == null) {
+            return;
+        }
+        CooldownType type = rule.getAction().getCooldownType();
+        applyCooldown(player, type.getId(), cooldownSeconds);
+        Bukkit.getScheduler().runTaskLater(PvPCombatPlugin.getInstance(),
+            () -> player.setCooldown(item, cooldownSeconds * 20), 1L);
+        player.sendMessage(ChatColor.YELLOW + type.getDisplayName() + " cooldown: " + cooldownSeconds + " seconds");
+    }
+
+    /**
+     * Called once by the cooldown table for every cooldown that runs out.
+     */
+    private void onCooldownExpired(UUID playerId, CooldownType type) {
+        RestrictedAction action = RestrictedAction.fromCooldownType(type);
+        if (action != null) {
+            cacheManager.getInvalidationBus().publish(CacheInvalidation.cooldown(playerId, action));
+        }
+
+        FileConfiguration config = PvPCombatPlugin.getInstance().getConfig();
+        if (!config.getBoolean("restrictions.cooldown-expired-message.enabled", true)) {
+            return;
+        }
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null && player.isOnline()) {
+            String message = config.getString("restrictions.cooldown-expired-message.message", "&a{cooldown} cooldown expired.");
+            player.sendMessage(ChatColor.translateAlternateColorCodes('&', message.replace("{cooldown}", type.getDisplayName())));
+        }
     }
 
     /**
      * Gets or creates restriction data for a player.
      */
     public RestrictionData getOrCreateRestrictionData(Player player) {
-        return playerRestrictions.computeIfAbsent(player, p -> new RestrictionData(p.getUniqueId()));
+        return playerRestrictions.computeIfAbsent(player.getUniqueId(), id -> new RestrictionData(id, cooldownTable));
+    }
+
+    /**
+     * Drops a player's restriction data when they go offline. Running cooldowns are kept in
+     * the cooldown table until they expire.
+     */
+    public void releasePlayer(UUID playerId) {
+        playerRestrictions.remove(playerId);
+        cooldownTable.release(playerId);
     }
 
     /**
      * Removes restriction data for a player (when they leave combat).
      */
     public void removeRestrictionData(Player player) {
-        RestrictionData removed = playerRestrictions.remove(player);
+        RestrictionData removed = playerRestrictions.remove(player.getUniqueId());
         if (removed != null) {
             removed.clearAllRestrictions();
         }
@@ -139,7 +219,7 @@ public class RestrictionManager implements IRestrictionManager {
      * Clears all restrictions for a player.
      */
     public void clearRestrictions(Player player) {
-        RestrictionData restrictionData = playerRestrictions.get(player);
+        RestrictionData restrictionData = playerRestrictions.get(player.getUniqueId());
         if (restrictionData != null) {
             restrictionData.clearAllRestrictions();
         }
@@ -151,14 +231,14 @@ public class RestrictionManager implements IRestrictionManager {
             return true;
         }
 
-        String cacheKey = player.getUniqueId() + ":goldenapple";
-        Boolean cached = (Boolean) cacheManager.get("restriction-data", cacheKey);
+        PlayerKey<RestrictedAction> cacheKey = new PlayerKey<>(player.getUniqueId(), RestrictedAction.GOLDEN_APPLE);
+        Boolean cached = cacheManager.restrictionData().getIfPresent(cacheKey);
         if (cached != null) {
             return cached;
         }
 
         boolean canUse = goldenAppleRestriction.canUseGoldenApple(player);
-        cacheManager.put("restriction-data", cacheKey, canUse);
+        cacheManager.restrictionData().put(cacheKey, canUse);
         return canUse;
     }
 
@@ -168,14 +248,14 @@ public class RestrictionManager implements IRestrictionManager {
             return true;
         }
 
-        String cacheKey = player.getUniqueId() + ":enchantedgoldenapple";
-        Boolean cached = (Boolean) cacheManager.get("restriction-data", cacheKey);
+        PlayerKey<RestrictedAction> cacheKey = new PlayerKey<>(player.getUniqueId(), RestrictedAction.ENCHANTED_GOLDEN_APPLE);
+        Boolean cached = cacheManager.restrictionData().getIfPresent(cacheKey);
         if (cached != null) {
             return cached;
         }
 
         boolean canUse = goldenAppleRestriction.canUseEnchantedGoldenApple(player);
-        cacheManager.put("restriction-data", cacheKey, canUse);
+        cacheManager.restrictionData().put(cacheKey, canUse);
         return canUse;
     }
 
@@ -185,5 +265,8 @@ public class RestrictionManager implements IRestrictionManager {
     public GoldenAppleRestriction getGoldenAppleRestriction() { return goldenAppleRestriction; }
     public TridentRestriction getTridentRestriction() { return tridentRestriction; }
     public CrystalRestriction getCrystalRestriction() { return crystalRestriction; }
+    public RestrictionEngine getRestrictionEngine() { return restrictionEngine; }
+    public CooldownTable getCooldownTable() { return cooldownTable; }
+    public CommandBlocklist getCommandBlocklist() { return commandBlocklist; }
     public CombatManager getCombatManager() { return combatManager; }
 }
\ No newline at end of file
@@ -0,0 +1,332 @@
+package com.muzlik.pvpcombat.restrictions;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.utils.AsyncUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Precomputed distance from each block column to the nearest protected WorldGuard region.
+ * Every chunk gets a byte per column holding the horizontal (Chebyshev) distance to the
+ * closest region footprint, so "is a safe zone within N blocks" is a single array read.
+ * Fields are built lazily on an async thread the first time a chunk is asked for and are
+ * dropped when the chunk unloads. WorldGuard has no region change event, so region bounds
+ * are re-read on a timer and every field is discarded when they differ.
+ */
+public class SafeZoneDistanceField {
+
+    /** Distances are capped here; anything further away reads as {@link #FAR}. */
+    public static final int MAX_DISTANCE = 15;
+    public static final int FAR = MAX_DISTANCE + 1;
+    /** Returned while a chunk's field is still being built. */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * Bounding box of a protected region. Only cuboids can be tested for containment
+     * without calling into WorldGuard.
+     */
+    private record Bounds(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Object region, boolean cuboid) {
+        boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+    }
+
+    private record ChunkKey(UUID world, long chunk) {
+    }
+
+    /**
+     * Region bounds and the fields built from them. Replaced as a whole on invalidation,
+     * so builds that finish afterwards write into a discarded snapshot.
+     */
+    private static final class Snapshot {
+        final Map<UUID, List<Bounds>> regions = new ConcurrentHashMap<>();
+        final Map<ChunkKey, byte[]> fields = new ConcurrentHashMap<>();
+        final Set<ChunkKey> building = ConcurrentHashMap.newKeySet();
+    }
+
+    private final PvPCombatPlugin plugin;
+    private volatile Snapshot snapshot;
+    private volatile List<String> protectedRegions;
+    private volatile long refreshTicks;
+    private volatile Method containsMethod;
+    private BukkitTask refreshTask;
+
+    // Statistics
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder builds;
+    private final LongAdder buildNanos;
+    private final LongAdder invalidations;
+
+    public SafeZoneDistanceField(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.snapshot = new Snapshot();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.builds = new LongAdder();
+        this.buildNanos = new LongAdder();
+        this.invalidations = new LongAdder();
+        loadConfiguration();
+    }
+
+    private void loadConfiguration() {
+        this.protectedRegions = List.copyOf(plugin.getConfig().getStringList("restrictions.safezone.protected-regions"));
+        this.refreshTicks = Math.max(1L, plugin.getConfig().getLong("restrictions.safezone.region-refresh-seconds", 10L)) * 20L;
+    }
+
+    /**
+     * Starts checking WorldGuard for changed region bounds.
+     */
+    public synchronized void start() {
+        if (refreshTask != null) {
+            return;
+        }
+        refreshTask = AsyncUtils.runAsyncTimer(plugin, this::refreshRegions, refreshTicks, refreshTicks);
+    }
+
+    public synchronized void stop() {
+        AsyncUtils.cancelTask(refreshTask);
+        refreshTask = null;
+        snapshot = new Snapshot();
+    }
+
+    /**
+     * Re-reads the protected region list and discards every field.
+     */
+    public synchronized void reloadConfiguration() {
+        loadConfiguration();
+        invalidate();
+        if (refreshTask != null) {
+            AsyncUtils.cancelTask(refreshTask);
+            refreshTask = null;
+            start();
+        }
+    }
+
+    /**
+     * Discards all region bounds and fields; they are rebuilt on the next lookup.
+     */
+    public void invalidate() {
+        snapshot = new Snapshot();
+        invalidations.increment();
+    }
+
+    /**
+     * Drops the field of an unloaded chunk.
+     */
+    public void discardChunk(Chunk chunk) {
+        snapshot.fields.remove(new ChunkKey(chunk.getWorld().getUID(), chunkKey(chunk.getX(), chunk.getZ())));
+    }
+
+    /**
+     * Gets the horizontal distance from a location's column to the nearest protected region.
+     *
+     * @return 0 inside a region footprint, {@link #FAR} beyond {@link #MAX_DISTANCE},
+     *         or {@link #UNKNOWN} if the chunk's field is still being built
+     */
+    public int distance(Location location) {
+        World world = location.getWorld();
+        if (world == null) {
+            return UNKNOWN;
+        }
+        int x = location.getBlockX();
+        int z = location.getBlockZ();
+        Snapshot current = snapshot;
+        ChunkKey key = new ChunkKey(world.getUID(), chunkKey(x >> 4, z >> 4));
+        byte[] field = current.fields.get(key);
+        if (field == null) {
+            misses.increment();
+            scheduleBuild(current, world, key, x >> 4, z >> 4);
+            return UNKNOWN;
+        }
+        hits.increment();
+        return field[(z & 15) << 4 | (x & 15)];
+    }
+
+    /**
+     * Checks exactly whether a location lies in a protected region. Cuboids are tested
+     * against their cached bounds; other shapes are asked through WorldGuard.
+     */
+    public boolean contains(Location location) {
+        World world = location.getWorld();
+        if (world == null) {
+            return false;
+        }
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        for (Bounds bounds : regionsOf(snapshot, world)) {
+            if (!bounds.contains(x, y, z)) {
+                continue;
+            }
+            if (bounds.cuboid() || regionContains(bounds.region(), x, y, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scheduleBuild(Snapshot current, World world, ChunkKey key, int chunkX, int chunkZ) {
+        if (!current.building.add(key)) {
+            return;
+        }
+        AsyncUtils.runAsync(plugin, () -> {
+            try {
+                long start = System.nanoTime();
+                current.fields.put(key, computeField(regionsOf(current, world), chunkX << 4, chunkZ << 4));
+                buildNanos.add(System.nanoTime() - start);
+                builds.increment();
+            } finally {
+                current.building.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Fills a chunk's columns with the distance to the closest region footprint.
+     */
+    private static byte[] computeField(List<Bounds> regions, int baseX, int baseZ) {
+        byte[] field = new byte[256];
+        Arrays.fill(field, (byte) FAR);
+        for (Bounds bounds : regions) {
+            if (bounds.maxX() < baseX - MAX_DISTANCE || bounds.minX() > baseX + 15 + MAX_DISTANCE
+                    || bounds.maxZ() < baseZ - MAX_DISTANCE || bounds.minZ() > baseZ + 15 + MAX_DISTANCE) {
+                continue;
+            }
+            for (int dz = 0; dz < 16; dz++) {
+                int z = baseZ + dz;
+                int distanceZ = Math.max(0, Math.max(bounds.minZ() - z, z - bounds.maxZ()));
+                for (int dx = 0; dx < 16; dx++) {
+                    int x = baseX + dx;
+                    int distanceX = Math.max(0, Math.max(bounds.minX() - x, x - bounds.maxX()));
+                    int distance = Math.max(distanceX, distanceZ);
+                    int index = dz << 4 | dx;
+                    if (distance < field[index]) {
+                        field[index] = (byte) distance;
+                    }
+                }
+            }
+        }
+        return field;
+    }
+
+    private List<Bounds> regionsOf(Snapshot current, World world) {
+        return current.regions.computeIfAbsent(world.getUID(), id -> loadRegions(world));
+    }
+
+    /**
+     * Re-reads bounds for every world seen so far and invalidates if any region changed.
+     */
+    private void refreshRegions() {
+        Snapshot current = snapshot;
+        for (Map.Entry<UUID, List<Bounds>> entry : current.regions.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null || !loadRegions(world).equals(entry.getValue())) {
+                plugin.getLogger().fine("Protected regions changed, rebuilding safe zone distance fields");
+                invalidate();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the bounds of the configured regions in a world from WorldGuard.
+     * Uses reflection to avoid hard dependency on WorldGuard.
+     */
+    private List<Bounds> loadRegions(World world) {
+        List<Bounds> regions = new ArrayList<>();
+        try {
+            Class<?> worldGuardClass = Class.forName("com.sk89q.worldguard.WorldGuard");
+            Object worldGuard = worldGuardClass.getMethod("getInstance").invoke(null);
+            Object platform = worldGuardClass.getMethod("getPlatform").invoke(worldGuard);
+            Object regionContainer = platform.getClass().getMethod("getRegionContainer").invoke(platform);
+
+            Class<?> adapterClass = Class.forName("com.sk89q.worldedit.bukkit.BukkitAdapter");
+            Object adaptedWorld = adapterClass.getMethod("adapt", World.class).invoke(null, world);
+            Object regionManager = regionContainer.getClass().getMethod("get",
+                Class.forName("com.sk89q.worldedit.world.World")).invoke(regionContainer, adaptedWorld);
+            if (regionManager == null) {
+                return List.of();
+            }
+
+            Method getRegion = regionManager.getClass().getMethod("getRegion", String.class);
+            for (String regionName : protectedRegions) {
+                Object region = getRegion.invoke(regionManager, regionName);
+                if (region == null || region.getClass().getSimpleName().contains("Global")) {
+                    continue;
+                }
+                Object min = region.getClass().getMethod("getMinimumPoint").invoke(region);
+                Object max = region.getClass().getMethod("getMaximumPoint").invoke(region);
+                regions.add(new Bounds(coordinate(min, "x"), coordinate(min, "y"), coordinate(min, "z"),
+                    coordinate(max, "x"), coordinate(max, "y"), coordinate(max, "z"),
+                    region, region.getClass().getSimpleName().contains("Cuboid")));
+            }
+        } catch (ClassNotFoundException e) {
+            plugin.getLogger().fine("WorldGuard not found, safe zone protection disabled");
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to read WorldGuard regions: " + e.getMessage());
+        }
+        return List.copyOf(regions);
+    }
+
+    /**
+     * Reads one axis of a WorldEdit vector; newer versions renamed getX() to x().
+     */
+    private static int coordinate(Object vector, String axis) throws ReflectiveOperationException {
+        try {
+            return (Integer) vector.getClass().getMethod(axis).invoke(vector);
+        } catch (NoSuchMethodException e) {
+            return (Integer) vector.getClass().getMethod("get" + axis.toUpperCase()).invoke(vector);
+        }
+    }
+
+    private boolean regionContains(Object region, int x, int y, int z) {
+        try {
+            Method method = containsMethod;
+            if (method == null) {
+                method = Class.forName("com.sk89q.worldguard.protection.regions.ProtectedRegion")
+                    .getMethod("contains", int.class, int.class, int.class);
+                containsMethod = method;
+            }
+            return (Boolean) method.invoke(region, x, y, z);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to check WorldGuard region: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX) << 32 | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets field and lookup figures for monitoring.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Snapshot current = snapshot;
+        long built = builds.sum();
+        long lookups = hits.sum() + misses.sum();
+        stats.put("chunks", current.fields.size());
+        stats.put("worlds", current.regions.size());
+        stats.put("builds", built);
+        stats.put("avg-build-micros", built > 0 ? buildNanos.sum() / 1000.0 / built : 0.0);
+        stats.put("hit-rate", lookups > 0 ? hits.sum() * 100.0 / lookups : 0.0);
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+}
@@ -1,15 +1,17 @@
 package com.muzlik.pvpcombat.restrictions;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.events.MovementTracker;
 import com.muzlik.pvpcombat.interfaces.ICombatManager;
+import com.muzlik.pvpcombat.performance.jfr.SafeZoneQueryJfrEvent;
 import com.muzlik.pvpcombat.visual.SafeZoneBarrierRenderer;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 
 import java.util.List;
 import java.util.Map;
@@ -21,11 +23,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * Prevents players from entering designated safe zones while in combat.
  * Includes visual barrier rendering system.
  */
-public class SafeZoneManager implements Listener {
+public class SafeZoneManager implements Listener, MovementTracker.Subscriber {
 
     private final PvPCombatPlugin plugin;
     private final ICombatManager combatManager;
     private final SafeZoneBarrierRenderer barrierRenderer;
+    private final SafeZoneDistanceField distanceField;
     private final Map<UUID, Long> lastBarrierRender;
     private boolean enabled;
     private boolean blockEntry;
@@ -34,10 +37,11 @@ public class SafeZoneManager implements Listener {
     private String blockedMessage;
     private long barrierRenderCooldown;
 
-    public SafeZoneManager(PvPCombatPlugin plugin, ICombatManager combatManager) {
+    public SafeZoneManager(PvPCombatPlugin plugin, ICombatManager combatManager, SafeZoneDistanceField distanceField) {
         this.plugin = plugin;
         this.combatManager = combatManager;
         this.barrierRenderer = new SafeZoneBarrierRenderer(plugin);
+        this.distanceField = distanceField;
         this.lastBarrierRender = new ConcurrentHashMap<>();
         loadConfiguration();
     }
@@ -59,7 +63,8 @@ public class SafeZoneManager implements Listener {
     }
 
     /**
-     * Checks if a location is in a safe zone.
+     * Checks if a location is in a safe zone. Columns outside every region footprint are
+     * rejected by the distance field; only columns inside one are checked exactly.
      */
     public boolean isInSafeZone(Location location) {
         if (!enabled || !blockEntry) {
@@ -68,7 +73,21 @@ public class SafeZoneManager implements Listener {
 
         // Check if WorldGuard is available
         if (plugin.getServer().getPluginManager().getPlugin("WorldGuard") != null) {
-            return checkWorldGuardRegion(location);
+            SafeZoneQueryJfrEvent trace = new SafeZoneQueryJfrEvent();
+            trace.begin();
+            int distance = distanceField.distance(location);
+            boolean fieldHit = distance != SafeZoneDistanceField.UNKNOWN;
+            // Field for this chunk may still be being built
+            boolean inSafeZone = fieldHit
+                ? distance == 0 && distanceField.contains(location)
+                : checkWorldGuardRegion(location);
+            if (trace.shouldCommit()) {
+                trace.world = location.getWorld() != null ? location.getWorld().getName() : null;
+                trace.inSafeZone = inSafeZone;
+                trace.fieldHit = fieldHit;
+                trace.commit();
+            }
+            return inSafeZone;
         }
 
         return false;
@@ -122,40 +141,24 @@ public class SafeZoneManager implements Listener {
     }
 
     /**
-     * Handles player movement to prevent safe zone entry during combat.
+     * Prevents safe zone entry during combat. The movement tracker only calls this for
+     * tagged players who crossed into another block.
      */
-    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
-    public void onPlayerMove(PlayerMoveEvent event) {
+    @Override
+    public void onMove(PlayerMoveEvent event, Player player) {
         if (!enabled || !blockEntry) {
             return;
         }
 
-        Player player = event.getPlayer();
-
-        // Check if player is in combat
-        if (!combatManager.isInCombat(player)) {
-            // Clear any existing barriers if player is no longer in combat
-            if (barrierRenderer.hasActiveBarrier(player)) {
-                barrierRenderer.clearBarrier(player);
-            }
-            return;
-        }
-
         Location from = event.getFrom();
         Location to = event.getTo();
 
-        // Check if player is moving to a different block
-        if (to == null || (from.getBlockX() == to.getBlockX() && 
-            from.getBlockY() == to.getBlockY() && 
-            from.getBlockZ() == to.getBlockZ())) {
-            return;
-        }
-
         // Check if destination is in safe zone
         boolean destinationInSafezone = isInSafeZone(to);
         
         // Check for safezone in 4-block radius around player
-        boolean safezoneNearby = checkSafezoneInRadius(from, 4);
+        int safezoneDistance = distanceField.distance(from);
+        boolean safezoneNearby = safezoneDistance != SafeZoneDistanceField.UNKNOWN && safezoneDistance <= 4;
         
         if (destinationInSafezone) {
             // Cancel movement - teleport player back
@@ -182,8 +185,9 @@ public class SafeZoneManager implements Listener {
                 barrierRenderer.renderBarrier(player, from, to);
                 lastBarrierRender.put(player.getUniqueId(), System.currentTimeMillis());
             }
-        } else {
-            // Player moved away from safezone - clear barriers
+        } else if (safezoneDistance != SafeZoneDistanceField.UNKNOWN) {
+            // Player moved away from safezone - clear barriers; while the chunk's field is
+            // still being built the distance is unknown and the barrier stays as it is
             if (barrierRenderer.hasActiveBarrier(player)) {
                 barrierRenderer.clearBarrier(player);
             }
@@ -191,21 +195,13 @@ public class SafeZoneManager implements Listener {
     }
     
     /**
-     * Checks if there is a safezone within the specified radius of a location.
+     * Clears barriers once a player is no longer in combat.
      */
-    private boolean checkSafezoneInRadius(Location center, int radius) {
-        // Check blocks in a cube around the center
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -2; y <= 2; y++) {  // Check 2 blocks up and down
-                for (int z = -radius; z <= radius; z++) {
-                    Location checkLoc = center.clone().add(x, y, z);
-                    if (isInSafeZone(checkLoc)) {
-                        return true;
-                    }
-                }
-            }
+    @Override
+    public void onUntracked(Player player) {
+        if (barrierRenderer.hasActiveBarrier(player)) {
+            barrierRenderer.clearBarrier(player);
         }
-        return false;
     }
 
     /**
@@ -240,6 +236,14 @@ public class SafeZoneManager implements Listener {
         lastBarrierRender.remove(player.getUniqueId());
     }
 
+    /**
+     * Drops the distance field of unloaded chunks.
+     */
+    @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        distanceField.discardChunk(event.getChunk());
+    }
+
     /**
      * Checks if safe zone restrictions are enabled.
      */
@@ -261,6 +265,13 @@ public class SafeZoneManager implements Listener {
         return barrierRenderer;
     }
 
+    /**
+     * Gets the distance field used for proximity checks.
+     */
+    public SafeZoneDistanceField getDistanceField() {
+        return distanceField;
+    }
+
     /**
      * Cleans up all barriers (called on plugin disable).
      */
@@ -1,6 +1,7 @@
 package com.muzlik.pvpcombat.restrictions;
 
 import com.muzlik.pvpcombat.data.RestrictionData;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
 /**
@@ -23,43 +24,26 @@ public class TridentRestriction {
             return true;
         }
 
-        // Check if trident restrictions are enabled
-        boolean enabled = com.muzlik.pvpcombat.core.PvPCombatPlugin.getInstance()
-            .getConfig().getBoolean("restrictions.trident.enabled", true);
-        if (!enabled) {
+        RestrictionEngine.Rule rule = restrictionManager.getRestrictionEngine()
+            .lookup(RestrictionEngine.Trigger.LAUNCH, Material.TRIDENT);
+        if (rule.isAllowed()) {
             return true;
         }
-
-        // Check if throwing is blocked
-        boolean blockThrowing = com.muzlik.pvpcombat.core.PvPCombatPlugin.getInstance()
-            .getConfig().getBoolean("restrictions.trident.block-throwing", true);
-        if (blockThrowing) {
+        if (rule.getVerdict() == RestrictionEngine.Verdict.DENY) {
             return false;
         }
 
         // Check cooldown
-        return !restrictionData.isOnCooldown("trident");
+        return !restrictionData.isOnCooldown(CooldownType.TRIDENT);
     }
 
     /**
      * Checks if a player can use riptide enchantment.
      */
     public boolean canUseRiptide(Player player) {
-        // Check if player is in combat
-        if (!restrictionManager.getCombatManager().isInCombat(player)) {
-            return true;
-        }
-
-        // Check if trident restrictions are enabled
-        boolean enabled = com.muzlik.pvpcombat.core.PvPCombatPlugin.getInstance()
-            .getConfig().getBoolean("restrictions.trident.enabled", true);
-        if (!enabled) {
-            return true;
-        }
-
-        // Check if riptide is blocked
-        return !com.muzlik.pvpcombat.core.PvPCombatPlugin.getInstance()
-            .getConfig().getBoolean("restrictions.trident.block-riptide", true);
+        RestrictionEngine.Rule rule = restrictionManager.getRestrictionEngine()
+            .lookup(RestrictionEngine.Trigger.USE_ITEM, Material.TRIDENT);
+        return rule.isAllowed() || !restrictionManager.getCombatManager().isInCombat(player);
     }
 
     /**
@@ -76,6 +60,6 @@ public class TridentRestriction {
             ? (int) (baseCooldown * multiplier) 
             : baseCooldown;
 
-        restrictionData.setCooldown("trident", cooldown);
+        restrictionData.setCooldown(CooldownType.TRIDENT, cooldown);
     }
 }
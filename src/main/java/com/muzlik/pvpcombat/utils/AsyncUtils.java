@@ -1,13 +1,17 @@
 package com.muzlik.pvpcombat.utils;
 
+import com.muzlik.pvpcombat.performance.TickSampler;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -19,6 +23,11 @@ public class AsyncUtils {
     private static final ConcurrentHashMap<String, ExecutorService> executors = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<String, ScheduledExecutorService> scheduledExecutors = new ConcurrentHashMap<>();
     private static volatile boolean initialized = false;
+    private static volatile TickSampler tickSampler;
+
+    // runTPSAware re-checks TPS this often and gives up waiting after the max delay
+    private static final long TPS_AWARE_RETRY_TICKS = 20L;
+    private static final long TPS_AWARE_MAX_DELAY_TICKS = 600L;
 
     /**
      * Initializes the AsyncUtils with custom thread pools for better performance.
@@ -170,13 +179,31 @@ public class AsyncUtils {
         return future;
     }
 
+    /**
+     * Sets the tick sampler used by TPS-aware scheduling.
+     */
+    public static void setTickSampler(TickSampler sampler) {
+        tickSampler = sampler;
+    }
+
     /**
      * Runs a task with TPS-aware scheduling - delays execution during low TPS.
+     * The task is retried every second while TPS is below {@code minTPS} and runs
+     * anyway after 30 seconds so deferred work is never lost.
      */
     public static void runTPSAware(Plugin plugin, Runnable task, double minTPS) {
-        // Check TPS and delay if needed
-        // Implementation would check TPSMonitor and schedule accordingly
-        runAsync(plugin, task, "combat-processing");
+        runTPSAware(plugin, task, minTPS, 0L);
+    }
+
+    private static void runTPSAware(Plugin plugin, Runnable task, double minTPS, long waitedTicks) {
+        TickSampler sampler = tickSampler;
+        if (sampler == null || sampler.getEwmaTps() >= minTPS || waitedTicks >= TPS_AWARE_MAX_DELAY_TICKS
+                || !plugin.isEnabled()) {
+            runAsync(plugin, task, "combat-processing");
+            return;
+        }
+        runAsyncLater(plugin, () -> runTPSAware(plugin, task, minTPS, waitedTicks + TPS_AWARE_RETRY_TICKS),
+            TPS_AWARE_RETRY_TICKS);
     }
 
     /**
@@ -220,4 +247,22 @@ public class AsyncUtils {
 
         return status.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the number of tasks waiting in each pool, for pools that expose a queue.
+     */
+    public static Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<>();
+        executors.forEach((name, executor) -> {
+            if (executor instanceof ThreadPoolExecutor) {
+                depths.put(name, ((ThreadPoolExecutor) executor).getQueue().size());
+            }
+        });
+        scheduledExecutors.forEach((name, executor) -> {
+            if (executor instanceof ThreadPoolExecutor) {
+                depths.put(name, ((ThreadPoolExecutor) executor).getQueue().size());
+            }
+        });
+        return depths;
+    }
+}
@@ -0,0 +1,134 @@
+package com.muzlik.pvpcombat.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.muzlik.pvpcombat.performance.jfr.CacheMissJfrEvent;
+
+import java.util.function.Function;
+
+/**
+ * Typed view of one cache owned by a {@link CacheManager}.
+ * Keys are plain value objects (see {@link PlayerPairKey} and {@link PlayerKey}) so lookups
+ * need no string building, and values are stored as-is without casts. All operations
+ * become no-ops while the owning manager has caching disabled.
+ */
+public final class CacheHandle<K, V> {
+
+    private final String name;
+    private final Cache<K, V> cache;
+    private final CacheManager owner;
+    // Null unless the owner evicts this cache by groups of keys
+    private final KeyTracker<K> tracker;
+
+    CacheHandle(String name, Cache<K, V> cache, CacheManager owner, KeyTracker<K> tracker) {
+        this.name = name;
+        this.cache = cache;
+        this.owner = owner;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Gets a cached value, or null if absent or caching is disabled.
+     */
+    public V getIfPresent(K key) {
+        if (!owner.isEnabled()) {
+            return null;
+        }
+        V value = cache.getIfPresent(key);
+        if (value == null) {
+            CacheMissJfrEvent trace = new CacheMissJfrEvent();
+            if (trace.shouldCommit()) {
+                trace.cache = name;
+                trace.commit();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Gets a cached value, computing and storing it if absent.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (!owner.isEnabled()) {
+            return loader.apply(key);
+        }
+        CacheMissJfrEvent trace = new CacheMissJfrEvent();
+        if (!trace.isEnabled()) {
+            return cache.get(key, loader);
+        }
+        // Only wrap the loader while recording, so the event times the load itself
+        trace.begin();
+        V value = cache.get(key, k -> {
+            trace.loaded = true;
+            return loader.apply(k);
+        });
+        if (trace.loaded && trace.shouldCommit()) {
+            trace.cache = name;
+            trace.commit();
+        }
+        return value;
+    }
+
+    /**
+     * Stores a value.
+     */
+    public void put(K key, V value) {
+        if (owner.isEnabled()) {
+            if (tracker != null) {
+                tracker.stored(key);
+            }
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Removes a single key.
+     */
+    public void invalidate(K key) {
+        cache.invalidate(key);
+        if (tracker != null) {
+            tracker.removed(key);
+        }
+    }
+
+    /**
+     * Removes the given keys.
+     */
+    public void invalidateAll(Iterable<? extends K> keys) {
+        cache.invalidateAll(keys);
+        if (tracker != null) {
+            for (K key : keys) {
+                tracker.removed(key);
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        if (tracker != null) {
+            tracker.cleared();
+        }
+    }
+
+    /**
+     * Performs pending expiry and eviction maintenance.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
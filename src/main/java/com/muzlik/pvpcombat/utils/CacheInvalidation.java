@@ -0,0 +1,37 @@
+package com.muzlik.pvpcombat.utils;
+
+import com.muzlik.pvpcombat.restrictions.RestrictedAction;
+
+import java.util.UUID;
+
+/**
+ * A keyed invalidation published on the {@link CacheInvalidationBus}.
+ * The player scopes it to entries keyed by (or involving) that player, and the action
+ * further narrows restriction entries; a null player means every entry on the topic.
+ */
+public record CacheInvalidation(Topic topic, UUID playerId, RestrictedAction action) {
+
+    /**
+     * What changed, and therefore which derived caches are affected.
+     */
+    public enum Topic {
+        /** A player entered or left combat. */
+        COMBAT,
+        /** A player's cooldown for an action was applied or expired. */
+        COOLDOWN,
+        /** The configuration was reloaded. */
+        CONFIG
+    }
+
+    public static CacheInvalidation combat(UUID playerId) {
+        return new CacheInvalidation(Topic.COMBAT, playerId, null);
+    }
+
+    public static CacheInvalidation cooldown(UUID playerId, RestrictedAction action) {
+        return new CacheInvalidation(Topic.COOLDOWN, playerId, action);
+    }
+
+    public static CacheInvalidation configReload() {
+        return new CacheInvalidation(Topic.CONFIG, null, null);
+    }
+}
@@ -0,0 +1,60 @@
+package com.muzlik.pvpcombat.utils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link CacheInvalidation}s from the places where combat-derived state changes
+ * to the caches that depend on it. Caches subscribe per topic and evict only the keys
+ * an invalidation names, which lets them keep long TTLs without serving stale decisions.
+ * Publishing is synchronous and safe from any thread.
+ */
+public class CacheInvalidationBus {
+
+    private final Map<CacheInvalidation.Topic, List<Consumer<CacheInvalidation>>> subscribers;
+    private final Map<CacheInvalidation.Topic, LongAdder> published;
+
+    public CacheInvalidationBus() {
+        this.subscribers = new EnumMap<>(CacheInvalidation.Topic.class);
+        this.published = new EnumMap<>(CacheInvalidation.Topic.class);
+        for (CacheInvalidation.Topic topic : CacheInvalidation.Topic.values()) {
+            subscribers.put(topic, new CopyOnWriteArrayList<>());
+            published.put(topic, new LongAdder());
+        }
+    }
+
+    /**
+     * Subscribes to invalidations on one topic.
+     */
+    public void subscribe(CacheInvalidation.Topic topic, Consumer<CacheInvalidation> subscriber) {
+        subscribers.get(topic).add(subscriber);
+    }
+
+    /**
+     * Removes a subscriber from a topic.
+     */
+    public void unsubscribe(CacheInvalidation.Topic topic, Consumer<CacheInvalidation> subscriber) {
+        subscribers.get(topic).remove(subscriber);
+    }
+
+    /**
+     * Delivers an invalidation to every subscriber of its topic.
+     */
+    public void publish(CacheInvalidation invalidation) {
+        published.get(invalidation.topic()).increment();
+        for (Consumer<CacheInvalidation> subscriber : subscribers.get(invalidation.topic())) {
+            subscriber.accept(invalidation);
+        }
+    }
+
+    /**
+     * Gets the number of invalidations published on a topic.
+     */
+    public long getPublishedCount(CacheInvalidation.Topic topic) {
+        return published.get(topic).sum();
+    }
+}
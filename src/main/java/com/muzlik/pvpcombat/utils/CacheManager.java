@@ -4,142 +4,163 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.data.CombatSession;
+import com.muzlik.pvpcombat.restrictions.RestrictedAction;
 
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
-import java.util.concurrent.Callable;
 
 /**
  * Centralized caching manager with performance monitoring and automatic cleanup.
+ * Each instance owns its caches; the plugin shares a single instance between subsystems.
  */
 public class CacheManager {
 
     private final PvPCombatPlugin plugin;
-    private static final Map<String, Object> caches = new ConcurrentHashMap<>();
+    private final Map<String, CacheHandle<?, ?>> caches = new ConcurrentHashMap<>();
     private volatile boolean enabled = true;
 
+    private final CacheHandle<PlayerPairKey, CombatSession> combatStates;
+    private final CacheHandle<PlayerPairKey, Boolean> interferenceData;
+    private final CacheHandle<PlayerKey<RestrictedAction>, Boolean> restrictionData;
+    private final PlayerPairIndex interferenceIndex = new PlayerPairIndex();
+    private final CacheInvalidationBus invalidationBus;
+
     public CacheManager(PvPCombatPlugin plugin) {
         this.plugin = plugin;
 
         // Initialize default caches
-        initializeCaches();
+        // Combat state cache - short lived for active sessions
+        this.combatStates = createCache("combat-states", 1000, 10, TimeUnit.MINUTES);
 
-        // Schedule periodic cleanup
-        AsyncUtils.scheduleMonitoringTask(this::performCleanup,
-            5, 5, TimeUnit.MINUTES);
-    }
+        // Interference decisions per attacker/defender pair - medium lived
+        // and indexed by player so combat changes evict only that player's pairs
+        this.interferenceData = createCache("interference-data", 2000, 15, TimeUnit.MINUTES, interferenceIndex);
 
-    /**
-     * Initializes default caches for different data types.
-     */
-    private void initializeCaches() {
-        // Combat state cache - short lived for active sessions
-        createCache("combat-states", 1000, 10, TimeUnit.MINUTES);
+        // Restriction data cache - medium lived
+        this.restrictionData = createCache("restriction-data", 2000, 15, TimeUnit.MINUTES);
 
         // Player statistics cache - longer lived
         createCache("player-stats", 5000, 30, TimeUnit.MINUTES);
 
-        // Restriction data cache - medium lived
-        createCache("restriction-data", 2000, 15, TimeUnit.MINUTES);
-
         // Visual preferences cache - long lived
         createCache("visual-prefs", 10000, 2, TimeUnit.HOURS);
 
         // Performance metrics cache - short lived
         createCache("performance-metrics", 100, 1, TimeUnit.MINUTES);
+
+        // Evict combat-derived decisions when the state they were computed from changes
+        this.invalidationBus = new CacheInvalidationBus();
+        subscribeInvalidations();
+
+        // Schedule periodic cleanup
+        AsyncUtils.scheduleMonitoringTask(this::performCleanup,
+            5, 5, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Subscribes the combat-derived caches to the invalidation bus.
+     */
+    private void subscribeInvalidations() {
+        invalidationBus.subscribe(CacheInvalidation.Topic.COMBAT, invalidation -> {
+            UUID playerId = invalidation.playerId();
+            interferenceData.invalidateAll(interferenceIndex.keysOf(playerId));
+            invalidateRestrictions(playerId, null);
+        });
+        invalidationBus.subscribe(CacheInvalidation.Topic.COOLDOWN,
+            invalidation -> invalidateRestrictions(invalidation.playerId(), invalidation.action()));
+        invalidationBus.subscribe(CacheInvalidation.Topic.CONFIG, invalidation -> {
+            interferenceData.invalidateAll();
+            restrictionData.invalidateAll();
+        });
+    }
+
+    /**
+     * Evicts a player's cached restriction checks, for one action or all of them.
+     */
+    private void invalidateRestrictions(UUID playerId, RestrictedAction action) {
+        if (action != null) {
+            restrictionData.invalidate(new PlayerKey<>(playerId, action));
+            return;
+        }
+        for (RestrictedAction each : RestrictedAction.values()) {
+            restrictionData.invalidate(new PlayerKey<>(playerId, each));
+        }
     }
 
     /**
      * Creates a new cache with specified parameters.
      */
-    public <K, V> Cache<K, V> createCache(String name, int maxSize, long duration, TimeUnit unit) {
-        Cache<K, V> cache = Caffeine.<K,V>newBuilder()
+    public <K, V> CacheHandle<K, V> createCache(String name, int maxSize, long duration, TimeUnit unit) {
+        return createCache(name, maxSize, duration, unit, null);
+    }
+
+    private <K, V> CacheHandle<K, V> createCache(String name, int maxSize, long duration, TimeUnit unit,
+                                                 KeyTracker<K> tracker) {
+        Caffeine<K, V> builder = Caffeine.newBuilder()
                 .maximumSize(maxSize)
                 .expireAfterWrite(duration, unit)
                 .recordStats()
-                .removalListener((key, value, cause) -> {
-                    // Optional: Log cache evictions for monitoring
-                    if (plugin.getConfig().getBoolean("performance.cache-debug", false)) {
+                .<K, V>removalListener((key, value, cause) -> {
+                    // Optional: Log cache evictions for monitoring; replaced and removed entries are routine
+                    if (cause.wasEvicted() && plugin.getConfig().getBoolean("performance.cache-debug", false)) {
                         plugin.getLogger().fine(String.format("Cache %s evicted: %s -> %s (%s)",
                                 name, key, value, cause));
                     }
-                })
-                .build();
+                });
+        if (tracker != null) {
+            // Runs inside the eviction itself, so the tracker never drops a key stored again afterwards
+            builder = builder.evictionListener((key, value, cause) -> tracker.removed(key));
+        }
+        Cache<K, V> cache = builder.build();
 
-        caches.put(name, cache);
-        return cache;
+        CacheHandle<K, V> handle = new CacheHandle<>(name, cache, this, tracker);
+        caches.put(name, handle);
+        return handle;
     }
 
     /**
-     * Gets or creates a cache by name.
+     * Gets a cache by name, or null if it does not exist.
      */
-    @SuppressWarnings("unchecked")
-    public <K, V> Cache<K, V> getCache(String name) {
-        return (Cache<K, V>) caches.get(name);
+    public CacheHandle<?, ?> getCache(String name) {
+        return caches.get(name);
     }
 
     /**
-     * Puts a value in the specified cache.
+     * Gets the bus that evicts combat-derived cache entries.
      */
-    public void put(String cacheName, String key, Object value) {
-        if (!enabled) return;
-
-        @SuppressWarnings("unchecked")
-        Cache<String, Object> cache = (Cache<String, Object>) caches.get(cacheName);
-        if (cache != null) {
-            cache.put(key, value);
-        }
+    public CacheInvalidationBus getInvalidationBus() {
+        return invalidationBus;
     }
 
     /**
-     * Gets a value from the specified cache.
+     * Gets the active combat session cache, keyed by attacker and defender.
      */
-    public Object get(String cacheName, String key) {
-        if (!enabled) return null;
-
-        @SuppressWarnings("unchecked")
-        Cache<String, Object> cache = (Cache<String, Object>) caches.get(cacheName);
-        return cache != null ? cache.getIfPresent(key) : null;
+    public CacheHandle<PlayerPairKey, CombatSession> combatStates() {
+        return combatStates;
     }
 
     /**
-     * Gets a value with a loader function (compute if absent).
+     * Gets the interference decision cache, keyed by attacker and defender.
      */
-    public <T> T get(String cacheName, String key, Function<String, T> loader) {
-        if (!enabled) return loader.apply(key);
-
-        @SuppressWarnings("unchecked")
-        Cache<String, Object> cache = (Cache<String, Object>) caches.get(cacheName);
-        if (cache != null) {
-            try {
-                return (T) cache.get(key, k -> loader.apply((String) k));
-            } catch (Exception e) {
-                plugin.getLogger().warning("Cache loader failed for " + cacheName + ": " + key);
-                return loader.apply(key);
-            }
-        }
-        return loader.apply(key);
+    public CacheHandle<PlayerPairKey, Boolean> interferenceData() {
+        return interferenceData;
     }
 
     /**
-     * Removes a key from the specified cache.
+     * Gets the restriction check cache, keyed by player and action.
      */
-    public void remove(String cacheName, String key) {
-        @SuppressWarnings("unchecked")
-        Cache<String, Object> cache = (Cache<String, Object>) caches.get(cacheName);
-        if (cache != null) {
-            cache.invalidate(key);
-        }
+    public CacheHandle<PlayerKey<RestrictedAction>, Boolean> restrictionData() {
+        return restrictionData;
     }
 
     /**
      * Clears all entries from the specified cache.
      */
     public void clear(String cacheName) {
-        @SuppressWarnings("unchecked")
-        Cache<String, Object> cache = (Cache<String, Object>) caches.get(cacheName);
+        CacheHandle<?, ?> cache = caches.get(cacheName);
         if (cache != null) {
             cache.invalidateAll();
         }
@@ -149,15 +170,14 @@ public class CacheManager {
      * Clears all caches.
      */
     public void clearAll() {
-        caches.values().forEach(c -> ((Cache<?,?>) c).invalidateAll());
+        caches.values().forEach(CacheHandle::invalidateAll);
     }
 
     /**
      * Gets cache statistics for monitoring.
      */
     public String getCacheStats(String cacheName) {
-        @SuppressWarnings("unchecked")
-        Cache<String, Object> cache = (Cache<String, Object>) caches.get(cacheName);
+        CacheHandle<?, ?> cache = caches.get(cacheName);
         if (cache == null) return "Cache not found: " + cacheName;
 
         CacheStats stats = cache.stats();
@@ -187,7 +207,7 @@ public class CacheManager {
         if (!enabled) return;
 
         long startTime = System.nanoTime();
-        caches.values().forEach(c -> ((Cache<?,?>) c).cleanUp());
+        caches.values().forEach(CacheHandle::cleanUp);
 
         long duration = (System.nanoTime() - startTime) / 1_000_000; // Convert to milliseconds
 
@@ -217,6 +237,6 @@ public class CacheManager {
      * Gets the total number of cached items across all caches.
      */
     public long getTotalCacheSize() {
-        return caches.values().stream().mapToLong(c -> ((Cache<?,?>) c).estimatedSize()).sum();
+        return caches.values().stream().mapToLong(CacheHandle::estimatedSize).sum();
     }
 }
\ No newline at end of file
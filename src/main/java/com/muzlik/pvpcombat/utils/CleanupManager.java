@@ -6,12 +6,14 @@ import com.muzlik.pvpcombat.data.CombatSession;
 import com.muzlik.pvpcombat.performance.PerformanceMonitor;
 import org.bukkit.entity.Player;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
 
 /**
  * Smart cleanup manager for inactive combat pairs and expired sessions.
- * Performs periodic cleanup to maintain performance and memory efficiency.
+ * Session sweeps run incrementally on the shared {@link IncrementalSweeper} so a large
+ * session map never ends up scanned in a single tick.
  */
 public class CleanupManager {
 
@@ -19,6 +21,7 @@ public class CleanupManager {
     private final CombatManager combatManager;
     private final PerformanceMonitor performanceMonitor;
     private final CacheManager cacheManager;
+    private final IncrementalSweeper sweeper;
 
     // Cleanup intervals
     private static final long EXPIRED_SESSIONS_INTERVAL = 5 * 60 * 20; // 5 minutes in ticks
@@ -27,14 +30,15 @@ public class CleanupManager {
 
     // Thresholds
     private static final long INACTIVE_PLAYER_THRESHOLD = 10 * 60 * 1000; // 10 minutes in milliseconds
-    private static final int MAX_CLEANUP_BATCH_SIZE = 50; // Max sessions to clean per batch
 
     public CleanupManager(PvPCombatPlugin plugin, CombatManager combatManager,
-                         PerformanceMonitor performanceMonitor, CacheManager cacheManager) {
+                         PerformanceMonitor performanceMonitor, CacheManager cacheManager,
+                         IncrementalSweeper sweeper) {
         this.plugin = plugin;
         this.combatManager = combatManager;
         this.performanceMonitor = performanceMonitor;
         this.cacheManager = cacheManager;
+        this.sweeper = sweeper;
 
         // Schedule periodic cleanup tasks
         scheduleCleanupTasks();
@@ -45,12 +49,12 @@ public class CleanupManager {
      */
     private void scheduleCleanupTasks() {
         // Expired sessions cleanup - every 5 minutes
-        AsyncUtils.runSyncTimer(plugin, this::cleanupExpiredSessions,
-            EXPIRED_SESSIONS_INTERVAL, EXPIRED_SESSIONS_INTERVAL);
+        sweeper.register("expired-sessions", EXPIRED_SESSIONS_INTERVAL,
+            combatManager::sessionCursor, this::cleanupIfExpired);
 
         // Inactive players cleanup - every 10 minutes
-        AsyncUtils.runSyncTimer(plugin, this::cleanupInactivePlayers,
-            INACTIVE_PLAYERS_INTERVAL, INACTIVE_PLAYERS_INTERVAL);
+        sweeper.register("inactive-sessions", INACTIVE_PLAYERS_INTERVAL,
+            combatManager::sessionCursor, this::cleanupIfInactive);
 
         // Cache cleanup - every 15 minutes
         AsyncUtils.runSyncTimer(plugin, this::performCacheMaintenance,
@@ -60,76 +64,33 @@ public class CleanupManager {
     }
 
     /**
-     * Cleans up expired combat sessions.
+     * Ends a combat session whose timer has expired.
      */
-    private void cleanupExpiredSessions() {
-        performanceMonitor.startOperation("cleanup-expired-sessions");
-
-        try {
-            Map<UUID, CombatSession> activeSessions = combatManager.getActiveSessions();
-            int cleanedCount = 0;
-
-            for (Map.Entry<UUID, CombatSession> entry : activeSessions.entrySet()) {
-                CombatSession session = entry.getValue();
-
-                if (session.isExpired() && cleanedCount < MAX_CLEANUP_BATCH_SIZE) {
-                    combatManager.endCombat(entry.getKey());
-                    cleanedCount++;
-                }
-            }
-
-            if (cleanedCount > 0) {
-                plugin.getLogger().info(String.format("CleanupManager: Cleaned up %d expired combat sessions", cleanedCount));
-            }
-        } finally {
-            performanceMonitor.endOperation("cleanup-expired-sessions");
+    private boolean cleanupIfExpired(CombatSession session, Iterator<CombatSession> cursor) {
+        // Sessions are listed once per participant; the second visit sees them inactive
+        if (!session.isActive() || !session.isExpired()) {
+            return false;
         }
+
+        combatManager.endSession(session);
+        plugin.getLogger().fine("CleanupManager: Cleaned up expired combat session " + session.getSessionId());
+        return true;
     }
 
     /**
-     * Cleans up inactive players who may have disconnected or become inactive.
+     * Ends a combat session in which neither player has landed a hit for too long.
      */
-    private void cleanupInactivePlayers() {
-        performanceMonitor.startOperation("cleanup-inactive-players");
-
-        try {
-            Map<UUID, CombatSession> activeSessions = combatManager.getActiveSessions();
-            int cleanedCount = 0;
-            long currentTime = System.currentTimeMillis();
-
-            for (Map.Entry<UUID, CombatSession> entry : activeSessions.entrySet()) {
-                CombatSession session = entry.getValue();
-
-                // Check if either player has been inactive too long
-                Player attacker = session.getAttacker();
-                Player defender = session.getDefender();
-
-                boolean attackerInactive = attacker != null &&
-                    (currentTime - attacker.getLastPlayed()) > INACTIVE_PLAYER_THRESHOLD;
-                boolean defenderInactive = defender != null &&
-                    (currentTime - defender.getLastPlayed()) > INACTIVE_PLAYER_THRESHOLD;
-
-                if ((attackerInactive || defenderInactive) && cleanedCount < MAX_CLEANUP_BATCH_SIZE) {
-                    combatManager.endCombat(entry.getKey());
-                    cleanedCount++;
-
-                    if (attackerInactive) {
-                        plugin.getLogger().fine(String.format("CleanupManager: Ended combat for inactive player %s",
-                            attacker != null ? attacker.getName() : "unknown"));
-                    }
-                    if (defenderInactive) {
-                        plugin.getLogger().fine(String.format("CleanupManager: Ended combat for inactive player %s",
-                            defender != null ? defender.getName() : "unknown"));
-                    }
-                }
-            }
-
-            if (cleanedCount > 0) {
-                plugin.getLogger().info(String.format("CleanupManager: Cleaned up %d combats with inactive players", cleanedCount));
-            }
-        } finally {
-            performanceMonitor.endOperation("cleanup-inactive-players");
+    private boolean cleanupIfInactive(CombatSession session, Iterator<CombatSession> cursor) {
+        if (!session.isActive() || !session.isInactive(INACTIVE_PLAYER_THRESHOLD)) {
+            return false;
         }
+
+        combatManager.endSession(session);
+        Player attacker = session.getAttacker();
+        Player defender = session.getDefender();
+        plugin.getLogger().fine(String.format("CleanupManager: Ended inactive combat between %s and %s",
+            attacker != null ? attacker.getName() : "unknown", defender != null ? defender.getName() : "unknown"));
+        return true;
     }
 
     /**
@@ -156,12 +117,11 @@ public class CleanupManager {
     }
 
     /**
-     * Forces immediate cleanup of all expired sessions.
+     * Forces an immediate, unbudgeted run of every cleanup job.
      */
     public void forceCleanup() {
         plugin.getLogger().info("CleanupManager: Forcing immediate cleanup of all expired sessions");
-        cleanupExpiredSessions();
-        cleanupInactivePlayers();
+        sweeper.runAllNow();
         performCacheMaintenance();
     }
 
@@ -0,0 +1,276 @@
+package com.muzlik.pvpcombat.utils;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs periodic cleanup jobs a slice at a time instead of in one full pass.
+ * Each job keeps a cursor into its collection and gets a per-tick time budget; when the
+ * budget runs out the cursor is kept and the pass resumes on the next tick. Jobs are
+ * driven by a single 1-tick main thread task, so visitors may touch Bukkit state.
+ */
+public class IncrementalSweeper implements Runnable {
+
+    // Checking the clock after every element would cost as much as cheap visits themselves
+    private static final int CLOCK_CHECK_INTERVAL = 16;
+
+    /**
+     * Inspects one element of a sweep.
+     */
+    @FunctionalInterface
+    public interface Visitor<E> {
+        /**
+         * @param element the current element
+         * @param cursor the sweep's iterator, for removing the element if it supports it
+         * @return true if the element was cleaned up
+         */
+        boolean visit(E element, Iterator<E> cursor);
+    }
+
+    /**
+     * A registered cleanup job and its statistics.
+     */
+    public static final class Job<E> {
+        private final String name;
+        private final long intervalNanos;
+        private final long budgetNanos;
+        private final Supplier<? extends Iterator<E>> source;
+        private final Visitor<E> visitor;
+
+        // Only touched from the sweeper task
+        private Iterator<E> cursor;
+        private long nextDueNanos;
+        private long passStartNanos;
+        private long passVisited;
+
+        private final LongAdder visited = new LongAdder();
+        private final LongAdder cleaned = new LongAdder();
+        private final LongAdder passes = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private volatile long lastPassMillis;
+        private volatile long lastPassVisited;
+        private volatile long lagMillis;
+
+        private Job(String name, long intervalNanos, long budgetNanos,
+                    Supplier<? extends Iterator<E>> source, Visitor<E> visitor) {
+            this.name = name;
+            this.intervalNanos = intervalNanos;
+            this.budgetNanos = budgetNanos;
+            this.source = source;
+            this.visitor = visitor;
+            this.nextDueNanos = System.nanoTime() + intervalNanos;
+        }
+
+        /**
+         * Advances the job by at most one budget slice.
+         */
+        private void step(long now) {
+            if (cursor == null) {
+                if (now < nextDueNanos) {
+                    lagMillis = 0;
+                    return;
+                }
+                cursor = source.get();
+                passStartNanos = now;
+                passVisited = 0;
+            }
+
+            long deadline = now + budgetNanos;
+            long count = 0;
+            long removed = 0;
+            long clock = now;
+            try {
+                while (cursor.hasNext()) {
+                    if (visitor.visit(cursor.next(), cursor)) {
+                        removed++;
+                    }
+                    if (++count % CLOCK_CHECK_INTERVAL == 0) {
+                        clock = System.nanoTime();
+                        if (clock >= deadline) {
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                clock = System.nanoTime();
+                visited.add(count);
+                cleaned.add(removed);
+                busyNanos.add(clock - now);
+                passVisited += count;
+            }
+
+            if (!cursor.hasNext()) {
+                cursor = null;
+                passes.increment();
+                lastPassMillis = TimeUnit.NANOSECONDS.toMillis(clock - passStartNanos);
+                lastPassVisited = passVisited;
+                // Schedule from the pass start so a slow pass does not push every later pass back
+                nextDueNanos = Math.max(passStartNanos + intervalNanos, clock);
+                lagMillis = 0;
+            } else {
+                // Still mid-pass: lag is how far past the point the next pass should have started
+                lagMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(clock - (passStartNanos + intervalNanos)));
+            }
+        }
+
+        /**
+         * Runs the job to completion immediately, ignoring the budget.
+         */
+        private void runFully() {
+            Iterator<E> it = source.get();
+            long count = 0;
+            long removed = 0;
+            while (it.hasNext()) {
+                if (visitor.visit(it.next(), it)) {
+                    removed++;
+                }
+                count++;
+            }
+            visited.add(count);
+            cleaned.add(removed);
+        }
+
+        public String getName() { return name; }
+        public long getVisited() { return visited.sum(); }
+        public long getCleaned() { return cleaned.sum(); }
+        public long getPasses() { return passes.sum(); }
+        public long getBusyMillis() { return TimeUnit.NANOSECONDS.toMillis(busyNanos.sum()); }
+        public long getLastPassMillis() { return lastPassMillis; }
+        public long getLastPassVisited() { return lastPassVisited; }
+        public long getLagMillis() { return lagMillis; }
+        public long getBudgetMicros() { return TimeUnit.NANOSECONDS.toMicros(budgetNanos); }
+    }
+
+    private final PvPCombatPlugin plugin;
+    private final List<Job<?>> jobs;
+    private volatile long defaultBudgetMicros;
+    private BukkitTask task;
+
+    public IncrementalSweeper(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.jobs = new CopyOnWriteArrayList<>();
+        reloadConfiguration();
+    }
+
+    /**
+     * Reloads the default per-job budget. Existing jobs keep their budget.
+     */
+    public void reloadConfiguration() {
+        this.defaultBudgetMicros = Math.max(10, plugin.getConfig().getLong("performance.sweeper.budget-micros", 250));
+    }
+
+    /**
+     * Registers a job with the default budget.
+     *
+     * @param intervalTicks minimum time between the starts of two passes
+     * @param source creates a fresh cursor for each pass; it must tolerate concurrent modification
+     */
+    public <E> Job<E> register(String name, long intervalTicks, Supplier<? extends Iterator<E>> source, Visitor<E> visitor) {
+        return register(name, intervalTicks, defaultBudgetMicros, source, visitor);
+    }
+
+    /**
+     * Registers a job with its own per-tick budget.
+     */
+    public <E> Job<E> register(String name, long intervalTicks, long budgetMicros,
+                               Supplier<? extends Iterator<E>> source, Visitor<E> visitor) {
+        Job<E> job = new Job<>(name, intervalTicks * 50L * 1_000_000L,
+                TimeUnit.MICROSECONDS.toNanos(Math.max(1, budgetMicros)), source, visitor);
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * Registers a job that removes the entries of a concurrent map matching a predicate.
+     */
+    public <K, V> Job<Map.Entry<K, V>> registerMap(String name, long intervalTicks, Map<K, V> map,
+                                                   BiPredicate<K, V> expired) {
+        return register(name, intervalTicks, () -> map.entrySet().iterator(), (entry, cursor) -> {
+            if (expired.test(entry.getKey(), entry.getValue())) {
+                cursor.remove();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Removes a job.
+     */
+    public void unregister(Job<?> job) {
+        jobs.remove(job);
+    }
+
+    /**
+     * Starts driving jobs every tick.
+     */
+    public void start() {
+        if (task == null) {
+            task = AsyncUtils.runSyncTimer(plugin, this, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops driving jobs. Passes in progress resume from their cursor if restarted.
+     */
+    public void stop() {
+        AsyncUtils.cancelTask(task);
+        task = null;
+    }
+
+    @Override
+    public void run() {
+        for (Job<?> job : jobs) {
+            try {
+                job.step(System.nanoTime());
+            } catch (Exception e) {
+                job.cursor = null;
+                plugin.getLogger().warning("Cleanup job '" + job.name + "' failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs every job to completion right away (e.g. for a forced cleanup).
+     */
+    public void runAllNow() {
+        for (Job<?> job : jobs) {
+            job.runFully();
+        }
+    }
+
+    /**
+     * Gets the registered jobs.
+     */
+    public List<Job<?>> getJobs() {
+        return new ArrayList<>(jobs);
+    }
+
+    /**
+     * Gets per-job work and lag figures for monitoring.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Job<?> job : jobs) {
+            String prefix = job.name + ".";
+            stats.put(prefix + "visited", job.getVisited());
+            stats.put(prefix + "cleaned", job.getCleaned());
+            stats.put(prefix + "passes", job.getPasses());
+            stats.put(prefix + "busy-ms", job.getBusyMillis());
+            stats.put(prefix + "last-pass-ms", job.getLastPassMillis());
+            stats.put(prefix + "lag-ms", job.getLagMillis());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,17 @@
+package com.muzlik.pvpcombat.utils;
+
+/**
+ * Follows the keys held by a {@link CacheHandle}, for caches that are evicted by
+ * groups of keys rather than one key at a time.
+ */
+interface KeyTracker<K> {
+
+    /** A key was stored. */
+    void stored(K key);
+
+    /** A key was invalidated, evicted or expired. */
+    void removed(K key);
+
+    /** Every key was invalidated. */
+    void cleared();
+}
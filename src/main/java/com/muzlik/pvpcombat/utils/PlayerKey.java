@@ -0,0 +1,9 @@
+package com.muzlik.pvpcombat.utils;
+
+import java.util.UUID;
+
+/**
+ * Cache key for a player combined with an enum constant, e.g. a restricted action.
+ */
+public record PlayerKey<E extends Enum<E>>(UUID playerId, E kind) {
+}
@@ -0,0 +1,48 @@
+package com.muzlik.pvpcombat.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index from each player to the cached pair keys that involve them, so a player's
+ * entries can be evicted by key instead of scanning the whole cache.
+ */
+final class PlayerPairIndex implements KeyTracker<PlayerPairKey> {
+
+    private final Map<UUID, Set<PlayerPairKey>> byPlayer = new ConcurrentHashMap<>();
+
+    @Override
+    public void stored(PlayerPairKey key) {
+        byPlayer.computeIfAbsent(key.first(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        byPlayer.computeIfAbsent(key.second(), id -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    @Override
+    public void removed(PlayerPairKey key) {
+        removeFrom(key.first(), key);
+        removeFrom(key.second(), key);
+    }
+
+    @Override
+    public void cleared() {
+        byPlayer.clear();
+    }
+
+    /**
+     * Gets a copy of every key involving the player.
+     */
+    Set<PlayerPairKey> keysOf(UUID playerId) {
+        Set<PlayerPairKey> keys = byPlayer.get(playerId);
+        return keys != null ? Set.copyOf(keys) : Collections.emptySet();
+    }
+
+    private void removeFrom(UUID playerId, PlayerPairKey key) {
+        byPlayer.computeIfPresent(playerId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
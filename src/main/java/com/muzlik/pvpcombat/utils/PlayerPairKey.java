@@ -0,0 +1,16 @@
+package com.muzlik.pvpcombat.utils;
+
+import java.util.UUID;
+
+/**
+ * Cache key for an ordered pair of players, e.g. attacker and defender.
+ */
+public record PlayerPairKey(UUID first, UUID second) {
+
+    /**
+     * Checks if either side of the pair is the given player.
+     */
+    public boolean involves(UUID playerId) {
+        return first.equals(playerId) || second.equals(playerId);
+    }
+}
@@ -15,19 +15,58 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages action bar messages with HEX color support and real-time updates.
+ * Formats are rendered from compiled templates, and the outgoing component is
+ * reused for as long as a player's rendered text stays the same.
  */
 public class ActionBarManager {
 
     private final PvPCombatPlugin plugin;
+    private final MessageFormatter formatter;
+    private final VisualStateTracker visualState;
     private final Map<UUID, BukkitRunnable> activeActionBars;
+    private final Map<UUID, BukkitRunnable> sessionTasks;
+    private final Map<UUID, RenderedMessage> lastRendered;
 
-    public ActionBarManager(PvPCombatPlugin plugin) {
+    // Only touched from the update task, which runs on the main thread
+    private final TemplateArgs updateArgs = new TemplateArgs();
+    private final StringBuilder updateBuffer = new StringBuilder(128);
+    // Read by every session task on each run, so a reload takes effect in running fights
+    private volatile MessageTemplate sessionTemplate;
+
+    /**
+     * Last rendered text and the component built from it.
+     */
+    private static final class RenderedMessage {
+        private final String text;
+        private final TextComponent component;
+
+        private RenderedMessage(String text) {
+            this.text = text;
+            this.component = new TextComponent(text);
+        }
+    }
+
+    public ActionBarManager(PvPCombatPlugin plugin, MessageFormatter formatter, VisualStateTracker visualState) {
         this.plugin = plugin;
+        this.formatter = formatter;
+        this.visualState = visualState;
         this.activeActionBars = new ConcurrentHashMap<>();
+        this.sessionTasks = new ConcurrentHashMap<>();
+        this.lastRendered = new ConcurrentHashMap<>();
+        reloadTemplates();
     }
 
     /**
-     * Sends an action bar message to a player.
+     * Recompiles the session action bar format from the current config.
+     */
+    public void reloadTemplates() {
+        sessionTemplate = formatter.getTemplate(plugin.getConfig().getString("visual.actionbar.format",
+            "&cCombat with &f{opponent} &c- &f{time_left}s"));
+    }
+
+    /**
+     * Sends a one-off action bar message to a player. Unlike the session countdown it is
+     * not paced, so it is never dropped.
      */
     public void sendActionBar(Player player, String message) {
         if (player == null || !player.isOnline()) {
@@ -38,14 +77,18 @@ public class ActionBarManager {
             return;
         }
 
-        String formattedMessage = formatMessage(message, player);
-        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(formattedMessage));
+        String formattedMessage = formatter.format(message, player, null);
+        if (!visualState.shouldSendOneOffActionBar(player.getUniqueId(), formattedMessage)) {
+            return;
+        }
+        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, componentFor(player, formattedMessage));
     }
 
     /**
-     * Starts real-time action bar updates for a combat session.
+     * Starts real-time action bar updates for a combat session. One task serves every
+     * participant, including players who join the fight later.
      */
-    public void startActionBarUpdates(String sessionId, Player player1, Player player2) {
+    public void startActionBarUpdates(CombatSession session) {
         if (!plugin.getConfig().getBoolean("visual.actionbar.enabled", true)) {
             return;
         }
@@ -55,25 +98,43 @@ public class ActionBarManager {
         BukkitRunnable task = new BukkitRunnable() {
             @Override
             public void run() {
-                // Check if players are still online and in combat
-                if (player1 == null || player2 == null || 
-                    !player1.isOnline() || !player2.isOnline() ||
-                    !plugin.getCombatManager().isInCombat(player1) ||
-                    !plugin.getCombatManager().isInCombat(player2)) {
+                // Stop once the session has ended or was merged into another
+                if (!session.isActive()) {
                     cancel();
+                    sessionTasks.remove(session.getSessionId(), this);
                     return;
                 }
 
-                String message1 = buildActionBarMessage(player1, player2);
-                String message2 = buildActionBarMessage(player2, player1);
-                sendActionBar(player1, message1);
-                sendActionBar(player2, message2);
+                if (!plugin.getConfig().getBoolean("visual.actionbar.enabled", true)) {
+                    return;
+                }
+
+                MessageTemplate template = sessionTemplate;
+                for (Player participant : session.getParticipants()) {
+                    if (participant.isOnline()) {
+                        sendTemplate(template, participant, session.getOpponent(participant));
+                    }
+                }
             }
         };
 
         task.runTaskTimer(plugin, 0L, updateInterval);
-        activeActionBars.put(player1.getUniqueId(), task);
-        activeActionBars.put(player2.getUniqueId(), task);
+        sessionTasks.put(session.getSessionId(), task);
+        for (Player participant : session.getParticipants()) {
+            activeActionBars.put(participant.getUniqueId(), task);
+        }
+    }
+
+    /**
+     * Adds a player who joined a session to the session's running action bar task.
+     */
+    public void addParticipant(CombatSession session, Player player) {
+        BukkitRunnable task = sessionTasks.get(session.getSessionId());
+        if (task == null) {
+            startActionBarUpdates(session);
+            return;
+        }
+        activeActionBars.put(player.getUniqueId(), task);
     }
 
     /**
@@ -81,9 +142,13 @@ public class ActionBarManager {
      */
     public void clearActionBar(Player player) {
         BukkitRunnable task = activeActionBars.remove(player.getUniqueId());
-        if (task != null) {
+        // Tasks are shared by a session's participants; stop it once nobody uses it
+        if (task != null && !activeActionBars.containsValue(task)) {
             task.cancel();
+            sessionTasks.values().remove(task);
         }
+        lastRendered.remove(player.getUniqueId());
+        visualState.forgetViewer(player.getUniqueId());
         // Send empty message to clear action bar
         player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(""));
     }
@@ -96,45 +161,51 @@ public class ActionBarManager {
             task.cancel();
         }
         activeActionBars.clear();
+        sessionTasks.clear();
+        lastRendered.clear();
     }
 
     /**
-     * Builds the action bar message with opponent and time information.
+     * Renders the action bar for a player into the shared buffer and sends it if the
+     * state tracker lets it through, reusing the previous component when the text did not change.
      */
-    private String buildActionBarMessage(Player player, Player opponent) {
-        String format = plugin.getConfig().getString("visual.actionbar.format",
-            "&cCombat with &f{opponent} &c- &f{time_left}s");
-
-        int timeLeft = getCombatTimeLeft(player);
-
-        Map<String, Object> placeholders = new java.util.HashMap<>();
-        placeholders.put("opponent", opponent != null ? opponent.getName() : "Unknown");
-        placeholders.put("time_left", String.valueOf(timeLeft));
+    private void sendTemplate(MessageTemplate template, Player player, Player opponent) {
+        updateArgs.clear()
+            .set(TemplateArgs.Key.OPPONENT, opponent != null ? opponent.getName() : "Unknown")
+            .set(TemplateArgs.Key.TIME_LEFT, getCombatTimeLeft(player));
+
+        updateBuffer.setLength(0);
+        template.renderInto(updateBuffer, updateArgs, player);
+        if (!visualState.shouldSendActionBar(player.getUniqueId(), updateBuffer)) {
+            return;
+        }
 
-        MessageFormatter formatter = new MessageFormatter(plugin);
-        return formatter.formatMessage(format, player, placeholders);
+        RenderedMessage rendered = lastRendered.get(player.getUniqueId());
+        if (rendered == null || !rendered.text.contentEquals(updateBuffer)) {
+            rendered = new RenderedMessage(updateBuffer.toString());
+            lastRendered.put(player.getUniqueId(), rendered);
+        }
+        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, rendered.component);
     }
 
     /**
-     * Gets remaining combat time for a player.
+     * Gets the component for already formatted text, reusing the cached one if unchanged.
      */
-    private int getCombatTimeLeft(Player player) {
-        CombatManager cm = (CombatManager) plugin.getCombatManager();
-        for (CombatSession session : cm.getActiveSessions().values()) {
-            if (session.getAttacker().getUniqueId().equals(player.getUniqueId()) ||
-                session.getDefender().getUniqueId().equals(player.getUniqueId())) {
-                return session.getRemainingTime();
-            }
+    private TextComponent componentFor(Player player, String text) {
+        RenderedMessage rendered = lastRendered.get(player.getUniqueId());
+        if (rendered == null || !rendered.text.equals(text)) {
+            rendered = new RenderedMessage(text);
+            lastRendered.put(player.getUniqueId(), rendered);
         }
-        return 0;
+        return rendered.component;
     }
 
     /**
-     * Formats message with HEX color support and placeholders using MessageFormatter.
+     * Gets remaining combat time for a player.
      */
-    private String formatMessage(String message, Player player) {
-        MessageFormatter formatter = new MessageFormatter(plugin);
-        return formatter.formatMessage(message, player, new java.util.HashMap<>());
+    private int getCombatTimeLeft(Player player) {
+        CombatSession session = ((CombatManager) plugin.getCombatManager()).getSession(player);
+        return session != null ? session.getRemainingTime() : 0;
     }
 
     /**
@@ -21,9 +21,14 @@ public class BossBarManager {
     private final PvPCombatPlugin plugin;
     private final Map<String, BossBar> activeBossBars;
     private final ThemeManager themeManager;
+    private final MessageFormatter formatter;
+    private final VisualStateTracker visualState;
 
-    public BossBarManager(PvPCombatPlugin plugin, IConfigManager configManager) {
+    public BossBarManager(PvPCombatPlugin plugin, IConfigManager configManager, MessageFormatter formatter,
+                          VisualStateTracker visualState) {
         this.plugin = plugin;
+        this.formatter = formatter;
+        this.visualState = visualState;
         this.activeBossBars = new ConcurrentHashMap<>();
         this.themeManager = new ThemeManager(configManager, plugin.getLogger());
     }
@@ -37,31 +42,40 @@ public class BossBarManager {
 
         BossBar bossBar = createBossBar(session);
         if (bossBar != null) {
-            Player attacker = session.getAttacker();
-            Player defender = session.getDefender();
-
-            bossBar.addPlayer(attacker);
-            bossBar.addPlayer(defender);
+            for (Player participant : session.getParticipants()) {
+                bossBar.addPlayer(participant);
+            }
             activeBossBars.put(sessionId, bossBar);
+            visualState.recordBossBarCreated(sessionId, bossBar.getTitle(), bossBar.getProgress());
         }
     }
 
     /**
-     * Updates the progress of a bossbar.
+     * Shows a session's bossbar to a player who joined the fight.
      */
-    public void updateProgress(String sessionId, double progress) {
+    public void addPlayer(String sessionId, Player player) {
         BossBar bossBar = activeBossBars.get(sessionId);
         if (bossBar != null) {
-            bossBar.setProgress(Math.max(0.0, Math.min(1.0, progress)));
+            bossBar.addPlayer(player);
+        }
+    }
+
+    /**
+     * Updates the progress of a bossbar. Only sends when the visible, quantized value changes.
+     */
+    public void updateProgress(String sessionId, double progress) {
+        BossBar bossBar = activeBossBars.get(sessionId);
+        if (bossBar != null && visualState.shouldSendProgress(sessionId, progress)) {
+            bossBar.setProgress(visualState.quantizedProgress(progress));
         }
     }
 
     /**
-     * Updates bossbar title with current timer.
+     * Updates bossbar title with current timer. Only sends when the title actually changes.
      */
     public void updateTitle(String sessionId, String title) {
         BossBar bossBar = activeBossBars.get(sessionId);
-        if (bossBar != null) {
+        if (bossBar != null && visualState.shouldSendTitle(sessionId, title)) {
             bossBar.setTitle(title);
         }
     }
@@ -84,15 +98,17 @@ public class BossBarManager {
             bossBar.setVisible(false);
             bossBar.removeAll();
         }
+        visualState.forgetBossBar(sessionId);
     }
 
     /**
      * Clears all active bossbars.
      */
     public void clearAllBossBars() {
-        for (BossBar bossBar : activeBossBars.values()) {
-            bossBar.setVisible(false);
-            bossBar.removeAll();
+        for (Map.Entry<String, BossBar> entry : activeBossBars.entrySet()) {
+            entry.getValue().setVisible(false);
+            entry.getValue().removeAll();
+            visualState.forgetBossBar(entry.getKey());
         }
         activeBossBars.clear();
     }
@@ -163,14 +179,13 @@ public class BossBarManager {
             theme = themeManager.getDefaultTheme();
         }
 
-        // Use MessageFormatter for enhanced placeholder replacement
-        MessageFormatter formatter = new MessageFormatter(plugin);
-        java.util.Map<String, Object> placeholders = new java.util.HashMap<>();
-        placeholders.put("time_left", session.getRemainingTime());
-        placeholders.put("opponent", session.getAttacker().getName().equals(session.getDefender().getName()) ?
-            "Unknown" : session.getDefender().getName());
+        // Render the theme's compiled title template
+        TemplateArgs args = new TemplateArgs()
+            .set(TemplateArgs.Key.TIME_LEFT, session.getRemainingTime())
+            .set(TemplateArgs.Key.OPPONENT, session.getAttacker().getName().equals(session.getDefender().getName()) ?
+                "Unknown" : session.getDefender().getName());
 
-        String title = formatter.formatMessage(theme.getBossBarTitle(), session.getAttacker(), placeholders);
+        String title = formatter.format(theme.getBossBarTitle(), session.getAttacker(), args);
 
         BossBar bossBar = Bukkit.createBossBar(
             title,
@@ -2,31 +2,31 @@ package com.muzlik.pvpcombat.visual;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
 import com.muzlik.pvpcombat.data.VisualPreferences;
-import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
-import org.bukkit.entity.LivingEntity;
-import org.bukkit.attribute.Attribute;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Advanced message formatter with HEX color support, placeholders, and theme-based styling.
+ * Formats are compiled into {@link MessageTemplate}s on first use and cached by source string.
  */
 public class MessageFormatter {
 
+    // Upper bound on cached templates; formats come from config so this is rarely reached
+    private static final int MAX_TEMPLATES = 256;
+
+    private static final boolean HEX_SUPPORTED = detectHexSupport();
+
     private final PvPCombatPlugin plugin;
     private final Map<String, MessageStyle> messageStyles;
-
-    // Regex patterns for HEX colors and placeholders
-    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([^}]+)\\}");
+    private final Map<String, MessageTemplate> templates;
 
     public MessageFormatter(PvPCombatPlugin plugin) {
         this.plugin = plugin;
         this.messageStyles = new HashMap<>();
+        this.templates = new ConcurrentHashMap<>();
         loadMessageStyles();
     }
 
@@ -38,16 +38,40 @@ public class MessageFormatter {
             return "";
         }
 
-        // Replace placeholders
-        message = replacePlaceholders(message, player, placeholders);
+        TemplateArgs args = placeholders == null || placeholders.isEmpty()
+            ? null : new TemplateArgs().setAll(placeholders);
+        return getTemplate(message).render(args, player);
+    }
 
-        // Apply HEX colors
-        message = applyHexColors(message);
+    /**
+     * Formats a message using a reusable argument carrier.
+     */
+    public String format(String message, Player player, TemplateArgs args) {
+        if (message == null || message.isEmpty()) {
+            return "";
+        }
+        return getTemplate(message).render(args, player);
+    }
 
-        // Convert legacy color codes
-        message = ChatColor.translateAlternateColorCodes('&', message);
+    /**
+     * Gets the compiled template for a format, compiling it on first use.
+     */
+    public MessageTemplate getTemplate(String format) {
+        MessageTemplate template = templates.get(format);
+        if (template == null) {
+            if (templates.size() >= MAX_TEMPLATES) {
+                templates.clear();
+            }
+            template = templates.computeIfAbsent(format, f -> MessageTemplate.compile(f, HEX_SUPPORTED));
+        }
+        return template;
+    }
 
-        return message;
+    /**
+     * Drops all compiled templates, e.g. after a config reload.
+     */
+    public void clearTemplates() {
+        templates.clear();
     }
 
     /**
@@ -72,91 +96,6 @@ public class MessageFormatter {
         return formatMessage(message, player, placeholders);
     }
 
-    /**
-     * Replaces placeholders in a message.
-     */
-    private String replacePlaceholders(String message, Player player, Map<String, Object> placeholders) {
-        if (placeholders == null) {
-            placeholders = new HashMap<>();
-        }
-
-        // Add default placeholders
-        addDefaultPlaceholders(placeholders, player);
-
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(message);
-        StringBuffer sb = new StringBuffer();
-
-        while (matcher.find()) {
-            String placeholder = matcher.group(1);
-            Object value = placeholders.get(placeholder);
-
-            if (value != null) {
-                matcher.appendReplacement(sb, Matcher.quoteReplacement(value.toString()));
-            } else {
-                // Keep unknown placeholders
-                matcher.appendReplacement(sb, matcher.group(0));
-            }
-        }
-        matcher.appendTail(sb);
-
-        return sb.toString();
-    }
-
-    /**
-     * Adds default placeholders for combat messages.
-     */
-    private void addDefaultPlaceholders(Map<String, Object> placeholders, Player player) {
-        if (player == null) {
-            // Set default values when player is null
-            placeholders.putIfAbsent("player", "Unknown");
-            placeholders.putIfAbsent("display_name", "Unknown");
-            placeholders.putIfAbsent("world", "Unknown");
-            placeholders.putIfAbsent("time_left", "30");
-            placeholders.putIfAbsent("opponent", "Unknown");
-            placeholders.putIfAbsent("health", "0.0");
-            placeholders.putIfAbsent("max_health", "20.0");
-            return;
-        }
-        
-        placeholders.putIfAbsent("player", player.getName());
-        placeholders.putIfAbsent("display_name", player.getDisplayName());
-        placeholders.putIfAbsent("world", player.getWorld().getName());
-        placeholders.putIfAbsent("time_left", "30"); // Default, should be overridden
-        placeholders.putIfAbsent("opponent", "Unknown");
-        placeholders.putIfAbsent("health", String.format("%.1f", player.getHealth()));
-        double maxHealth = ((LivingEntity) player).getAttribute(Attribute.GENERIC_MAX_HEALTH).getValue();
-        placeholders.putIfAbsent("max_health", String.valueOf(maxHealth));
-    }
-
-    /**
-     * Applies HEX color codes to messages.
-     */
-    private String applyHexColors(String message) {
-        if (!plugin.getServer().getVersion().contains("1.16") &&
-            !plugin.getServer().getVersion().contains("1.17") &&
-            !plugin.getServer().getVersion().contains("1.18") &&
-            !plugin.getServer().getVersion().contains("1.19") &&
-            !plugin.getServer().getVersion().contains("1.20")) {
-            // HEX colors not supported in older versions
-            return message;
-        }
-
-        Matcher matcher = HEX_PATTERN.matcher(message);
-        StringBuffer sb = new StringBuffer();
-
-        while (matcher.find()) {
-            String hexColor = matcher.group(1);
-            StringBuilder hexStr = new StringBuilder("&x");
-            for (char c : hexColor.toCharArray()) {
-                hexStr.append('&').append(c);
-            }
-            matcher.appendReplacement(sb, hexStr.toString());
-        }
-        matcher.appendTail(sb);
-
-        return sb.toString();
-    }
-
     /**
      * Loads message styles from configuration.
      */
@@ -193,6 +132,18 @@ public class MessageFormatter {
             "&c[&4RANKED&c] &f", "&r &c[&4FINISHED&c]", true, true));
     }
 
+    /**
+     * HEX colors need the bungee ChatColor.of API, available since 1.16.
+     */
+    private static boolean detectHexSupport() {
+        try {
+            net.md_5.bungee.api.ChatColor.class.getMethod("of", String.class);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     /**
      * MessageStyle class for styling messages.
      */
@@ -0,0 +1,207 @@
+package com.muzlik.pvpcombat.visual;
+
+import org.bukkit.ChatColor;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message format compiled once into literal and placeholder segments.
+ * Legacy and HEX colors in the format are resolved at compile time, so rendering is a
+ * single pass of appends into a reused buffer. Substituted values may carry their own
+ * '&' codes, as they could before templates; those are translated in place, and only
+ * values that contain an '&' pay for it.
+ */
+public final class MessageTemplate {
+
+    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private final String source;
+    // literals[i] precedes placeholder i; the last literal trails the final placeholder
+    private final String[] literals;
+    private final TemplateArgs.Key[] keys;
+    private final String[] names;
+    private final boolean hexSupported;
+
+    private MessageTemplate(String source, String[] literals, TemplateArgs.Key[] keys, String[] names,
+                            boolean hexSupported) {
+        this.source = source;
+        this.literals = literals;
+        this.keys = keys;
+        this.names = names;
+        this.hexSupported = hexSupported;
+    }
+
+    /**
+     * Compiles a raw format string.
+     *
+     * @param source the format with '&' color codes and {placeholder} tokens
+     * @param hexSupported whether &#RRGGBB colors should be resolved
+     */
+    public static MessageTemplate compile(String source, boolean hexSupported) {
+        String colored = source == null ? "" : source;
+        if (hexSupported) {
+            colored = resolveHexColors(colored);
+        }
+        colored = ChatColor.translateAlternateColorCodes('&', colored);
+
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < colored.length()) {
+            char c = colored.charAt(i);
+            int close = c == '{' ? colored.indexOf('}', i + 1) : -1;
+            if (close > i + 1) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                names.add(colored.substring(i + 1, close));
+                i = close + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        TemplateArgs.Key[] keys = new TemplateArgs.Key[names.size()];
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = TemplateArgs.Key.fromPlaceholder(names.get(k));
+        }
+
+        return new MessageTemplate(source, literals.toArray(new String[0]), keys, names.toArray(new String[0]),
+            hexSupported);
+    }
+
+    /**
+     * Renders into the given buffer. Placeholders missing from {@code args} fall back to
+     * values derived from {@code player}; unknown placeholders are kept verbatim.
+     * Color codes in substituted values are translated.
+     */
+    public void renderInto(StringBuilder out, TemplateArgs args, Player player) {
+        for (int i = 0; i < keys.length; i++) {
+            out.append(literals[i]);
+            int valueStart = out.length();
+            TemplateArgs.Key key = keys[i];
+            if (key != null) {
+                if (args == null || !args.appendTo(out, key)) {
+                    appendDefault(out, key, player);
+                }
+            } else if (args == null || !args.appendExtra(out, names[i])) {
+                out.append('{').append(names[i]).append('}');
+            }
+            colorizeValue(out, valueStart);
+        }
+        out.append(literals[keys.length]);
+    }
+
+    /**
+     * Renders to a string using a thread-local buffer.
+     */
+    public String render(TemplateArgs args, Player player) {
+        if (keys.length == 0) {
+            return literals[0];
+        }
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        renderInto(buffer, args, player);
+        return buffer.toString();
+    }
+
+    /**
+     * Checks whether the template references a placeholder slot.
+     */
+    public boolean uses(TemplateArgs.Key key) {
+        for (TemplateArgs.Key k : keys) {
+            if (k == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    private static void appendDefault(StringBuilder out, TemplateArgs.Key key, Player player) {
+        if (player == null) {
+            switch (key) {
+                case TIME_LEFT: out.append("30"); break;
+                case HEALTH: out.append("0.0"); break;
+                case MAX_HEALTH: out.append("20.0"); break;
+                default: out.append("Unknown"); break;
+            }
+            return;
+        }
+
+        switch (key) {
+            case PLAYER:
+                out.append(player.getName());
+                break;
+            case DISPLAY_NAME:
+                out.append(player.getDisplayName());
+                break;
+            case WORLD:
+                out.append(player.getWorld().getName());
+                break;
+            case TIME_LEFT:
+                out.append("30"); // Default, should be overridden
+                break;
+            case OPPONENT:
+                out.append("Unknown");
+                break;
+            case HEALTH:
+                out.append(Math.round(player.getHealth() * 10.0) / 10.0);
+                break;
+            case MAX_HEALTH:
+                AttributeInstance maxHealth = player.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+                out.append(maxHealth != null ? maxHealth.getValue() : 20.0);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Translates color codes in the value appended to {@code out} since {@code start}.
+     */
+    private void colorizeValue(StringBuilder out, int start) {
+        if (out.indexOf("&", start) < 0) {
+            return;
+        }
+        String value = out.substring(start);
+        if (hexSupported) {
+            value = resolveHexColors(value);
+        }
+        out.setLength(start);
+        out.append(ChatColor.translateAlternateColorCodes('&', value));
+    }
+
+    private static String resolveHexColors(String message) {
+        Matcher matcher = HEX_PATTERN.matcher(message);
+        if (!matcher.find()) {
+            return message;
+        }
+
+        StringBuilder sb = new StringBuilder(message.length() + 16);
+        int last = 0;
+        do {
+            sb.append(message, last, matcher.start()).append("&x");
+            String hex = matcher.group(1);
+            for (int i = 0; i < hex.length(); i++) {
+                sb.append('&').append(hex.charAt(i));
+            }
+            last = matcher.end();
+        } while (matcher.find());
+        sb.append(message, last, message.length());
+        return sb.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package com.muzlik.pvpcombat.visual;
 
 import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.performance.LoadGovernor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -201,6 +202,11 @@ public class SafeZoneBarrierRenderer {
                     return;
                 }
 
+                // Skip keep-alive resends while shedding load; the client keeps the last fake blocks
+                if (LoadGovernor.levelOf(plugin).pausesBarrierResends()) {
+                    return;
+                }
+
                 // Re-send barrier packets to keep them visible (prevents despawn)
                 if (protocolLibAvailable) {
                     sendFakeBlocksProtocolLib(player, barriers, barrierMaterial);
@@ -0,0 +1,161 @@
+package com.muzlik.pvpcombat.visual;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reusable argument carrier for {@link MessageTemplate} rendering.
+ * Well-known placeholders live in fixed slots so callers on hot paths can fill
+ * and reuse a single instance instead of allocating a placeholder map per message.
+ */
+public final class TemplateArgs {
+
+    /**
+     * Placeholders with dedicated slots.
+     */
+    public enum Key {
+        PLAYER("player"),
+        DISPLAY_NAME("display_name"),
+        WORLD("world"),
+        TIME_LEFT("time_left"),
+        OPPONENT("opponent"),
+        HEALTH("health"),
+        MAX_HEALTH("max_health");
+
+        private static final Map<String, Key> BY_NAME = new HashMap<>();
+
+        static {
+            for (Key key : values()) {
+                BY_NAME.put(key.placeholder, key);
+            }
+        }
+
+        private final String placeholder;
+
+        Key(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        public String getPlaceholder() { return placeholder; }
+
+        /**
+         * Resolves a key from its placeholder name.
+         *
+         * @return the key, or null if the placeholder has no dedicated slot
+         */
+        public static Key fromPlaceholder(String placeholder) {
+            return BY_NAME.get(placeholder);
+        }
+    }
+
+    private static final int SLOT_COUNT = Key.values().length;
+
+    private final String[] text = new String[SLOT_COUNT];
+    private final long[] numbers = new long[SLOT_COUNT];
+    private final boolean[] numeric = new boolean[SLOT_COUNT];
+    private final boolean[] present = new boolean[SLOT_COUNT];
+    private Map<String, Object> extra;
+
+    /**
+     * Sets a text value.
+     */
+    public TemplateArgs set(Key key, String value) {
+        int slot = key.ordinal();
+        text[slot] = value;
+        numeric[slot] = false;
+        present[slot] = value != null;
+        return this;
+    }
+
+    /**
+     * Sets a numeric value without boxing or string conversion.
+     */
+    public TemplateArgs set(Key key, long value) {
+        int slot = key.ordinal();
+        numbers[slot] = value;
+        numeric[slot] = true;
+        present[slot] = true;
+        return this;
+    }
+
+    /**
+     * Sets a value by placeholder name, using a dedicated slot when one exists.
+     */
+    public TemplateArgs set(String placeholder, Object value) {
+        Key key = Key.fromPlaceholder(placeholder);
+        if (key != null) {
+            if (value instanceof Integer || value instanceof Long) {
+                return set(key, ((Number) value).longValue());
+            }
+            return set(key, value != null ? value.toString() : null);
+        }
+        if (extra == null) {
+            extra = new HashMap<>();
+        }
+        extra.put(placeholder, value);
+        return this;
+    }
+
+    /**
+     * Copies every entry of a placeholder map.
+     */
+    public TemplateArgs setAll(Map<String, Object> placeholders) {
+        if (placeholders != null) {
+            placeholders.forEach(this::set);
+        }
+        return this;
+    }
+
+    /**
+     * Resets all values so the carrier can be reused.
+     */
+    public TemplateArgs clear() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            text[i] = null;
+            present[i] = false;
+        }
+        if (extra != null) {
+            extra.clear();
+        }
+        return this;
+    }
+
+    public boolean isSet(Key key) {
+        return present[key.ordinal()];
+    }
+
+    /**
+     * Appends a slot value.
+     *
+     * @return false if the slot is empty
+     */
+    boolean appendTo(StringBuilder out, Key key) {
+        int slot = key.ordinal();
+        if (!present[slot]) {
+            return false;
+        }
+        if (numeric[slot]) {
+            out.append(numbers[slot]);
+        } else {
+            out.append(text[slot]);
+        }
+        return true;
+    }
+
+    /**
+     * Appends a free-form placeholder value.
+     *
+     * @return false if no value is set
+     */
+    boolean appendExtra(StringBuilder out, String placeholder) {
+        if (extra == null) {
+            return false;
+        }
+        Object value = extra.get(placeholder);
+        if (value == null) {
+            return false;
+        }
+        out.append(value);
+        return true;
+    }
+}
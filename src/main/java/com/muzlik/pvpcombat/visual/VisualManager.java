@@ -17,14 +17,20 @@ public class VisualManager implements IVisualManager {
     private final ActionBarManager actionBarManager;
     private final SoundManager soundManager;
     private final ThemeManager themeManager;
-    private volatile MessageFormatter messageFormatter;
+    private final MessageFormatter messageFormatter;
+    private final VisualStateTracker visualStateTracker;
+    // Rendered by every session timer each second
+    private volatile MessageTemplate bossBarTitleTemplate;
 
     public VisualManager(PvPCombatPlugin plugin, IConfigManager configManager) {
         this.plugin = plugin;
-        this.bossBarManager = new BossBarManager(plugin, configManager);
-        this.actionBarManager = new ActionBarManager(plugin);
+        this.messageFormatter = new MessageFormatter(plugin);
+        this.visualStateTracker = new VisualStateTracker(plugin);
+        this.bossBarManager = new BossBarManager(plugin, configManager, messageFormatter, visualStateTracker);
+        this.actionBarManager = new ActionBarManager(plugin, messageFormatter, visualStateTracker);
         this.soundManager = new SoundManager(plugin);
         this.themeManager = new ThemeManager(configManager, plugin.getLogger());
+        this.bossBarTitleTemplate = compileBossBarTitle();
     }
 
     @Override
@@ -89,33 +95,56 @@ public class VisualManager implements IVisualManager {
     }
 
     /**
-      * Gets the message formatter for advanced message processing.
-      */
-     public MessageFormatter getMessageFormatter() {
-         // Lazy initialization for thread safety
-         if (messageFormatter == null) {
-             synchronized (this) {
-                 if (messageFormatter == null) {
-                     messageFormatter = new MessageFormatter(plugin);
-                 }
-             }
-         }
-         return messageFormatter;
-     }
+     * Gets the shared message formatter and its compiled template cache.
+     */
+    public MessageFormatter getMessageFormatter() {
+        return messageFormatter;
+    }
+
+    /**
+     * Gets the tracker of last-sent visual state and packet counts.
+     */
+    public VisualStateTracker getVisualStateTracker() {
+        return visualStateTracker;
+    }
 
     /**
      * Initializes all visual managers.
      */
     public void initialize() {
         themeManager.loadThemes();
+        reloadTemplates();
+        visualStateTracker.reloadConfiguration();
         // SoundManager loads profiles automatically in constructor
     }
 
+    /**
+     * Drops compiled message templates and recompiles the ones held by running tasks,
+     * so edited formats apply without restarting fights.
+     */
+    public void reloadTemplates() {
+        messageFormatter.clearTemplates();
+        actionBarManager.reloadTemplates();
+        bossBarTitleTemplate = compileBossBarTitle();
+    }
+
+    /**
+     * Gets the compiled combat timer bossbar title.
+     */
+    public MessageTemplate getBossBarTitleTemplate() {
+        return bossBarTitleTemplate;
+    }
+
+    private MessageTemplate compileBossBarTitle() {
+        return messageFormatter.getTemplate(plugin.getConfig().getString("combat.bossbar.title", "&cCombat: &f{time_left}s"));
+    }
+
     /**
      * Shuts down all visual managers.
      */
     public void shutdown() {
         bossBarManager.clearAllBossBars();
         actionBarManager.clearAllActionBars();
+        visualStateTracker.clear();
     }
 }
\ No newline at end of file
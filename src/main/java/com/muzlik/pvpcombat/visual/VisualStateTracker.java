@@ -0,0 +1,250 @@
+package com.muzlik.pvpcombat.visual;
+
+import com.muzlik.pvpcombat.core.PvPCombatPlugin;
+import com.muzlik.pvpcombat.performance.LoadGovernor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the last bossbar title/progress and action bar text sent to each viewer
+ * so callers only emit packets for real changes. Progress is quantized to what the
+ * client can display and packets are paced per target, more slowly while the
+ * {@link LoadGovernor} is shedding load.
+ */
+public class VisualStateTracker {
+
+    /**
+     * Kinds of visual packet tracked.
+     */
+    public enum PacketType {
+        BOSSBAR_TITLE,
+        BOSSBAR_PROGRESS,
+        ACTIONBAR
+    }
+
+    private final PvPCombatPlugin plugin;
+    private final Map<String, BarState> bossBars;
+    private final Map<UUID, ActionBarState> actionBars;
+    private final LongAdder[] sent;
+    private final LongAdder[] suppressed;
+
+    private volatile int progressSteps;
+    private volatile long minIntervalMillis;
+    private volatile long actionBarKeepAliveMillis;
+
+    /**
+     * Last bossbar state shared by all viewers of one bar.
+     */
+    private static final class BarState {
+        private String title;
+        private int progressStep = -1;
+        private long lastTitleSent;
+        private long lastProgressSent;
+    }
+
+    /**
+     * Last action bar state for one viewer.
+     */
+    private static final class ActionBarState {
+        private String text;
+        private long lastSent;
+    }
+
+    public VisualStateTracker(PvPCombatPlugin plugin) {
+        this.plugin = plugin;
+        this.bossBars = new ConcurrentHashMap<>();
+        this.actionBars = new ConcurrentHashMap<>();
+        int types = PacketType.values().length;
+        this.sent = new LongAdder[types];
+        this.suppressed = new LongAdder[types];
+        for (int i = 0; i < types; i++) {
+            sent[i] = new LongAdder();
+            suppressed[i] = new LongAdder();
+        }
+        reloadConfiguration();
+    }
+
+    /**
+     * Reloads update settings from config.
+     */
+    public void reloadConfiguration() {
+        // The client draws the bar 182 pixels wide, so finer progress steps are invisible
+        this.progressSteps = Math.max(1, plugin.getConfig().getInt("visual.updates.progress-steps", 182));
+        this.minIntervalMillis = Math.max(0, plugin.getConfig().getLong("visual.updates.min-interval-ms", 100));
+        this.actionBarKeepAliveMillis = Math.max(0, plugin.getConfig().getLong("visual.updates.actionbar-keepalive-ms", 2000));
+    }
+
+    /**
+     * Decides whether a bossbar title update should be sent and records it if so.
+     */
+    public boolean shouldSendTitle(String barId, String title) {
+        BarState state = bossBars.computeIfAbsent(barId, id -> new BarState());
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            if (title.equals(state.title) || now - state.lastTitleSent < minInterval()) {
+                return suppress(PacketType.BOSSBAR_TITLE);
+            }
+            state.title = title;
+            state.lastTitleSent = now;
+        }
+        return send(PacketType.BOSSBAR_TITLE);
+    }
+
+    /**
+     * Decides whether a bossbar progress update should be sent and records it if so.
+     */
+    public boolean shouldSendProgress(String barId, double progress) {
+        BarState state = bossBars.computeIfAbsent(barId, id -> new BarState());
+        int step = quantize(progress);
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            // Always let the bar reach its end states, even inside the pacing window
+            boolean terminal = step == 0 || step == progressSteps;
+            if (step == state.progressStep || (!terminal && now - state.lastProgressSent < minInterval())) {
+                return suppress(PacketType.BOSSBAR_PROGRESS);
+            }
+            state.progressStep = step;
+            state.lastProgressSent = now;
+        }
+        return send(PacketType.BOSSBAR_PROGRESS);
+    }
+
+    /**
+     * Gets the progress value a quantized step maps back to.
+     */
+    public double quantizedProgress(double progress) {
+        return (double) quantize(progress) / progressSteps;
+    }
+
+    /**
+     * Records the initial state of a freshly created bossbar, which is sent with the bar itself.
+     */
+    public void recordBossBarCreated(String barId, String title, double progress) {
+        BarState state = bossBars.computeIfAbsent(barId, id -> new BarState());
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            state.title = title;
+            state.progressStep = quantize(progress);
+            state.lastTitleSent = now;
+            state.lastProgressSent = now;
+        }
+    }
+
+    /**
+     * Decides whether an action bar should be sent to a viewer and records it if so.
+     * Unchanged text is resent only after the keep-alive interval so it does not fade.
+     */
+    public boolean shouldSendActionBar(UUID viewerId, CharSequence text) {
+        ActionBarState state = actionBars.computeIfAbsent(viewerId, id -> new ActionBarState());
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            long sinceLast = now - state.lastSent;
+            boolean unchanged = state.text != null && state.text.contentEquals(text);
+            if (sinceLast < minInterval() || (unchanged && sinceLast < actionBarKeepAliveMillis)) {
+                return suppress(PacketType.ACTIONBAR);
+            }
+            if (!unchanged) {
+                state.text = text.toString();
+            }
+            state.lastSent = now;
+        }
+        return send(PacketType.ACTIONBAR);
+    }
+
+    /**
+     * Decides whether a one-off action bar, such as a warning, should be sent. These are not
+     * paced, since dropping one loses it for good; only a repeat of text that is still on
+     * screen is suppressed. Periodic updates to the viewer are paced from it, so the next
+     * countdown frame does not replace it at once.
+     */
+    public boolean shouldSendOneOffActionBar(UUID viewerId, String text) {
+        ActionBarState state = actionBars.computeIfAbsent(viewerId, id -> new ActionBarState());
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            if (text.equals(state.text) && now - state.lastSent < minInterval()) {
+                return suppress(PacketType.ACTIONBAR);
+            }
+            state.text = text;
+            state.lastSent = now;
+        }
+        return send(PacketType.ACTIONBAR);
+    }
+
+    /**
+     * Forgets a bossbar's state.
+     */
+    public void forgetBossBar(String barId) {
+        bossBars.remove(barId);
+    }
+
+    /**
+     * Forgets a viewer's action bar state.
+     */
+    public void forgetViewer(UUID viewerId) {
+        actionBars.remove(viewerId);
+    }
+
+    /**
+     * Forgets all tracked state.
+     */
+    public void clear() {
+        bossBars.clear();
+        actionBars.clear();
+    }
+
+    public long getSent(PacketType type) {
+        return sent[type.ordinal()].sum();
+    }
+
+    public long getSuppressed(PacketType type) {
+        return suppressed[type.ordinal()].sum();
+    }
+
+    /**
+     * Gets sent/suppressed packet counts per type for monitoring.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long totalSent = 0;
+        long totalSuppressed = 0;
+        for (PacketType type : PacketType.values()) {
+            long s = getSent(type);
+            long x = getSuppressed(type);
+            stats.put(type.name().toLowerCase() + ".sent", s);
+            stats.put(type.name().toLowerCase() + ".suppressed", x);
+            totalSent += s;
+            totalSuppressed += x;
+        }
+        stats.put("total.sent", totalSent);
+        stats.put("total.suppressed", totalSuppressed);
+        stats.put("tracked.bossbars", bossBars.size());
+        stats.put("tracked.viewers", actionBars.size());
+        return stats;
+    }
+
+    /**
+     * Gets the pacing interval, widened by the current load level.
+     */
+    private long minInterval() {
+        return Math.max(minIntervalMillis, LoadGovernor.levelOf(plugin).getVisualIntervalMillis());
+    }
+
+    private int quantize(double progress) {
+        double clamped = Math.max(0.0, Math.min(1.0, progress));
+        return (int) Math.round(clamped * progressSteps);
+    }
+
+    private boolean send(PacketType type) {
+        sent[type.ordinal()].increment();
+        return true;
+    }
+
+    private boolean suppress(PacketType type) {
+        suppressed[type.ordinal()].increment();
+        return false;
+    }
+}
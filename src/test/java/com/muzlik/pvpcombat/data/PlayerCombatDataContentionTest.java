@@ -0,0 +1,122 @@
+package com.muzlik.pvpcombat.data;
+
+import org.bukkit.Material;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Hammers one player's combat data from many threads, with the statistics store merging
+ * its stored counters in the middle of it, and checks that no update is lost.
+ */
+class PlayerCombatDataContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 100_000;
+
+    @TempDir
+    Path dataFolder;
+
+    @Test
+    void concurrentUpdatesAndMergeAreNeverLost() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        PlayerStatsStore store = new PlayerStatsStore(plugin(dataFolder));
+        PlayerCombatData stored = new PlayerCombatData(playerId);
+        stored.markSeeded();
+        stored.addWins(7);
+        stored.addLosses(3);
+        stored.addCombats(10);
+        stored.addCombatTime(5_000L);
+        stored.addDamageDealt(120.0);
+        stored.addDamageReceived(80.0);
+        store.update(playerId, "stored", stored);
+
+        PlayerCombatData data = new PlayerCombatData(playerId);
+        CombatEvent hit = new CombatEvent(null, playerId, "hit") {};
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        data.incrementWins();
+                        data.incrementLosses();
+                        data.incrementCombats();
+                        data.addCombatTime(2L);
+                        data.addDamageDealt(0.5);
+                        data.addDamageReceived(0.25);
+                        data.incrementWeaponUsage(Material.DIAMOND_SWORD);
+                        data.addEvent(hit);
+                        if (i == ITERATIONS / 2) {
+                            store.merge(data);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Copies the counters back while they change, as the periodic save does
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    store.update(playerId, null, data);
+                }
+                return null;
+            }));
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long hits = (long) THREADS * ITERATIONS;
+        assertEquals(hits + 7, data.getWins());
+        assertEquals(hits + 3, data.getLosses());
+        assertEquals(hits + 10, data.getTotalCombats());
+        assertEquals(hits * 2 + 5_000L, data.getTotalCombatTime());
+        assertEquals(hits * 0.5 + 120.0, data.getTotalDamageDealt(), 1e-6);
+        assertEquals(hits * 0.25 + 80.0, data.getTotalDamageReceived(), 1e-6);
+        assertEquals(hits, data.getWeaponUsage(Material.DIAMOND_SWORD));
+        assertEquals(hits, data.getTotalEventCount());
+        assertEquals(PlayerCombatData.EVENT_CAPACITY, data.getEvents().size());
+
+        // Merged exactly once, however many threads tried
+        assertFalse(store.merge(data));
+        store.update(playerId, null, data);
+        assertEquals(hits + 7, store.getRecords().get(playerId).getWins());
+    }
+
+    private static Plugin plugin(Path dataFolder) {
+        Logger logger = Logger.getLogger("PlayerCombatDataContentionTest");
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getDataFolder":
+                        return dataFolder.toFile();
+                    case "getLogger":
+                        return logger;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}